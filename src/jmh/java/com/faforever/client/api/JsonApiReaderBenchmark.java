@@ -0,0 +1,144 @@
+package com.faforever.client.api;
+
+import com.faforever.client.config.JsonApiConfig;
+import com.faforever.commons.api.dto.LeaderboardEntry;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deserialization of leaderboard pages as they are returned by the API, split into network sized chunks. The
+ * streaming reader is compared with converting the whole document at once, as the reader used to do. Run with
+ * {@code ./gradlew jmh -PjmhIncludes=JsonApiReaderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonApiReaderBenchmark {
+
+  private static final int CHUNK_SIZE = 8 * 1024;
+  private static final ResolvableType ELEMENT_TYPE = ResolvableType.forClass(LeaderboardEntry.class);
+
+  @Param({"100", "1000", "10000"})
+  private int pageSize;
+
+  /**
+   * Whether the players are requested as included resources. Without them, batches are emitted as soon as they are
+   * complete instead of after the included resources have been read.
+   */
+  @Param({"true", "false"})
+  private boolean includes;
+
+  private final DefaultDataBufferFactory dataBufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+  private ResourceConverter resourceConverter;
+  private JsonApiReader jsonApiReader;
+  private List<byte[]> chunks;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                                                  .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    resourceConverter = new JsonApiConfig().resourceConverter(objectMapper);
+    jsonApiReader = new JsonApiReader(resourceConverter);
+
+    byte[] document = createLeaderboardPage(pageSize, includes).getBytes(StandardCharsets.UTF_8);
+    chunks = new ArrayList<>();
+    for (int offset = 0; offset < document.length; offset += CHUNK_SIZE) {
+      byte[] chunk = new byte[Math.min(CHUNK_SIZE, document.length - offset)];
+      System.arraycopy(document, offset, chunk, 0, chunk.length);
+      chunks.add(chunk);
+    }
+  }
+
+  private static String createLeaderboardPage(int numberOfEntries, boolean includes) {
+    StringBuilder data = new StringBuilder();
+    StringBuilder included = new StringBuilder();
+    for (int i = 1; i <= numberOfEntries; i++) {
+      if (i > 1) {
+        data.append(',');
+        included.append(',');
+      }
+      data.append("""
+          {"type":"leaderboardRating","id":"%d","attributes":{"mean":1500.0,"deviation":75.5,"rating":1273.5,\
+          "totalGames":%d,"wonGames":%d,"updateTime":"2024-01-01T12:00:00Z"},\
+          "relationships":{"player":{"data":{"type":"player","id":"%d"}},\
+          "leaderboard":{"data":{"type":"leaderboard","id":"1"}}}}""".formatted(i, i, i / 2, i));
+      included.append("""
+          {"type":"player","id":"%d","attributes":{"login":"player%d","createTime":"2020-01-01T12:00:00Z"}}"""
+                          .formatted(i, i));
+    }
+    included.append("""
+        ,{"type":"leaderboard","id":"1","attributes":{"technicalName":"ladder_1v1","nameKey":"leaderboard.ladder_1v1"}}""");
+    if (!includes) {
+      return """
+          {"data":[%s],"meta":{"page":{"number":1,"totalPages":1,"totalRecords":%d}}}"""
+          .formatted(data, numberOfEntries);
+    }
+    return """
+        {"data":[%s],"included":[%s],"meta":{"page":{"number":1,"totalPages":1,"totalRecords":%d}}}"""
+        .formatted(data, included, numberOfEntries);
+  }
+
+  private MockClientHttpResponse createResponse() {
+    MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+    response.getHeaders().setContentType(MediaType.parseMediaType("application/vnd.api+json;charset=utf-8"));
+    Flux<DataBuffer> body = Flux.fromIterable(chunks).map(dataBufferFactory::wrap);
+    response.setBody(body);
+    return response;
+  }
+
+  private Flux<Object> readStream() {
+    String uri = includes ? "/data/leaderboardRating?include=player" : "/data/leaderboardRating";
+    return jsonApiReader.read(ELEMENT_TYPE, createResponse(), Map.of())
+                        .contextWrite(JsonApiReader.includesRequested(uri));
+  }
+
+  @Benchmark
+  public List<Object> read() {
+    return readStream().collectList().block();
+  }
+
+  @Benchmark
+  public Object readFirst() {
+    return readStream().blockFirst();
+  }
+
+  @Benchmark
+  public List<Object> readWholeDocument() {
+    return DataBufferUtils.join(createResponse().getBody())
+                          .map(dataBuffer -> resourceConverter.readDocumentCollection(dataBuffer.asInputStream(true),
+                                                                                      Object.class).get())
+                          .block();
+  }
+}
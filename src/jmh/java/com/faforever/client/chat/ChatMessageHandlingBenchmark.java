@@ -0,0 +1,154 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.audio.AudioService;
+import com.faforever.client.chat.emoticons.EmoticonService;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.navigation.NavigationHandler;
+import com.faforever.client.notification.NotificationService;
+import com.faforever.client.player.PlayerService;
+import com.faforever.client.preferences.ChatPrefs;
+import com.faforever.client.preferences.NotificationPrefs;
+import com.faforever.client.remote.FafServerAccessor;
+import com.faforever.client.ui.tray.TrayIconManager;
+import com.faforever.client.user.LoginService;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.Client.Builder.Server.SecurityType;
+import org.kitteh.irc.client.library.defaults.element.DefaultServerMessage.StringCommand;
+import org.kitteh.irc.client.library.defaults.element.messagetag.DefaultMessageTagMsgId;
+import org.kitteh.irc.client.library.defaults.element.messagetag.DefaultMessageTagTime;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.event.channel.ChannelMessageEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures handling of incoming channel messages in a busy channel, from the IRC event to the message being stored in
+ * the {@link ChatChannel}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatMessageHandlingBenchmark {
+
+  private static final String CHANNEL_NAME = "#aeolus";
+  private static final String OWN_USERNAME = "junit";
+  private static final int MESSAGES_PER_INVOCATION = 1000;
+  private static final int NUMBER_OF_SENDERS = 200;
+
+  @Param({"500", "10000"})
+  private int maxMessages;
+
+  private final ChatPrefs chatPrefs = new ChatPrefs();
+
+  private KittehChatService instance;
+  private Client.WithManagement client;
+  private Channel channel;
+  private List<User> senders;
+  private List<ChannelMessageEvent> events;
+  private int messageCounter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    LoginService loginService = mock(LoginService.class);
+    PlayerService playerService = mock(PlayerService.class);
+    FxApplicationThreadExecutor fxApplicationThreadExecutor = mock(FxApplicationThreadExecutor.class);
+
+    when(loginService.getUsername()).thenReturn(OWN_USERNAME);
+    when(playerService.getPlayerByNameIfOnline(any())).thenReturn(Optional.empty());
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(fxApplicationThreadExecutor).execute(any());
+
+    chatPrefs.setMaxMessages(maxMessages);
+
+    instance = new KittehChatService(loginService, mock(FafServerAccessor.class), new ClientProperties(),
+                                     playerService, chatPrefs, fxApplicationThreadExecutor,
+                                     mock(TrayIconManager.class), new NotificationPrefs(), mock(AudioService.class),
+                                     mock(NotificationService.class), mock(EmoticonService.class),
+                                     mock(NavigationHandler.class), mock(TaskScheduler.class),
+                                     mock(ChatHistory.class), () -> null);
+
+    client = Client.builder()
+                   .user(OWN_USERNAME)
+                   .realName(OWN_USERNAME)
+                   .nick(OWN_USERNAME)
+                   .server()
+                   .host("127.0.0.1")
+                   .port(6697, SecurityType.SECURE)
+                   .then()
+                   .build();
+    instance.client = (Client.WithManagement) client;
+
+    channel = mock(Channel.class);
+    when(channel.getClient()).thenReturn(client);
+    when(channel.getName()).thenReturn(CHANNEL_NAME);
+    when(channel.getMessagingName()).thenReturn(CHANNEL_NAME);
+
+    senders = new ArrayList<>(NUMBER_OF_SENDERS);
+    for (int i = 0; i < NUMBER_OF_SENDERS; i++) {
+      User user = mock(User.class);
+      when(user.getClient()).thenReturn(client);
+      when(user.getNick()).thenReturn("user" + i);
+      senders.add(user);
+    }
+
+    instance.getOrCreateChannel(CHANNEL_NAME);
+  }
+
+  @Setup(Level.Iteration)
+  public void createEvents() {
+    // Events are recreated every iteration so they are never considered stale
+    events = new ArrayList<>(MESSAGES_PER_INVOCATION);
+    for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+      DefaultMessageTagMsgId msgid = DefaultMessageTagMsgId.FUNCTION.apply(client, "msgid",
+                                                                           String.valueOf(messageCounter++));
+      DefaultMessageTagTime time = DefaultMessageTagTime.FUNCTION.apply(client, "time", Instant.now().toString());
+      User sender = senders.get(i % NUMBER_OF_SENDERS);
+      String text = i % 10 == 0 ? "hey " + OWN_USERNAME + " check https://faforever.com :)" : "gg wp, rematch? " + i;
+      events.add(new ChannelMessageEvent(client, new StringCommand("", "", List.of(msgid, time)), sender, channel,
+                                         text));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.shutdown();
+  }
+
+  @Benchmark
+  public ChatChannel handleMessages() {
+    for (ChannelMessageEvent event : events) {
+      instance.onMessage(event);
+    }
+    return instance.getOrCreateChannel(CHANNEL_NAME);
+  }
+}
@@ -0,0 +1,81 @@
+package com.faforever.client.chat.emoticons;
+
+import com.faforever.client.svg.SvgImageLoaderFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.Base64.Decoder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what emoticons cost on startup. Eager loading rasterizes every emoticon while loading, as the client did
+ * before. Lazy loading only indexes the shortcodes and rasterizes the few emoticons of a chat message at the size they
+ * are shown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class EmoticonLoadingBenchmark {
+
+  private static final int EMOTICONS_SHOWN = 5;
+  private static final int EMOTICON_SIZE = 24;
+
+  @Param({"eager", "lazy"})
+  private String loading;
+
+  private final Decoder decoder = Base64.getDecoder();
+  private EmoticonService emoticonService;
+
+  @Setup(Level.Trial)
+  public void startToolkit() {
+    try {
+      Platform.startup(() -> {});
+    } catch (IllegalStateException e) {
+      // Already started
+    }
+    SvgImageLoaderFactory.install();
+  }
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    emoticonService = new EmoticonService(new ObjectMapper());
+  }
+
+  @Benchmark
+  public void loadEmoticons(Blackhole blackhole) {
+    emoticonService.loadAndVerifyEmoticons();
+    switch (loading) {
+      case "eager" -> emoticonService.getEmoticonsGroups()
+                                     .stream()
+                                     .flatMap(emoticonsGroup -> emoticonsGroup.emoticons().stream())
+                                     .forEach(emoticon -> blackhole.consume(new Image(
+                                         new ByteArrayInputStream(decoder.decode(emoticon.base64SvgContent())))));
+      case "lazy" -> emoticonService.getEmoticonsGroups()
+                                    .stream()
+                                    .flatMap(emoticonsGroup -> emoticonsGroup.emoticons().stream())
+                                    .limit(EMOTICONS_SHOWN)
+                                    .forEach(emoticon -> blackhole.consume(emoticonService.getImageByShortcode(
+                                        emoticon.shortcodes().getFirst(), EMOTICON_SIZE)));
+      default -> throw new IllegalArgumentException("Unknown loading: " + loading);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.faforever.client.fx;
+
+import javafx.beans.Observable;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import javafx.collections.transformation.FilteredList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the churn of a lobby sized map that is mirrored into an observable list, like the games of the
+ * {@link com.faforever.client.game.GameService} or the users of a {@link com.faforever.client.chat.ChatChannel}:
+ * entries are removed at random and new ones are added, with a filtered view attached as in the UI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapBackedListBenchmark {
+
+  private static final int CHANGES_PER_INVOCATION = 1000;
+
+  @Param({"2000", "5000"})
+  private int numberOfEntries;
+
+  @Param({"arrayList", "indexed"})
+  private String listType;
+
+  private ObservableMap<Integer, StringProperty> map;
+  private ObservableList<StringProperty> list;
+  private FilteredList<StringProperty> filteredList;
+  private SplittableRandom random;
+  private int[] keys;
+  private int nextKey;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    map = FXCollections.synchronizedObservableMap(FXCollections.observableHashMap());
+    list = switch (listType) {
+      case "arrayList" -> JavaFxUtil.attachListToMap(FXCollections.synchronizedObservableList(
+          FXCollections.observableArrayList(item -> new Observable[]{item})), map);
+      case "indexed" -> JavaFxUtil.attachIndexedListToMap(map, item -> new Observable[]{item});
+      default -> throw new IllegalArgumentException("Unknown list type: " + listType);
+    };
+    filteredList = new FilteredList<>(list, item -> !item.get().isEmpty());
+    random = new SplittableRandom(42);
+    keys = new int[numberOfEntries];
+
+    for (nextKey = 0; nextKey < numberOfEntries; nextKey++) {
+      keys[nextKey] = nextKey;
+      map.put(nextKey, new SimpleStringProperty("entry" + nextKey));
+    }
+  }
+
+  @Benchmark
+  public int churn() {
+    for (int i = 0; i < CHANGES_PER_INVOCATION; i++) {
+      int slot = random.nextInt(numberOfEntries);
+      map.remove(keys[slot]);
+      keys[slot] = nextKey;
+      map.put(nextKey, new SimpleStringProperty("entry" + nextKey));
+      nextKey++;
+    }
+    return filteredList.size();
+  }
+}
@@ -0,0 +1,96 @@
+package com.faforever.client.game;
+
+import com.faforever.client.builders.GameInfoMessageBuilder;
+import com.faforever.client.domain.server.GameInfo;
+import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.mapstruct.GameMapper;
+import com.faforever.client.mapstruct.MapperSetup;
+import com.faforever.client.mapstruct.PlayerMapper;
+import com.faforever.commons.lobby.GameInfo.TeamIds;
+import com.faforever.commons.lobby.Player;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures applying a burst of lobby messages, like the initial dump the server sends after login, to the domain
+ * beans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LobbyMessageMapperBenchmark {
+
+  @Param({"200", "5000"})
+  private int burstSize;
+
+  private GameMapper gameMapper;
+  private PlayerMapper playerMapper;
+
+  private List<com.faforever.commons.lobby.GameInfo> gameMessages;
+  private List<GameInfo> games;
+  private List<Player> playerMessages;
+  private List<PlayerInfo> players;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    gameMapper = Mappers.getMapper(GameMapper.class);
+    playerMapper = Mappers.getMapper(PlayerMapper.class);
+    MapperSetup.injectMappers(gameMapper);
+    MapperSetup.injectMappers(playerMapper);
+
+    int numberOfGames = Math.max(1, burstSize / 10);
+    gameMessages = new ArrayList<>(numberOfGames);
+    games = new ArrayList<>(numberOfGames);
+    for (int i = 0; i < numberOfGames; i++) {
+      List<TeamIds> teamIds = List.of(new TeamIds(1, List.of(i * 8, i * 8 + 1, i * 8 + 2, i * 8 + 3)),
+                                      new TeamIds(2, List.of(i * 8 + 4, i * 8 + 5, i * 8 + 6, i * 8 + 7)));
+      gameMessages.add(GameInfoMessageBuilder.create(i).defaultValues().teamIds(teamIds).get());
+      GameInfo game = new GameInfo();
+      game.setId(i);
+      games.add(game);
+    }
+
+    playerMessages = new ArrayList<>(burstSize);
+    players = new ArrayList<>(burstSize);
+    for (int i = 0; i < burstSize; i++) {
+      playerMessages.add(new Player(i, "player" + i, null, null, "", new HashMap<>(), new HashMap<>(), null));
+      PlayerInfo player = new PlayerInfo();
+      player.setId(i);
+      players.add(player);
+    }
+  }
+
+  @Benchmark
+  public void updateGames(Blackhole blackhole) {
+    for (int i = 0; i < gameMessages.size(); i++) {
+      blackhole.consume(gameMapper.update(gameMessages.get(i), games.get(i)));
+    }
+  }
+
+  @Benchmark
+  public void updatePlayers(Blackhole blackhole) {
+    for (int i = 0; i < playerMessages.size(); i++) {
+      blackhole.consume(playerMapper.update(playerMessages.get(i), players.get(i)));
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.faforever.client.map;
+
+import com.faforever.client.domain.api.MapVersion;
+import com.faforever.client.util.LuaUtil;
+import org.luaj.vm2.LuaValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures reading installed maps, both a single scenario file and a folder of maps as scanned on startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapReadBenchmark {
+
+  private static final List<String> MAP_FOLDERS = List.of("SCMP_001", "palaneum.v0001", "palaneum.v0002");
+
+  @Param({"50", "500"})
+  private int numberOfMaps;
+
+  private Path mapsDirectory;
+  private Path scenarioFile;
+  private List<Path> mapFolders;
+  private MapService mapService;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    // readMap does not touch any of the service's dependencies
+    mapService = mock(MapService.class, CALLS_REAL_METHODS);
+    mapsDirectory = Files.createTempDirectory("map-benchmark");
+    mapFolders = new ArrayList<>();
+
+    for (int i = 0; i < numberOfMaps; i++) {
+      String sourceFolder = MAP_FOLDERS.get(i % MAP_FOLDERS.size());
+      Path mapFolder = Files.createDirectories(mapsDirectory.resolve(sourceFolder + "_" + i));
+      String scenarioFileName = sourceFolder.startsWith("palaneum") ? "Palaneum_scenario.lua" : sourceFolder + "_scenario.lua";
+      try (InputStream inputStream = getClass().getResourceAsStream("/maps/" + sourceFolder + "/" + scenarioFileName)) {
+        Files.copy(inputStream, mapFolder.resolve(scenarioFileName));
+      }
+      mapFolders.add(mapFolder);
+    }
+
+    scenarioFile = mapFolders.getFirst().resolve("SCMP_001_scenario.lua");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    FileSystemUtils.deleteRecursively(mapsDirectory);
+  }
+
+  @Benchmark
+  public LuaValue loadScenarioFile() throws IOException {
+    return LuaUtil.loadFile(scenarioFile);
+  }
+
+  @Benchmark
+  public MapVersion readMap() throws MapLoadException {
+    return mapService.readMap(mapFolders.getFirst());
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Measurement(iterations = 5)
+  public void readAllMaps(Blackhole blackhole) throws MapLoadException {
+    for (Path mapFolder : mapFolders) {
+      blackhole.consume(mapService.readMap(mapFolder));
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Measurement(iterations = 5)
+  public void readAllMapsInParallel(Blackhole blackhole) {
+    mapFolders.parallelStream().forEach(mapFolder -> {
+      try {
+        blackhole.consume(mapService.readMap(mapFolder));
+      } catch (MapLoadException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+}
@@ -0,0 +1,120 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing of {@code .fafreplay} files. The small replay is the one shipped with the tests, the
+ * large one is the same replay padded with advance ticks to roughly the size of a long team game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplayFileBenchmark {
+
+  /**
+   * A single {@code CMDST_ADVANCE} token advancing the game by one tick.
+   */
+  private static final byte[] ADVANCE_TOKEN = new byte[]{0x00, 0x07, 0x00, 0x01, 0x00, 0x00, 0x00};
+
+  @Param({"small", "large"})
+  private String replaySize;
+
+  private final ReplayFileReaderImpl replayFileReader = new ReplayFileReaderImpl();
+
+  private Path baseDirectory;
+  private Path replayFile;
+  private ReplayFileWriterImpl replayFileWriter;
+  private ReplayMetadata replayMetadata;
+  private Path replayData;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    baseDirectory = Files.createTempDirectory("replay-benchmark");
+
+    DataPrefs dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(baseDirectory);
+    Files.createDirectories(dataPrefs.getCacheDirectory());
+    Files.createDirectories(dataPrefs.getReplaysDirectory());
+    replayFileWriter = new ReplayFileWriterImpl(new ClientProperties(), dataPrefs);
+
+    Path smallReplayFile = baseDirectory.resolve("small.fafreplay");
+    try (InputStream inputStream = getClass().getResourceAsStream("/replay/test.fafreplay")) {
+      Files.copy(inputStream, smallReplayFile);
+    }
+
+    ReplayDataParser smallReplay = replayFileReader.parseReplay(smallReplayFile);
+    replayMetadata = smallReplay.getMetadata();
+    replayData = baseDirectory.resolve("replay.tmp");
+    try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(replayData))) {
+      outputStream.write(smallReplay.getData());
+      if ("large".equals(replaySize)) {
+        // About 45 minutes of game time at 10 ticks per second, padded to the size of a large team game
+        int ticks = 45 * 60 * 10 * 20;
+        for (int i = 0; i < ticks; i++) {
+          outputStream.write(ADVANCE_TOKEN);
+        }
+      }
+    }
+
+    if ("large".equals(replaySize)) {
+      replayMetadata.setUid(replayMetadata.getUid() + 1);
+      replayFileWriter.writeReplayDataToFile(replayData, replayMetadata);
+      replayFile = dataPrefs.getReplaysDirectory()
+                            .resolve(String.format(new ClientProperties().getReplay().getReplayFileFormat(),
+                                                   replayMetadata.getUid(), replayMetadata.getRecorder()));
+    } else {
+      replayFile = smallReplayFile;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    FileSystemUtils.deleteRecursively(baseDirectory);
+  }
+
+  @Benchmark
+  public ReplayDataParser parseReplay() throws Exception {
+    return replayFileReader.parseReplay(replayFile);
+  }
+
+  /**
+   * Compare with {@link #parseReplay()}, listing a replay only needs its header.
+   */
+  @Benchmark
+  public ReplayHeader readReplayHeader() throws Exception {
+    return replayFileReader.readReplayHeader(replayFile);
+  }
+
+  @Benchmark
+  public void writeReplayDataToFile() throws Exception {
+    replayFileWriter.writeReplayDataToFile(replayData, replayMetadata);
+  }
+}
@@ -0,0 +1,76 @@
+package com.faforever.client.task;
+
+import com.faforever.client.config.ClientProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the throughput of short disk operations of several threads, either all on the same file or each on a file
+ * of its own, which only share the disk permits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ResourceLocksBenchmark {
+
+  private static final Path SHARED_PATH = Path.of("cache", "shared");
+
+  @Param({"true", "false"})
+  private boolean samePath;
+
+  @Param({"4"})
+  private int maxParallelDiskOperations;
+
+  private ResourceLocks resourceLocks;
+
+  @State(Scope.Thread)
+  public static class ThreadPath {
+
+    private static final AtomicInteger nextThread = new AtomicInteger();
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      path = Path.of("cache", "file" + nextThread.getAndIncrement());
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ClientProperties clientProperties = new ClientProperties();
+    clientProperties.getIo().setMaxParallelDiskOperations(maxParallelDiskOperations);
+    resourceLocks = new ResourceLocks(clientProperties);
+  }
+
+  @Benchmark
+  public void diskOperation(ThreadPath threadPath) {
+    Path path = samePath ? SHARED_PATH : threadPath.path;
+    resourceLocks.acquireDiskLock(path);
+    try {
+      Blackhole.consumeCPU(1_000);
+    } finally {
+      resourceLocks.freeDiskLock(path);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.faforever.client.api;
+
+import com.faforever.commons.api.elide.ElideEntity;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Collects lookups of entities by a key, like an id or a name, and fetches the entities of all keys that have been
+ * requested within a short window with a single request. Lookups of a key that is already being fetched share the
+ * pending result instead of adding to the batch. Results are not kept once the request completes, caching them is up
+ * to the callers.
+ */
+@Slf4j
+class ApiBatchLoader {
+
+  /**
+   * Fetches the entities of the given type whose key path matches any of the given keys.
+   */
+  @FunctionalInterface
+  interface BatchFetcher {
+    Flux<? extends ElideEntity> fetch(Class<? extends ElideEntity> type, String keyPath, List<Object> keys);
+  }
+
+  private record BatchKey(Class<? extends ElideEntity> type, String keyPath) {}
+
+  private record LookupKey(BatchKey batchKey, String key) {}
+
+  private record Batch(BatchKey batchKey, Function<Object, ?> keyExtractor, Map<String, Object> keys,
+                       Map<String, Sinks.One<List<ElideEntity>>> sinks) {}
+
+  private final BatchFetcher batchFetcher;
+  private final Duration window;
+  private final int maxBatchSize;
+
+  private final Map<BatchKey, Batch> pendingBatches = new HashMap<>();
+  private final Map<LookupKey, Mono<List<ElideEntity>>> lookups = new HashMap<>();
+
+  ApiBatchLoader(BatchFetcher batchFetcher, Duration window, int maxBatchSize) {
+    this.batchFetcher = batchFetcher;
+    this.window = window;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * @param keyExtractor extracts the value of the key path from a fetched entity, to hand it to the lookups of that
+   * key. Keys are compared by their string representation ignoring case, as ids of entities are strings and the API
+   * compares strings ignoring case, so the entity found for a key may spell it differently.
+   */
+  @SuppressWarnings("unchecked")
+  <T extends ElideEntity> Flux<T> load(Class<T> type, String keyPath, Object key,
+                                       Function<? super T, ?> keyExtractor) {
+    BatchKey batchKey = new BatchKey(type, keyPath);
+    LookupKey lookupKey = new LookupKey(batchKey, normalize(key));
+    Mono<List<ElideEntity>> lookup;
+    Batch fullBatch = null;
+    synchronized (this) {
+      lookup = lookups.get(lookupKey);
+      if (lookup == null) {
+        Batch batch = pendingBatches.computeIfAbsent(batchKey, ignored -> createBatch(batchKey, keyExtractor));
+        Sinks.One<List<ElideEntity>> sink = Sinks.one();
+        batch.keys().put(lookupKey.key(), key);
+        batch.sinks().put(lookupKey.key(), sink);
+        lookup = sink.asMono();
+        lookups.put(lookupKey, lookup);
+        if (batch.keys().size() >= maxBatchSize) {
+          pendingBatches.remove(batchKey);
+          fullBatch = batch;
+        }
+      }
+    }
+
+    if (fullBatch != null) {
+      fetch(fullBatch);
+    }
+    return lookup.flatMapIterable(entities -> (List<T>) entities);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Batch createBatch(BatchKey batchKey, Function<?, ?> keyExtractor) {
+    Batch batch = new Batch(batchKey, (Function<Object, ?>) keyExtractor, new LinkedHashMap<>(), new HashMap<>());
+    Mono.delay(window).subscribe(ignored -> {
+      boolean pending;
+      synchronized (this) {
+        pending = pendingBatches.remove(batchKey, batch);
+      }
+      if (pending) {
+        fetch(batch);
+      }
+    });
+    return batch;
+  }
+
+  private void fetch(Batch batch) {
+    BatchKey batchKey = batch.batchKey();
+    log.trace("Fetching {} by {} for {} keys", batchKey.type().getSimpleName(), batchKey.keyPath(),
+              batch.keys().size());
+    batchFetcher.fetch(batchKey.type(), batchKey.keyPath(), new ArrayList<>(batch.keys().values()))
+                .collectList()
+                .map(entities -> {
+                  Map<String, List<ElideEntity>> entitiesByKey = new HashMap<>();
+                  for (ElideEntity entity : entities) {
+                    String key = normalize(batch.keyExtractor().apply(entity));
+                    entitiesByKey.computeIfAbsent(key, ignored -> new ArrayList<>()).add(entity);
+                  }
+                  return entitiesByKey;
+                })
+                .subscribe(entitiesByKey -> {
+                  complete(batch);
+                  batch.sinks()
+                       .forEach((key, sink) -> sink.tryEmitValue(entitiesByKey.getOrDefault(key, List.of())));
+                }, throwable -> {
+                  complete(batch);
+                  batch.sinks().values().forEach(sink -> sink.tryEmitError(throwable));
+                });
+  }
+
+  private static String normalize(Object key) {
+    return String.valueOf(key).toLowerCase(Locale.ROOT);
+  }
+
+  private synchronized void complete(Batch batch) {
+    batch.keys().keySet().forEach(key -> lookups.remove(new LookupKey(batch.batchKey(), key)));
+  }
+}
@@ -0,0 +1,540 @@
+package com.faforever.client.api;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persistent cache of the JSON:API responses to GET requests of the API, limited to a maximum total size by evicting
+ * the least recently used responses. A cached response is used without asking the API for as long as it is fresh
+ * according to its {@code max-age}. Afterwards it is revalidated with a conditional request using its {@code ETag} or
+ * {@code Last-Modified} header, so an unchanged response only costs a 304 without a body.
+ *
+ * <p>Responses that are {@code private} or vary by the {@code Authorization} of the request are specific to the user
+ * and are not stored, as the cache is shared by all users of the same machine. Responses that are {@code no-cache}
+ * are always revalidated.</p>
+ */
+@Lazy
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ApiResponseCache implements ExchangeFilterFunction {
+
+  private static final MediaType JSONAPI_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.api+json");
+  private static final String ENTRY_FILE_SUFFIX = ".response";
+  private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+  private static final byte HEADER_SEPARATOR = '\n';
+  /**
+   * A single response may take up this fraction of the cache at most.
+   */
+  private static final int MAX_ENTRY_SIZE_DIVISOR = 8;
+
+  private final ClientProperties clientProperties;
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+  private final JsonApiReader jsonApiReader;
+
+  // In access order, so the least recently used entry is the first
+  private final Map<String, Long> entrySizesByFileName = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder localHits = new LongAdder();
+  private final LongAdder revalidatedHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private Path indexedDirectory;
+  private long totalSize;
+  private ExchangeStrategies cachedResponseStrategies;
+
+  /**
+   * Written as the first line of a cache entry, followed by the body of the response.
+   */
+  record CachedResponseHeaders(
+      String url, String contentType, String eTag, String lastModified, long storedAt, long maxAgeSeconds
+  ) {
+
+    boolean isFresh(Instant now) {
+      return now.isBefore(Instant.ofEpochMilli(storedAt).plusSeconds(maxAgeSeconds));
+    }
+  }
+
+  private record CachedResponse(CachedResponseHeaders headers, byte[] body) {}
+
+  @Override
+  public @NotNull Mono<ClientResponse> filter(@NotNull ClientRequest request, @NotNull ExchangeFunction next) {
+    if (request.method() != HttpMethod.GET || getMaxSize() <= 0) {
+      return next.exchange(request);
+    }
+
+    String url = request.url().toString();
+    return Mono.fromCallable(() -> read(url).orElse(null))
+               .subscribeOn(Schedulers.boundedElastic())
+               .flatMap(cachedResponse -> {
+                 if (cachedResponse.headers().isFresh(Instant.now())) {
+                   localHits.increment();
+                   return Mono.just(toClientResponse(cachedResponse, getCachedResponseStrategies()));
+                 }
+                 return revalidate(request, next, cachedResponse);
+               })
+               .switchIfEmpty(Mono.defer(() -> {
+                 misses.increment();
+                 return next.exchange(request).flatMap(response -> store(url, response));
+               }));
+  }
+
+  public long getLocalHits() {
+    return localHits.sum();
+  }
+
+  public long getRevalidatedHits() {
+    return revalidatedHits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private Mono<ClientResponse> revalidate(ClientRequest request, ExchangeFunction next,
+                                          CachedResponse cachedResponse) {
+    CachedResponseHeaders headers = cachedResponse.headers();
+    ClientRequest conditionalRequest = ClientRequest.from(request).headers(requestHeaders -> {
+      if (headers.eTag() != null) {
+        requestHeaders.set(HttpHeaders.IF_NONE_MATCH, headers.eTag());
+      }
+      if (headers.lastModified() != null) {
+        requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, headers.lastModified());
+      }
+    }).build();
+
+    return next.exchange(conditionalRequest).flatMap(response -> {
+      if (response.statusCode().value() != HttpStatus.NOT_MODIFIED.value()) {
+        misses.increment();
+        return store(headers.url(), response);
+      }
+
+      revalidatedHits.increment();
+      ExchangeStrategies strategies = response.strategies();
+      HttpHeaders responseHeaders = response.headers().asHttpHeaders();
+      CachedResponse revalidatedResponse = new CachedResponse(
+          toCachedResponseHeaders(headers.url(), responseHeaders, headers), cachedResponse.body());
+      Runnable update = isUserSpecific(responseHeaders)
+          ? () -> deleteEntry(toFileName(headers.url()))
+          : () -> write(revalidatedResponse);
+      return response.releaseBody()
+                     .then(Mono.fromRunnable(update))
+                     .subscribeOn(Schedulers.boundedElastic())
+                     .thenReturn(toClientResponse(revalidatedResponse, strategies));
+    });
+  }
+
+  private Mono<ClientResponse> store(String url, ClientResponse response) {
+    HttpHeaders responseHeaders = response.headers().asHttpHeaders();
+    if (response.statusCode().value() != HttpStatus.OK.value() || !isCacheable(responseHeaders)) {
+      return Mono.just(response);
+    }
+
+    CachedResponseHeaders headers = toCachedResponseHeaders(url, responseHeaders, null);
+    // The body is written to the cache while it streams to the caller, off the event loop
+    return Mono.just(response.mutate().body(body -> Flux.using(
+        () -> new CacheEntryWriter(headers),
+        entryWriter -> body.publishOn(Schedulers.boundedElastic())
+                           .doOnNext(entryWriter::write)
+                           .doOnComplete(entryWriter::commit),
+        CacheEntryWriter::discard
+    )).build());
+  }
+
+  private static boolean isCacheable(HttpHeaders headers) {
+    MediaType contentType = headers.getContentType();
+    List<String> cacheControl = getCacheControlDirectives(headers);
+    return contentType != null && JSONAPI_MEDIA_TYPE.isCompatibleWith(contentType)
+        && !cacheControl.contains("no-store") && !headers.getVary().contains("*") && !isUserSpecific(headers)
+        && (headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null
+        || getMaxAgeSeconds(cacheControl) > 0);
+  }
+
+  private static boolean isUserSpecific(HttpHeaders headers) {
+    return getCacheControlDirectives(headers).contains("private")
+        || headers.getVary().stream().anyMatch(HttpHeaders.AUTHORIZATION::equalsIgnoreCase);
+  }
+
+  /**
+   * @param previousHeaders the headers of the cached response that has been revalidated, whose validators are kept
+   * unless the API sent new ones
+   */
+  private static CachedResponseHeaders toCachedResponseHeaders(String url, HttpHeaders headers,
+                                                               CachedResponseHeaders previousHeaders) {
+    List<String> cacheControl = getCacheControlDirectives(headers);
+    long maxAgeSeconds = cacheControl.contains("no-cache") ? 0 : getMaxAgeSeconds(cacheControl);
+
+    String contentType = Optional.ofNullable(headers.getContentType()).map(MediaType::toString).orElse(null);
+    String eTag = headers.getETag();
+    String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+    if (previousHeaders != null) {
+      contentType = previousHeaders.contentType();
+      eTag = eTag == null ? previousHeaders.eTag() : eTag;
+      lastModified = lastModified == null ? previousHeaders.lastModified() : lastModified;
+    }
+    return new CachedResponseHeaders(url, contentType, eTag, lastModified, Instant.now().toEpochMilli(),
+                                     maxAgeSeconds);
+  }
+
+  private static List<String> getCacheControlDirectives(HttpHeaders headers) {
+    List<String> directives = new ArrayList<>();
+    for (String cacheControl : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+      for (String directive : cacheControl.split(",")) {
+        directives.add(directive.trim().toLowerCase(Locale.ROOT));
+      }
+    }
+    return directives;
+  }
+
+  private static long getMaxAgeSeconds(List<String> cacheControlDirectives) {
+    return cacheControlDirectives.stream()
+                                 .filter(directive -> directive.startsWith("max-age="))
+                                 .map(directive -> directive.substring("max-age=".length()))
+                                 .mapToLong(maxAge -> {
+                                   try {
+                                     return Long.parseLong(maxAge);
+                                   } catch (NumberFormatException e) {
+                                     return 0;
+                                   }
+                                 })
+                                 .findFirst()
+                                 .orElse(0);
+  }
+
+  private static ClientResponse toClientResponse(CachedResponse cachedResponse, ExchangeStrategies strategies) {
+    CachedResponseHeaders headers = cachedResponse.headers();
+    return ClientResponse.create(HttpStatus.OK, strategies).headers(responseHeaders -> {
+      responseHeaders.set(HttpHeaders.CONTENT_TYPE, headers.contentType());
+      responseHeaders.setContentLength(cachedResponse.body().length);
+      if (headers.eTag() != null) {
+        responseHeaders.set(HttpHeaders.ETAG, headers.eTag());
+      }
+      if (headers.lastModified() != null) {
+        responseHeaders.set(HttpHeaders.LAST_MODIFIED, headers.lastModified());
+      }
+    }).body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(cachedResponse.body()))).build();
+  }
+
+  /**
+   * Responses served from the cache don't come with the strategies of the web client, so they get strategies that can
+   * read JSON:API documents, which is all that is cached.
+   */
+  private synchronized ExchangeStrategies getCachedResponseStrategies() {
+    if (cachedResponseStrategies == null) {
+      cachedResponseStrategies = ExchangeStrategies.builder()
+                                                   .codecs(configurer -> configurer.customCodecs()
+                                                                                   .register(jsonApiReader))
+                                                   .build();
+    }
+    return cachedResponseStrategies;
+  }
+
+  private Optional<CachedResponse> read(String url) {
+    String fileName = toFileName(url);
+    Path file;
+    synchronized (this) {
+      ensureIndexed();
+      if (entrySizesByFileName.get(fileName) == null) {
+        return Optional.empty();
+      }
+      file = indexedDirectory.resolve(fileName);
+    }
+
+    try {
+      byte[] bytes = Files.readAllBytes(file);
+      int separatorIndex = indexOf(bytes, HEADER_SEPARATOR);
+      CachedResponseHeaders headers = objectMapper.readValue(bytes, 0, separatorIndex, CachedResponseHeaders.class);
+      if (!url.equals(headers.url())) {
+        return Optional.empty();
+      }
+      // Remembers the use across restarts
+      Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+      return Optional.of(new CachedResponse(headers, Arrays.copyOfRange(bytes, separatorIndex + 1, bytes.length)));
+    } catch (NoSuchFileException e) {
+      removeEntry(fileName);
+      return Optional.empty();
+    } catch (IOException | RuntimeException e) {
+      log.debug("Discarding unreadable API cache entry `{}`", file, e);
+      removeEntry(fileName);
+      return Optional.empty();
+    }
+  }
+
+  private void write(CachedResponse cachedResponse) {
+    String fileName = toFileName(cachedResponse.headers().url());
+    Path directory = dataPrefs.getApiCacheDirectory();
+    try {
+      byte[] headers = objectMapper.writeValueAsBytes(cachedResponse.headers());
+      long size = headers.length + 1 + cachedResponse.body().length;
+      if (size > getMaxEntrySize()) {
+        log.trace("Not caching response of `{}` with {} bytes", cachedResponse.headers().url(), size);
+        return;
+      }
+
+      Files.createDirectories(directory);
+      Path temporaryFile = Files.createTempFile(directory, fileName, TEMPORARY_FILE_SUFFIX);
+      try {
+        try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+          outputStream.write(headers);
+          outputStream.write(HEADER_SEPARATOR);
+          outputStream.write(cachedResponse.body());
+        }
+        Files.move(temporaryFile, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+
+      addEntry(fileName, size);
+    } catch (IOException e) {
+      log.warn("Could not cache API response of `{}`", cachedResponse.headers().url(), e);
+    }
+  }
+
+  private synchronized void addEntry(String fileName, long size) {
+    ensureIndexed();
+    Long previousSize = entrySizesByFileName.put(fileName, size);
+    totalSize += size - (previousSize == null ? 0 : previousSize);
+    evictLeastRecentlyUsed();
+  }
+
+  private synchronized void removeEntry(String fileName) {
+    Long size = entrySizesByFileName.remove(fileName);
+    if (size != null) {
+      totalSize -= size;
+    }
+  }
+
+  private void deleteEntry(String fileName) {
+    removeEntry(fileName);
+    try {
+      Files.deleteIfExists(dataPrefs.getApiCacheDirectory().resolve(fileName));
+    } catch (IOException e) {
+      log.warn("Could not delete API cache entry `{}`", fileName, e);
+    }
+  }
+
+  private void evictLeastRecentlyUsed() {
+    Iterator<Entry<String, Long>> iterator = entrySizesByFileName.entrySet().iterator();
+    while (totalSize > getMaxSize() && iterator.hasNext()) {
+      Entry<String, Long> entry = iterator.next();
+      try {
+        Files.deleteIfExists(indexedDirectory.resolve(entry.getKey()));
+      } catch (IOException e) {
+        log.warn("Could not delete API cache entry `{}`", entry.getKey(), e);
+      }
+      totalSize -= entry.getValue();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Indexes the entries of the cache directory when the cache is first used, the least recently used first.
+   */
+  private void ensureIndexed() {
+    Path directory = dataPrefs.getApiCacheDirectory();
+    if (directory.equals(indexedDirectory)) {
+      return;
+    }
+
+    entrySizesByFileName.clear();
+    totalSize = 0;
+    indexedDirectory = directory;
+    if (Files.notExists(directory)) {
+      return;
+    }
+
+    record IndexedEntry(String fileName, long size, FileTime lastUsed) {}
+    List<IndexedEntry> entries = new ArrayList<>();
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+      for (Path file : directoryStream) {
+        String fileName = file.getFileName().toString();
+        if (fileName.endsWith(TEMPORARY_FILE_SUFFIX)) {
+          Files.deleteIfExists(file);
+        } else if (fileName.endsWith(ENTRY_FILE_SUFFIX)) {
+          entries.add(new IndexedEntry(fileName, Files.size(file), Files.getLastModifiedTime(file)));
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not index API cache directory `{}`", directory, e);
+    }
+
+    entries.sort(Comparator.comparing(IndexedEntry::lastUsed));
+    entries.forEach(entry -> {
+      entrySizesByFileName.put(entry.fileName(), entry.size());
+      totalSize += entry.size();
+    });
+    evictLeastRecentlyUsed();
+  }
+
+  private long getMaxSize() {
+    return clientProperties.getApi().getResponseCacheMaxBytes();
+  }
+
+  private long getMaxEntrySize() {
+    return getMaxSize() / MAX_ENTRY_SIZE_DIVISOR;
+  }
+
+  private static String toFileName(String url) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash) + ENTRY_FILE_SUFFIX;
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  private static int indexOf(byte[] bytes, byte value) {
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] == value) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Cache entry has no header");
+  }
+
+  /**
+   * Writes a response to a temporary file while its body is read, and moves the file into the cache once the body is
+   * complete. A body that fails, is cancelled or exceeds the maximum size of an entry is discarded.
+   */
+  private final class CacheEntryWriter {
+
+    private final CachedResponseHeaders headers;
+    private final String fileName;
+    private final Path directory;
+    private Path temporaryFile;
+    private OutputStream outputStream;
+    private long size;
+    private boolean closed;
+
+    private CacheEntryWriter(CachedResponseHeaders headers) {
+      this.headers = headers;
+      this.fileName = toFileName(headers.url());
+      this.directory = dataPrefs.getApiCacheDirectory();
+    }
+
+    synchronized void write(DataBuffer dataBuffer) {
+      if (closed) {
+        return;
+      }
+
+      byte[] bytes = new byte[dataBuffer.readableByteCount()];
+      int readPosition = dataBuffer.readPosition();
+      dataBuffer.read(bytes);
+      // The buffer is passed on to the caller, who reads it again
+      dataBuffer.readPosition(readPosition);
+      try {
+        open();
+        size += bytes.length;
+        if (size > getMaxEntrySize()) {
+          log.trace("Not caching response of `{}` with more than {} bytes", headers.url(), getMaxEntrySize());
+          discard();
+          return;
+        }
+        outputStream.write(bytes);
+      } catch (IOException e) {
+        log.warn("Could not cache API response of `{}`", headers.url(), e);
+        discard();
+      }
+    }
+
+    synchronized void commit() {
+      if (closed) {
+        return;
+      }
+
+      try {
+        open();
+        outputStream.close();
+        Files.move(temporaryFile, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+        closed = true;
+        addEntry(fileName, size);
+      } catch (IOException e) {
+        log.warn("Could not cache API response of `{}`", headers.url(), e);
+        discard();
+      }
+    }
+
+    /**
+     * Deletes the temporary file unless the entry has been committed.
+     */
+    synchronized void discard() {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      if (temporaryFile == null) {
+        return;
+      }
+      try {
+        if (outputStream != null) {
+          outputStream.close();
+        }
+        Files.deleteIfExists(temporaryFile);
+      } catch (IOException e) {
+        log.warn("Could not delete temporary API cache entry `{}`", temporaryFile, e);
+      }
+    }
+
+    private void open() throws IOException {
+      if (temporaryFile != null) {
+        return;
+      }
+
+      byte[] headerBytes = objectMapper.writeValueAsBytes(headers);
+      Files.createDirectories(directory);
+      temporaryFile = Files.createTempFile(directory, fileName, TEMPORARY_FILE_SUFFIX);
+      outputStream = Files.newOutputStream(temporaryFile);
+      outputStream.write(headerBytes);
+      outputStream.write(HEADER_SEPARATOR);
+      size = headerBytes.length + 1;
+    }
+  }
+}
@@ -29,6 +29,7 @@ import com.faforever.commons.api.dto.ModerationReport;
 import com.faforever.commons.api.dto.TutorialCategory;
 import com.faforever.commons.api.elide.ElideEndpointBuilder;
 import com.faforever.commons.api.elide.ElideEntity;
+import com.faforever.commons.api.elide.ElideNavigator;
 import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
 import com.faforever.commons.api.elide.ElideNavigatorOnId;
 import com.faforever.commons.io.ByteCountListener;
@@ -68,6 +69,7 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -130,6 +132,7 @@ public class FafApiAccessor implements InitializingBean {
 
   private WebClient apiWebClient;
   private Retry apiRetrySpec;
+  private ApiBatchLoader batchLoader;
 
   private CountDownLatch authorizedLatch = new CountDownLatch(1);
 
@@ -140,6 +143,8 @@ public class FafApiAccessor implements InitializingBean {
         .jitter(api.getRetryJitter())
         .filter(error -> error instanceof UnreachableApiException || error instanceof RateLimitApiException)
         .doBeforeRetry(retry -> log.warn("Could not retrieve value from api retrying: Attempt #{} of {}", retry.totalRetries(), api.getRetryAttempts()));
+    batchLoader = new ApiBatchLoader(this::getManyByKeys, Duration.ofMillis(api.getLookupBatchWindowMillis()),
+                                     api.getMaxLookupBatchSize());
   }
 
   public void authorize() {
@@ -167,8 +172,7 @@ public class FafApiAccessor implements InitializingBean {
   }
 
   public <T> Flux<T> getApiObjects(String path, Class<T> clazz) {
-    RequestHeadersSpec<?> requestSpec = apiWebClient.get().uri(path);
-    return retrieveFluxWithErrorHandling(clazz, requestSpec).doOnNext(object -> log.trace("Retrieved {} from {} with type {}", object, path, clazz));
+    return retrieveFluxWithErrorHandling(clazz, path).doOnNext(object -> log.trace("Retrieved {} from {} with type {}", object, path, clazz));
   }
 
   public Mono<Void> uploadFile(String endpoint, Path file, ByteCountListener listener,
@@ -243,7 +247,7 @@ public class FafApiAccessor implements InitializingBean {
 
     String url = uriComponents.toUriString();
 
-    return retrieveFluxWithErrorHandling(type, apiWebClient.get().uri(url)).cache()
+    return retrieveFluxWithErrorHandling(type, url).cache()
         .doOnNext(list -> log.trace("Retrieved {} from {}", list, url));
   }
 
@@ -261,10 +265,39 @@ public class FafApiAccessor implements InitializingBean {
       endpointPath = navigator.build();
     }
 
-    return retrieveFluxWithErrorHandling(navigator.getDtoClass(), apiWebClient.get().uri(endpointPath)).cache()
+    return retrieveFluxWithErrorHandling(navigator.getDtoClass(), endpointPath).cache()
         .doOnNext(object -> log.trace("Retrieved {} from {}", object, endpointPath));
   }
 
+  /**
+   * Gets the entities whose value at the key path equals the key, like the player with an id or the leaderboard entries
+   * of a player. Lookups of the same type and key path that are made within a short window are fetched together with a
+   * single {@code =in=} query, and concurrent lookups of the same key share one result.
+   *
+   * @param keyExtractor extracts the value at the key path from an entity, to assign the fetched entities to their key
+   */
+  public <T extends ElideEntity> Flux<T> getManyByKey(Class<T> type, String keyPath, Object key,
+                                                      Function<? super T, ?> keyExtractor) {
+    return Flux.defer(() -> batchLoader.load(type, keyPath, key, keyExtractor));
+  }
+
+  private Flux<? extends ElideEntity> getManyByKeys(Class<? extends ElideEntity> type, String keyPath,
+                                                    List<Object> keys) {
+    Condition<?> filter;
+    if (keys.stream().allMatch(Integer.class::isInstance)) {
+      filter = qBuilder().intNum(keyPath).in(keys.stream().map(Integer.class::cast).toList());
+    } else if (keys.stream().allMatch(Number.class::isInstance)) {
+      filter = qBuilder().longNum(keyPath).in(keys.stream().map(key -> ((Number) key).longValue()).toList());
+    } else {
+      filter = qBuilder().string(keyPath).in(keys.stream().map(String::valueOf).toList());
+    }
+    ElideNavigatorOnCollection<? extends ElideEntity> navigator = ElideNavigator.of(type)
+                                                                                .collection()
+                                                                                .setFilter(filter)
+                                                                                .pageSize(getMaxPageSize());
+    return getMany(navigator);
+  }
+
   public <T extends ElideEntity> Mono<Tuple2<List<T>, Integer>> getManyWithPageCount(
       ElideNavigatorOnCollection<T> navigator) {
     return getManyWithPageCount(navigator, "");
@@ -300,8 +333,9 @@ public class FafApiAccessor implements InitializingBean {
         .doOnError(TokenRetrievalException.class, throwable -> authorizedLatch = new CountDownLatch(1));
   }
 
-  private <T> Flux<T> retrieveFluxWithErrorHandling(Class<T> type, WebClient.RequestHeadersSpec<?> requestSpec) {
-    return retrieveWithErrorHandling(requestSpec).bodyToFlux(type)
+  private <T> Flux<T> retrieveFluxWithErrorHandling(Class<T> type, String uri) {
+    return retrieveWithErrorHandling(apiWebClient.get().uri(uri)).bodyToFlux(type)
+        .contextWrite(JsonApiReader.includesRequested(uri))
         .retryWhen(apiRetrySpec)
         .doOnError(TokenRetrievalException.class, throwable -> authorizedLatch = new CountDownLatch(1));
   }
@@ -6,21 +6,32 @@ import com.github.jasminb.jsonapi.ResourceConverter;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.ReactiveHttpInputMessage;
 import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.util.List;
 import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 public class JsonApiReader implements HttpMessageReader<Object> {
+
+  /**
+   * Number of primary resources that are converted and emitted together when reading a stream of resources.
+   */
+  static final int BATCH_SIZE = 256;
+  private static final String INCLUDES_REQUESTED = JsonApiReader.class.getName() + ".includesRequested";
+
   private final ResourceConverter resourceConverter;
 
   @Override
@@ -49,17 +60,53 @@ public class JsonApiReader implements HttpMessageReader<Object> {
     }
   }
 
+  /**
+   * Emits the resources while the document is still being received, in batches of {@link #BATCH_SIZE} as soon as
+   * their relationships can be resolved, instead of converting the complete document at once. Unless the subscriber's
+   * context says that no included resources were requested, see {@link #includesRequested(String)}, the resources are
+   * held back until the included resources have been read.
+   */
   @Override
   public Flux<Object> read(ResolvableType elementType, ReactiveHttpInputMessage message, Map hints) {
-    return getCompleteStream(message)
-        .flatMap(completeStream -> Mono.fromCallable(() -> resourceConverter.readDocumentCollection(completeStream, Object.class).get()))
-        .flatMapMany(Flux::fromIterable);
+    return Flux.deferContextual(context -> {
+      JsonApiStreamParser streamParser = new JsonApiStreamParser(BATCH_SIZE,
+                                                                 context.getOrDefault(INCLUDES_REQUESTED, true));
+      return message.getBody()
+          .concatMapIterable(dataBuffer -> {
+            byte[] chunk = new byte[dataBuffer.readableByteCount()];
+            dataBuffer.read(chunk);
+            DataBufferUtils.release(dataBuffer);
+            try {
+              return streamParser.feed(chunk);
+            } catch (IOException e) {
+              throw new DecodingException("Could not parse JSON:API document", e);
+            }
+          })
+          .concatWith(Flux.defer(() -> {
+            try {
+              return Flux.fromIterable(streamParser.finish());
+            } catch (IOException e) {
+              return Flux.error(new DecodingException("Could not parse JSON:API document", e));
+            }
+          }))
+          .concatMapIterable(batch -> resourceConverter.readDocumentCollection(batch, Object.class).get());
+    });
+  }
+
+  /**
+   * @return the context to read the response of a request to the given URI with, so that resources are emitted
+   * without waiting for included resources that have not been requested
+   */
+  public static Context includesRequested(String uri) {
+    boolean includesRequested = UriComponentsBuilder.fromUriString(uri).build().getQueryParams().containsKey("include");
+    return Context.of(INCLUDES_REQUESTED, includesRequested);
   }
 
+  /**
+   * Joins the buffers into a single one, reading through a chain of streams gets slow with many buffers.
+   */
   @NotNull
   private Mono<InputStream> getCompleteStream(ReactiveHttpInputMessage message) {
-    return message.getBody()
-        .map(dataBuffer -> dataBuffer.asInputStream(true))
-        .reduce((SequenceInputStream::new));
+    return DataBufferUtils.join(message.getBody()).map(dataBuffer -> dataBuffer.asInputStream(true));
   }
 }
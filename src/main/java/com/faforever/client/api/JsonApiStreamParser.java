@@ -0,0 +1,377 @@
+package com.faforever.client.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits a JSON:API document that arrives in chunks into smaller documents of at most {@code batchSize} primary
+ * resources, each with the included resources that its resources refer to, directly or through other included
+ * resources. The chunks are fed to a non-blocking parser as they arrive, so the document is never buffered as a whole,
+ * and each batch can be converted into entities as soon as it is complete.
+ *
+ * <p>Resources are kept as the raw bytes they were received as, together with their identifiers and the identifiers
+ * they link to, so that a batch is assembled by concatenating bytes and only parsed once, by whoever converts it.</p>
+ *
+ * <p>Relationships can only be resolved once all resources they may refer to are known. If the request asked for
+ * included resources, which servers send after the primary data, the primary resources are held back until the
+ * included resources have been read. Otherwise every batch is passed on as soon as it is complete, and relationships
+ * that don't refer to a resource of the same batch become resources that only have their identifier. Members other than
+ * {@code data} and {@code included}, like {@code errors} or {@code meta}, are copied into the batches that follow
+ * them.</p>
+ *
+ * <p>Not thread safe, the chunks of a document need to be fed one after the other.</p>
+ */
+class JsonApiStreamParser {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private enum State {BEFORE_DOCUMENT, MEMBERS, MEMBER_VALUE, ARRAY_ELEMENTS, CAPTURING, AFTER_DOCUMENT}
+
+  private enum Member {DATA, INCLUDED, OTHER}
+
+  private record Resource(String key, byte[] json, Set<String> linkedKeys) {}
+
+  private final int batchSize;
+  private final boolean includedExpected;
+  private final JsonParser parser;
+  private final ByteArrayFeeder feeder;
+
+  private final Map<String, Resource> includedByKey = new HashMap<>();
+  /**
+   * Primary resources that have not been emitted yet, by key, as they may be referred to by other resources.
+   */
+  private final Map<String, Resource> dataByKey = new HashMap<>();
+  private final List<Resource> pendingData = new ArrayList<>();
+  private final Map<String, byte[]> otherMembers = new LinkedHashMap<>();
+
+  private State state = State.BEFORE_DOCUMENT;
+  private Member member;
+  private String memberName;
+  private boolean inArray;
+  private boolean includedRead;
+  private boolean batchEmitted;
+  private int captureDepth;
+
+  private byte[] chunk;
+  private long chunkOffset;
+  private long captureStart;
+  private ByteArrayOutputStream capturedBytes;
+  private TokenBuffer capturedTokens;
+
+  private final List<String> path = new ArrayList<>();
+  private final List<Boolean> containerIsArray = new ArrayList<>();
+  private String fieldName;
+  private String resourceType;
+  private String resourceId;
+  private String linkageType;
+  private String linkageId;
+  private Set<String> linkedKeys;
+
+  /**
+   * @param includedExpected whether the document may contain included resources, in which case the primary resources
+   * are held back until the included resources have been read
+   */
+  JsonApiStreamParser(int batchSize, boolean includedExpected) {
+    this.batchSize = batchSize;
+    this.includedExpected = includedExpected;
+    try {
+      parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+    } catch (IOException e) {
+      throw new IllegalStateException("Non-blocking JSON parsing is not supported", e);
+    }
+    feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+  }
+
+  /**
+   * @return the batches that have been completed by the chunk, as JSON:API documents
+   */
+  List<byte[]> feed(byte[] chunk) throws IOException {
+    this.chunk = chunk;
+    feeder.feedInput(chunk, 0, chunk.length);
+    List<byte[]> batches = new ArrayList<>();
+    parseAvailableTokens(batches);
+    if (capturedBytes != null) {
+      // The resource continues in the next chunk
+      int from = (int) Math.max(0, captureStart - chunkOffset);
+      capturedBytes.write(chunk, from, chunk.length - from);
+    }
+    chunkOffset += chunk.length;
+    this.chunk = null;
+    return batches;
+  }
+
+  /**
+   * @return the remaining batches once the whole document has been fed, or a single batch without primary resources if
+   * the document has none, so that the document is still checked for errors. An empty body has no batches.
+   */
+  List<byte[]> finish() throws IOException {
+    feeder.endOfInput();
+    List<byte[]> batches = new ArrayList<>();
+    parseAvailableTokens(batches);
+    if (state == State.BEFORE_DOCUMENT) {
+      return batches;
+    }
+    if (state != State.AFTER_DOCUMENT) {
+      throw new IOException("Unexpected end of JSON:API document");
+    }
+
+    includedRead = true;
+    emitBatches(batches, true);
+    if (!batchEmitted) {
+      batches.add(createBatch(List.of()));
+    }
+    return batches;
+  }
+
+  private void parseAvailableTokens(List<byte[]> batches) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+      switch (state) {
+        case BEFORE_DOCUMENT -> {
+          if (token != JsonToken.START_OBJECT) {
+            throw new IOException("JSON:API document is not an object but starts with " + token);
+          }
+          state = State.MEMBERS;
+        }
+        case MEMBERS -> {
+          if (token == JsonToken.END_OBJECT) {
+            state = State.AFTER_DOCUMENT;
+          } else {
+            memberName = parser.currentName();
+            member = switch (memberName) {
+              case "data" -> Member.DATA;
+              case "included" -> Member.INCLUDED;
+              default -> Member.OTHER;
+            };
+            state = State.MEMBER_VALUE;
+          }
+        }
+        case MEMBER_VALUE -> {
+          if (token == JsonToken.START_ARRAY && member != Member.OTHER) {
+            inArray = true;
+            state = State.ARRAY_ELEMENTS;
+          } else {
+            inArray = false;
+            startCapture(token, batches);
+          }
+        }
+        case ARRAY_ELEMENTS -> {
+          if (token == JsonToken.END_ARRAY) {
+            inArray = false;
+            state = State.MEMBERS;
+            if (member == Member.INCLUDED) {
+              includedRead = true;
+              emitBatches(batches, false);
+            }
+          } else {
+            startCapture(token, batches);
+          }
+        }
+        case CAPTURING -> capture(token, batches);
+        case AFTER_DOCUMENT -> throw new IOException("Unexpected content after JSON:API document: " + token);
+      }
+    }
+  }
+
+  private void startCapture(JsonToken token, List<byte[]> batches) throws IOException {
+    state = State.CAPTURING;
+    captureDepth = 0;
+    if (member != Member.OTHER && token == JsonToken.START_OBJECT) {
+      // The parser is right behind the opening brace, which is always part of the current chunk
+      captureStart = parser.currentLocation().getByteOffset() - 1;
+      capturedBytes = new ByteArrayOutputStream();
+      path.clear();
+      containerIsArray.clear();
+      resourceType = null;
+      resourceId = null;
+      linkedKeys = new LinkedHashSet<>();
+    } else {
+      // Other members are small and may start with a scalar that spans chunks, so they are copied token by token
+      capturedTokens = new TokenBuffer(parser);
+    }
+    capture(token, batches);
+  }
+
+  private void capture(JsonToken token, List<byte[]> batches) throws IOException {
+    if (capturedTokens != null) {
+      capturedTokens.copyCurrentEvent(parser);
+    } else {
+      trackIdentifiers(token);
+    }
+    if (token.isStructStart()) {
+      captureDepth++;
+    } else if (token.isStructEnd()) {
+      captureDepth--;
+    }
+    if (captureDepth > 0) {
+      return;
+    }
+
+    state = inArray ? State.ARRAY_ELEMENTS : State.MEMBERS;
+    if (capturedTokens != null) {
+      // Primary data that is null or a single identifier has nothing to convert
+      if (member == Member.OTHER) {
+        onOtherMember(capturedTokens);
+      }
+      capturedTokens = null;
+    } else if (capturedBytes != null) {
+      int end = (int) (parser.currentLocation().getByteOffset() - chunkOffset);
+      int from = (int) Math.max(0, captureStart - chunkOffset);
+      capturedBytes.write(chunk, from, end - from);
+      onResource(new Resource(resourceType + ':' + resourceId, capturedBytes.toByteArray(), linkedKeys), batches);
+      capturedBytes = null;
+    }
+  }
+
+  /**
+   * Picks the identifier of the resource and the identifiers in its relationships' linkage out of the tokens.
+   */
+  private void trackIdentifiers(JsonToken token) throws IOException {
+    switch (token) {
+      case FIELD_NAME -> fieldName = parser.currentName();
+      case START_OBJECT, START_ARRAY -> {
+        path.add(path.isEmpty() ? "" : currentMemberName());
+        containerIsArray.add(token == JsonToken.START_ARRAY);
+        if (isLinkageObject()) {
+          linkageType = null;
+          linkageId = null;
+        }
+      }
+      case END_OBJECT, END_ARRAY -> {
+        if (isLinkageObject() && linkageType != null && linkageId != null) {
+          linkedKeys.add(linkageType + ':' + linkageId);
+        }
+        path.removeLast();
+        containerIsArray.removeLast();
+      }
+      case VALUE_STRING, VALUE_NUMBER_INT -> {
+        String name = currentMemberName();
+        if (path.size() == 1 && "type".equals(name)) {
+          resourceType = parser.getText();
+        } else if (path.size() == 1 && "id".equals(name)) {
+          resourceId = parser.getText();
+        } else if (isLinkageObject() && "type".equals(name)) {
+          linkageType = parser.getText();
+        } else if (isLinkageObject() && "id".equals(name)) {
+          linkageId = parser.getText();
+        }
+      }
+      default -> {
+      }
+    }
+  }
+
+  private String currentMemberName() {
+    return containerIsArray.getLast() ? "[]" : fieldName;
+  }
+
+  /**
+   * Linkage objects are at {@code relationships.<name>.data} or are elements of that array.
+   */
+  private boolean isLinkageObject() {
+    if (containerIsArray.isEmpty() || containerIsArray.getLast()) {
+      return false;
+    }
+    int size = path.size();
+    return (size == 4 || (size == 5 && "[]".equals(path.get(4))))
+        && "relationships".equals(path.get(1)) && "data".equals(path.get(3));
+  }
+
+  private void onOtherMember(TokenBuffer tokens) throws IOException {
+    ByteArrayOutputStream value = new ByteArrayOutputStream();
+    try (JsonParser tokenParser = tokens.asParser(); JsonGenerator generator = JSON_FACTORY.createGenerator(value)) {
+      tokenParser.nextToken();
+      generator.copyCurrentStructure(tokenParser);
+    }
+    otherMembers.put(memberName, value.toByteArray());
+  }
+
+  private void onResource(Resource resource, List<byte[]> batches) {
+    switch (member) {
+      case DATA -> {
+        pendingData.add(resource);
+        dataByKey.put(resource.key(), resource);
+        emitBatches(batches, false);
+      }
+      case INCLUDED -> includedByKey.put(resource.key(), resource);
+      case OTHER -> throw new IllegalStateException("Resources are only captured in data and included");
+    }
+  }
+
+  private void emitBatches(List<byte[]> batches, boolean includePartialBatch) {
+    if (includedExpected && !includedRead) {
+      return;
+    }
+
+    while (pendingData.size() >= batchSize || (includePartialBatch && !pendingData.isEmpty())) {
+      List<Resource> batchData = pendingData.subList(0, Math.min(batchSize, pendingData.size()));
+      batches.add(createBatch(batchData));
+      batchData.forEach(resource -> dataByKey.remove(resource.key()));
+      batchData.clear();
+    }
+  }
+
+  private byte[] createBatch(List<Resource> batchData) {
+    batchEmitted = true;
+
+    Map<String, Resource> batchIncluded = new LinkedHashMap<>();
+    Deque<Resource> unresolved = new ArrayDeque<>(batchData);
+    batchData.forEach(resource -> batchIncluded.put(resource.key(), null));
+    while (!unresolved.isEmpty()) {
+      for (String key : unresolved.pop().linkedKeys()) {
+        if (!batchIncluded.containsKey(key)) {
+          Resource resource = includedByKey.getOrDefault(key, dataByKey.get(key));
+          batchIncluded.put(key, resource);
+          if (resource != null) {
+            unresolved.push(resource);
+          }
+        }
+      }
+    }
+
+    ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    batch.write('{');
+    otherMembers.forEach((name, value) -> {
+      batch.write('"');
+      batch.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(name));
+      batch.writeBytes(new byte[]{'"', ':'});
+      batch.writeBytes(value);
+      batch.write(',');
+    });
+    batch.writeBytes("\"data\":".getBytes(StandardCharsets.UTF_8));
+    writeArray(batch, batchData);
+    batch.writeBytes(",\"included\":".getBytes(StandardCharsets.UTF_8));
+    writeArray(batch, batchIncluded.values().stream().filter(resource -> resource != null).toList());
+    batch.write('}');
+    return batch.toByteArray();
+  }
+
+  private static void writeArray(ByteArrayOutputStream out, List<Resource> resources) {
+    out.write('[');
+    for (int i = 0; i < resources.size(); i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      out.writeBytes(resources.get(i).json());
+    }
+    out.write(']');
+  }
+}
@@ -21,6 +21,9 @@ import static com.faforever.client.config.CacheNames.AVATARS;
 @RequiredArgsConstructor
 public class AvatarService {
 
+  private static final int AVATAR_WIDTH = 40;
+  private static final int AVATAR_HEIGHT = 20;
+
   private final FafServerAccessor fafServerAccessor;
   private final AssetService assetService;
   private final PlayerService playerService;
@@ -31,7 +34,7 @@ public class AvatarService {
     if (avatar == null) {
       return null;
     }
-    return assetService.loadAndCacheImage(avatar.url(), Path.of("avatars"));
+    return assetService.loadAndCacheImage(avatar.url(), Path.of("avatars"), null, AVATAR_WIDTH, AVATAR_HEIGHT);
   }
 
   public CompletableFuture<List<Avatar>> getAvailableAvatars() {
@@ -14,13 +14,11 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
-import javafx.collections.ObservableSet;
 import javafx.collections.transformation.FilteredList;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,26 +35,24 @@ public class ChatChannel {
 
   private final ObservableMap<String, ChatChannelUser> usernameToChatUser = FXCollections.synchronizedObservableMap(
       FXCollections.observableHashMap());
-  private final ObservableList<ChatChannelUser> users = JavaFxUtil.attachListToMap(
-      FXCollections.synchronizedObservableList(FXCollections.observableArrayList(
-          item -> new Observable[]{item.categoryProperty(), item.colorProperty(), item.typingProperty()})),
-      usernameToChatUser);
+  private final ObservableList<ChatChannelUser> users = JavaFxUtil.attachIndexedListToMap(usernameToChatUser,
+      item -> new Observable[]{item.categoryProperty(), item.colorProperty(), item.typingProperty()});
   private final ObservableList<ChatChannelUser> unmodifiableUsers = FXCollections.unmodifiableObservableList(users);
   private final ObservableList<ChatChannelUser> typingUsers = new FilteredList<>(users, ChatChannelUser::isTyping);
   private final ObjectProperty<ChannelTopic> topic = new SimpleObjectProperty<>(new ChannelTopic(null, ""));
-  private final ObservableMap<String, ChatMessage> messagesById = FXCollections.synchronizedObservableMap(
-      FXCollections.observableHashMap());
+  private final ChatMessageStore messages = new ChatMessageStore();
   private final Map<String, Reaction> reactionsById = new ConcurrentHashMap<>();
-  private final ObservableSet<ChatMessage> messages = JavaFxUtil.attachSetToMap(
-      FXCollections.synchronizedObservableSet(FXCollections.observableSet()), messagesById);
   private final BooleanProperty open = new SimpleBooleanProperty();
   private final BooleanProperty loaded = new SimpleBooleanProperty();
   private final IntegerProperty maxNumMessages = new SimpleIntegerProperty(Integer.MAX_VALUE);
   private final IntegerProperty numUnreadMessages = new SimpleIntegerProperty();
 
+  // Messages paged in from the history, which are kept in addition to the maximum number of messages
+  private int numOlderMessages;
+
   public ChatChannel(String name) {
     this.name = name;
-    maxNumMessages.subscribe(this::pruneMessages);
+    maxNumMessages.subscribe(maxNumMessages -> updateMaxSize());
     open.subscribe(open -> {
       if (open) {
         setNumUnreadMessages(0);
@@ -64,17 +60,6 @@ public class ChatChannel {
     });
   }
 
-  private void pruneMessages() {
-    int maxNumMessages = getMaxNumMessages();
-    int numMessages = messages.size();
-    if (numMessages > maxNumMessages) {
-      messages.stream()
-              .sorted(Comparator.comparing(ChatMessage::getTime))
-              .limit(numMessages - maxNumMessages)
-              .forEach(message -> messagesById.remove(message.getId()));
-    }
-  }
-
   public int getNumUnreadMessages() {
     return numUnreadMessages.get();
   }
@@ -89,7 +74,6 @@ public class ChatChannel {
 
   public void setMaxNumMessages(int maxNumMessages) {
     this.maxNumMessages.set(Math.max(maxNumMessages, 0));
-    pruneMessages();
   }
 
   public int getMaxNumMessages() {
@@ -146,44 +130,88 @@ public class ChatChannel {
   }
 
   public Optional<ChatMessage> getMessage(String id) {
-    return Optional.ofNullable(messagesById.get(id));
+    return messages.get(id);
   }
 
   public void removeMessage(String messageId) {
-    messagesById.remove(messageId);
+    messages.remove(messageId);
     Reaction removedReaction = reactionsById.remove(messageId);
     if (removedReaction == null) {
       return;
     }
-    ChatMessage reactedToMessage = messagesById.get(removedReaction.targetMessageId());
-    if (reactedToMessage == null) {
-      return;
-    }
-
-    reactedToMessage.removeReaction(removedReaction);
+    messages.get(removedReaction.targetMessageId())
+            .ifPresent(reactedToMessage -> reactedToMessage.removeReaction(removedReaction));
   }
 
   public void removePendingMessage(String messageId) {
-    messagesById.computeIfPresent(messageId,
-                                  (ignored, chatMessage) -> chatMessage.getType() == Type.PENDING ? null : chatMessage);
+    synchronized (messages) {
+      messages.get(messageId)
+              .filter(chatMessage -> chatMessage.getType() == Type.PENDING)
+              .ifPresent(pendingMessage -> messages.remove(messageId));
+    }
   }
 
   public void addMessage(ChatMessage message) {
-    messagesById.put(message.getId(), message);
-    pruneMessages();
+    messages.put(message);
   }
 
-  public void addReaction(Reaction reaction) {
-    ChatMessage targetMessage = messagesById.get(reaction.targetMessageId());
-    if (targetMessage == null) {
-      return;
+  /**
+   * Adds messages restored from the history, skipping those that are already in the channel.
+   */
+  public void restoreMessages(List<ChatMessage> restoredMessages) {
+    synchronized (messages) {
+      restoredMessages.stream().filter(message -> messages.get(message.getId()).isEmpty()).forEach(messages::put);
+    }
+  }
+
+  /**
+   * Adds messages that precede the messages of the channel, skipping those that are already in the channel. They are
+   * kept in addition to the maximum number of messages until {@link #discardOlderMessages()} is called.
+   *
+   * @return the number of messages that have been added
+   */
+  public int addOlderMessages(List<ChatMessage> olderMessages) {
+    synchronized (messages) {
+      List<ChatMessage> newMessages = olderMessages.stream()
+                                                   .filter(message -> messages.get(message.getId()).isEmpty())
+                                                   .toList();
+      numOlderMessages += newMessages.size();
+      updateMaxSize();
+      newMessages.forEach(messages::put);
+      return newMessages.size();
+    }
+  }
+
+  /**
+   * Evicts the oldest messages until no more than the maximum number of messages are left.
+   */
+  public void discardOlderMessages() {
+    synchronized (messages) {
+      if (numOlderMessages == 0) {
+        return;
+      }
+      numOlderMessages = 0;
+      updateMaxSize();
     }
+  }
+
+  private void updateMaxSize() {
+    synchronized (messages) {
+      messages.setMaxSize((int) Math.min(Integer.MAX_VALUE, (long) getMaxNumMessages() + numOlderMessages));
+    }
+  }
 
-    targetMessage.addReaction(reaction);
-    reactionsById.put(reaction.messageId(), reaction);
+  public void addReaction(Reaction reaction) {
+    messages.get(reaction.targetMessageId()).ifPresent(targetMessage -> {
+      targetMessage.addReaction(reaction);
+      reactionsById.put(reaction.messageId(), reaction);
+    });
   }
 
-  public ObservableSet<ChatMessage> getMessages() {
+  /**
+   * @return the messages of this channel, ordered by time
+   */
+  public ChatMessageStore getMessages() {
     return messages;
   }
 
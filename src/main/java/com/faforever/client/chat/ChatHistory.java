@@ -0,0 +1,135 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessage.Type;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.user.LoginService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent history of the chat messages of all channels, so older messages don't need to be kept in memory and
+ * recent messages are available right after a restart. There is one {@link ChatHistoryLog} per channel and user, which
+ * is opened when the channel's history is first used. Failures are logged and otherwise ignored, as the history is
+ * only a convenience.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChatHistory implements DisposableBean {
+
+  static final int MAX_ENTRIES_PER_CHANNEL = 10_000;
+  private static final String HISTORY_FILE_SUFFIX = ".jsonl";
+
+  private final DataPrefs dataPrefs;
+  private final LoginService loginService;
+  private final ObjectMapper objectMapper;
+
+  private final Map<Path, ChatHistoryLog> logsByFile = new ConcurrentHashMap<>();
+  private final Set<Path> unavailableFiles = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Stores the message unless it is pending or has already been stored.
+   */
+  public void append(String channelName, ChatMessage message) {
+    if (message.getType() == Type.PENDING) {
+      return;
+    }
+
+    ChatHistoryEntry entry = new ChatHistoryEntry(message.getId(), message.getTime().toEpochMilli(),
+                                                  message.getSender().getUsername(), message.getContent(),
+                                                  message.getType(),
+                                                  message.getTargetMessage().map(ChatMessage::getId).orElse(null));
+    getLog(channelName).ifPresent(historyLog -> {
+      try {
+        historyLog.append(entry);
+      } catch (IOException e) {
+        log.warn("Could not append message `{}` to chat history of `{}`", message.getId(), channelName, e);
+      }
+    });
+  }
+
+  /**
+   * @return up to {@code count} of the newest messages of the channel, ordered by time
+   */
+  public List<ChatHistoryEntry> getLatest(String channelName, int count) {
+    return getLog(channelName).map(historyLog -> {
+      try {
+        return historyLog.readLatest(count);
+      } catch (IOException e) {
+        log.warn("Could not read chat history of `{}`", channelName, e);
+        return List.<ChatHistoryEntry>of();
+      }
+    }).orElse(List.of());
+  }
+
+  /**
+   * @return up to {@code count} of the messages of the channel that precede the given message, ordered by time
+   */
+  public List<ChatHistoryEntry> getBefore(String channelName, ChatMessage message, int count) {
+    return getLog(channelName).map(historyLog -> {
+      try {
+        return historyLog.readBefore(message.getId(), message.getTime().toEpochMilli(), count);
+      } catch (IOException e) {
+        log.warn("Could not read chat history of `{}`", channelName, e);
+        return List.<ChatHistoryEntry>of();
+      }
+    }).orElse(List.of());
+  }
+
+  private Optional<ChatHistoryLog> getLog(String channelName) {
+    String username = loginService.getUsername();
+    if (username == null) {
+      return Optional.empty();
+    }
+
+    Path file = dataPrefs.getChatHistoryDirectory()
+                         .resolve(toFileName(username))
+                         .resolve(toFileName(channelName) + HISTORY_FILE_SUFFIX);
+    if (unavailableFiles.contains(file)) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(logsByFile.computeIfAbsent(file, ignored -> {
+      try {
+        return ChatHistoryLog.open(file, objectMapper, MAX_ENTRIES_PER_CHANNEL);
+      } catch (IOException e) {
+        log.warn("Could not open chat history `{}`, history of `{}` is disabled", file, channelName, e);
+        unavailableFiles.add(file);
+        return null;
+      }
+    }));
+  }
+
+  /**
+   * IRC names are case-insensitive and may contain characters that are not allowed in file names.
+   */
+  private static String toFileName(String name) {
+    return URLEncoder.encode(name.toLowerCase(Locale.ROOT), StandardCharsets.UTF_8).replace("*", "%2A");
+  }
+
+  @Override
+  public void destroy() {
+    logsByFile.values().forEach(historyLog -> {
+      try {
+        historyLog.close();
+      } catch (IOException e) {
+        log.warn("Could not close chat history", e);
+      }
+    });
+    logsByFile.clear();
+  }
+}
@@ -0,0 +1,11 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessage.Type;
+
+/**
+ * A chat message as it is stored in the chat history. The time is in epoch milliseconds, replies refer to their target
+ * message by its id.
+ */
+public record ChatHistoryEntry(
+    String id, long time, String sender, String content, Type type, String targetMessageId
+) {}
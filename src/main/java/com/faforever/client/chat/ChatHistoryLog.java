@@ -0,0 +1,253 @@
+package com.faforever.client.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The append only history file of a single chat channel, with one JSON encoded {@link ChatHistoryEntry} per line. Only
+ * the id, time and position of each entry are kept in memory, the entries themselves are read from the file when they
+ * are requested.
+ *
+ * <p>The index is built by reading the file once when it is opened. A partially written last line, as left behind by
+ * a crash, is cut off, and if the file holds more than the maximum number of entries it is rewritten with only the
+ * newest ones. All methods are synchronized on the log.</p>
+ */
+@Slf4j
+class ChatHistoryLog implements Closeable {
+
+  private static final byte LINE_SEPARATOR = '\n';
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  private final Path file;
+  private final ObjectMapper objectMapper;
+  // Ordered by time, entries with the same time in the order they have been appended
+  private final List<Position> positions = new ArrayList<>();
+  private final Map<String, Position> positionsById = new HashMap<>();
+
+  private FileChannel channel;
+  private long end;
+
+  private record Position(String id, long time, long offset, int length) {}
+
+  private ChatHistoryLog(Path file, ObjectMapper objectMapper) {
+    this.file = file;
+    this.objectMapper = objectMapper;
+  }
+
+  static ChatHistoryLog open(Path file, ObjectMapper objectMapper, int maxEntries) throws IOException {
+    Files.createDirectories(file.getParent());
+    ChatHistoryLog historyLog = new ChatHistoryLog(file, objectMapper);
+    historyLog.channel = FileChannel.open(file, CREATE, READ, WRITE);
+    try {
+      historyLog.readIndex();
+      if (historyLog.positions.size() > maxEntries) {
+        historyLog.compact(maxEntries);
+      }
+    } catch (IOException e) {
+      historyLog.close();
+      throw e;
+    }
+    return historyLog;
+  }
+
+  /**
+   * @return whether the entry has been appended, which it is not if an entry with the same id is already stored
+   */
+  synchronized boolean append(ChatHistoryEntry entry) throws IOException {
+    if (positionsById.containsKey(entry.id())) {
+      return false;
+    }
+
+    byte[] json = objectMapper.writeValueAsBytes(entry);
+    ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put(LINE_SEPARATOR).flip();
+    long offset = end;
+    try {
+      while (buffer.hasRemaining()) {
+        end += channel.write(buffer, end);
+      }
+    } catch (IOException e) {
+      // Don't leave a partial line behind that the next entry would be appended to
+      end = offset;
+      channel.truncate(offset);
+      throw e;
+    }
+    index(new Position(entry.id(), entry.time(), offset, json.length));
+    return true;
+  }
+
+  /**
+   * @return up to {@code count} of the newest entries, ordered by time
+   */
+  synchronized List<ChatHistoryEntry> readLatest(int count) throws IOException {
+    return read(positions.subList(Math.max(0, positions.size() - count), positions.size()));
+  }
+
+  /**
+   * @return up to {@code count} of the entries that are stored before the entry with the given id, ordered by time. If
+   * there is no such entry, the entries older than the given time are returned instead.
+   */
+  synchronized List<ChatHistoryEntry> readBefore(String id, long time, int count) throws IOException {
+    Position anchor = positionsById.get(id);
+    int endIndex = anchor == null ? firstIndexNotBefore(time) : indexOf(anchor);
+    return read(positions.subList(Math.max(0, endIndex - count), endIndex));
+  }
+
+  synchronized int size() {
+    return positions.size();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  private void readIndex() throws IOException {
+    byte[] bytes = new byte[READ_BUFFER_SIZE];
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    long position = 0;
+    long lineStart = 0;
+    int read;
+    while ((read = channel.read(buffer.clear(), position)) > 0) {
+      int chunkStart = 0;
+      for (int i = 0; i < read; i++) {
+        if (bytes[i] == LINE_SEPARATOR) {
+          line.write(bytes, chunkStart, i - chunkStart);
+          indexLine(line.toByteArray(), lineStart);
+          line.reset();
+          chunkStart = i + 1;
+          lineStart = position + chunkStart;
+        }
+      }
+      line.write(bytes, chunkStart, read - chunkStart);
+      position += read;
+    }
+
+    if (lineStart < position) {
+      log.info("Cutting off incomplete last line of chat history `{}`", file);
+      channel.truncate(lineStart);
+    }
+    end = lineStart;
+  }
+
+  private void indexLine(byte[] line, long offset) {
+    try {
+      ChatHistoryEntry entry = objectMapper.readValue(line, ChatHistoryEntry.class);
+      if (!positionsById.containsKey(entry.id())) {
+        index(new Position(entry.id(), entry.time(), offset, line.length));
+      }
+    } catch (IOException e) {
+      log.debug("Skipping unreadable line of chat history `{}` at offset {}", file, offset, e);
+    }
+  }
+
+  private void index(Position position) {
+    positions.add(firstIndexNotBefore(position.time() + 1), position);
+    positionsById.put(position.id(), position);
+  }
+
+  /**
+   * Rewrites the file with only the newest entries, leaving out unreadable lines as well.
+   */
+  private void compact(int maxEntries) throws IOException {
+    List<Position> retainedPositions = List.copyOf(positions.subList(positions.size() - maxEntries,
+                                                                     positions.size()));
+    log.debug("Compacting chat history `{}` from {} to {} entries", file, positions.size(), maxEntries);
+
+    Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      positions.clear();
+      positionsById.clear();
+      try (FileChannel compactedChannel = FileChannel.open(temporaryFile, WRITE)) {
+        long offset = 0;
+        for (Position position : retainedPositions) {
+          ByteBuffer line = ByteBuffer.allocate(position.length() + 1);
+          readFully(line, position.offset());
+          while (line.flip().hasRemaining()) {
+            offset += compactedChannel.write(line, offset);
+            line.compact();
+          }
+          index(new Position(position.id(), position.time(), offset - position.length() - 1, position.length()));
+        }
+        end = offset;
+      }
+      channel.close();
+      Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+    channel = FileChannel.open(file, READ, WRITE);
+  }
+
+  private List<ChatHistoryEntry> read(List<Position> positions) throws IOException {
+    List<ChatHistoryEntry> entries = new ArrayList<>(positions.size());
+    for (Position position : positions) {
+      ByteBuffer line = ByteBuffer.allocate(position.length());
+      readFully(line, position.offset());
+      try {
+        entries.add(objectMapper.readValue(line.array(), ChatHistoryEntry.class));
+      } catch (JsonProcessingException e) {
+        log.debug("Skipping unreadable entry of chat history `{}` at offset {}", file, position.offset(), e);
+      }
+    }
+    return entries;
+  }
+
+  private void readFully(ByteBuffer buffer, long offset) throws IOException {
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Unexpected end of chat history `%s` at offset %d".formatted(file, position));
+      }
+      position += read;
+    }
+  }
+
+  private int indexOf(Position position) {
+    int index = firstIndexNotBefore(position.time());
+    while (positions.get(index) != position) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * @return the index of the first entry that is not older than the given time
+   */
+  private int firstIndexNotBefore(long time) {
+    int low = 0;
+    int high = positions.size();
+    if (high == 0 || positions.get(high - 1).time() < time) {
+      return high;
+    }
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (positions.get(middle).time() < time) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -11,7 +11,10 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @RequiredArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
@@ -36,6 +39,11 @@ public class ChatMessage {
   private final ObservableMap<Emoticon, ObservableMap<String, String>> unmodifiableReactions = FXCollections.unmodifiableObservableMap(
       reactions);
 
+  // Parsed once and shared by every controller rendering this message, mentions depend on the user it was parsed for
+  private volatile TokenizedContent tokenizedContent;
+
+  private record TokenizedContent(String username, List<ChatMessageToken> tokens) {}
+
   public Optional<ChatMessage> getTargetMessage() {
     return Optional.ofNullable(targetMessage);
   }
@@ -59,6 +67,17 @@ public class ChatMessage {
     }
   }
 
+  List<ChatMessageToken> getTokens(String currentUsername, Predicate<String> isEmoticonShortcode) {
+    TokenizedContent tokenizedContent = this.tokenizedContent;
+    if (tokenizedContent == null || !Objects.equals(tokenizedContent.username(), currentUsername)) {
+      tokenizedContent = new TokenizedContent(currentUsername,
+                                              ChatMessageTokenizer.tokenize(content, currentUsername,
+                                                                            isEmoticonShortcode));
+      this.tokenizedContent = tokenizedContent;
+    }
+    return tokenizedContent.tokens();
+  }
+
   public boolean isSeen() {
     return seen.get();
   }
@@ -54,14 +54,12 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -69,6 +67,8 @@ import java.util.regex.Pattern;
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class ChatMessageController extends NodeController<VBox> {
 
+  private static final int EMOTICON_SIZE = 24;
+
   private final AvatarService avatarService;
   private final CountryFlagService countryFlagService;
   private final TimeService timeService;
@@ -107,14 +107,10 @@ public class ChatMessageController extends NodeController<VBox> {
 
   private final Map<Emoticon, HBox> reactionNodeMap = new HashMap<>();
 
-  private Pattern mentionPattern;
-
   @Override
   protected void onInitialize() {
     JavaFxUtil.bindManagedToVisible(detailsContainer, replyContainer, message, messageActionsContainer);
 
-    mentionPattern = chatService.getMentionPattern();
-
     ObservableValue<ChatChannelUser> sender = chatMessage.map(ChatMessage::getSender);
     ObservableValue<PlayerInfo> player = sender.flatMap(ChatChannelUser::playerProperty);
     avatarImageView.imageProperty().bind(player.flatMap(PlayerInfo::avatarProperty)
@@ -146,7 +142,7 @@ public class ChatMessageController extends NodeController<VBox> {
                               .map(timeService::asShortTime)
                               .orElse(i18n.get("pending"))
                               .when(showing));
-    chatMessage.map(ChatMessage::getContent).map(this::convertMessageToNodes).when(showing).subscribe(messageNodes -> {
+    chatMessage.map(this::convertMessageToNodes).when(showing).subscribe(messageNodes -> {
       Collection<? extends Node> children = messageNodes == null ? List.of() : messageNodes;
       fxApplicationThreadExecutor.execute(() -> message.getChildren().setAll(children));
     });
@@ -238,25 +234,40 @@ public class ChatMessageController extends NodeController<VBox> {
     messageActionsContainer.setVisible(true);
   }
 
-  private List<? extends Node> convertMessageToNodes(String message) {
-    return Arrays.stream(message.split("\\s+")).map(this::convertWordToNode).peek(this::styleMessageNode).toList();
+  private List<? extends Node> convertMessageToNodes(ChatMessage chatMessage) {
+    return chatMessage.getTokens(chatService.getCurrentUsername(), emoticonService::isEmoticonShortcode)
+                      .stream()
+                      .map(this::convertTokenToNode)
+                      .toList();
   }
 
-  private Node convertWordToNode(String word) {
-    return switch (word) {
-      case String url when PlatformService.LENIENT_URL_REGEX_PATTERN.matcher(url).matches() ->
-          createExternalHyperlink(url);
-      case String channel when channel.startsWith("#") -> createChannelLink(channel);
-      case String shortcode when emoticonService.isEmoticonShortcode(shortcode) -> createEmoticon(shortcode);
-      default -> new Text(word + " ");
+  private Node convertTokenToNode(ChatMessageToken token) {
+    return switch (token.kind()) {
+      case URL -> createExternalHyperlink(token.value());
+      case CHANNEL -> createChannelLink(token.value());
+      case EMOTICON -> {
+        Pane emoticon = createEmoticon(token.value());
+        emoticon.styleProperty().bind(inlineTextColorStyleProperty);
+        yield emoticon;
+      }
+      case MENTION -> {
+        Text text = new Text(token.value() + " ");
+        text.setStyle("-fx-fill: #FFA500");
+        yield text;
+      }
+      case TEXT -> {
+        Text text = new Text(token.value() + " ");
+        text.styleProperty().bind(inlineTextColorStyleProperty);
+        yield text;
+      }
     };
   }
 
   private Pane createEmoticon(String shortcode) {
     ImageView imageView = new ImageView();
-    imageView.setImage(emoticonService.getImageByShortcode(shortcode));
-    imageView.setFitHeight(24);
-    imageView.setFitWidth(24);
+    imageView.setImage(emoticonService.getImageByShortcode(shortcode, EMOTICON_SIZE));
+    imageView.setFitHeight(EMOTICON_SIZE);
+    imageView.setFitWidth(EMOTICON_SIZE);
     Pane pane = new Pane(imageView);
     pane.setPadding(new Insets(0, 5, 0, 0));
     return pane;
@@ -280,15 +291,6 @@ public class ChatMessageController extends NodeController<VBox> {
     return hyperlink;
   }
 
-  private void styleMessageNode(Node node) {
-    switch (node) {
-      case ImageView ignored -> {}
-      case Hyperlink ignored -> {}
-      case Text text when mentionPattern.matcher(text.getText()).matches() -> text.setStyle("-fx-fill: #FFA500");
-      default -> node.styleProperty().bind(inlineTextColorStyleProperty);
-    }
-  }
-
   public void onReactButtonClicked() {
     EmoticonsWindowController emoticonsWindowController = uiService.loadFxml(
         "theme/chat/emoticons/emoticons_window.fxml");
@@ -0,0 +1,243 @@
+package com.faforever.client.chat;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The messages of a {@link ChatChannel}, ordered by time and limited to a maximum number of messages. Messages are kept
+ * in a ring buffer, so new messages are appended and the oldest messages are evicted in constant time. Only messages
+ * that arrive out of order or are removed from the middle, like pending messages, require shifting their neighbours.
+ *
+ * <p>The store is an unmodifiable observable list to its readers, changes are made by the channel and reported as a
+ * single change per operation, no matter how many messages are evicted. All methods are synchronized on the store.</p>
+ */
+public class ChatMessageStore extends ObservableListBase<ChatMessage> {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Map<String, Slot> slotsById = new HashMap<>();
+
+  private Slot[] buffer = new Slot[INITIAL_CAPACITY];
+  // Buffer index of the oldest message
+  private int head;
+  private int size;
+  // Sequence number of the oldest message, the message at list index i has the sequence number headSequence + i
+  private long headSequence;
+  private int maxSize = Integer.MAX_VALUE;
+
+  private static final class Slot {
+    private ChatMessage message;
+    private long sequence;
+
+    private Slot(ChatMessage message, long sequence) {
+      this.message = message;
+      this.sequence = sequence;
+    }
+  }
+
+  @Override
+  public synchronized ChatMessage get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return slotAt(index).message;
+  }
+
+  @Override
+  public synchronized int size() {
+    return size;
+  }
+
+  @Override
+  public synchronized int indexOf(Object object) {
+    if (!(object instanceof ChatMessage message)) {
+      return -1;
+    }
+    Slot slot = slotsById.get(message.getId());
+    return slot == null ? -1 : (int) (slot.sequence - headSequence);
+  }
+
+  @Override
+  public int lastIndexOf(Object object) {
+    return indexOf(object);
+  }
+
+  @Override
+  public boolean contains(Object object) {
+    return indexOf(object) >= 0;
+  }
+
+  public synchronized Optional<ChatMessage> get(String id) {
+    Slot slot = slotsById.get(id);
+    return slot == null ? Optional.empty() : Optional.of(slot.message);
+  }
+
+  /**
+   * @return a copy of all messages, taken atomically
+   */
+  public synchronized List<ChatMessage> snapshot() {
+    ChatMessage[] messages = new ChatMessage[size];
+    for (int i = 0; i < size; i++) {
+      messages[i] = slotAt(i).message;
+    }
+    return Arrays.asList(messages);
+  }
+
+  /**
+   * Adds the message at the position of its time, or replaces the message with the same id. Evicts the oldest
+   * messages if the store gets too large.
+   */
+  synchronized void put(ChatMessage message) {
+    beginChange();
+    try {
+      Slot existingSlot = slotsById.get(message.getId());
+      if (existingSlot != null) {
+        ChatMessage replacedMessage = existingSlot.message;
+        existingSlot.message = message;
+        nextSet((int) (existingSlot.sequence - headSequence), replacedMessage);
+        return;
+      }
+
+      int index = insertionIndex(message);
+      insert(index, message);
+      nextAdd(index, index + 1);
+      evictOldest();
+    } finally {
+      endChange();
+    }
+  }
+
+  synchronized Optional<ChatMessage> remove(String id) {
+    Slot slot = slotsById.get(id);
+    if (slot == null) {
+      return Optional.empty();
+    }
+
+    beginChange();
+    try {
+      int index = (int) (slot.sequence - headSequence);
+      removeAt(index);
+      nextRemove(index, slot.message);
+    } finally {
+      endChange();
+    }
+    return Optional.of(slot.message);
+  }
+
+  synchronized void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+    beginChange();
+    try {
+      evictOldest();
+    } finally {
+      endChange();
+    }
+  }
+
+  @Override
+  public synchronized void addListener(InvalidationListener listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(InvalidationListener listener) {
+    super.removeListener(listener);
+  }
+
+  @Override
+  public synchronized void addListener(ListChangeListener<? super ChatMessage> listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(ListChangeListener<? super ChatMessage> listener) {
+    super.removeListener(listener);
+  }
+
+  private void evictOldest() {
+    while (size > maxSize) {
+      Slot oldestSlot = buffer[head];
+      buffer[head] = null;
+      head = (head + 1) % buffer.length;
+      size--;
+      headSequence++;
+      slotsById.remove(oldestSlot.message.getId());
+      nextRemove(0, oldestSlot.message);
+    }
+  }
+
+  /**
+   * @return the index after all messages that are not newer than the given one, which is the end of the list unless
+   * the message arrived out of order
+   */
+  private int insertionIndex(ChatMessage message) {
+    int low = 0;
+    int high = size;
+    if (high == 0 || !slotAt(high - 1).message.getTime().isAfter(message.getTime())) {
+      return high;
+    }
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (slotAt(middle).message.getTime().isAfter(message.getTime())) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  private void insert(int index, ChatMessage message) {
+    if (size == buffer.length) {
+      grow();
+    }
+
+    for (int i = size; i > index; i--) {
+      Slot movedSlot = slotAt(i - 1);
+      movedSlot.sequence++;
+      buffer[bufferIndex(i)] = movedSlot;
+    }
+
+    Slot slot = new Slot(message, headSequence + index);
+    buffer[bufferIndex(index)] = slot;
+    slotsById.put(message.getId(), slot);
+    size++;
+  }
+
+  private void removeAt(int index) {
+    Slot removedSlot = slotAt(index);
+    for (int i = index; i < size - 1; i++) {
+      Slot movedSlot = slotAt(i + 1);
+      movedSlot.sequence--;
+      buffer[bufferIndex(i)] = movedSlot;
+    }
+    buffer[bufferIndex(size - 1)] = null;
+    size--;
+    slotsById.remove(removedSlot.message.getId());
+  }
+
+  private void grow() {
+    Slot[] grownBuffer = new Slot[buffer.length * 2];
+    for (int i = 0; i < size; i++) {
+      grownBuffer[i] = slotAt(i);
+    }
+    buffer = grownBuffer;
+    head = 0;
+  }
+
+  private Slot slotAt(int index) {
+    return buffer[bufferIndex(index)];
+  }
+
+  private int bufferIndex(int index) {
+    return (head + index) % buffer.length;
+  }
+}
@@ -0,0 +1,11 @@
+package com.faforever.client.chat;
+
+/**
+ * A single word of a chat message and how it is rendered.
+ */
+record ChatMessageToken(Kind kind, String value) {
+
+  enum Kind {
+    TEXT, MENTION, URL, CHANNEL, EMOTICON
+  }
+}
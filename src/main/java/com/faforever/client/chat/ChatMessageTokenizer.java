@@ -0,0 +1,169 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessageToken.Kind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Splits the content of chat messages into the words they are rendered as. Words are recognized in a single pass over
+ * the content without any regular expressions; the rules are those of
+ * {@link com.faforever.client.fx.PlatformService#LENIENT_URL_REGEX_PATTERN} for URLs and of
+ * {@link ChatService#getMentionPattern()} for mentions.
+ */
+final class ChatMessageTokenizer {
+
+  private ChatMessageTokenizer() {
+    throw new AssertionError("Not instantiatable");
+  }
+
+  static List<ChatMessageToken> tokenize(String content, String currentUsername,
+                                         Predicate<String> isEmoticonShortcode) {
+    if (content == null) {
+      return List.of();
+    }
+
+    List<ChatMessageToken> tokens = new ArrayList<>();
+    int length = content.length();
+    int wordStart = -1;
+    for (int i = 0; i <= length; i++) {
+      boolean endOfWord = i == length || isWhitespace(content.charAt(i));
+      if (!endOfWord && wordStart < 0) {
+        wordStart = i;
+      } else if (endOfWord && wordStart >= 0) {
+        String word = content.substring(wordStart, i);
+        tokens.add(new ChatMessageToken(classify(word, currentUsername, isEmoticonShortcode), word));
+        wordStart = -1;
+      }
+    }
+    return List.copyOf(tokens);
+  }
+
+  private static Kind classify(String word, String currentUsername, Predicate<String> isEmoticonShortcode) {
+    if (isUrl(word)) {
+      return Kind.URL;
+    }
+    if (word.startsWith("#")) {
+      return Kind.CHANNEL;
+    }
+    if (isEmoticonShortcode.test(word)) {
+      return Kind.EMOTICON;
+    }
+    if (isMention(word, currentUsername)) {
+      return Kind.MENTION;
+    }
+    return Kind.TEXT;
+  }
+
+  /**
+   * Same as {@code \s} in regular expressions.
+   */
+  private static boolean isWhitespace(char character) {
+    return character == ' ' || character == '\t' || character == '\n' || character == '\u000B'
+        || character == '\f' || character == '\r';
+  }
+
+  /**
+   * @return whether the word is the user name, optionally preceded and followed by one character that can't be part
+   * of a user name
+   */
+  static boolean isMention(String word, String username) {
+    if (username == null || username.isEmpty()) {
+      return false;
+    }
+
+    for (int start = 0; start <= 1; start++) {
+      if (start == 1 && (word.isEmpty() || isUsernameCharacter(word.charAt(0)))) {
+        return false;
+      }
+      int remaining = word.length() - start - username.length();
+      if (remaining < 0 || remaining > 1) {
+        continue;
+      }
+      if (remaining == 1 && isUsernameCharacter(word.charAt(word.length() - 1))) {
+        continue;
+      }
+      if (word.regionMatches(true, start, username, 0, username.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return whether the word is a URL with an optional http(s) scheme, a host name ending in a top level domain of at
+   * least two letters, an optional port and an optional path or query
+   */
+  static boolean isUrl(String word) {
+    int hostStart = 0;
+    if (word.startsWith("http://")) {
+      hostStart = "http://".length();
+    } else if (word.startsWith("https://")) {
+      hostStart = "https://".length();
+    }
+
+    int hostEnd = hostStart;
+    while (hostEnd < word.length() && isHostCharacter(word.charAt(hostEnd))) {
+      hostEnd++;
+    }
+    if (!isHostName(word, hostStart, hostEnd)) {
+      return false;
+    }
+
+    int position = hostEnd;
+    if (position < word.length() && word.charAt(position) == ':') {
+      int portStart = ++position;
+      while (position < word.length() && isDigit(word.charAt(position))) {
+        position++;
+      }
+      if (position == portStart) {
+        return false;
+      }
+    }
+
+    if (position == word.length()) {
+      return true;
+    }
+    char next = word.charAt(position);
+    return next == '/' || next == '?';
+  }
+
+  private static boolean isHostName(String word, int start, int end) {
+    int lastDot = word.lastIndexOf('.', end - 1);
+    if (lastDot <= start || end - lastDot - 1 < 2) {
+      return false;
+    }
+    for (int i = lastDot + 1; i < end; i++) {
+      if (!isLetter(word.charAt(i))) {
+        return false;
+      }
+    }
+
+    if (word.charAt(start) == '.') {
+      return false;
+    }
+    for (int i = start + 1; i < lastDot; i++) {
+      if (word.charAt(i) == '.' && word.charAt(i - 1) == '.') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isHostCharacter(char character) {
+    return isLetter(character) || isDigit(character) || character == '-' || character == '.';
+  }
+
+  private static boolean isUsernameCharacter(char character) {
+    return isLetter(character) || isDigit(character) || character == '-';
+  }
+
+  private static boolean isLetter(char character) {
+    return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+  }
+
+  private static boolean isDigit(char character) {
+    return character >= '0' && character <= '9';
+  }
+}
@@ -10,6 +10,7 @@ import com.faforever.client.preferences.ChatPrefs;
 import com.faforever.client.ui.StageHolder;
 import com.faforever.client.util.ConcurrentUtil;
 import com.faforever.client.util.PopupUtil;
+import com.google.common.annotations.VisibleForTesting;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
@@ -18,7 +19,6 @@ import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.SetChangeListener;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.geometry.Bounds;
@@ -48,9 +48,14 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -60,6 +65,8 @@ import java.util.stream.Collectors;
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class ChatMessageViewController extends NodeController<VBox> {
 
+  private static final int OLDER_MESSAGES_PAGE_SIZE = 100;
+
   private final ObjectFactory<ChatMessageCell> chatMessageCellFactory;
   private final NotificationService notificationService;
   private final ChatService chatService;
@@ -92,7 +99,19 @@ public class ChatMessageViewController extends NodeController<VBox> {
   private final FilteredList<ChatMessage> filteredMessages = new FilteredList<>(
       new SortedList<>(rawMessages, Comparator.comparing(ChatMessage::getType).thenComparing(ChatMessage::getTime)));
 
-  private final SetChangeListener<ChatMessage> chatMessageListener = this::onMessageChange;
+  private final ListChangeListener<ChatMessage> chatMessageListener = this::onMessageChange;
+  private final Set<ChatMessage> pendingAddedMessages = new LinkedHashSet<>();
+  private final Set<ChatMessage> pendingRemovedMessages = new HashSet<>();
+  private boolean messageChangesScheduled;
+  /**
+   * Channels whose older messages are currently being loaded.
+   */
+  private final Set<ChatChannel> channelsLoadingOlderMessages = new HashSet<>();
+  /**
+   * The oldest message of each channel for which the history had no older messages. Loading is tried again once the
+   * channel's oldest message changed, e.g. because the channel discarded messages.
+   */
+  private final Map<ChatChannel, ChatMessage> oldestMessagesWithoutOlderMessages = new HashMap<>();
 
   private Popup emoticonsPopup;
 
@@ -122,13 +141,26 @@ public class ChatMessageViewController extends NodeController<VBox> {
       if (oldValue != null) {
         oldValue.getMessages().removeListener(chatMessageListener);
         oldValue.getTypingUsers().removeListener(typingUsersChangeListener);
+        oldValue.discardOlderMessages();
       }
 
+      synchronized (pendingAddedMessages) {
+        pendingAddedMessages.clear();
+        pendingRemovedMessages.clear();
+      }
       rawMessages.clear();
 
       if (newValue != null) {
-        newValue.getMessages().addListener(chatMessageListener);
-        fxApplicationThreadExecutor.execute(() -> rawMessages.addAll(newValue.getMessages()));
+        ChatMessageStore messages = newValue.getMessages();
+        // Changes are published while holding the store's lock, so no message is missed or added twice
+        synchronized (messages) {
+          messages.addListener(chatMessageListener);
+          List<ChatMessage> existingMessages = messages.snapshot();
+          synchronized (pendingAddedMessages) {
+            pendingAddedMessages.addAll(existingMessages);
+          }
+        }
+        scheduleMessageChanges();
         ObservableList<ChatChannelUser> typingUsers = newValue.getTypingUsers();
         setTypingLabel(typingUsers);
         typingUsers.addListener(typingUsersChangeListener);
@@ -179,6 +211,7 @@ public class ChatMessageViewController extends NodeController<VBox> {
     VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
     messagesContainer.getChildren().add(scrollPane);
+    messageListView.estimatedScrollYProperty().addListener((observable, oldValue, newValue) -> onScrolled());
 
     filteredMessages.subscribe(() -> {
       if (messageListView.getLastVisibleIndex() == filteredMessages.size() - 2) {
@@ -199,15 +232,110 @@ public class ChatMessageViewController extends NodeController<VBox> {
     return !Objects.equals(previousMessage.getSender(), currentMessage.getSender());
   }
 
+  /**
+   * Pages in older messages from the history when scrolled to the top, and lets the channel forget them again when
+   * scrolled back to the end.
+   */
+  private void onScrolled() {
+    ChatChannel channel = chatChannel.get();
+    if (channel == null || messageListView.visibleCells().isEmpty()) {
+      return;
+    }
+
+    if (messageListView.getFirstVisibleIndex() == 0) {
+      loadOlderMessages(channel, filteredMessages.get(0));
+    } else if (messageListView.getLastVisibleIndex() == filteredMessages.size() - 1
+        && channel.getMessages().size() > channel.getMaxNumMessages()) {
+      channel.discardOlderMessages();
+    }
+  }
+
+  /**
+   * Loads the page of messages that precedes the channel's oldest message, unless a page is already being loaded or
+   * the history has no older messages. Must be called on the FX application thread.
+   */
+  @VisibleForTesting
+  void loadOlderMessages(ChatChannel channel, ChatMessage firstVisibleMessage) {
+    ChatMessage oldestMessage = getOldestMessage(channel);
+    if ((oldestMessage != null && oldestMessage.equals(oldestMessagesWithoutOlderMessages.get(channel)))
+        || !channelsLoadingOlderMessages.add(channel)) {
+      return;
+    }
+
+    chatService.loadOlderMessagesInBackground(channel, OLDER_MESSAGES_PAGE_SIZE).exceptionally(throwable -> {
+      log.warn("Could not load older messages of channel `{}`", channel.getName(), throwable);
+      return 0;
+    }).thenAcceptAsync(numLoadedMessages -> {
+      channelsLoadingOlderMessages.remove(channel);
+      if (numLoadedMessages == 0) {
+        if (oldestMessage != null) {
+          oldestMessagesWithoutOlderMessages.put(channel, oldestMessage);
+        }
+        return;
+      }
+      // Keeps the message that has been at the top in place instead of jumping to the oldest loaded message
+      int firstVisibleIndex = filteredMessages.indexOf(firstVisibleMessage);
+      if (channel == chatChannel.get() && firstVisibleIndex >= 0) {
+        messageListView.showAsFirst(firstVisibleIndex);
+      }
+    }, fxApplicationThreadExecutor);
+  }
+
+  private static ChatMessage getOldestMessage(ChatChannel channel) {
+    ChatMessageStore messages = channel.getMessages();
+    synchronized (messages) {
+      return messages.isEmpty() ? null : messages.getFirst();
+    }
+  }
+
   private void scrollToEnd() {
     fxApplicationThreadExecutor.execute(() -> messageListView.showAsLast(filteredMessages.size() - 1));
   }
 
-  private void onMessageChange(SetChangeListener.Change<? extends ChatMessage> change) {
-    if (change.wasAdded()) {
-      fxApplicationThreadExecutor.execute(() -> rawMessages.add(change.getElementAdded()));
-    } else if (change.wasRemoved()) {
-      fxApplicationThreadExecutor.execute(() -> rawMessages.remove(change.getElementRemoved()));
+  private void onMessageChange(ListChangeListener.Change<? extends ChatMessage> change) {
+    synchronized (pendingAddedMessages) {
+      while (change.next()) {
+        for (ChatMessage removedMessage : change.getRemoved()) {
+          if (!pendingAddedMessages.remove(removedMessage)) {
+            pendingRemovedMessages.add(removedMessage);
+          }
+        }
+        pendingAddedMessages.addAll(change.getAddedSubList());
+      }
+    }
+    scheduleMessageChanges();
+  }
+
+  /**
+   * Applies all message changes that happened until the FX application thread gets to it in a single change of
+   * {@link #rawMessages}, instead of resorting the messages once per message.
+   */
+  private void scheduleMessageChanges() {
+    synchronized (pendingAddedMessages) {
+      if (messageChangesScheduled) {
+        return;
+      }
+      messageChangesScheduled = true;
+    }
+    fxApplicationThreadExecutor.execute(this::applyMessageChanges);
+  }
+
+  private void applyMessageChanges() {
+    List<ChatMessage> addedMessages;
+    Set<ChatMessage> removedMessages;
+    synchronized (pendingAddedMessages) {
+      addedMessages = List.copyOf(pendingAddedMessages);
+      removedMessages = Set.copyOf(pendingRemovedMessages);
+      pendingAddedMessages.clear();
+      pendingRemovedMessages.clear();
+      messageChangesScheduled = false;
+    }
+
+    if (!removedMessages.isEmpty()) {
+      rawMessages.removeAll(removedMessages);
+    }
+    if (!addedMessages.isEmpty()) {
+      rawMessages.addAll(addedMessages);
     }
   }
 
@@ -29,6 +29,13 @@ public interface ChatService {
 
   CompletableFuture<Void> sendMessageInBackground(ChatChannel chatChannel, String message);
 
+  /**
+   * Pages in up to {@code count} messages from the history that precede the messages of the channel.
+   *
+   * @return the number of messages that have been added to the channel
+   */
+  CompletableFuture<Integer> loadOlderMessagesInBackground(ChatChannel chatChannel, int count);
+
   boolean userExistsInAnyChannel(String username);
 
   ChatChannel getOrCreateChannel(String channelName);
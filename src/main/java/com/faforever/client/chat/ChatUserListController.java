@@ -10,6 +10,7 @@ import com.faforever.client.preferences.ChatPrefs;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.PopupUtil;
 import com.google.common.annotations.VisibleForTesting;
+import javafx.animation.PauseTransition;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -18,11 +19,8 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
-import javafx.collections.ObservableMap;
 import javafx.collections.ObservableSet;
 import javafx.collections.WeakListChangeListener;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -39,7 +37,6 @@ import javafx.stage.PopupWindow.AnchorLocation;
 import javafx.util.Duration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.fxmisc.flowless.Cell;
 import org.fxmisc.flowless.VirtualFlow;
 import org.fxmisc.flowless.VirtualFlow.Gravity;
@@ -49,10 +46,9 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.Predicate;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -61,11 +57,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChatUserListController extends NodeController<VBox> {
 
-  private static final Comparator<ChatListItem> CHAT_LIST_ITEM_COMPARATOR = Comparator.comparing(ChatListItem::category)
-                                                                                      .thenComparing(ChatListItem::user,
-                                                                                                     Comparator.nullsFirst(
-                                                                                                         Comparator.comparing(
-                                                                                                             ChatChannelUser::getUsername)));
+  private static final Duration SEARCH_DEBOUNCE_DELAY = Duration.millis(150);
 
   private final UiService uiService;
   private final I18n i18n;
@@ -88,21 +80,10 @@ public class ChatUserListController extends NodeController<VBox> {
   private final ObjectProperty<ChatChannel> chatChannel = new SimpleObjectProperty<>();
   private final ObservableValue<ObservableList<ChatChannelUser>> users = chatChannel.map(ChatChannel::getUsers);
   private final ObservableValue<String> channelName = chatChannel.map(ChatChannel::getName);
-  private final ObservableMap<ChatChannelUser, ChatListItem> userChatListItemMap = FXCollections.synchronizedObservableMap(
-      FXCollections.observableHashMap());
-  private final ObservableList<ChatListItem> unfilteredItems = FXCollections.synchronizedObservableList(
-      FXCollections.observableArrayList());
-  private final FilteredList<ChatListItem> items = new FilteredList<>(
-      new SortedList<>(unfilteredItems, CHAT_LIST_ITEM_COMPARATOR));
+  private final ChatUserListItems items = new ChatUserListItems(channelName);
   private final ObjectProperty<ObservableSet<ChatUserCategory>> hiddenCategories = new SimpleObjectProperty<>(
       FXCollections.emptyObservableSet());
-  private final ObservableValue<Predicate<ChatListItem>> hiddenCategoryPredicate = hiddenCategories.flatMap(
-                                                                                                       categories -> Bindings.createObjectBinding(() -> categories.stream()
-                                                                                                                                                                  .map(
-                                                                                                                                                                      category -> (Predicate<ChatListItem>) item -> item.user() == null || item.category() != category)
-                                                                                                                                                                  .reduce(item -> true, Predicate::and), categories))
-                                                                                                   .orElse(
-                                                                                                       item -> true);
+  private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE_DELAY);
 
   private final ListChangeListener<ChatChannelUser> channelUserListListener = this::onUserChange;
   private final WeakListChangeListener<ChatChannelUser> weakUserListChangeListener = new WeakListChangeListener<>(
@@ -120,7 +101,7 @@ public class ChatUserListController extends NodeController<VBox> {
     searchUsernameTextField.setPromptText(i18n.get("chat.search.prompt"));
 
     users.when(showing).subscribe((oldValue, newValue) -> {
-      unfilteredItems.removeIf(item -> item.user() != null);
+      fxApplicationThreadExecutor.execute(items::clearUsers);
 
       if (oldValue != null) {
         oldValue.removeListener(weakUserListChangeListener);
@@ -137,16 +118,6 @@ public class ChatUserListController extends NodeController<VBox> {
     initializeFilter();
     initializeList();
     initializeGameTooltip();
-
-    for (ChatUserCategory category : ChatUserCategory.values()) {
-      FilteredList<ChatListItem> categoryFilteredList = new FilteredList<>(unfilteredItems);
-      categoryFilteredList.predicateProperty()
-                          .bind(chatUserFilterController.predicateProperty()
-                                                        .map(filterPredicate -> filterPredicate.and(
-                                                            item -> item.user() != null && item.category() == category)));
-      ChatListItem item = new ChatListItem(null, category, channelName, Bindings.size(categoryFilteredList).asObject());
-      fxApplicationThreadExecutor.execute(() -> unfilteredItems.add(item));
-    }
   }
 
   public void setChatChannel(ChatChannel chatChannel) {
@@ -188,23 +159,20 @@ public class ChatUserListController extends NodeController<VBox> {
     userListContainer.getChildren().add(scrollPane);
     userListTools.setDisable(false);
 
-    items.predicateProperty()
-         .bind(chatUserFilterController.predicateProperty()
-                                       .flatMap(filterPredicate -> hiddenCategoryPredicate.map(filterPredicate::and)));
+    chatUserFilterController.predicateProperty()
+                            .subscribe(filterPredicate -> fxApplicationThreadExecutor.execute(
+                                () -> items.setFilter(filterPredicate)));
+    hiddenCategories.flatMap(categories -> Bindings.createObjectBinding(() -> Set.copyOf(categories), categories))
+                    .subscribe(categories -> fxApplicationThreadExecutor.execute(
+                        () -> items.setHiddenCategories(categories)));
   }
 
   private void onUserJoined(ChatChannelUser user) {
-    ChatListItem item = new ChatListItem(user, user.getCategory(), null, null);
-    ChatListItem oldItem = userChatListItemMap.put(user, item);
-    fxApplicationThreadExecutor.execute(() -> {
-      unfilteredItems.remove(oldItem);
-      unfilteredItems.add(item);
-    });
+    fxApplicationThreadExecutor.execute(() -> items.put(user));
   }
 
   private void onUserLeft(ChatChannelUser user) {
-    ChatListItem item = userChatListItemMap.remove(user);
-    fxApplicationThreadExecutor.execute(() -> unfilteredItems.remove(item));
+    fxApplicationThreadExecutor.execute(() -> items.remove(user));
   }
 
   private void onUserChange(Change<? extends ChatChannelUser> change) {
@@ -214,20 +182,26 @@ public class ChatUserListController extends NodeController<VBox> {
       } else if (change.wasRemoved()) {
         change.getRemoved().forEach(this::onUserLeft);
       } else if (change.wasUpdated()) {
-        List<ChatChannelUser> changedUsers = List.copyOf(change.getList().subList(change.getFrom(), change.getTo()));
-        changedUsers.forEach(this::onUserLeft);
-        changedUsers.forEach(this::onUserJoined);
+        List.copyOf(change.getList().subList(change.getFrom(), change.getTo())).forEach(this::onUserJoined);
       }
     }
   }
 
   private void initializeFilter() {
     chatUserFilterController = uiService.loadFxml("theme/filter/filter.fxml", ChatUserFilterController.class);
-    chatUserFilterController.addExternalFilter(searchUsernameTextField.textProperty().when(showing),
-                                               (text, item) -> text.isEmpty() || item.user() == null || StringUtils.containsIgnoreCase(
-                                                   item.user().getUsername(), text));
     chatUserFilterController.completeSetting();
 
+    // The search text is not part of the filter, as it is looked up in the name index of the items
+    searchUsernameTextField.textProperty().when(showing).subscribe(text -> {
+      searchDebounce.setOnFinished(event -> items.setSearchText(text));
+      if (text.isEmpty()) {
+        searchDebounce.stop();
+        items.setSearchText(text);
+      } else {
+        searchDebounce.playFromStart();
+      }
+    });
+
     filterPopup = PopupUtil.createPopup(PopupWindow.AnchorLocation.CONTENT_TOP_RIGHT,
                                         chatUserFilterController.getRoot());
 
@@ -260,11 +234,7 @@ public class ChatUserListController extends NodeController<VBox> {
 
   @VisibleForTesting
   List<ChatChannelUser> getUserListByCategory(ChatUserCategory category) {
-    return unfilteredItems.stream()
-                          .filter(item -> item.category() == category)
-                          .map(ChatListItem::user)
-                          .filter(Objects::nonNull)
-                          .collect(Collectors.toList());
+    return items.getUsers(category);
   }
 
   @VisibleForTesting
@@ -278,6 +248,6 @@ public class ChatUserListController extends NodeController<VBox> {
 
   @VisibleForTesting
   List<ChatChannelUser> getUserList() {
-    return unfilteredItems.stream().map(ChatListItem::user).filter(Objects::nonNull).collect(Collectors.toList());
+    return items.getUsers();
   }
 }
@@ -0,0 +1,283 @@
+package com.faforever.client.chat;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableListBase;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * The items of a chat user list: a header per category, followed by the users of that category that match the filter
+ * and the search text, sorted by name. Users of hidden categories are not listed, but still counted in the header.
+ *
+ * <p>Users are kept in sorted buckets per category and indexed by the trigrams of their names. Adding or removing a
+ * user is reported as a single change, and changing the filter, the search text or the hidden categories only
+ * evaluates the candidates for the new search and reports the difference to the previously listed items. Must only be
+ * used on the FX application thread.</p>
+ */
+class ChatUserListItems extends ObservableListBase<ChatListItem> {
+
+  private static final int TRIGRAM_LENGTH = 3;
+
+  // Headers have no user and are sorted first in their category
+  private static final Comparator<ChatListItem> ITEM_COMPARATOR = Comparator.comparing(ChatListItem::category)
+      .thenComparing(ChatListItem::user, Comparator.nullsFirst(Comparator.comparing(ChatChannelUser::getUsername)));
+
+  private final Map<ChatUserCategory, NavigableMap<String, ChatListItem>> itemsByCategory = new EnumMap<>(
+      ChatUserCategory.class);
+  private final Map<ChatUserCategory, ChatListItem> headers = new EnumMap<>(ChatUserCategory.class);
+  private final Map<ChatUserCategory, IntegerProperty> matchingItemCounts = new EnumMap<>(ChatUserCategory.class);
+  private final Map<ChatChannelUser, ChatListItem> itemsByUser = new HashMap<>();
+  private final Map<String, Set<ChatListItem>> itemsByTrigram = new HashMap<>();
+  private final Set<ChatListItem> matchingItems = newItemSet();
+
+  private List<ChatListItem> visibleItems = new ArrayList<>();
+  private Predicate<ChatListItem> filter = item -> true;
+  private String searchText = "";
+  private Set<ChatUserCategory> hiddenCategories = EnumSet.noneOf(ChatUserCategory.class);
+
+  ChatUserListItems(ObservableValue<String> channelName) {
+    for (ChatUserCategory category : ChatUserCategory.values()) {
+      IntegerProperty matchingItemCount = new SimpleIntegerProperty();
+      ChatListItem header = new ChatListItem(null, category, channelName, matchingItemCount.asObject());
+      itemsByCategory.put(category, new TreeMap<>());
+      headers.put(category, header);
+      matchingItemCounts.put(category, matchingItemCount);
+      visibleItems.add(header);
+    }
+  }
+
+  @Override
+  public ChatListItem get(int index) {
+    return visibleItems.get(index);
+  }
+
+  @Override
+  public int size() {
+    return visibleItems.size();
+  }
+
+  /**
+   * Adds the user with its current category, or moves it if its category has changed.
+   */
+  void put(ChatChannelUser user) {
+    beginChange();
+    try {
+      removeItem(itemsByUser.get(user));
+
+      ChatListItem item = new ChatListItem(user, user.getCategory(), null, null);
+      itemsByUser.put(user, item);
+      itemsByCategory.get(item.category()).put(user.getUsername(), item);
+      trigrams(user.getUsername()).forEach(trigram -> itemsByTrigram.computeIfAbsent(trigram, ignored -> newItemSet())
+                                                                    .add(item));
+
+      if (matches(item)) {
+        matchingItems.add(item);
+        incrementMatchingItemCount(item, 1);
+        if (!hiddenCategories.contains(item.category())) {
+          int index = -Collections.binarySearch(visibleItems, item, ITEM_COMPARATOR) - 1;
+          visibleItems.add(index, item);
+          nextAdd(index, index + 1);
+        }
+      }
+    } finally {
+      endChange();
+    }
+  }
+
+  void remove(ChatChannelUser user) {
+    beginChange();
+    try {
+      removeItem(itemsByUser.get(user));
+    } finally {
+      endChange();
+    }
+  }
+
+  void clearUsers() {
+    itemsByUser.clear();
+    itemsByTrigram.clear();
+    itemsByCategory.values().forEach(Map::clear);
+    matchingItems.clear();
+    refresh();
+  }
+
+  void setFilter(Predicate<ChatListItem> filter) {
+    this.filter = filter;
+    updateMatchingItems(searchCandidates(searchText));
+  }
+
+  void setSearchText(String searchText) {
+    String previousSearchText = this.searchText;
+    this.searchText = searchText;
+    // Typing narrows the search, so only the users that matched before need to be checked
+    updateMatchingItems(StringUtils.containsIgnoreCase(searchText, previousSearchText) ? List.copyOf(matchingItems)
+                                                                                       : searchCandidates(searchText));
+  }
+
+  void setHiddenCategories(Set<ChatUserCategory> hiddenCategories) {
+    this.hiddenCategories = hiddenCategories.isEmpty() ? EnumSet.noneOf(ChatUserCategory.class)
+                                                       : EnumSet.copyOf(hiddenCategories);
+    refresh();
+  }
+
+  /**
+   * @return all users of the category, no matter whether they match the filter
+   */
+  List<ChatChannelUser> getUsers(ChatUserCategory category) {
+    return itemsByCategory.get(category).values().stream().map(ChatListItem::user).toList();
+  }
+
+  List<ChatChannelUser> getUsers() {
+    return List.copyOf(itemsByUser.keySet());
+  }
+
+  private void removeItem(ChatListItem item) {
+    if (item == null) {
+      return;
+    }
+
+    ChatChannelUser user = item.user();
+    itemsByUser.remove(user);
+    itemsByCategory.get(item.category()).remove(user.getUsername());
+    trigrams(user.getUsername()).forEach(trigram -> {
+      Set<ChatListItem> trigramItems = itemsByTrigram.get(trigram);
+      trigramItems.remove(item);
+      if (trigramItems.isEmpty()) {
+        itemsByTrigram.remove(trigram);
+      }
+    });
+
+    if (matchingItems.remove(item)) {
+      incrementMatchingItemCount(item, -1);
+      int index = Collections.binarySearch(visibleItems, item, ITEM_COMPARATOR);
+      if (index >= 0) {
+        visibleItems.remove(index);
+        nextRemove(index, item);
+      }
+    }
+  }
+
+  private void updateMatchingItems(Collection<ChatListItem> candidates) {
+    matchingItems.clear();
+    candidates.stream().filter(this::matches).forEach(matchingItems::add);
+    refresh();
+  }
+
+  /**
+   * @return the users that can possibly contain the search text, which are only those that contain all of its
+   * trigrams if it is long enough to have any
+   */
+  private Collection<ChatListItem> searchCandidates(String searchText) {
+    if (searchText.length() < TRIGRAM_LENGTH) {
+      return itemsByUser.values();
+    }
+
+    Set<ChatListItem> candidates = null;
+    for (String trigram : trigrams(searchText)) {
+      Set<ChatListItem> trigramItems = itemsByTrigram.get(trigram);
+      if (trigramItems == null) {
+        return List.of();
+      }
+      if (candidates == null || trigramItems.size() < candidates.size()) {
+        candidates = trigramItems;
+      }
+    }
+    return List.copyOf(candidates);
+  }
+
+  private boolean matches(ChatListItem item) {
+    return (searchText.isEmpty() || StringUtils.containsIgnoreCase(item.user().getUsername(), searchText))
+        && filter.test(item);
+  }
+
+  private void incrementMatchingItemCount(ChatListItem item, int increment) {
+    IntegerProperty matchingItemCount = matchingItemCounts.get(item.category());
+    matchingItemCount.set(matchingItemCount.get() + increment);
+  }
+
+  /**
+   * Lists the headers and the matching users of all visible categories and reports the difference to the previously
+   * listed items. As both lists are sorted, they are compared in a single pass.
+   */
+  private void refresh() {
+    Map<ChatUserCategory, List<ChatListItem>> matchingItemsByCategory = new EnumMap<>(ChatUserCategory.class);
+    for (ChatUserCategory category : ChatUserCategory.values()) {
+      matchingItemsByCategory.put(category, new ArrayList<>());
+    }
+    matchingItems.forEach(item -> matchingItemsByCategory.get(item.category()).add(item));
+
+    List<ChatListItem> newVisibleItems = new ArrayList<>(matchingItems.size() + headers.size());
+    matchingItemsByCategory.forEach((category, categoryItems) -> {
+      matchingItemCounts.get(category).set(categoryItems.size());
+      newVisibleItems.add(headers.get(category));
+      if (!hiddenCategories.contains(category)) {
+        categoryItems.sort(ITEM_COMPARATOR);
+        newVisibleItems.addAll(categoryItems);
+      }
+    });
+
+    List<ChatListItem> oldVisibleItems = visibleItems;
+    visibleItems = newVisibleItems;
+
+    beginChange();
+    try {
+      int oldIndex = 0;
+      int newIndex = 0;
+      while (oldIndex < oldVisibleItems.size() || newIndex < newVisibleItems.size()) {
+        int comparison;
+        if (oldIndex == oldVisibleItems.size()) {
+          comparison = 1;
+        } else if (newIndex == newVisibleItems.size()) {
+          comparison = -1;
+        } else {
+          comparison = ITEM_COMPARATOR.compare(oldVisibleItems.get(oldIndex), newVisibleItems.get(newIndex));
+        }
+
+        if (comparison < 0) {
+          nextRemove(newIndex, oldVisibleItems.get(oldIndex++));
+        } else if (comparison > 0) {
+          nextAdd(newIndex, ++newIndex);
+        } else {
+          if (oldVisibleItems.get(oldIndex) != newVisibleItems.get(newIndex)) {
+            nextSet(newIndex, oldVisibleItems.get(oldIndex));
+          }
+          oldIndex++;
+          newIndex++;
+        }
+      }
+    } finally {
+      endChange();
+    }
+  }
+
+  private static Set<ChatListItem> newItemSet() {
+    return Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  private static Set<String> trigrams(String text) {
+    String lowerCaseText = text.toLowerCase(Locale.ROOT);
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + TRIGRAM_LENGTH <= lowerCaseText.length(); i++) {
+      trigrams.add(lowerCaseText.substring(i, i + TRIGRAM_LENGTH));
+    }
+    return trigrams;
+  }
+}
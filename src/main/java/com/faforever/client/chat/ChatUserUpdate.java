@@ -0,0 +1,36 @@
+package com.faforever.client.chat;
+
+/**
+ * A change to a user of a channel as received from IRC. Values that the event did not carry are null, so that updates
+ * of the same user can be merged while they wait to be applied.
+ *
+ * @param present whether the user is in the channel, null if only the status of a user that is already there changed
+ */
+record ChatUserUpdate(String channelName, String username, Boolean present, Boolean moderator, Boolean away) {
+
+  static ChatUserUpdate joined(String channelName, String username, boolean moderator, boolean away) {
+    return new ChatUserUpdate(channelName, username, true, moderator, away);
+  }
+
+  static ChatUserUpdate left(String channelName, String username) {
+    return new ChatUserUpdate(channelName, username, false, null, null);
+  }
+
+  static ChatUserUpdate moderatorChanged(String channelName, String username, boolean moderator) {
+    return new ChatUserUpdate(channelName, username, true, moderator, null);
+  }
+
+  static ChatUserUpdate awayChanged(String channelName, String username, boolean away) {
+    return new ChatUserUpdate(channelName, username, null, null, away);
+  }
+
+  ChatUserUpdate mergeWith(ChatUserUpdate newerUpdate) {
+    if (Boolean.FALSE.equals(newerUpdate.present())) {
+      return newerUpdate;
+    }
+    return new ChatUserUpdate(channelName, username,
+                              newerUpdate.present() != null ? newerUpdate.present() : present,
+                              newerUpdate.moderator() != null ? newerUpdate.moderator() : moderator,
+                              newerUpdate.away() != null ? newerUpdate.away() : away);
+  }
+}
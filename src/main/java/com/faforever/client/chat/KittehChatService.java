@@ -16,6 +16,7 @@ import com.faforever.client.chat.kitteh.network.WebsocketNetworkHandler;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.Irc;
 import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.fx.CoalescingUpdateQueue;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.main.event.NavigateEvent;
 import com.faforever.client.main.event.NavigationItem;
@@ -105,6 +106,7 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -113,7 +115,12 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static com.faforever.client.chat.ChatColorMode.RANDOM;
@@ -135,6 +142,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
   public static final int MAX_GAMES_FOR_NEWBIE_CHANNEL = 50;
   private static final String NEWBIE_CHANNEL_NAME = "#newbie";
   private static final Set<Character> MODERATOR_PREFIXES = Set.of('~', '&', '@', '%');
+  private static final int MAX_USER_UPDATES_PER_PULSE = 500;
   private final LoginService loginService;
   private final FafServerAccessor fafServerAccessor;
   private final ClientProperties clientProperties;
@@ -148,6 +156,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
   private final EmoticonService emoticonService;
   private final NavigationHandler navigationHandler;
   private final TaskScheduler taskScheduler;
+  private final ChatHistory chatHistory;
   @Qualifier("userWebClient")
   private final ObjectFactory<WebClient> userWebClientFactory;
 
@@ -157,8 +166,18 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
   private final ObservableMap<String, ChatChannel> channels = synchronizedObservableMap(observableHashMap());
   private final Map<ChatChannel, Set<Subscription>> channelSubscriptions = new ConcurrentHashMap<>();
 
+  /**
+   * Writes messages to the history one after another, so the IRC thread doesn't wait for the disk.
+   */
+  private final ExecutorService chatHistoryWriter = Executors.newSingleThreadExecutor(
+      Thread.ofVirtual().name("chat-history-writer").factory());
+
   private final Map<ChatChannel, Instant> lastSentActiveMap = new ConcurrentHashMap<>();
   private final Map<ChatChannelUser, Future<?>> stopTypingFutureMap = new ConcurrentHashMap<>();
+  /**
+   * User updates per channel name, waiting to be applied on the FX application thread.
+   */
+  private final Map<String, CoalescingUpdateQueue<String, ChatUserUpdate>> userUpdateQueues = new ConcurrentHashMap<>();
 
   /**
    * A list of channels the server wants us to join.
@@ -214,25 +233,79 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
   private ChatChannelUser getOrCreateChatUser(User user, Channel channel) {
     return getOrCreateChannel(channel.getName()).createUserIfNecessary(user.getNick(), chatChannelUser -> {
       initializeChatChannelUser(chatChannelUser);
-      boolean isModerator = channel.getUserModes(user)
-                                   .stream()
-                                   .flatMap(Collection::stream)
-                                   .map(ChannelUserMode::getNickPrefix)
-                                   .anyMatch(MODERATOR_PREFIXES::contains);
-      chatChannelUser.setModerator(isModerator);
+      chatChannelUser.setModerator(isModerator(user, channel));
       chatChannelUser.setAway(user.isAway());
     });
   }
 
+  private boolean isModerator(User user, Channel channel) {
+    return channel.getUserModes(user)
+                  .stream()
+                  .flatMap(Collection::stream)
+                  .map(ChannelUserMode::getNickPrefix)
+                  .anyMatch(MODERATOR_PREFIXES::contains);
+  }
+
   private void updateChatUser(User user, Channel channel) {
-    ChatChannelUser chatChannelUser = getOrCreateChatUser(user, channel);
-    boolean isModerator = channel.getUserModes(user)
-                                 .stream()
-                                 .flatMap(Collection::stream)
-                                 .map(ChannelUserMode::getNickPrefix)
-                                 .anyMatch(MODERATOR_PREFIXES::contains);
-    chatChannelUser.setModerator(isModerator);
-    chatChannelUser.setAway(user.isAway());
+    // Queued updates never create the channel
+    getOrCreateChannel(channel.getName());
+    offerUserUpdate(
+        ChatUserUpdate.joined(channel.getName(), user.getNick(), isModerator(user, channel), user.isAway()));
+  }
+
+  /**
+   * Queues the update instead of applying it on the IRC thread, so that bursts like the user list of a channel that has
+   * just been joined are applied to the channel in a few batches on the FX application thread.
+   */
+  private void offerUserUpdate(ChatUserUpdate update) {
+    userUpdateQueues.computeIfAbsent(update.channelName(), this::createUserUpdateQueue).offer(update);
+  }
+
+  private CoalescingUpdateQueue<String, ChatUserUpdate> createUserUpdateQueue(String channelName) {
+    // The queue hands itself to its consumer, so updates of a removed queue are told apart from a new queue of the same
+    // channel name
+    AtomicReference<CoalescingUpdateQueue<String, ChatUserUpdate>> userUpdateQueue = new AtomicReference<>();
+    userUpdateQueue.set(new CoalescingUpdateQueue<>(fxApplicationThreadExecutor, ChatUserUpdate::username,
+                                                    ChatUserUpdate::mergeWith, MAX_USER_UPDATES_PER_PULSE,
+                                                    updates -> applyUserUpdates(channelName, userUpdateQueue.get(),
+                                                                                updates)));
+    return userUpdateQueue.get();
+  }
+
+  /**
+   * Applies the updates to the users of the channel, but never creates the channel: a queued update must not bring
+   * back a channel that has been left in the meantime.
+   */
+  private void applyUserUpdates(String channelName, CoalescingUpdateQueue<String, ChatUserUpdate> userUpdateQueue,
+                                List<ChatUserUpdate> updates) {
+    ChatChannel chatChannel = channels.get(channelName);
+    if (userUpdateQueues.get(channelName) != userUpdateQueue || chatChannel == null) {
+      log.debug("Discarding {} user updates of removed channel `{}`", updates.size(), channelName);
+      return;
+    }
+
+    for (ChatUserUpdate update : updates) {
+      if (Boolean.FALSE.equals(update.present())) {
+        chatChannel.removeUser(update.username());
+        continue;
+      }
+
+      Optional<ChatChannelUser> chatChannelUser;
+      if (Boolean.TRUE.equals(update.present())) {
+        chatChannelUser = Optional.of(
+            chatChannel.createUserIfNecessary(update.username(), this::initializeChatChannelUser));
+      } else {
+        chatChannelUser = chatChannel.getUser(update.username());
+      }
+      chatChannelUser.ifPresent(user -> {
+        if (update.moderator() != null) {
+          user.setModerator(update.moderator());
+        }
+        if (update.away() != null) {
+          user.setAway(update.away());
+        }
+      });
+    }
   }
 
   private void initializeChatChannelUser(ChatChannelUser chatChannelUser) {
@@ -366,12 +439,9 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
   @Handler
   public void onUserAway(UserAwayMessageEvent event) {
-    User user = event.getActor();
-    String username = user.getNick();
-    channels.values()
-            .forEach(chatChannel -> chatChannel.getUser(username)
-                                               .ifPresent(chatUser -> fxApplicationThreadExecutor.execute(
-                                                   () -> chatUser.setAway(event.isAway()))));
+    String username = event.getActor().getNick();
+    List.copyOf(channels.keySet())
+        .forEach(channelName -> offerUserUpdate(ChatUserUpdate.awayChanged(channelName, username, event.isAway())));
   }
 
   @Handler
@@ -416,17 +486,30 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
   @Handler
   public void onWhoAway(WhoAwayMessageEvent event) {
-    ChatChannel chatChannel = channels.get(event.channel());
-    if (chatChannel != null) {
-      chatChannel.getUser(event.userName()).ifPresent(chatUser -> chatUser.setAway(event.isAway()));
+    if (channels.containsKey(event.channel())) {
+      offerUserUpdate(ChatUserUpdate.awayChanged(event.channel(), event.userName(), event.isAway()));
     }
   }
 
   @Handler
   public void onWhoComplete(WhoComplete event) {
-    ChatChannel chatChannel = channels.get(event.getChannel().getName());
+    String channelName = event.getChannel().getName();
+    ChatChannel chatChannel = channels.get(channelName);
+    CoalescingUpdateQueue<String, ChatUserUpdate> userUpdateQueue = userUpdateQueues.get(channelName);
     if (chatChannel != null) {
-      fxApplicationThreadExecutor.execute(() -> chatChannel.setLoaded(true));
+      // The channel is only loaded once its users have been applied, which may take several pulses
+      Runnable markLoaded = () -> chatChannel.setLoaded(true);
+      if (userUpdateQueue != null) {
+        userUpdateQueue.runWhenDrained(markLoaded);
+      } else {
+        fxApplicationThreadExecutor.execute(markLoaded);
+      }
+    }
+
+    if (userUpdateQueue != null) {
+      log.debug("Received users of channel `{}`, {} updates pending (at most {}), longest apply latency {} ms",
+                channelName, userUpdateQueue.getPendingUpdates(), userUpdateQueue.getMaxPendingUpdates(),
+                userUpdateQueue.getMaxApplyLatency().toMillis());
     }
   }
 
@@ -437,7 +520,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
     }
 
     User user = event.getActor();
-    onChatUserLeftChannel(event.getChannel().getName(), user.getNick());
+    offerUserUpdate(ChatUserUpdate.left(event.getChannel().getName(), user.getNick()));
   }
 
   @Handler
@@ -449,7 +532,8 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
     User user = event.getUser();
     String username = user.getNick();
 
-    List.copyOf(channels.keySet()).forEach(channelName -> onChatUserLeftChannel(channelName, username));
+    List.copyOf(channels.keySet())
+        .forEach(channelName -> offerUserUpdate(ChatUserUpdate.left(channelName, username)));
   }
 
   @Handler
@@ -517,6 +601,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
     ChatMessage message = new ChatMessage(messageId, messageTime, sender, text, Type.MESSAGE, targetMessage);
     chatChannel.addMessage(message);
+    appendToHistory(chatChannel.getName(), message);
 
     switch (event) {
       case PrivateMessageEvent privateEvent when !isStale(privateEvent) -> notifyOnPrivateMessage(message);
@@ -603,7 +688,17 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
     event.getTag("label", Label.class).map(Label::getLabel).ifPresent(chatChannel::removePendingMessage);
 
-    chatChannel.addMessage(new ChatMessage(messageId, messageTime, sender, message, Type.ACTION, targetMessage));
+    ChatMessage chatMessage = new ChatMessage(messageId, messageTime, sender, message, Type.ACTION, targetMessage);
+    chatChannel.addMessage(chatMessage);
+    appendToHistory(channelName, chatMessage);
+  }
+
+  private void appendToHistory(String channelName, ChatMessage message) {
+    try {
+      chatHistoryWriter.execute(() -> chatHistory.append(channelName, message));
+    } catch (RejectedExecutionException e) {
+      log.debug("Chat history is closed, not storing message `{}`", message.getId());
+    }
   }
 
   @Handler
@@ -613,11 +708,11 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
       Action modeAction = channelModeStatus.getAction();
       if (changedMode instanceof ChannelUserMode channelUserMode && MODERATOR_PREFIXES.contains(
           channelUserMode.getNickPrefix())) {
-        ChatChannelUser chatChannelUser = getOrCreateChatUser(username, event.getChannel().getName());
+        String channelName = event.getChannel().getName();
         if (modeAction == Action.ADD) {
-          chatChannelUser.setModerator(true);
+          offerUserUpdate(ChatUserUpdate.moderatorChanged(channelName, username, true));
         } else if (modeAction == Action.REMOVE) {
-          chatChannelUser.setModerator(false);
+          offerUserUpdate(ChatUserUpdate.moderatorChanged(channelName, username, false));
         }
       }
     }));
@@ -644,15 +739,6 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
     }
   }
 
-  private void onChatUserLeftChannel(String channelName, String username) {
-    ChatChannel chatChannel = channels.get(channelName);
-    if (chatChannel == null) {
-      return;
-    }
-
-    chatChannel.removeUser(username);
-  }
-
   private void onMessage(String message) {
     ircLog.debug(message);
   }
@@ -824,6 +910,64 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
     });
   }
 
+  @Override
+  public CompletableFuture<Integer> loadOlderMessagesInBackground(ChatChannel chatChannel, int count) {
+    return CompletableFuture.supplyAsync(() -> {
+      ChatMessageStore messages = chatChannel.getMessages();
+      ChatMessage oldestMessage;
+      synchronized (messages) {
+        oldestMessage = messages.isEmpty() ? null : messages.getFirst();
+      }
+
+      List<ChatHistoryEntry> entries = oldestMessage == null ? chatHistory.getLatest(chatChannel.getName(), count)
+                                                             : chatHistory.getBefore(chatChannel.getName(),
+                                                                                     oldestMessage, count);
+      return chatChannel.addOlderMessages(toChatMessages(chatChannel, entries));
+    });
+  }
+
+  private void restoreHistory(ChatChannel chatChannel) {
+    List<ChatHistoryEntry> entries = chatHistory.getLatest(chatChannel.getName(), chatPrefs.getMaxMessages());
+    if (!entries.isEmpty()) {
+      log.debug("Restoring {} messages of `{}` from the history", entries.size(), chatChannel.getName());
+      chatChannel.restoreMessages(toChatMessages(chatChannel, entries));
+    }
+  }
+
+  /**
+   * Senders that are not in the channel anymore get a user of their own that is not added to the channel. Replies
+   * refer to their target message if it is in the channel or among the given entries.
+   */
+  private List<ChatMessage> toChatMessages(ChatChannel chatChannel, List<ChatHistoryEntry> entries) {
+    Map<String, ChatChannelUser> sendersByName = new HashMap<>();
+    Map<String, ChatMessage> messagesById = new HashMap<>();
+    List<ChatMessage> chatMessages = new ArrayList<>(entries.size());
+    for (ChatHistoryEntry entry : entries) {
+      ChatChannelUser sender = sendersByName.computeIfAbsent(entry.sender(),
+                                                             username -> getHistorySender(chatChannel, username));
+      ChatMessage targetMessage = null;
+      if (entry.targetMessageId() != null) {
+        targetMessage = messagesById.get(entry.targetMessageId());
+        if (targetMessage == null) {
+          targetMessage = chatChannel.getMessage(entry.targetMessageId()).orElse(null);
+        }
+      }
+      ChatMessage chatMessage = new ChatMessage(entry.id(), Instant.ofEpochMilli(entry.time()), sender,
+                                                entry.content(), entry.type(), targetMessage);
+      messagesById.put(chatMessage.getId(), chatMessage);
+      chatMessages.add(chatMessage);
+    }
+    return chatMessages;
+  }
+
+  private ChatChannelUser getHistorySender(ChatChannel chatChannel, String username) {
+    return chatChannel.getUser(username).orElseGet(() -> {
+      ChatChannelUser absentUser = new ChatChannelUser(username, chatChannel);
+      initializeChatChannelUser(absentUser);
+      return absentUser;
+    });
+  }
+
   @Override
   public ChatChannel getOrCreateChannel(String channelName) {
     return channels.computeIfAbsent(channelName, name -> {
@@ -833,6 +977,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
                                                            .subscribe(this::incrementUnreadMessagesCount);
       channelSubscriptions.computeIfAbsent(chatChannel, ignored -> ConcurrentHashMap.newKeySet())
                           .add(unreadMessagesSubscription);
+      CompletableFuture.runAsync(() -> restoreHistory(chatChannel));
       return chatChannel;
     });
   }
@@ -858,6 +1003,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
   private void removeChannel(String channelName) {
     ChatChannel removedChannel = channels.remove(channelName);
+    userUpdateQueues.remove(channelName);
     lastSentActiveMap.remove(removedChannel);
     Set<Subscription> subscriptions = channelSubscriptions.remove(removedChannel);
     if (subscriptions != null) {
@@ -901,6 +1047,15 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
   @Override
   public void destroy() {
     close();
+    // Lets the pending messages be written before the history is closed
+    chatHistoryWriter.shutdown();
+    try {
+      if (!chatHistoryWriter.awaitTermination(5, TimeUnit.SECONDS)) {
+        log.warn("Not all chat messages could be written to the history");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
   @Override
@@ -61,7 +61,8 @@ public class ReactionController extends NodeController<HBox> {
     emoticonImageView.imageProperty()
                      .bind(reaction.map(Emoticon::shortcodes)
                                    .map(SequencedCollection::getFirst)
-                                   .map(emoticonService::getImageByShortcode)
+                                   .map(shortcode -> emoticonService.getImageByShortcode(shortcode,
+                                                                                         (int) emoticonImageView.getFitHeight()))
                                    .when(showing));
 
     reactors.subscribe((oldValue, newValue) -> {
@@ -47,7 +47,8 @@ public class EmoticonController extends NodeController<AnchorPane> {
     emoticonImageView.imageProperty()
                      .bind(emoticon.map(Emoticon::shortcodes)
                                    .map(List::getFirst)
-                                   .map(emoticonService::getImageByShortcode)
+                                   .flatMap(shortcode -> emoticonSize.map(
+                                       size -> emoticonService.getImageByShortcode(shortcode, size.intValue())))
                                    .when(showing));
     emoticonImageView.fitHeightProperty().bind(emoticonSize);
     emoticonImageView.fitWidthProperty().bind(emoticonSize);
@@ -1,5 +1,6 @@
 package com.faforever.client.chat.emoticons;
 
+import com.faforever.client.config.CacheNames;
 import com.faforever.client.exception.AssetLoadException;
 import com.faforever.client.exception.ProgrammingError;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,11 +8,12 @@ import com.google.common.annotations.VisibleForTesting;
 import javafx.scene.image.Image;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Base64;
@@ -34,7 +36,6 @@ public class EmoticonService implements InitializingBean {
   private List<EmoticonsGroup> emoticonsGroups;
 
   private final Decoder decoder = Base64.getDecoder();
-  private final Map<String, Image> shortcodeToImage = new HashMap<>();
   private final Map<String, Emoticon> shortcodeToEmoticon = new HashMap<>();
 
   @Override
@@ -44,17 +45,18 @@ public class EmoticonService implements InitializingBean {
 
   @VisibleForTesting
   void loadAndVerifyEmoticons() {
+    long startTime = System.nanoTime();
     try (InputStream emoticonsInputStream = EMOTICONS_JSON_FILE_RESOURCE.getInputStream()) {
       emoticonsGroups = List.of(objectMapper.readValue(emoticonsInputStream, EmoticonsGroup[].class));
-      emoticonsGroups.stream().flatMap(emoticonsGroup -> emoticonsGroup.emoticons().stream()).forEach(emoticon -> {
-        String base64SvgContent = emoticon.base64SvgContent();
-        Image image = new Image(IOUtils.toInputStream(new String(decoder.decode(base64SvgContent))));
-        emoticon.shortcodes().forEach(shortcode -> {
-          if (shortcodeToImage.put(shortcode, image) != null || shortcodeToEmoticon.put(shortcode, emoticon) != null) {
-            throw new ProgrammingError("Shortcode `" + shortcode + "` is already taken");
-          }
-        });
-      });
+      emoticonsGroups.stream()
+                     .flatMap(emoticonsGroup -> emoticonsGroup.emoticons().stream())
+                     .forEach(emoticon -> emoticon.shortcodes().forEach(shortcode -> {
+                       if (shortcodeToEmoticon.put(shortcode, emoticon) != null) {
+                         throw new ProgrammingError("Shortcode `" + shortcode + "` is already taken");
+                       }
+                     }));
+      log.debug("Loaded {} emoticon shortcodes in {} ms", shortcodeToEmoticon.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
     } catch (IOException e) {
       throw new AssetLoadException("Unable to load emoticons", e, "");
     }
@@ -68,8 +70,18 @@ public class EmoticonService implements InitializingBean {
     return shortcodeToEmoticon.containsKey(shortcode);
   }
 
-  public Image getImageByShortcode(String shortcode) {
-    return shortcodeToImage.get(shortcode);
+  /**
+   * Rasterizes the emoticon at the given size the first time it is requested. Rasterized images are kept in a cache
+   * that is bounded by the memory their pixels take up.
+   */
+  @Cacheable(value = CacheNames.EMOTICON_IMAGES, sync = true)
+  public Image getImageByShortcode(String shortcode, int size) {
+    Emoticon emoticon = shortcodeToEmoticon.get(shortcode);
+    if (emoticon == null) {
+      return null;
+    }
+    byte[] svgContent = decoder.decode(emoticon.base64SvgContent());
+    return new Image(new ByteArrayInputStream(svgContent), size, size, true, true);
   }
 
   public Emoticon getEmoticonByShortcode(String shortcode) {
@@ -1,5 +1,6 @@
 package com.faforever.client.config;
 
+import javafx.scene.image.Image;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
@@ -26,6 +27,7 @@ import static com.faforever.client.config.CacheNames.COTURN;
 import static com.faforever.client.config.CacheNames.COUNTRY_FLAGS;
 import static com.faforever.client.config.CacheNames.COUNTRY_NAMES;
 import static com.faforever.client.config.CacheNames.DIVISIONS;
+import static com.faforever.client.config.CacheNames.EMOTICON_IMAGES;
 import static com.faforever.client.config.CacheNames.FEATURED_MODS;
 import static com.faforever.client.config.CacheNames.FEATURED_MOD_FILES;
 import static com.faforever.client.config.CacheNames.GLOBAL_LEADERBOARD;
@@ -63,6 +65,8 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 @EnableCaching
 public class CacheConfig implements CachingConfigurer {
 
+  private static final long EMOTICON_IMAGES_MAX_BYTES = 8 * 1024 * 1024;
+
   @Bean
   @Override
   public CacheManager cacheManager() {
@@ -113,11 +117,25 @@ public class CacheConfig implements CachingConfigurer {
                 new CaffeineCache(COUNTRY_NAMES, newBuilder().weakValues().build(), true),
                 new CaffeineCache(THEME_IMAGES, newBuilder().weakValues().build(), true),
                 new CaffeineCache(IMAGES, newBuilder().weakValues().build(), true),
-                new CaffeineCache(MOD_THUMBNAIL, newBuilder().weakValues().build(), true
+                new CaffeineCache(MOD_THUMBNAIL, newBuilder().weakValues().build(), true),
+
+                // Emoticons are rasterized on demand per size and are small, so recently used ones are kept even when
+                // they are not shown, up to a bound on the memory of their pixels.
+                new CaffeineCache(EMOTICON_IMAGES, newBuilder().maximumWeight(EMOTICON_IMAGES_MAX_BYTES)
+                                                               .weigher(CacheConfig::weighImage)
+                                                               .build(), true
         )));
     return cacheManager;
   }
 
+  private static int weighImage(Object key, Object value) {
+    if (!(value instanceof Image image)) {
+      return 1;
+    }
+    // 4 bytes per pixel
+    return Math.max(1, (int) (image.getWidth() * image.getHeight() * 4));
+  }
+
   @Override
   public CacheResolver cacheResolver() {
     return null;
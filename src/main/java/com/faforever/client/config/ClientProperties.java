@@ -27,6 +27,7 @@ public class ClientProperties {
   private Imgur imgur = new Imgur();
   private TrueSkill trueSkill = new TrueSkill();
   private Api api = new Api();
+  private Io io = new Io();
   private User user = new User();
   private Oauth oauth = new Oauth();
   private UnitDatabase unitDatabase = new UnitDatabase();
@@ -145,6 +146,33 @@ public class ClientProperties {
     private int retryAttempts = 5;
     private double retryJitter = .5;
     private int maxPageSize = 10000;
+    /**
+     * Maximum total size of the API responses cached on disk, 0 disables the cache.
+     */
+    private long responseCacheMaxBytes = 64 * 1024 * 1024;
+    /**
+     * Time to wait for further lookups of entities by key before they are fetched in a single request.
+     */
+    private int lookupBatchWindowMillis = 20;
+    private int maxLookupBatchSize = 100;
+  }
+
+  @Data
+  public static class Io {
+    /**
+     * Maximum number of disk operations, like installing a map or copying a featured mod file, that run at the same
+     * time.
+     */
+    private int maxParallelDiskOperations = 4;
+    private int maxConnectionsPerHost = 4;
+    /**
+     * Maximum memory of the pixels of the decoded images that are kept in memory while they are not in use.
+     */
+    private long imageMemoryCacheMaxBytes = 64 * 1024 * 1024;
+    /**
+     * Maximum total size of the cached image files, like map previews and avatars.
+     */
+    private long imageDiskCacheMaxBytes = 256 * 1024 * 1024;
   }
 
   @Data
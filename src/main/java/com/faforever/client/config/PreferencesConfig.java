@@ -83,6 +83,7 @@ public class PreferencesConfig implements DisposableBean {
     preferencesFilePath = operatingSystem.getPreferencesDirectory().resolve(PREFS_FILE_NAME);
 
     preferences = readExistingPreferences(preferencesFilePath, operatingSystem);
+    fxApplicationThreadExecutor.observeMetricsSettings(preferences.getDeveloper());
   }
 
   @Bean
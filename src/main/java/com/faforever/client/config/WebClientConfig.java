@@ -1,5 +1,6 @@
 package com.faforever.client.config;
 
+import com.faforever.client.api.ApiResponseCache;
 import com.faforever.client.api.OAuthTokenFilter;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
@@ -18,8 +19,12 @@ public class WebClientConfig {
   @Bean
   @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   public WebClient apiWebClient(WebClient.Builder webClientBuilder, OAuthTokenFilter oAuthTokenFilter,
-                                ClientProperties clientProperties) {
-    return webClientBuilder.baseUrl(clientProperties.getApi().getBaseUrl()).filter(oAuthTokenFilter).build();
+                                ApiResponseCache apiResponseCache, ClientProperties clientProperties) {
+    // The cache comes first so that responses it serves by itself don't need a token
+    return webClientBuilder.baseUrl(clientProperties.getApi().getBaseUrl())
+                           .filter(apiResponseCache)
+                           .filter(oAuthTokenFilter)
+                           .build();
   }
 
   @Bean
@@ -36,18 +36,20 @@ public class DownloadFAFDebuggerTask extends CompletableTask<Void> {
   private final PlatformService platformService;
   private final ForgedAllianceLaunchService forgedAllianceLaunchService;
   private final WebClient defaultWebClient;
+  private final ResourceLocks resourceLocks;
 
   @Autowired
   public DownloadFAFDebuggerTask(ClientProperties clientProperties, I18n i18n, PlatformService platformService,
                                  ForgedAllianceLaunchService forgedAllianceLaunchService,
-                                 WebClient defaultWebClient) {
-    super(Priority.HIGH);
+                                 WebClient defaultWebClient, ResourceLocks resourceLocks) {
+    super(Priority.HIGH, ResourceClass.NETWORK);
 
     this.clientProperties = clientProperties;
     this.i18n = i18n;
     this.platformService = platformService;
     this.forgedAllianceLaunchService = forgedAllianceLaunchService;
     this.defaultWebClient = defaultWebClient;
+    this.resourceLocks = resourceLocks;
   }
 
   @Override
@@ -70,7 +72,7 @@ public class DownloadFAFDebuggerTask extends CompletableTask<Void> {
     Path targetFile = forgedAllianceLaunchService.getDebuggerExecutablePath();
     Path tempFile = Files.createTempFile(targetFile.getParent(), "debugger", null);
 
-    ResourceLocks.acquireDownloadLock();
+    resourceLocks.acquireHostPermit(url);
     try (InputStream inputStream = url.openStream(); OutputStream outputStream = Files.newOutputStream(tempFile)) {
       ByteCopier.from(inputStream)
           .to(outputStream)
@@ -80,7 +82,7 @@ public class DownloadFAFDebuggerTask extends CompletableTask<Void> {
 
       Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
     } finally {
-      ResourceLocks.freeDownloadLock();
+      resourceLocks.freeHostPermit(url);
       try {
         Files.deleteIfExists(tempFile);
       } catch (IOException e) {
@@ -0,0 +1,161 @@
+package com.faforever.client.fx;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collects updates from a background thread and applies them on the FX application thread in batches. Updates are
+ * buffered from the moment the first one arrives until the FX application thread gets to process them, so a burst of
+ * updates like the initial lobby state after logging in ends up in a few pulses instead of one
+ * {@link javafx.application.Platform#runLater(Runnable)} per update. Updates with the same key that are still waiting
+ * are collapsed into the latest one, or merged if a merge function is given. A batch never contains more than the
+ * configured number of updates, remaining updates are applied in the next pulse so rendering is not blocked for too
+ * long.
+ *
+ * <p>Actions that depend on the updates having been applied, like marking a list as complete after the burst of its
+ * initial updates, can be run once the queue has been drained with {@link #runWhenDrained(Runnable)}.</p>
+ *
+ * <p>The queue keeps track of the most updates that have been waiting at once and of the longest time an update has
+ * waited to be applied.</p>
+ *
+ * @param <K> the key identifying updates that replace each other, like a game or player id
+ * @param <V> the update
+ */
+@Slf4j
+public class CoalescingUpdateQueue<K, V> {
+
+  private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final Function<V, K> keyFunction;
+  private final int maxBatchSize;
+  private final BinaryOperator<V> mergeFunction;
+  private final Consumer<List<V>> batchConsumer;
+  private final Map<K, V> pendingUpdates = new LinkedHashMap<>();
+  private final List<Runnable> drainedActions = new ArrayList<>();
+  private final LongAccumulator maxPendingUpdates = new LongAccumulator(Long::max, 0);
+  private final LongAccumulator maxApplyLatencyNanos = new LongAccumulator(Long::max, 0);
+
+  private boolean drainScheduled;
+  // When the oldest of the pending updates has been offered
+  private long pendingSinceNanos;
+
+  /**
+   * @param batchConsumer called on the FX application thread with the updates of a batch, in the order in which their
+   * keys have first been offered
+   */
+  public CoalescingUpdateQueue(FxApplicationThreadExecutor fxApplicationThreadExecutor, Function<V, K> keyFunction,
+                               int maxBatchSize, Consumer<List<V>> batchConsumer) {
+    this(fxApplicationThreadExecutor, keyFunction, (pendingUpdate, update) -> update, maxBatchSize, batchConsumer);
+  }
+
+  /**
+   * @param mergeFunction combines a pending update with a newer update of the same key
+   * @param batchConsumer called on the FX application thread with the updates of a batch, in the order in which their
+   * keys have first been offered
+   */
+  public CoalescingUpdateQueue(FxApplicationThreadExecutor fxApplicationThreadExecutor, Function<V, K> keyFunction,
+                               BinaryOperator<V> mergeFunction, int maxBatchSize, Consumer<List<V>> batchConsumer) {
+    this.fxApplicationThreadExecutor = fxApplicationThreadExecutor;
+    this.keyFunction = keyFunction;
+    this.mergeFunction = mergeFunction;
+    this.maxBatchSize = maxBatchSize;
+    this.batchConsumer = batchConsumer;
+  }
+
+  public void offer(V update) {
+    K key = keyFunction.apply(update);
+    synchronized (pendingUpdates) {
+      if (pendingUpdates.isEmpty()) {
+        pendingSinceNanos = System.nanoTime();
+      }
+      pendingUpdates.merge(key, update, mergeFunction);
+      maxPendingUpdates.accumulate(pendingUpdates.size());
+      if (drainScheduled) {
+        return;
+      }
+      drainScheduled = true;
+    }
+    fxApplicationThreadExecutor.execute(this::drain);
+  }
+
+  /**
+   * Runs the action on the FX application thread after all pending updates have been applied, or right away if there
+   * are none.
+   */
+  public void runWhenDrained(Runnable action) {
+    synchronized (pendingUpdates) {
+      if (drainScheduled) {
+        drainedActions.add(action);
+        return;
+      }
+    }
+    fxApplicationThreadExecutor.execute(action);
+  }
+
+  public int getPendingUpdates() {
+    synchronized (pendingUpdates) {
+      return pendingUpdates.size();
+    }
+  }
+
+  /**
+   * @return the most updates that have been waiting to be applied at the same time
+   */
+  public long getMaxPendingUpdates() {
+    return maxPendingUpdates.get();
+  }
+
+  /**
+   * @return the longest time from offering an update until the batch containing it has been applied
+   */
+  public Duration getMaxApplyLatency() {
+    return Duration.ofNanos(maxApplyLatencyNanos.get());
+  }
+
+  private void drain() {
+    List<V> batch;
+    int remainingUpdates;
+    long batchPendingSinceNanos;
+    List<Runnable> actions = List.of();
+    synchronized (pendingUpdates) {
+      batchPendingSinceNanos = pendingSinceNanos;
+      batch = new ArrayList<>(Math.min(pendingUpdates.size(), maxBatchSize));
+      Iterator<V> iterator = pendingUpdates.values().iterator();
+      while (iterator.hasNext() && batch.size() < maxBatchSize) {
+        batch.add(iterator.next());
+        iterator.remove();
+      }
+      remainingUpdates = pendingUpdates.size();
+      drainScheduled = remainingUpdates > 0;
+      if (!drainScheduled && !drainedActions.isEmpty()) {
+        actions = new ArrayList<>(drainedActions);
+        drainedActions.clear();
+      }
+    }
+
+    try {
+      batchConsumer.accept(batch);
+    } catch (Exception e) {
+      log.error("Could not apply batch of {} updates", batch.size(), e);
+    }
+
+    long applyLatencyNanos = System.nanoTime() - batchPendingSinceNanos;
+    maxApplyLatencyNanos.accumulate(applyLatencyNanos);
+    log.trace("Applied {} updates {} ms after they were offered, {} updates remaining", batch.size(),
+              applyLatencyNanos / 1_000_000, remainingUpdates);
+
+    if (remainingUpdates > 0) {
+      fxApplicationThreadExecutor.runLater(this::drain);
+    }
+    actions.forEach(Runnable::run);
+  }
+}
@@ -1,11 +1,13 @@
 package com.faforever.client.fx;
 
+import com.faforever.client.preferences.DeveloperPrefs;
 import javafx.application.Platform;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 
@@ -16,12 +18,32 @@ import java.util.concurrent.Executor;
 public class FxApplicationThreadExecutor implements Executor {
 
   private final Scheduler fxApplicationScheduler = Schedulers.fromExecutor(this);
+  private final FxThreadMetrics metrics = new FxThreadMetrics();
+
+  private volatile boolean metricsEnabled;
+
+  /**
+   * Records {@link FxThreadMetrics} while they are enabled in the given developer preferences. The preferences push
+   * their settings in once they are loaded, as the preferences themselves are loaded using this executor.
+   */
+  public void observeMetricsSettings(DeveloperPrefs developerPrefs) {
+    developerPrefs.fxThreadStallThresholdMillisProperty()
+                  .subscribe(threshold -> metrics.setStallThreshold(Duration.ofMillis(threshold.longValue())));
+    developerPrefs.fxThreadMetricsLogIntervalSecondsProperty()
+                  .subscribe(interval -> metrics.setLogInterval(Duration.ofSeconds(interval.longValue())));
+    developerPrefs.fxThreadMetricsEnabledProperty().subscribe(enabled -> {
+      if (enabled && !metricsEnabled) {
+        metrics.reset();
+      }
+      metricsEnabled = enabled;
+    });
+  }
 
   @Override
   public void execute(Runnable runnable) {
     if (Platform.isFxApplicationThread()) {
       try {
-        runnable.run();
+        (metricsEnabled ? metrics.instrument(runnable, false) : runnable).run();
       } catch (Exception e) {
         log.error("Uncaught Application Thread Error", e);
       }
@@ -31,7 +53,7 @@ public class FxApplicationThreadExecutor implements Executor {
   }
 
   public void runLater(Runnable runnable) {
-    Platform.runLater(runnable);
+    Platform.runLater(metricsEnabled ? metrics.instrument(runnable, true) : runnable);
   }
 
   public void executeAndWait(Runnable runnable) {
@@ -0,0 +1,180 @@
+package com.faforever.client.fx;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long tasks submitted through the {@link FxApplicationThreadExecutor} wait to be run and how long they
+ * take, grouped by the class and method that submitted them. Tasks that take longer than the stall threshold are
+ * logged right away, everything else is logged as a summary once per log interval.
+ */
+@Slf4j
+class FxThreadMetrics {
+
+  private static final long[] LATENCY_BUCKET_BOUNDS_MILLIS = {1, 4, 16, 50, 100, 250, 1000};
+  private static final int LOGGED_CALLERS = 10;
+  private static final Set<String> IGNORED_CALLER_PACKAGES = Set.of("java.", "javafx.", "com.sun.", "reactor.");
+  private static final Set<String> IGNORED_CALLER_CLASSES = Set.of(FxThreadMetrics.class.getName(),
+                                                                   FxApplicationThreadExecutor.class.getName(),
+                                                                   CoalescingUpdateQueue.class.getName());
+
+  private final StackWalker stackWalker = StackWalker.getInstance();
+  private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKET_BOUNDS_MILLIS.length + 1];
+  private final Map<String, CallerStats> statsByCaller = new ConcurrentHashMap<>();
+  private final AtomicInteger queuedTasks = new AtomicInteger();
+  private final AtomicInteger maxQueuedTasks = new AtomicInteger();
+  private final AtomicLong lastLogTime = new AtomicLong(System.nanoTime());
+  private final LongAdder stalls = new LongAdder();
+
+  private volatile long stallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(100);
+  private volatile long logIntervalNanos = TimeUnit.SECONDS.toNanos(60);
+
+  private static final class CallerStats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalDurationNanos = new LongAdder();
+    private final LongAccumulator maxDurationNanos = new LongAccumulator(Long::max, 0);
+  }
+
+  FxThreadMetrics() {
+    for (int i = 0; i < latencyBuckets.length; i++) {
+      latencyBuckets[i] = new LongAdder();
+    }
+  }
+
+  void setStallThreshold(Duration stallThreshold) {
+    stallThresholdNanos = stallThreshold.toNanos();
+  }
+
+  void setLogInterval(Duration logInterval) {
+    logIntervalNanos = logInterval.toNanos();
+  }
+
+  /**
+   * Wraps the runnable so that its waiting time and duration are recorded. Must be called on the thread that submits
+   * the runnable, as this is where its caller is determined.
+   *
+   * @param queued whether the runnable is put into the FX application thread's queue, as opposed to being run right
+   * away because it has been submitted on the FX application thread itself
+   */
+  Runnable instrument(Runnable runnable, boolean queued) {
+    String caller = findCaller();
+    long submitTime = System.nanoTime();
+    if (queued) {
+      maxQueuedTasks.accumulateAndGet(queuedTasks.incrementAndGet(), Math::max);
+    }
+
+    return () -> {
+      long startTime = System.nanoTime();
+      if (queued) {
+        queuedTasks.decrementAndGet();
+      }
+      try {
+        runnable.run();
+      } finally {
+        record(caller, startTime - submitTime, System.nanoTime() - startTime);
+      }
+    };
+  }
+
+  void record(String caller, long waitingTimeNanos, long durationNanos) {
+    latencyBuckets[latencyBucket(waitingTimeNanos)].increment();
+
+    CallerStats callerStats = statsByCaller.computeIfAbsent(caller, ignored -> new CallerStats());
+    callerStats.count.increment();
+    callerStats.totalDurationNanos.add(durationNanos);
+    callerStats.maxDurationNanos.accumulate(durationNanos);
+
+    if (durationNanos > stallThresholdNanos) {
+      stalls.increment();
+      log.warn("FX application thread task submitted by `{}` took {} ms", caller,
+               TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+
+    long now = System.nanoTime();
+    long lastLog = lastLogTime.get();
+    if (now - lastLog > logIntervalNanos && lastLogTime.compareAndSet(lastLog, now)) {
+      log.info(summarize());
+      reset();
+    }
+  }
+
+  String summarize() {
+    StringBuilder summary = new StringBuilder("FX application thread metrics:");
+    summary.append("\n  max queued tasks: ").append(maxQueuedTasks.get());
+    summary.append(", stalls: ").append(stalls.sum());
+    summary.append("\n  waiting time:");
+    for (int i = 0; i < latencyBuckets.length; i++) {
+      String bucket = i < LATENCY_BUCKET_BOUNDS_MILLIS.length ? "<" + LATENCY_BUCKET_BOUNDS_MILLIS[i]
+                                                              : ">=" + LATENCY_BUCKET_BOUNDS_MILLIS[i - 1];
+      summary.append(' ').append(bucket).append("ms=").append(latencyBuckets[i].sum());
+    }
+    summary.append("\n  callers by total duration:");
+    statsByCaller.entrySet()
+                 .stream()
+                 .sorted(Comparator.comparingLong(
+                     (Map.Entry<String, CallerStats> entry) -> entry.getValue().totalDurationNanos.sum()).reversed())
+                 .limit(LOGGED_CALLERS)
+                 .forEach(entry -> summary.append(String.format("%n    %s: %d tasks, %.1f ms total, %.1f ms max",
+                                                                entry.getKey(), entry.getValue().count.sum(),
+                                                                entry.getValue().totalDurationNanos.sum() / 1e6,
+                                                                entry.getValue().maxDurationNanos.get() / 1e6)));
+    return summary.toString();
+  }
+
+  long getTaskCount(String caller) {
+    CallerStats callerStats = statsByCaller.get(caller);
+    return callerStats == null ? 0 : callerStats.count.sum();
+  }
+
+  long getStallCount() {
+    return stalls.sum();
+  }
+
+  long getLatencyBucketCount(int bucket) {
+    return latencyBuckets[bucket].sum();
+  }
+
+  void reset() {
+    for (LongAdder latencyBucket : latencyBuckets) {
+      latencyBucket.reset();
+    }
+    statsByCaller.clear();
+    maxQueuedTasks.set(queuedTasks.get());
+    stalls.reset();
+  }
+
+  static int latencyBucket(long waitingTimeNanos) {
+    long waitingTimeMillis = TimeUnit.NANOSECONDS.toMillis(waitingTimeNanos);
+    for (int i = 0; i < LATENCY_BUCKET_BOUNDS_MILLIS.length; i++) {
+      if (waitingTimeMillis < LATENCY_BUCKET_BOUNDS_MILLIS[i]) {
+        return i;
+      }
+    }
+    return LATENCY_BUCKET_BOUNDS_MILLIS.length;
+  }
+
+  private String findCaller() {
+    return stackWalker.walk(frames -> frames.filter(frame -> !isInfrastructure(frame.getClassName()))
+                                            .findFirst()
+                                            .map(frame -> frame.getClassName() + "#" + frame.getMethodName())
+                                            .orElse("unknown"));
+  }
+
+  private static boolean isInfrastructure(String className) {
+    // Lambdas and inner classes are named after their enclosing class
+    int nestedClassSeparator = className.indexOf('$');
+    String outerClassName = nestedClassSeparator < 0 ? className : className.substring(0, nestedClassSeparator);
+    return IGNORED_CALLER_CLASSES.contains(outerClassName) || IGNORED_CALLER_PACKAGES.stream()
+                                                                                     .anyMatch(className::startsWith);
+  }
+}
@@ -0,0 +1,281 @@
+package com.faforever.client.fx;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+import javafx.util.Callback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Observable list that keeps track of the position of each of its elements, so that looking up and removing an element
+ * takes constant time instead of a linear scan. To avoid shifting all following elements, a removed element is
+ * replaced by the last element of the list, which means that the list does not keep the order in which elements have
+ * been added. It is meant to back views that sort or filter on their own, like the mirrors of lobby maps created by
+ * {@link JavaFxUtil#attachIndexedListToMap(javafx.collections.ObservableMap, Callback)}.
+ *
+ * <p>Elements are compared by identity and can only be contained once. Like a list created by
+ * {@link javafx.collections.FXCollections#observableArrayList(Callback)}, an optional extractor reports changes of the
+ * elements' properties as update changes. The list can be modified from outside the FX application thread, all methods
+ * are synchronized on the list itself.</p>
+ */
+public class IndexedObservableList<E> extends ObservableListBase<E> {
+
+  private final List<ElementSlot> slots = new ArrayList<>();
+  private final Map<E, ElementSlot> slotsByElement = new IdentityHashMap<>();
+  private final Callback<E, Observable[]> extractor;
+
+  public IndexedObservableList() {
+    this(null);
+  }
+
+  public IndexedObservableList(Callback<E, Observable[]> extractor) {
+    this.extractor = extractor;
+  }
+
+  @Override
+  public synchronized E get(int index) {
+    return slots.get(index).element;
+  }
+
+  @Override
+  public synchronized int size() {
+    return slots.size();
+  }
+
+  @Override
+  public synchronized int indexOf(Object element) {
+    ElementSlot slot = slotsByElement.get(element);
+    return slot == null ? -1 : slot.index;
+  }
+
+  @Override
+  public int lastIndexOf(Object element) {
+    return indexOf(element);
+  }
+
+  @Override
+  public synchronized boolean contains(Object element) {
+    return slotsByElement.containsKey(element);
+  }
+
+  /**
+   * Appends the element unless it is already contained.
+   *
+   * @return whether the list changed
+   */
+  @Override
+  public synchronized boolean add(E element) {
+    if (slotsByElement.containsKey(element)) {
+      return false;
+    }
+    beginChange();
+    try {
+      doAdd(element);
+    } finally {
+      endChange();
+    }
+    return true;
+  }
+
+  /**
+   * Appends all elements that are not already contained, reported as a single change.
+   */
+  @Override
+  public synchronized boolean addAll(Collection<? extends E> elements) {
+    int sizeBefore = slots.size();
+    beginChange();
+    try {
+      for (E element : elements) {
+        if (!slotsByElement.containsKey(element)) {
+          doAdd(element);
+        }
+      }
+    } finally {
+      endChange();
+    }
+    return slots.size() != sizeBefore;
+  }
+
+  /**
+   * Removes the element in constant time by moving the last element of the list into its place.
+   */
+  @Override
+  public synchronized boolean remove(Object element) {
+    ElementSlot slot = slotsByElement.get(element);
+    if (slot == null) {
+      return false;
+    }
+    beginChange();
+    try {
+      doRemove(slot);
+    } finally {
+      endChange();
+    }
+    return true;
+  }
+
+  /**
+   * Removes all given elements, reported as a single change.
+   */
+  @Override
+  public synchronized boolean removeAll(Collection<?> elements) {
+    int sizeBefore = slots.size();
+    beginChange();
+    try {
+      for (Object element : elements) {
+        ElementSlot slot = slotsByElement.get(element);
+        if (slot != null) {
+          doRemove(slot);
+        }
+      }
+    } finally {
+      endChange();
+    }
+    return slots.size() != sizeBefore;
+  }
+
+  /**
+   * Puts the new element at the position of the old one, or appends it if the old one is not contained. Unlike a
+   * removal followed by an addition, this keeps the position of the element and is reported as a single change.
+   */
+  public synchronized void replace(E oldElement, E newElement) {
+    if (oldElement == newElement) {
+      add(newElement);
+      return;
+    }
+
+    ElementSlot oldSlot = slotsByElement.get(oldElement);
+    if (oldSlot == null) {
+      add(newElement);
+      return;
+    }
+
+    beginChange();
+    try {
+      ElementSlot existingSlot = slotsByElement.get(newElement);
+      if (existingSlot != null) {
+        doRemove(oldSlot);
+        return;
+      }
+
+      detach(oldSlot);
+      ElementSlot newSlot = new ElementSlot(newElement, oldSlot.index);
+      slots.set(newSlot.index, newSlot);
+      attach(newSlot);
+      nextSet(newSlot.index, oldElement);
+    } finally {
+      endChange();
+    }
+  }
+
+  @Override
+  public synchronized void clear() {
+    if (slots.isEmpty()) {
+      return;
+    }
+    List<E> removed = slots.stream().map(slot -> slot.element).toList();
+    beginChange();
+    try {
+      slots.forEach(this::detach);
+      slots.clear();
+      nextRemove(0, removed);
+    } finally {
+      endChange();
+    }
+  }
+
+  @Override
+  public synchronized void addListener(InvalidationListener listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(InvalidationListener listener) {
+    super.removeListener(listener);
+  }
+
+  @Override
+  public synchronized void addListener(ListChangeListener<? super E> listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(ListChangeListener<? super E> listener) {
+    super.removeListener(listener);
+  }
+
+  private void doAdd(E element) {
+    ElementSlot slot = new ElementSlot(element, slots.size());
+    slots.add(slot);
+    attach(slot);
+    nextAdd(slot.index, slot.index + 1);
+  }
+
+  private void doRemove(ElementSlot slot) {
+    int index = slot.index;
+    int lastIndex = slots.size() - 1;
+    ElementSlot lastSlot = slots.remove(lastIndex);
+    detach(slot);
+
+    if (index == lastIndex) {
+      nextRemove(lastIndex, slot.element);
+      return;
+    }
+
+    slots.set(index, lastSlot);
+    lastSlot.index = index;
+    nextSet(index, slot.element);
+    nextRemove(lastIndex, lastSlot.element);
+  }
+
+  private void attach(ElementSlot slot) {
+    slotsByElement.put(slot.element, slot);
+    for (Observable observable : slot.observables) {
+      observable.addListener(slot);
+    }
+  }
+
+  private void detach(ElementSlot slot) {
+    slotsByElement.remove(slot.element);
+    slot.index = -1;
+    for (Observable observable : slot.observables) {
+      observable.removeListener(slot);
+    }
+  }
+
+  private synchronized void onElementInvalidated(ElementSlot slot) {
+    // The element may have been removed while its property was being changed on another thread
+    if (slot.index < 0) {
+      return;
+    }
+    beginChange();
+    try {
+      nextUpdate(slot.index);
+    } finally {
+      endChange();
+    }
+  }
+
+  private final class ElementSlot implements InvalidationListener {
+    private final E element;
+    private final Observable[] observables;
+    private int index;
+
+    private ElementSlot(E element, int index) {
+      this.element = element;
+      this.index = index;
+      this.observables = extractor == null ? new Observable[0] : extractor.call(element);
+    }
+
+    @Override
+    public void invalidated(Observable observable) {
+      onElementInvalidated(this);
+    }
+  }
+}
@@ -35,6 +35,7 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
+import javafx.util.Callback;
 import javafx.util.StringConverter;
 import javafx.util.converter.NumberStringConverter;
 import lombok.extern.slf4j.Slf4j;
@@ -190,6 +191,34 @@ public final class JavaFxUtil {
     return FXCollections.unmodifiableObservableList(list);
   }
 
+  /**
+   * Returns an unmodifiable, thread safe observable list that mirrors the values of the specified map. Unlike
+   * {@link #attachListToMap(ObservableList, ObservableMap)}, values are removed in constant time, but the list does not
+   * keep the order in which values have been added. See {@link IndexedObservableList}.
+   */
+  public static <K, V> ObservableList<V> attachIndexedListToMap(ObservableMap<K, V> map) {
+    return attachIndexedListToMap(map, null);
+  }
+
+  /**
+   * Like {@link #attachIndexedListToMap(ObservableMap)}, with an extractor reporting changes of the values' properties
+   * as update changes.
+   */
+  public static <K, V> ObservableList<V> attachIndexedListToMap(ObservableMap<K, V> map,
+                                                                Callback<V, Observable[]> extractor) {
+    IndexedObservableList<V> list = new IndexedObservableList<>(extractor);
+    addListener(map, (MapChangeListener<K, V>) change -> {
+      if (change.wasRemoved() && change.wasAdded()) {
+        list.replace(change.getValueRemoved(), change.getValueAdded());
+      } else if (change.wasRemoved()) {
+        list.remove(change.getValueRemoved());
+      } else if (change.wasAdded()) {
+        list.add(change.getValueAdded());
+      }
+    });
+    return FXCollections.unmodifiableObservableList(list);
+  }
+
   /**
    * Returns an unmodifiable observable list from the specified list that mirrors any changes made to the specified
    * map.
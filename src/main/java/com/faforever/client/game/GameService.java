@@ -2,6 +2,7 @@ package com.faforever.client.game;
 
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.fx.CoalescingUpdateQueue;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.mapstruct.GameMapper;
@@ -22,9 +23,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-import reactor.function.TupleUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -39,6 +37,8 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class GameService implements InitializingBean {
 
+  private static final int MAX_GAME_UPDATES_PER_PULSE = 500;
+
   private final FafServerAccessor fafServerAccessor;
   private final PlayerService playerService;
   private final GameMapper gameMapper;
@@ -47,29 +47,22 @@ public class GameService implements InitializingBean {
   private final ObservableMap<Integer, GameInfo> gameIdToGame = FXCollections.synchronizedObservableMap(
       FXCollections.observableHashMap());
   @Getter
-  private final ObservableList<GameInfo> games = JavaFxUtil.attachListToMap(
-      FXCollections.synchronizedObservableList(FXCollections.observableArrayList(game -> new Observable[]{
+  private final ObservableList<GameInfo> games = JavaFxUtil.attachIndexedListToMap(gameIdToGame,
+      game -> new Observable[]{
           game.statusProperty(), game.teamsProperty(), game.titleProperty(), game.mapFolderNameProperty(),
           game.simModsProperty(), game.passwordProtectedProperty()
-      })), gameIdToGame);
+      });
 
   @Override
   public void afterPropertiesSet() {
+    CoalescingUpdateQueue<Integer, com.faforever.commons.lobby.GameInfo> gameUpdates = new CoalescingUpdateQueue<>(
+        fxApplicationThreadExecutor, com.faforever.commons.lobby.GameInfo::getUid, MAX_GAME_UPDATES_PER_PULSE,
+        gameInfos -> gameInfos.forEach(this::applyGameInfo));
+
     fafServerAccessor.getEvents(com.faforever.commons.lobby.GameInfo.class)
-                     .flatMap(gameInfo -> gameInfo.getGames() == null ? Flux.just(gameInfo) : Flux.fromIterable(
-                         gameInfo.getGames()))
-                     .flatMap(gameInfo -> Mono.zip(Mono.just(gameInfo), Mono.justOrEmpty(getByUid(gameInfo.getUid()))
-                                                                            .switchIfEmpty(
-                                                                                initializeGameBean(gameInfo))))
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .map(TupleUtils.function(gameMapper::update))
+                     .flatMapIterable(gameInfo -> gameInfo.getGames() == null ? List.of(gameInfo) : gameInfo.getGames())
+                     .doOnNext(gameUpdates::offer)
                      .doOnError(throwable -> log.error("Error processing game", throwable))
-                     .filter(game -> game.getStatus() == GameStatus.CLOSED)
-                     .doOnNext(GameInfo::removeListeners)
-                     .map(GameInfo::getId)
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .doOnNext(gameIdToGame::remove)
-                     .doOnError(throwable -> log.error("Error closing game", throwable))
                      .retry()
                      .subscribe();
 
@@ -80,15 +73,34 @@ public class GameService implements InitializingBean {
     });
   }
 
-  private Mono<GameInfo> initializeGameBean(com.faforever.commons.lobby.GameInfo gameInfo) {
-    return Mono.fromCallable(() -> {
-                 GameInfo newGame = new GameInfo();
-                 newGame.setId(gameInfo.getUid());
-                 newGame.addPlayerChangeListener(generatePlayerChangeListener(newGame));
-                 return newGame;
-               }).doOnNext(game -> gameMapper.update(gameInfo, game))
-               .publishOn(fxApplicationThreadExecutor.asScheduler())
-               .doOnNext(game -> gameIdToGame.put(game.getId(), game));
+  private void applyGameInfo(com.faforever.commons.lobby.GameInfo gameInfo) {
+    try {
+      GameInfo game = gameIdToGame.get(gameInfo.getUid());
+      if (game == null) {
+        if (gameInfo.getState() != GameStatus.CLOSED) {
+          GameInfo newGame = initializeGameBean(gameInfo.getUid());
+          gameMapper.update(gameInfo, newGame);
+          gameIdToGame.put(newGame.getId(), newGame);
+        }
+        return;
+      }
+
+      gameMapper.update(gameInfo, game);
+
+      if (game.getStatus() == GameStatus.CLOSED) {
+        game.removeListeners();
+        gameIdToGame.remove(game.getId());
+      }
+    } catch (Exception e) {
+      log.error("Error processing game", e);
+    }
+  }
+
+  private GameInfo initializeGameBean(int gameId) {
+    GameInfo newGame = new GameInfo();
+    newGame.setId(gameId);
+    newGame.addPlayerChangeListener(generatePlayerChangeListener(newGame));
+    return newGame;
   }
 
   private ChangeListener<Set<Integer>> generatePlayerChangeListener(GameInfo newGame) {
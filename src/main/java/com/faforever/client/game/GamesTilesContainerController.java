@@ -60,7 +60,7 @@ public class GamesTilesContainerController extends NodeController<Node> {
   private final ObservableMap<GameInfo, Node> gameToGameCard = FXCollections.synchronizedObservableMap(
       FXCollections.observableHashMap());
   private final SortedList<Node> gameCards = new SortedList<>(
-      JavaFxUtil.attachListToMap(FXCollections.observableArrayList(), gameToGameCard));
+      JavaFxUtil.attachIndexedListToMap(gameToGameCard));
   private final ObjectProperty<TilesSortingOrder> sortingOrder = new SimpleObjectProperty<>();
   private final ReadOnlyObjectWrapper<GameInfo> selectedGame = new ReadOnlyObjectWrapper<>();
 
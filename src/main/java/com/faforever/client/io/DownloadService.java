@@ -1,5 +1,6 @@
 package com.faforever.client.io;
 
+import com.faforever.client.io.SegmentedDownload.Probe;
 import com.faforever.client.task.ResourceLocks;
 import com.faforever.commons.io.ByteCopier;
 import com.faforever.commons.io.ByteCountListener;
@@ -10,18 +11,26 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.HexFormat;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Semaphore;
 
 @Service
 @Lazy
@@ -29,28 +38,105 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class DownloadService {
 
+  private final ResourceLocks resourceLocks;
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+                                                  .followRedirects(Redirect.NORMAL)
+                                                  .connectTimeout(Duration.ofSeconds(30))
+                                                  .build();
+
   /*
    * Download a file from a URL using a temporary path and copy it to targetFile if it downloaded and the checksum
-   * matched.
+   * matched. Files served over HTTP by a server that supports range requests are downloaded in parallel chunks, and a
+   * download that failed continues where it stopped the next time the same file is downloaded.
    */
   public void downloadFile(URL url, Map<String, String> requestProperties, Path targetFile, ByteCountListener progressListener, String md5sum) throws IOException, NoSuchAlgorithmException, ChecksumMismatchException {
-    Path tempFile = Files.createTempFile(targetFile.getParent(), "download", null);
-
+    String protocol = url.getProtocol();
+    if (protocol.equals("http") || protocol.equals("https")) {
+      downloadOverHttp(toUri(url), requestProperties, targetFile, progressListener, md5sum);
+      return;
+    }
 
     URLConnection urlConnection = url.openConnection();
     requestProperties.forEach(urlConnection::setRequestProperty);
-
+    Path tempFile = Files.createTempFile(targetFile.getParent(), "download", null);
     log.info("Downloading file from `{}` to `{}`", url, tempFile);
+    try (InputStream inputStream = urlConnection.getInputStream()) {
+      downloadSequentially(url, inputStream, urlConnection.getContentLengthLong(), tempFile, targetFile,
+                           progressListener, md5sum);
+    }
+  }
+
+  private void downloadOverHttp(URI uri, Map<String, String> requestProperties, Path targetFile,
+                                ByteCountListener progressListener, String md5sum) throws IOException,
+      NoSuchAlgorithmException, ChecksumMismatchException {
+    // The partial files are named after the target file, so the same file must not be downloaded twice at a time
+    resourceLocks.acquirePathLock(targetFile);
+    try {
+      downloadInChunks(uri, requestProperties, targetFile, progressListener, md5sum);
+    } finally {
+      resourceLocks.freePathLock(targetFile);
+    }
+  }
 
-    ResourceLocks.acquireDownloadLock();
+  private void downloadInChunks(URI uri, Map<String, String> requestProperties, Path targetFile,
+                                ByteCountListener progressListener, String md5sum) throws IOException,
+      NoSuchAlgorithmException, ChecksumMismatchException {
+    Semaphore hostConnections = resourceLocks.getHostPermits(uri.getHost());
+    SegmentedDownload download = new SegmentedDownload(httpClient, uri, requestProperties, targetFile,
+                                                       hostConnections, resourceLocks.getMaxConnectionsPerHost(),
+                                                       progressListener, md5sum);
+    if (download.finishEarlierAttempt(targetFile)) {
+      return;
+    }
+    log.info("Downloading file from `{}` to `{}`", uri, download.getPartFile());
+
+    try {
+      hostConnections.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Download of `%s` has been interrupted".formatted(uri));
+    }
+    try {
+      Probe probe = download.probe();
+      HttpResponse<InputStream> response = probe.response();
+      if (response.statusCode() == 416) {
+        // Empty files have no range that could be satisfied
+        response.body().close();
+        response = download.sendWithoutRange();
+      }
+      int statusCode = response.statusCode();
+      if (statusCode == 206) {
+        download.start(probe);
+      } else {
+        // Without support for ranges the file can only be downloaded as a whole
+        download.deletePartialFiles();
+        try (InputStream inputStream = response.body()) {
+          if (statusCode != 200) {
+            throw new IOException("Server returned status %d for `%s`".formatted(statusCode, uri));
+          }
+          long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+          downloadSequentially(uri.toURL(), inputStream, contentLength, download.getPartFile(), targetFile,
+                               progressListener, md5sum);
+        }
+        return;
+      }
+    } finally {
+      hostConnections.release();
+    }
+    download.finish(targetFile);
+  }
+
+  private void downloadSequentially(URL url, InputStream inputStream, long contentLength, Path tempFile,
+                                    Path targetFile, ByteCountListener progressListener, String md5sum) throws
+      IOException, NoSuchAlgorithmException, ChecksumMismatchException {
     MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-    try (InputStream inputStream = urlConnection.getInputStream();
-         DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
+    try (DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
          OutputStream outputStream = Files.newOutputStream(tempFile)) {
 
       ByteCopier.from(digestInputStream)
           .to(outputStream)
-          .totalBytes(urlConnection.getContentLength())
+          .totalBytes(contentLength)
           .listener(progressListener)
           .copy();
 
@@ -63,7 +149,6 @@ public class DownloadService {
 
       Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
     } finally {
-      ResourceLocks.freeDownloadLock();
       try {
         Files.deleteIfExists(tempFile);
       } catch (IOException e) {
@@ -71,4 +156,12 @@ public class DownloadService {
       }
     }
   }
+
+  private static URI toUri(URL url) throws IOException {
+    try {
+      return url.toURI();
+    } catch (URISyntaxException e) {
+      throw new IOException("Invalid download URL `%s`".formatted(url), e);
+    }
+  }
 }
@@ -5,13 +5,15 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.UpdaterUtil;
 import com.faforever.commons.api.dto.FeaturedModFile;
-import com.google.common.hash.Hashing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -20,24 +22,42 @@ import java.nio.file.attribute.FileTime;
 import java.text.MessageFormat;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static com.google.common.io.Files.hash;
-
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FeaturedModFileCacheService implements InitializingBean {
+  private static final String EXTRACTED_FILES_SEPARATOR = "|";
+
   private final DataPrefs dataPrefs;
   private final Preferences preferences;
+  private final ResourceLocks resourceLocks;
+
+  /**
+   * The hash of the file whose movies and sounds have last been extracted, followed by the files that have been
+   * extracted from it, by group and name of the file.
+   */
+  private final Properties extractedFiles = new Properties();
+  private FileHashIndex fileHashIndex;
 
   public boolean isCached(FeaturedModFile featuredModFile) throws IOException {
     return Files.exists(getCachedFilePath(featuredModFile));
   }
 
+  /**
+   * Returns the MD5 hash of a file. Files are only hashed again if their size, modification time or file key changed
+   * since they were last hashed.
+   */
   public String readHashFromFile(Path filePath) throws IOException {
-    return hash(filePath.toFile(), Hashing.md5()).toString();
+    return fileHashIndex.getMd5(filePath);
   }
 
   private Path getCachedFilePath(String hash, String group) {
@@ -56,17 +76,96 @@ public class FeaturedModFileCacheService implements InitializingBean {
 
   public void copyFeaturedModFileFromCache(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
     Files.createDirectories(targetPath.getParent());
-    ResourceLocks.acquireDiskLock();
+    Path cachedFilePath = getCachedFilePath(featuredModFile);
+    resourceLocks.acquireDiskLock(targetPath, cachedFilePath);
 
     try {
       if (Files.exists(targetPath) && preferences.isGameDataCacheActivated()) {
         //We want to keep the old file for now in case it is needed again for example for old replays
         moveFeaturedModFileToCache(targetPath);
       }
-      Files.copy(getCachedFilePath(featuredModFile), targetPath, StandardCopyOption.REPLACE_EXISTING);
-      UpdaterUtil.extractMoviesAndSoundsIfPresent(targetPath, dataPrefs.getBaseDataDirectory());
+      fileHashIndex.invalidate(targetPath);
+      materialize(cachedFilePath, targetPath);
+      extractMoviesAndSoundsIfChanged(featuredModFile, targetPath);
+    } finally {
+      resourceLocks.freeDiskLock(targetPath, cachedFilePath);
+    }
+  }
+
+  /**
+   * Hard links the cached file to the target path, which takes no time and space, or copies it if the file system
+   * doesn't support hard links between the two paths. Executables are always copied, as they are patched in place.
+   */
+  private void materialize(Path cachedFilePath, Path targetPath) throws IOException {
+    Files.deleteIfExists(targetPath);
+    if (!targetPath.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".exe")) {
+      try {
+        Files.createLink(targetPath, cachedFilePath);
+        return;
+      } catch (UnsupportedOperationException | IOException e) {
+        log.debug("Could not link `{}` to `{}`, copying it instead", targetPath, cachedFilePath, e);
+      }
+    }
+    Files.copy(cachedFilePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Extracts the movies and sounds of a file unless they have last been extracted from the same version of the file
+   * and all files extracted from it still exist. All files extract into the same directories, so switching to another
+   * version of a file always extracts it again.
+   */
+  private void extractMoviesAndSoundsIfChanged(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
+    Path baseDataDirectory = dataPrefs.getBaseDataDirectory();
+    String key = featuredModFile.getGroup() + "/" + featuredModFile.getName();
+    synchronized (extractedFiles) {
+      String entry = extractedFiles.getProperty(key);
+      if (entry != null && isExtracted(entry, featuredModFile.getMd5(), baseDataDirectory)) {
+        return;
+      }
+      // Forget the previous version first, so that an interrupted extraction is repeated
+      if (extractedFiles.remove(key) != null) {
+        writeExtractedFiles();
+      }
+    }
+
+    List<Path> extractedPaths = UpdaterUtil.extractMoviesAndSoundsIfPresent(targetPath, baseDataDirectory);
+
+    String entry = featuredModFile.getMd5() + EXTRACTED_FILES_SEPARATOR + extractedPaths.stream()
+        .map(path -> baseDataDirectory.relativize(path).toString())
+        .collect(Collectors.joining(EXTRACTED_FILES_SEPARATOR));
+    synchronized (extractedFiles) {
+      extractedFiles.setProperty(key, entry);
+      writeExtractedFiles();
+    }
+  }
+
+  private static boolean isExtracted(String entry, String md5, Path baseDataDirectory) {
+    // Entries without a separator have been written before the extracted files were recorded
+    String[] md5AndFiles = entry.split(Pattern.quote(EXTRACTED_FILES_SEPARATOR), -1);
+    if (md5AndFiles.length < 2 || !md5AndFiles[0].equals(md5)) {
+      return false;
+    }
+    return Arrays.stream(md5AndFiles, 1, md5AndFiles.length)
+                 .filter(file -> !file.isEmpty())
+                 .allMatch(file -> Files.exists(baseDataDirectory.resolve(file)));
+  }
+
+  private void writeExtractedFiles() throws IOException {
+    Path extractedFilesFile = dataPrefs.getFeaturedModExtractedFilesFile();
+    Files.createDirectories(extractedFilesFile.getParent());
+    Path tempFile = Files.createTempFile(extractedFilesFile.getParent(), extractedFilesFile.getFileName().toString(),
+                                         null);
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        extractedFiles.store(outputStream, null);
+      }
+      try {
+        Files.move(tempFile, extractedFilesFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, extractedFilesFile, StandardCopyOption.REPLACE_EXISTING);
+      }
     } finally {
-      ResourceLocks.freeDiskLock();
+      Files.deleteIfExists(tempFile);
     }
   }
 
@@ -79,6 +178,8 @@ public class FeaturedModFileCacheService implements InitializingBean {
    */
   @Override
   public void afterPropertiesSet() {
+    fileHashIndex = new FileHashIndex(dataPrefs.getFeaturedModHashIndexFile());
+    readExtractedFiles();
     Path cacheDirectory = dataPrefs.getFeaturedModCacheDirectory();
     if (!Files.isDirectory(cacheDirectory)) {
       try {
@@ -92,6 +193,19 @@ public class FeaturedModFileCacheService implements InitializingBean {
     cleanUnusedFilesFromCache();
   }
 
+  private void readExtractedFiles() {
+    Path extractedFilesFile = dataPrefs.getFeaturedModExtractedFilesFile();
+    if (Files.notExists(extractedFilesFile)) {
+      return;
+    }
+    try (InputStream inputStream = Files.newInputStream(extractedFilesFile)) {
+      extractedFiles.load(inputStream);
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("Could not read extracted featured mod files from `{}`", extractedFilesFile, e);
+      extractedFiles.clear();
+    }
+  }
+
   private void cleanUnusedFilesFromCache() {
     try (Stream<Path> pathElements = Files.walk(dataPrefs.getFeaturedModCacheDirectory())) {
       pathElements
@@ -106,9 +220,8 @@ public class FeaturedModFileCacheService implements InitializingBean {
    * Per directory cleanup old files.
    */
   private void deleteCachedFileIfNeeded(Path filePath) {
+    resourceLocks.acquireDiskLock(filePath);
     try {
-      ResourceLocks.acquireDiskLock();
-
       FileTime lastAccessTime = Files.readAttributes(filePath, BasicFileAttributes.class).lastAccessTime();
       OffsetDateTime comparableLastAccessTime = OffsetDateTime.ofInstant(lastAccessTime.toInstant(), ZoneId.systemDefault());
       final boolean olderThanCacheTime = comparableLastAccessTime.plusDays(preferences.getCacheLifeTimeInDays()).isBefore(OffsetDateTime.now());
@@ -120,7 +233,7 @@ public class FeaturedModFileCacheService implements InitializingBean {
     } catch (Exception e) {
       log.error("Exception during deleting the cache files", e);
     } finally {
-      ResourceLocks.freeDiskLock();
+      resourceLocks.freeDiskLock(filePath);
     }
   }
 }
@@ -0,0 +1,119 @@
+package com.faforever.client.io;
+
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.Properties;
+
+import static com.google.common.io.Files.hash;
+
+/**
+ * Remembers the MD5 hashes of files together with their size, modification time and file key, and persists them to an
+ * index file. A file is only hashed again once any of these attributes changed, so checking files that are already up
+ * to date only costs reading their attributes.
+ */
+@Slf4j
+class FileHashIndex {
+
+  private final Path indexFile;
+  private final Properties entries = new Properties();
+
+  /**
+   * @param indexFile the file the index is read from and written to. An unreadable index is treated like an empty one.
+   */
+  FileHashIndex(Path indexFile) {
+    this.indexFile = indexFile;
+    if (Files.exists(indexFile)) {
+      try (InputStream inputStream = Files.newInputStream(indexFile)) {
+        entries.load(inputStream);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Ignoring unreadable file hash index `{}`", indexFile, e);
+        entries.clear();
+      }
+      // Files that have been deleted, like temporary files, are dropped the next time the index is written
+      entries.keySet().removeIf(key -> Files.notExists(Path.of((String) key)));
+    }
+  }
+
+  /**
+   * @return the MD5 hash of the file as lower case hex string, from the index if the file didn't change since it has
+   * been hashed
+   */
+  String getMd5(Path file) throws IOException {
+    String stamp = stamp(file);
+    String entry = entries.getProperty(key(file));
+    if (entry != null) {
+      String[] md5AndStamp = entry.split(" ", 2);
+      if (md5AndStamp.length == 2 && md5AndStamp[1].equals(stamp)) {
+        return md5AndStamp[0];
+      }
+    }
+
+    log.trace("Hashing `{}`", file);
+    String md5 = hash(file.toFile(), Hashing.md5()).toString();
+    // The file might have changed while it was hashed, in which case the hash is not recorded
+    if (stamp.equals(stamp(file))) {
+      store(file, md5, stamp);
+    }
+    return md5;
+  }
+
+  /**
+   * Forgets the hash of a file that is about to be replaced, in case the file system doesn't record modification times
+   * precisely enough to tell the new file from the old one.
+   */
+  synchronized void invalidate(Path file) {
+    if (entries.remove(key(file)) != null) {
+      write();
+    }
+  }
+
+  private synchronized void store(Path file, String md5, String stamp) {
+    String entry = md5 + " " + stamp;
+    if (!Objects.equals(entries.setProperty(key(file), entry), entry)) {
+      write();
+    }
+  }
+
+  /**
+   * Writes the index file. If that fails, the entries are still kept in memory, as they are only a cache.
+   */
+  private void write() {
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), null);
+      try {
+        try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+          entries.store(outputStream, null);
+        }
+        try {
+          Files.move(tempFile, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      log.warn("Could not write file hash index `{}`", indexFile, e);
+    }
+  }
+
+  private static String key(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  private static String stamp(Path file) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    return attributes.size() + "/" + attributes.lastModifiedTime().toInstant() + "/" + attributes.fileKey();
+  }
+}
@@ -0,0 +1,438 @@
+package com.faforever.client.io;
+
+import com.faforever.commons.io.ByteCountListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads a file in chunks of {@link #CHUNK_SIZE} bytes with HTTP range requests, using several connections at once.
+ * The chunks are written to a partial file next to the target file, and the chunks that have been written are recorded
+ * in a state file, so a download that failed or was cancelled continues where it stopped the next time.
+ *
+ * <p>The MD5 checksum is computed while the chunks arrive. As it needs the chunks in order, chunks that arrive early
+ * are held in memory until the chunks before them have been digested. Only if too many chunks are waiting, and for the
+ * chunks of an earlier attempt, the checksum reads them back from the partial file.</p>
+ */
+@Slf4j
+class SegmentedDownload {
+
+  static final int CHUNK_SIZE = 1024 * 1024;
+  private static final int MAX_BUFFERED_CHUNKS = 16;
+  private static final int MAX_ATTEMPTS_PER_CHUNK = 3;
+  private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+  private final HttpClient httpClient;
+  private final URI uri;
+  private final Map<String, String> requestProperties;
+  private final Path partFile;
+  private final Path stateFile;
+  private final Semaphore hostConnections;
+  private final int maxConnections;
+  private final ByteCountListener progressListener;
+  private final String md5sum;
+
+  private final AtomicLong bytesProcessed = new AtomicLong();
+  private final TreeMap<Integer, byte[]> bufferedChunks = new TreeMap<>();
+
+  private DownloadState previousState;
+  private long totalBytes;
+  private String validator;
+  private int chunkCount;
+  private BitSet completedChunks;
+  private MessageDigest messageDigest;
+  private int nextDigestChunk;
+  private FileChannel channel;
+
+  /**
+   * The first response of a download, which tells whether the server supports range requests.
+   */
+  record Probe(HttpResponse<InputStream> response, int chunk) {}
+
+  SegmentedDownload(HttpClient httpClient, URI uri, Map<String, String> requestProperties, Path targetFile,
+                    Semaphore hostConnections, int maxConnections, ByteCountListener progressListener, String md5sum) {
+    this.httpClient = httpClient;
+    this.uri = uri;
+    this.requestProperties = requestProperties;
+    this.partFile = targetFile.resolveSibling(targetFile.getFileName() + ".part");
+    this.stateFile = targetFile.resolveSibling(targetFile.getFileName() + ".part.properties");
+    this.hostConnections = hostConnections;
+    this.maxConnections = maxConnections;
+    this.progressListener = progressListener;
+    this.md5sum = md5sum;
+  }
+
+  Path getPartFile() {
+    return partFile;
+  }
+
+  /**
+   * Moves the partial file of an earlier attempt to the target file if all of its chunks have been written and its
+   * checksum matches. This is the case if only the move failed, for example because the target file was in use. A
+   * complete partial file whose checksum doesn't match is deleted.
+   *
+   * @return whether the target file has been replaced
+   */
+  boolean finishEarlierAttempt(Path targetFile) throws IOException, NoSuchAlgorithmException {
+    DownloadState state = readState().orElse(null);
+    if (state == null) {
+      return false;
+    }
+    long stateChunkCount = (state.totalBytes() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    if (state.completedChunks().nextClearBit(0) < stateChunkCount) {
+      return false;
+    }
+
+    if (Files.size(partFile) != state.totalBytes() || !Objects.equals(md5sum, hashPartFile())) {
+      log.info("Deleting complete partial file `{}` as it doesn't match the expected file", partFile);
+      deletePartialFiles();
+      return false;
+    }
+
+    log.info("Using complete partial file `{}` of an earlier attempt", partFile);
+    Files.move(partFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+    Files.deleteIfExists(stateFile);
+    return true;
+  }
+
+  /**
+   * Requests the first chunk that is missing from an earlier attempt, or the first chunk of the file. The caller needs
+   * to hold a connection of the host until the body of the response has been read.
+   *
+   * @return the response, which is partial content if the server supports ranges and the full file otherwise
+   */
+  Probe probe() throws IOException {
+    previousState = readState().orElse(null);
+    if (previousState == null) {
+      // Whatever is left of an earlier attempt can't be continued
+      deletePartialFiles();
+    }
+    int chunk = previousState == null ? 0 : previousState.completedChunks().nextClearBit(0);
+    return new Probe(send(chunk), chunk);
+  }
+
+  /**
+   * Requests the whole file, for servers that can't satisfy the range of {@link #probe()}. This is the case for empty
+   * files, which have no range at all.
+   */
+  HttpResponse<InputStream> sendWithoutRange() throws IOException {
+    return send(newRequestBuilder());
+  }
+
+  /**
+   * Writes the chunk of a partial content response of {@link #probe()} and continues the download from an earlier
+   * attempt if the file has not changed since.
+   */
+  void start(Probe probe) throws IOException, NoSuchAlgorithmException {
+    ContentRange contentRange = ContentRange.parse(probe.response());
+    totalBytes = contentRange.totalBytes();
+    validator = getValidator(probe.response());
+    chunkCount = (int) ((totalBytes + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    if (previousState != null
+        && (previousState.totalBytes() != totalBytes || !Objects.equals(previousState.validator(), validator))) {
+      log.info("Restarting download of `{}` as the file has changed", uri);
+      previousState = null;
+      deletePartialFiles();
+    }
+    completedChunks = previousState == null ? new BitSet() : previousState.completedChunks();
+    messageDigest = MessageDigest.getInstance("MD5");
+    for (int chunk = completedChunks.nextSetBit(0); chunk >= 0; chunk = completedChunks.nextSetBit(chunk + 1)) {
+      bytesProcessed.addAndGet(getChunkLength(chunk));
+    }
+
+    if (contentRange.start() != (long) probe.chunk() * CHUNK_SIZE) {
+      probe.response().body().close();
+      throw new IOException("Server returned range starting at %d instead of chunk %d".formatted(
+          contentRange.start(), probe.chunk()));
+    }
+
+    channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                               StandardOpenOption.READ);
+    try {
+      channel.truncate(totalBytes);
+      readChunk(probe.chunk(), probe.response().body());
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Downloads the remaining chunks and moves the partial file to the target file once the checksum matches.
+   */
+  void finish(Path targetFile) throws IOException, ChecksumMismatchException {
+    try {
+      downloadRemainingChunks();
+    } finally {
+      channel.close();
+    }
+
+    String checksum = HexFormat.of().formatHex(messageDigest.digest()).toLowerCase();
+    if (!Objects.equals(md5sum, checksum)) {
+      deletePartialFiles();
+      throw new ChecksumMismatchException(uri.toURL(), checksum, md5sum);
+    }
+
+    Files.move(partFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+    Files.deleteIfExists(stateFile);
+  }
+
+  void deletePartialFiles() throws IOException {
+    Files.deleteIfExists(partFile);
+    Files.deleteIfExists(stateFile);
+  }
+
+  private void downloadRemainingChunks() throws IOException {
+    List<Integer> missingChunks = new ArrayList<>();
+    synchronized (this) {
+      for (int chunk = completedChunks.nextClearBit(0); chunk < chunkCount;
+           chunk = completedChunks.nextClearBit(chunk + 1)) {
+        missingChunks.add(chunk);
+      }
+    }
+    if (missingChunks.isEmpty()) {
+      return;
+    }
+
+    AtomicInteger nextChunkIndex = new AtomicInteger();
+    int workers = Math.min(maxConnections, missingChunks.size());
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < workers; i++) {
+        futures.add(executor.submit(() -> {
+          int index;
+          // Chunks are taken in order, so they mostly arrive in the order they are digested
+          while ((index = nextChunkIndex.getAndIncrement()) < missingChunks.size()) {
+            downloadChunk(missingChunks.get(index));
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Download of `%s` has been interrupted".formatted(uri));
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      }
+      throw new IOException("Download of `%s` failed".formatted(uri), e.getCause());
+    } finally {
+      // Stops the other chunks if one failed for good
+      executor.shutdownNow();
+    }
+  }
+
+  private void downloadChunk(int chunk) throws IOException, InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      hostConnections.acquire();
+      try {
+        HttpResponse<InputStream> response = send(chunk);
+        if (response.statusCode() != 206) {
+          response.body().close();
+          throw new IOException("Server returned status %d for chunk %d of `%s`".formatted(response.statusCode(),
+                                                                                          chunk, uri));
+        }
+        if (ContentRange.parse(response).start() != (long) chunk * CHUNK_SIZE) {
+          response.body().close();
+          throw new IOException("Server returned wrong range for chunk %d of `%s`".formatted(chunk, uri));
+        }
+        readChunk(chunk, response.body());
+        return;
+      } catch (InterruptedIOException e) {
+        throw e;
+      } catch (IOException e) {
+        if (attempt >= MAX_ATTEMPTS_PER_CHUNK) {
+          throw e;
+        }
+        log.debug("Retrying chunk {} of `{}` after failed attempt {}", chunk, uri, attempt, e);
+      } finally {
+        hostConnections.release();
+      }
+    }
+  }
+
+  private HttpResponse<InputStream> send(int chunk) throws IOException {
+    long start = (long) chunk * CHUNK_SIZE;
+    return send(newRequestBuilder().header("Range", "bytes=%d-%d".formatted(start, start + CHUNK_SIZE - 1)));
+  }
+
+  private HttpRequest.Builder newRequestBuilder() {
+    HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri).GET();
+    requestProperties.forEach(requestBuilder::header);
+    return requestBuilder;
+  }
+
+  private HttpResponse<InputStream> send(HttpRequest.Builder requestBuilder) throws IOException {
+    try {
+      return httpClient.send(requestBuilder.build(), BodyHandlers.ofInputStream());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Download of `%s` has been interrupted".formatted(uri));
+    }
+  }
+
+  private void readChunk(int chunk, InputStream body) throws IOException {
+    int length = (int) getChunkLength(chunk);
+    byte[] bytes = new byte[length];
+    int offset = 0;
+    try (body) {
+      while (offset < length) {
+        int read = body.read(bytes, offset, length - offset);
+        if (read < 0) {
+          throw new IOException("Chunk %d of `%s` ended after %d of %d bytes".formatted(chunk, uri, offset, length));
+        }
+        offset += read;
+        progressListener.updateBytesProcessed(bytesProcessed.addAndGet(read), totalBytes);
+      }
+    } catch (IOException e) {
+      // The chunk is downloaded again, so its bytes must not count twice
+      bytesProcessed.addAndGet(-offset);
+      throw e;
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    long position = (long) chunk * CHUNK_SIZE;
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+    onChunkWritten(chunk, bytes);
+  }
+
+  private synchronized void onChunkWritten(int chunk, byte[] bytes) throws IOException {
+    completedChunks.set(chunk);
+    if (chunk == nextDigestChunk || bufferedChunks.size() < MAX_BUFFERED_CHUNKS) {
+      bufferedChunks.put(chunk, bytes);
+    }
+
+    while (nextDigestChunk < chunkCount && completedChunks.get(nextDigestChunk)) {
+      byte[] digestBytes = bufferedChunks.remove(nextDigestChunk);
+      if (digestBytes == null) {
+        digestBytes = readChunkFromPartFile(nextDigestChunk);
+      }
+      messageDigest.update(digestBytes);
+      nextDigestChunk++;
+    }
+    writeState();
+  }
+
+  private byte[] readChunkFromPartFile(int chunk) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) getChunkLength(chunk));
+    long position = (long) chunk * CHUNK_SIZE;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException("Partial file `%s` ends within chunk %d".formatted(partFile, chunk));
+      }
+    }
+    return buffer.array();
+  }
+
+  private String hashPartFile() throws IOException, NoSuchAlgorithmException {
+    MessageDigest partFileDigest = MessageDigest.getInstance("MD5");
+    try (InputStream inputStream = new DigestInputStream(Files.newInputStream(partFile), partFileDigest)) {
+      inputStream.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(partFileDigest.digest());
+  }
+
+  private long getChunkLength(int chunk) {
+    return Math.min(CHUNK_SIZE, totalBytes - (long) chunk * CHUNK_SIZE);
+  }
+
+  private static String getValidator(HttpResponse<?> response) {
+    return response.headers().firstValue("ETag").or(() -> response.headers().firstValue("Last-Modified"))
+                   .orElse(null);
+  }
+
+  private void writeState() throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("url", uri.toString());
+    properties.setProperty("md5", String.valueOf(md5sum));
+    properties.setProperty("totalBytes", String.valueOf(totalBytes));
+    if (validator != null) {
+      properties.setProperty("validator", validator);
+    }
+    properties.setProperty("completedChunks", HexFormat.of().formatHex(completedChunks.toByteArray()));
+    try (OutputStream outputStream = Files.newOutputStream(stateFile)) {
+      properties.store(outputStream, null);
+    }
+  }
+
+  /**
+   * @return the state of an earlier attempt to download the same file, if its partial file still exists
+   */
+  private Optional<DownloadState> readState() {
+    if (Files.notExists(stateFile) || Files.notExists(partFile)) {
+      return Optional.empty();
+    }
+
+    Properties properties = new Properties();
+    try (InputStream inputStream = Files.newInputStream(stateFile)) {
+      properties.load(inputStream);
+      if (!uri.toString().equals(properties.getProperty("url"))
+          || !String.valueOf(md5sum).equals(properties.getProperty("md5"))) {
+        return Optional.empty();
+      }
+      return Optional.of(new DownloadState(Long.parseLong(properties.getProperty("totalBytes")),
+                                           properties.getProperty("validator"), BitSet.valueOf(
+          HexFormat.of().parseHex(properties.getProperty("completedChunks")))));
+    } catch (IOException | RuntimeException e) {
+      log.debug("Ignoring unreadable download state `{}`", stateFile, e);
+      return Optional.empty();
+    }
+  }
+
+  private record DownloadState(long totalBytes, String validator, BitSet completedChunks) {}
+
+  private record ContentRange(long start, long end, long totalBytes) {
+
+    static ContentRange parse(HttpResponse<?> response) throws IOException {
+      String contentRange = response.headers().firstValue("Content-Range").orElse("");
+      Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+      if (!matcher.matches()) {
+        throw new IOException("Unsupported content range `%s`".formatted(contentRange));
+      }
+      return new ContentRange(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                              Long.parseLong(matcher.group(3)));
+    }
+  }
+}
@@ -59,14 +59,9 @@ public class LeaderboardService {
 
   @Cacheable(value = CacheNames.LEADERBOARD, sync = true)
   public Flux<LeaderboardEntry> getEntriesForPlayer(PlayerInfo player) {
-    ElideNavigatorOnCollection<com.faforever.commons.api.dto.LeaderboardEntry> navigator = ElideNavigator.of(
-                                                                                                             com.faforever.commons.api.dto.LeaderboardEntry.class)
-                                                                                                         .collection()
-                                                                                                         .setFilter(
-                                                                                                             qBuilder().intNum(
-                                                                                                                           "player.id")
-                                                                                                                       .eq(player.getId()));
-    return fafApiAccessor.getMany(navigator).map(leaderboardMapper::map)
+    return fafApiAccessor.getManyByKey(com.faforever.commons.api.dto.LeaderboardEntry.class, "player.id",
+                                       player.getId(), entry -> entry.getPlayer().getId())
+                         .map(leaderboardMapper::map)
                          .cache();
   }
 
@@ -29,7 +29,7 @@ public class DownloadMapTask extends CompletableTask<Void> {
 
   @Autowired
   public DownloadMapTask(I18n i18n, ForgedAlliancePrefs forgedAlliancePrefs) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, ResourceClass.NETWORK);
 
     this.forgedAlliancePrefs = forgedAlliancePrefs;
     this.i18n = i18n;
@@ -0,0 +1,88 @@
+package com.faforever.client.map;
+
+import com.faforever.client.domain.api.Map;
+import com.faforever.client.domain.api.MapType;
+import com.faforever.client.domain.api.MapVersion;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.util.FileScanCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Persistent cache of the installed maps read by {@link MapService}, so maps whose scenario file did not change since
+ * the last start don't need to be run through lua again.
+ */
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class InstalledMapCache implements InitializingBean, DisposableBean {
+
+  private static final String CACHE_FILE_NAME = "installed-maps.json";
+  private static final int CACHE_VERSION = 1;
+
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+
+  private FileScanCache<CachedMapVersion> cache;
+
+  record CachedMapVersion(
+      String displayName,
+      MapType mapType,
+      String description,
+      int maxPlayers,
+      MapSize mapSize,
+      String version
+  ) {}
+
+  @Override
+  public void afterPropertiesSet() {
+    cache = new FileScanCache<>(dataPrefs.getCacheDirectory().resolve(CACHE_FILE_NAME), CACHE_VERSION, objectMapper,
+                                CachedMapVersion.class);
+  }
+
+  /**
+   * @return the map read from the given folder before, if its scenario file has not changed since
+   */
+  public Optional<MapVersion> get(Path mapFolder) {
+    return cache.get(mapFolder).map(cachedMapVersion -> {
+      Map map = new Map(null, cachedMapVersion.displayName(), 0, null, false, cachedMapVersion.mapType(), null);
+      ComparableVersion version = cachedMapVersion.version() == null ? null : new ComparableVersion(
+          cachedMapVersion.version());
+      return new MapVersion(null, mapFolder.getFileName().toString(), 0, cachedMapVersion.description(),
+                            cachedMapVersion.maxPlayers(), cachedMapVersion.mapSize(), version, false, false, null,
+                            null, null, map, null);
+    });
+  }
+
+  public void put(Path mapFolder, Path scenarioFile, MapVersion mapVersion) {
+    String version = mapVersion.version() == null ? null : mapVersion.version().toString();
+    cache.put(mapFolder, scenarioFile,
+              new CachedMapVersion(mapVersion.map().displayName(), mapVersion.map().mapType(),
+                                   mapVersion.description(), mapVersion.maxPlayers(), mapVersion.size(), version));
+  }
+
+  /**
+   * Drops the entries of all map folders that are not in the given collection.
+   */
+  public void retainAll(Collection<Path> mapFolders) {
+    cache.retainAll(mapFolders);
+  }
+
+  public void save() {
+    cache.save();
+  }
+
+  @Override
+  public void destroy() {
+    save();
+  }
+}
@@ -25,6 +25,7 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.CompletableTask.ResourceClass;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.theme.ThemeService;
 import com.faforever.client.util.FileSizeReader;
@@ -83,6 +84,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -124,11 +126,12 @@ public class MapService implements InitializingBean, DisposableBean {
   private final ObjectFactory<DownloadMapTask> downloadMapTaskFactory;
   private final ObjectFactory<UninstallMapTask> uninstallMapTaskFactory;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final InstalledMapCache installedMapCache;
 
   private final ObservableMap<String, MapVersion> mapsByFolderName = FXCollections.observableHashMap();
   @Getter
-  private final ObservableList<MapVersion> installedMaps = JavaFxUtil.attachListToMap(
-      FXCollections.synchronizedObservableList(FXCollections.observableArrayList()), mapsByFolderName);
+  private final ObservableList<MapVersion> installedMaps = JavaFxUtil.attachIndexedListToMap(
+      mapsByFolderName);
   private final InvalidationListener mapsDirectoryInvalidationListener = observable -> tryLoadMaps();
   private String mapDownloadUrlFormat;
   private String mapPreviewUrlFormat;
@@ -222,7 +225,7 @@ public class MapService implements InitializingBean, DisposableBean {
   }
 
   private void loadInstalledMaps() {
-    taskService.submitTask(new CompletableTask<Void>(Priority.LOW) {
+    taskService.submitTask(new CompletableTask<Void>(Priority.LOW, ResourceClass.DISK) {
 
       @Override
       protected Void call() {
@@ -234,18 +237,20 @@ public class MapService implements InitializingBean, DisposableBean {
           officialMaps.stream().map(officialMapsPath::resolve).collect(toCollection(() -> mapPaths));
 
           long totalMaps = mapPaths.size();
-          long mapsRead = 0;
-          for (Path mapPath : mapPaths) {
-            if (mapPath.getFileName().toString().equals(DEBUG)) {
-              continue;
-            }
-            updateProgress(++mapsRead, totalMaps);
-            try {
-              addInstalledMap(mapPath);
-            } catch (MapLoadException exception) {
-              log.error("Map could not be read: `{}`", mapPath, exception);
-            }
-          }
+          AtomicLong mapsRead = new AtomicLong();
+          // Scenario files are independent of each other, so they are read on all cores
+          mapPaths.parallelStream()
+                  .filter(mapPath -> !mapPath.getFileName().toString().equals(DEBUG))
+                  .forEach(mapPath -> {
+                    updateProgress(mapsRead.incrementAndGet(), totalMaps);
+                    try {
+                      addInstalledMap(mapPath);
+                    } catch (MapLoadException exception) {
+                      log.error("Map could not be read: `{}`", mapPath, exception);
+                    }
+                  });
+          installedMapCache.retainAll(mapPaths);
+          installedMapCache.save();
         } catch (IOException e) {
           log.error("Maps could not be read from: `{}`", forgedAlliancePrefs.getMapsDirectory(), e);
         }
@@ -261,7 +266,7 @@ public class MapService implements InitializingBean, DisposableBean {
   }
 
   private void addInstalledMap(Path mapFolder) throws MapLoadException {
-    MapVersion mapVersion = readMap(mapFolder);
+    MapVersion mapVersion = readInstalledMap(mapFolder);
     if (!isInstalled(mapVersion.folderName())) {
       fxApplicationThreadExecutor.execute(
           () -> mapsByFolderName.put(mapVersion.folderName().toLowerCase(Locale.ROOT), mapVersion));
@@ -269,21 +274,43 @@ public class MapService implements InitializingBean, DisposableBean {
     }
   }
 
+  private MapVersion readInstalledMap(Path mapFolder) throws MapLoadException {
+    Optional<MapVersion> cachedMapVersion = installedMapCache.get(mapFolder);
+    if (cachedMapVersion.isPresent()) {
+      return cachedMapVersion.get();
+    }
+
+    Path scenarioLuaPath = findScenarioFile(mapFolder);
+    MapVersion mapVersion = readScenarioFile(mapFolder, scenarioLuaPath);
+    installedMapCache.put(mapFolder, scenarioLuaPath, mapVersion);
+    return mapVersion;
+  }
+
   @NotNull
   public MapVersion readMap(Path mapFolder) throws MapLoadException {
+    return readScenarioFile(mapFolder, findScenarioFile(mapFolder));
+  }
+
+  private Path findScenarioFile(Path mapFolder) throws MapLoadException {
     if (!Files.isDirectory(mapFolder)) {
       throw new MapLoadException("Not a folder: " + mapFolder.toAbsolutePath(), null, "map.load.notAFolder",
                                  mapFolder.toAbsolutePath());
     }
 
     try (Stream<Path> mapFolderFilesStream = list(mapFolder)) {
-      Path scenarioLuaPath = mapFolderFilesStream.filter(
-                                                     file -> file.getFileName().toString().endsWith("_scenario.lua"))
-                                                 .findFirst()
-                                                 .orElseThrow(() -> new MapLoadException(
-                                                     "Map folder does not contain a *_scenario.lua: " + mapFolder.toAbsolutePath(),
-                                                     null, "map.load.noScenario", mapFolder.toAbsolutePath()));
+      return mapFolderFilesStream.filter(file -> file.getFileName().toString().endsWith("_scenario.lua"))
+                                 .findFirst()
+                                 .orElseThrow(() -> new MapLoadException(
+                                     "Map folder does not contain a *_scenario.lua: " + mapFolder.toAbsolutePath(),
+                                     null, "map.load.noScenario", mapFolder.toAbsolutePath()));
+    } catch (IOException e) {
+      throw new MapLoadException("Could not load map due to IO error" + mapFolder.toAbsolutePath(), e,
+                                 "map.load.ioError", mapFolder.toAbsolutePath());
+    }
+  }
 
+  private MapVersion readScenarioFile(Path mapFolder, Path scenarioLuaPath) throws MapLoadException {
+    try {
       LuaValue luaRoot = loadFile(scenarioLuaPath);
       LuaValue scenarioInfo = luaRoot.get("ScenarioInfo");
       LuaValue size = scenarioInfo.get("size");
@@ -429,7 +456,8 @@ public class MapService implements InitializingBean, DisposableBean {
 
   private Image loadPreview(URL url, PreviewSize previewSize) {
     return assetService.loadAndCacheImage(url, Path.of("maps").resolve(previewSize.folderName),
-                                          () -> themeService.getThemeImage(ThemeService.NO_IMAGE_AVAILABLE));
+                                          () -> themeService.getThemeImage(ThemeService.NO_IMAGE_AVAILABLE),
+                                          previewSize.displaySize, previewSize.displaySize);
   }
 
 
@@ -548,13 +576,18 @@ public class MapService implements InitializingBean, DisposableBean {
   }
 
   public enum PreviewSize {
-    // These must match the preview URLs
-    SMALL("small"), LARGE("large");
+    // The folder names must match the preview URLs. Large previews are shown in popups at their original size.
+    SMALL("small", 256), LARGE("large", 0);
 
     final String folderName;
+    /**
+     * The width and height the preview is decoded at, {@code 0} for its original size.
+     */
+    final int displaySize;
 
-    PreviewSize(String folderName) {
+    PreviewSize(String folderName, int displaySize) {
       this.folderName = folderName;
+      this.displaySize = displaySize;
     }
   }
 
@@ -571,14 +604,9 @@ public class MapService implements InitializingBean, DisposableBean {
    * Tries to find a map my its folder name, first locally then on the server.
    */
   public Mono<MapVersion> findByMapFolderName(String folderName) {
-    ElideNavigatorOnCollection<com.faforever.commons.api.dto.MapVersion> navigator = ElideNavigator.of(
-                                                                                                       com.faforever.commons.api.dto.MapVersion.class)
-                                                                                                   .collection()
-                                                                                                   .setFilter(
-                                                                                                       qBuilder().string(
-                                                                                                                     "folderName")
-                                                                                                                 .eq(folderName));
-    Mono<MapVersion> apiMapVersion = fafApiAccessor.getMany(navigator).next().map(mapMapper::map);
+    Mono<MapVersion> apiMapVersion = fafApiAccessor.getManyByKey(
+        com.faforever.commons.api.dto.MapVersion.class, "folderName", folderName,
+        com.faforever.commons.api.dto.MapVersion::getFolderName).next().map(mapMapper::map);
 
     return Mono.justOrEmpty(getMapLocallyFromName(folderName)).switchIfEmpty(apiMapVersion);
   }
@@ -33,16 +33,19 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
   private final FafApiAccessor fafApiAccessor;
   private final I18n i18n;
   private final DataPrefs dataPrefs;
+  private final ResourceLocks resourceLocks;
 
   private Path mapPath;
   private Boolean isRanked;
 
   @Autowired
-  public MapUploadTask(FafApiAccessor fafApiAccessor, I18n i18n, DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+  public MapUploadTask(FafApiAccessor fafApiAccessor, I18n i18n, DataPrefs dataPrefs,
+                       ResourceLocks resourceLocks) {
+    super(Priority.HIGH, ResourceClass.NETWORK);
     this.fafApiAccessor = fafApiAccessor;
     this.i18n = i18n;
     this.dataPrefs = dataPrefs;
+    this.resourceLocks = resourceLocks;
   }
 
   @Override
@@ -55,7 +58,6 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
     Validator.notNull(mapPath, "mapPath must not be null");
     Validator.notNull(isRanked, "isRanked must not be null");
 
-    ResourceLocks.acquireUploadLock();
     Path cacheDirectory = dataPrefs.getCacheDirectory();
     Files.createDirectories(cacheDirectory);
     Path tmpFile = createTempFile(cacheDirectory, "map", ".zip");
@@ -70,11 +72,14 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
         updateProgress(written, total);
       };
 
+      resourceLocks.acquireDiskLock(mapPath, tmpFile);
       try (OutputStream outputStream = newOutputStream(tmpFile)) {
         Zipper.of(mapPath)
             .to(outputStream)
             .listener(byteListener)
             .zip();
+      } finally {
+        resourceLocks.freeDiskLock(mapPath, tmpFile);
       }
 
       log.info("Uploading map `{}` as `{}`", mapPath, tmpFile);
@@ -83,7 +88,6 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
       return fafApiAccessor.uploadFile("/maps/upload", tmpFile, byteListener, Map.of("metadata", Map.of("isRanked", isRanked))).block();
     } finally {
       Files.delete(tmpFile);
-      ResourceLocks.freeUploadLock();
     }
   }
 
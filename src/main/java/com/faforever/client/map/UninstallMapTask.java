@@ -23,7 +23,7 @@ public class UninstallMapTask extends CompletableTask<Void> {
 
   @Autowired
   public UninstallMapTask(MapService mapService) {
-    super(Priority.LOW);
+    super(Priority.LOW, ResourceClass.DISK);
     this.mapService = mapService;
   }
 
@@ -43,7 +43,7 @@ public class DownloadMapGeneratorTask extends CompletableTask<Void> {
 
   @Autowired
   public DownloadMapGeneratorTask(MapGeneratorService mapGeneratorService, ClientProperties clientProperties, I18n i18n, PlatformService platformService) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, ResourceClass.NETWORK);
 
     this.mapGeneratorService = mapGeneratorService;
     this.clientProperties = clientProperties;
@@ -22,6 +22,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
 import java.util.function.Predicate;
 
 @Component
@@ -53,7 +54,9 @@ public class MapsManagementController extends NodeController<Node> {
   private void initializeListView() {
     listView.setCellFactory(param -> new RemovableMapCell(uiService, fxApplicationThreadExecutor));
     listView.setSelectionModel(new NoSelectionModel<>());
-    listView.setItems(filteredMaps);
+    // The installed maps change order when one is removed, so they are sorted for display
+    listView.setItems(filteredMaps.sorted(
+        Comparator.comparing(mapVersion -> mapVersion.map().displayName(), String.CASE_INSENSITIVE_ORDER)));
   }
 
   private void initializeChoiceBox() {
@@ -7,11 +7,12 @@ import com.faforever.client.domain.api.LeagueScoreJournal;
 import com.faforever.client.domain.api.MapVersion;
 import com.faforever.client.domain.api.Replay;
 import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.replay.LocalReplayMetadata;
+import com.faforever.client.replay.ReplayHeader;
 import com.faforever.commons.api.dto.Faction;
 import com.faforever.commons.api.dto.Game;
 import com.faforever.commons.replay.ChatMessage;
 import com.faforever.commons.replay.GameOption;
-import com.faforever.commons.replay.ReplayDataParser;
 import com.faforever.commons.replay.ReplayMetadata;
 import org.mapstruct.CollectionMappingStrategy;
 import org.mapstruct.InheritInverseConfiguration;
@@ -88,67 +89,77 @@ public interface ReplayMapper {
   com.faforever.commons.api.dto.LeagueScoreJournal map(LeagueScoreJournal source);
 
   @Mapping(target = "local", constant = "true")
-  @Mapping(target = "id", source = "parser.metadata.uid")
-  @Mapping(target = "title", source = "parser.metadata.title")
+  @Mapping(target = "id", source = "metadata.uid")
+  @Mapping(target = "title", source = "metadata.title")
   @Mapping(target = "replayAvailable", constant = "true")
   @Mapping(target = "featuredMod", source = "featuredMod")
   @Mapping(target = "mapVersion", source = "mapVersion")
   @Mapping(target = "replayFile", source = "replayFile")
-  @Mapping(target = "startTime", source = "parser", qualifiedBy = MapStartTime.class)
-  @Mapping(target = "endTime", source = "parser", qualifiedBy = MapEndTime.class)
-  @Mapping(target = "teamPlayerStats", source = "parser", qualifiedBy = MapTeamStats.class)
-  @Mapping(target = "teams", source = "parser", qualifiedBy = MapTeams.class)
+  @Mapping(target = "startTime", source = "metadata", qualifiedBy = MapStartTime.class)
+  @Mapping(target = "endTime", source = "metadata", qualifiedBy = MapEndTime.class)
+  @Mapping(target = "teamPlayerStats", source = "metadata", qualifiedBy = MapTeamStats.class)
+  @Mapping(target = "teams", source = "metadata", qualifiedBy = MapTeams.class)
   @Mapping(target = "host", ignore = true)
-  Replay map(ReplayDataParser parser, Path replayFile, FeaturedMod featuredMod, MapVersion mapVersion);
+  Replay map(LocalReplayMetadata metadata, Path replayFile, FeaturedMod featuredMod, MapVersion mapVersion);
 
   Replay.ChatMessage map(ChatMessage chatMessage);
 
   @Mapping(target = "value", expression = "java(gameOption.getValue().toString())")
   Replay.GameOption map(GameOption gameOption);
 
+  default LocalReplayMetadata mapToLocalReplayMetadata(ReplayHeader header) {
+    ReplayMetadata metadata = header.metadata();
+    List<LocalReplayMetadata.Army> armies = header.armies()
+                                                  .stream()
+                                                  .filter(armyInfo -> Boolean.TRUE.equals(armyInfo.get("Human")))
+                                                  .map(armyInfo -> new LocalReplayMetadata.Army(
+                                                      Integer.parseInt((String) armyInfo.get("OwnerID")),
+                                                      (String) armyInfo.get("PlayerName"),
+                                                      (String) armyInfo.get("Country"),
+                                                      ((Float) armyInfo.get("Team")).byteValue(),
+                                                      ((Float) armyInfo.get("MEAN")).doubleValue(),
+                                                      ((Float) armyInfo.get("DEV")).doubleValue(),
+                                                      ((Float) armyInfo.get("Faction")).intValue()))
+                                                  .toList();
+    return new LocalReplayMetadata(metadata.getUid(), metadata.getTitle(), metadata.getFeaturedMod(),
+                                   metadata.getMapname(),
+                                   metadata.getGameTime() > 0 ? metadata.getGameTime() : metadata.getLaunchedAt(),
+                                   metadata.getGameEnd(), armies);
+  }
+
   @MapStartTime
-  default OffsetDateTime mapStartFromParser(ReplayDataParser parser) {
-    ReplayMetadata metadata = parser.getMetadata();
-    return fromPythonTime(metadata.getGameTime() > 0 ? metadata.getGameTime() : metadata.getLaunchedAt());
+  default OffsetDateTime mapStartFromLocalMetadata(LocalReplayMetadata metadata) {
+    return fromPythonTime(metadata.startTime());
   }
 
   @MapEndTime
-  default OffsetDateTime mapEndFromParser(ReplayDataParser parser) {
-    return fromPythonTime(parser.getMetadata().getGameEnd());
+  default OffsetDateTime mapEndFromLocalMetadata(LocalReplayMetadata metadata) {
+    return fromPythonTime(metadata.endTime());
   }
 
   @MapTeams
-  default Map<String, List<String>> mapTeamsFromParser(ReplayDataParser parser) {
-    return parser.getArmies()
-                 .values()
-                 .stream()
-                 .filter(armyInfo -> !((boolean) armyInfo.get("Human")))
-                 .collect(Collectors.groupingBy(armyInfo -> String.valueOf(((Float) armyInfo.get("Team")).intValue()),
-                                                Collectors.mapping(armyInfo -> (String) armyInfo.get("PlayerName"),
-                                                                   Collectors.toList())));
+  default Map<String, List<String>> mapTeamsFromLocalMetadata(LocalReplayMetadata metadata) {
+    return metadata.armies()
+                   .stream()
+                   .collect(Collectors.groupingBy(army -> String.valueOf(army.team()),
+                                                  Collectors.mapping(LocalReplayMetadata.Army::playerName,
+                                                                     Collectors.toList())));
   }
 
   @MapTeamStats
-  default HashMap<String, List<GamePlayerStats>> mapTeamStatsFromParser(ReplayDataParser parser) {
+  default HashMap<String, List<GamePlayerStats>> mapTeamStatsFromLocalMetadata(LocalReplayMetadata metadata) {
     HashMap<String, List<GamePlayerStats>> teams = new HashMap<>();
-    parser.getArmies().values().forEach(armyInfo -> {
-      if (!(boolean) armyInfo.get("Human")) {
-        byte team = ((Float) armyInfo.get("Team")).byteValue();
-        String teamString = String.valueOf(team);
-        PlayerInfo player = new PlayerInfo();
-        player.setId(Integer.parseInt((String) armyInfo.get("OwnerID")));
-        player.setUsername((String) armyInfo.get("PlayerName"));
-        player.setCountry((String) armyInfo.get("Country"));
-        double mean = ((Float) armyInfo.get("MEAN")).doubleValue();
-        double deviation = ((Float) armyInfo.get("DEV")).doubleValue();
-        LeaderboardRatingJournal ratingJournal = new LeaderboardRatingJournal(null, null, null, mean, deviation, null,
-                                                                              null);
-        Float factionFloat = (Float) armyInfo.get("Faction");
-        Faction faction = Faction.fromFaValue(factionFloat.intValue());
-        GamePlayerStats stats = new GamePlayerStats(false, faction, (byte) 0, team, (byte) 0, (byte) 0, null,
-                                                    null, player, List.of(ratingJournal));
-        teams.computeIfAbsent(teamString, key -> new ArrayList<>()).add(stats);
-      }
+    metadata.armies().forEach(army -> {
+      PlayerInfo player = new PlayerInfo();
+      player.setId(army.ownerId());
+      player.setUsername(army.playerName());
+      player.setCountry(army.country());
+      LeaderboardRatingJournal ratingJournal = new LeaderboardRatingJournal(null, null, null, army.mean(),
+                                                                            army.deviation(), null, null);
+      Faction faction = Faction.fromFaValue(army.faction());
+      GamePlayerStats stats = new GamePlayerStats(false, faction, (byte) 0, army.team(), (byte) 0, (byte) 0, null,
+                                                  null, player, List.of(ratingJournal));
+      teams.computeIfAbsent(String.valueOf(army.team()), key -> new ArrayList<>()).add(stats);
     });
     return teams;
   }
@@ -36,16 +36,19 @@ public class DownloadModTask extends CompletableTask<Void> {
   private final I18n i18n;
   private final DataPrefs dataPrefs;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
+  private final ResourceLocks resourceLocks;
 
   private URL url;
 
   @Autowired
-  public DownloadModTask(I18n i18n, DataPrefs dataPrefs, ForgedAlliancePrefs forgedAlliancePrefs) {
-    super(HIGH);
+  public DownloadModTask(I18n i18n, DataPrefs dataPrefs, ForgedAlliancePrefs forgedAlliancePrefs,
+                         ResourceLocks resourceLocks) {
+    super(HIGH, ResourceClass.NETWORK);
 
     this.i18n = i18n;
     this.dataPrefs = dataPrefs;
     this.forgedAlliancePrefs = forgedAlliancePrefs;
+    this.resourceLocks = resourceLocks;
   }
 
   @Override
@@ -62,19 +65,22 @@ public class DownloadModTask extends CompletableTask<Void> {
     URLConnection urlConnection = url.openConnection();
     int contentLength = urlConnection.getContentLength();
 
-    ResourceLocks.acquireDownloadLock();
-    try (InputStream inputStream = urlConnection.getInputStream();
-         OutputStream outputStream = Files.newOutputStream(tempFile)) {
-
-      ByteCopier.from(inputStream)
-          .to(outputStream)
-          .listener(this::updateProgress)
-          .totalBytes(contentLength)
-          .copy();
+    try {
+      resourceLocks.acquireHostPermit(url);
+      try (InputStream inputStream = urlConnection.getInputStream();
+           OutputStream outputStream = Files.newOutputStream(tempFile)) {
+
+        ByteCopier.from(inputStream)
+            .to(outputStream)
+            .listener(this::updateProgress)
+            .totalBytes(contentLength)
+            .copy();
+      } finally {
+        resourceLocks.freeHostPermit(url);
+      }
 
       extractMod(tempFile);
     } finally {
-      ResourceLocks.freeDownloadLock();
       try {
         Files.deleteIfExists(tempFile);
       } catch (IOException e) {
@@ -89,30 +95,44 @@ public class DownloadModTask extends CompletableTask<Void> {
 
     updateTitle(i18n.get("downloadingModTask.unzipping", modsDirectory));
 
-    deleteOldModIfExisting(tempFile, modsDirectory);
-
-    log.info("Unzipping `{}` to `{}`", tempFile, modsDirectory);
-    try (InputStream inputStream = Files.newInputStream(tempFile)) {
-      ResourceLocks.acquireDiskLock();
-
-      Unzipper.from(inputStream)
-          .to(modsDirectory)
-          .zipBombByteCountThreshold(100_000_000)
-          .listener(this::updateProgress)
-          .totalBytes(Files.size(tempFile))
-          .unzip();
+    // Only the directory of this mod is locked, so that other mods can be installed at the same time
+    Path modDirectory = getModDirectory(tempFile, modsDirectory);
+    resourceLocks.acquireDiskLock(modDirectory);
+    try {
+      if (!modDirectory.equals(modsDirectory)) {
+        deleteOldModIfExisting(modDirectory);
+      }
 
+      log.info("Unzipping `{}` to `{}`", tempFile, modsDirectory);
+      try (InputStream inputStream = Files.newInputStream(tempFile)) {
+        Unzipper.from(inputStream)
+            .to(modsDirectory)
+            .zipBombByteCountThreshold(100_000_000)
+            .listener(this::updateProgress)
+            .totalBytes(Files.size(tempFile))
+            .unzip();
+      }
     } finally {
-      ResourceLocks.freeDiskLock();
+      resourceLocks.freeDiskLock(modDirectory);
     }
   }
 
-  private void deleteOldModIfExisting(Path tempFile, Path modsDirectory) {
+  /**
+   * @return the directory the mod is extracted to, or the mods directory if it can't be determined
+   */
+  private Path getModDirectory(Path tempFile, Path modsDirectory) {
     try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(tempFile))) {
       ZipEntry zipEntry = zipInputStream.getNextEntry();
       Path pathToEntry = Path.of(zipEntry.getName());
-      Path topLevelDirectory = getTopLevelDirectory(pathToEntry);
-      Path modDirectory = modsDirectory.resolve(topLevelDirectory);
+      return modsDirectory.resolve(getTopLevelDirectory(pathToEntry));
+    } catch (Exception e) {
+      log.warn("Could not determine directory of mod", e);
+      return modsDirectory;
+    }
+  }
+
+  private void deleteOldModIfExisting(Path modDirectory) {
+    try {
       if (Files.isDirectory(modDirectory)) {
         log.info("Deleting old mod version in `{}`", modDirectory);
         FileSystemUtils.deleteRecursively(modDirectory);
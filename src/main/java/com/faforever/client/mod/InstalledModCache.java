@@ -0,0 +1,91 @@
+package com.faforever.client.mod;
+
+import com.faforever.client.domain.api.Mod;
+import com.faforever.client.domain.api.ModType;
+import com.faforever.client.domain.api.ModVersion;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.util.FileScanCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Persistent cache of the installed mods read by {@link ModService}, so mods whose {@code mod_info.lua} did not change
+ * since the last start don't need to be run through lua again.
+ */
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class InstalledModCache implements InitializingBean, DisposableBean {
+
+  private static final String CACHE_FILE_NAME = "installed-mods.json";
+  private static final int CACHE_VERSION = 1;
+
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+
+  private FileScanCache<CachedModVersion> cache;
+
+  record CachedModVersion(
+      String uid,
+      String displayName,
+      String author,
+      String description,
+      String version,
+      ModType modType
+  ) {}
+
+  @Override
+  public void afterPropertiesSet() {
+    cache = new FileScanCache<>(dataPrefs.getCacheDirectory().resolve(CACHE_FILE_NAME), CACHE_VERSION, objectMapper,
+                                CachedModVersion.class);
+  }
+
+  /**
+   * @return the mod read from the given folder before, if its mod info has not changed since
+   */
+  public Optional<ModVersion> get(Path modFolder) {
+    return cache.get(modFolder).map(cachedModVersion -> {
+      Mod mod = new Mod(null, cachedModVersion.displayName(), false, cachedModVersion.author(), null, null);
+      ComparableVersion version = cachedModVersion.version() == null ? null : new ComparableVersion(
+          cachedModVersion.version());
+      return new ModVersion(null, cachedModVersion.uid(), cachedModVersion.description(), version, null, null,
+                            cachedModVersion.modType(), false, false, mod, null, null);
+    });
+  }
+
+  public void put(Path modFolder, Path modInfoFile, ModVersion modVersion) {
+    String version = modVersion.version() == null ? null : modVersion.version().toString();
+    cache.put(modFolder, modInfoFile,
+              new CachedModVersion(modVersion.uid(), modVersion.mod().displayName(), modVersion.mod().author(),
+                                   modVersion.description(), version, modVersion.modType()));
+  }
+
+  public void remove(Path modFolder) {
+    cache.remove(modFolder);
+  }
+
+  /**
+   * Drops the entries of all mod folders that are not in the given collection.
+   */
+  public void retainAll(Collection<Path> modFolders) {
+    cache.retainAll(modFolders);
+  }
+
+  public void save() {
+    cache.save();
+  }
+
+  @Override
+  public void destroy() {
+    save();
+  }
+}
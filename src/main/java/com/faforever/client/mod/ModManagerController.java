@@ -29,6 +29,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -122,7 +123,9 @@ public class ModManagerController extends NodeController<Parent> {
       log.error("Activated mods could not be loaded", e);
     }
     modVersionFilteredList = new FilteredList<>(installedModVersions);
-    modListView.setItems(modVersionFilteredList);
+    // The installed mods change order when one is removed, so they are sorted for display
+    modListView.setItems(modVersionFilteredList.sorted(
+        Comparator.comparing(modVersion -> modVersion.mod().displayName(), String.CASE_INSENSITIVE_ORDER)));
     JavaFxUtil.addAndTriggerListener(viewToggleGroup.selectedToggleProperty(), observable -> filterModList());
   }
 
@@ -16,6 +16,7 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.CompletableTask.ResourceClass;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.theme.ThemeService;
 import com.faforever.client.util.FileSizeReader;
@@ -63,7 +64,6 @@ import java.nio.file.WatchService;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -71,6 +71,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -88,6 +89,8 @@ import static java.util.stream.Collectors.toCollection;
 // TODO divide and conquer
 public class ModService implements InitializingBean, DisposableBean {
 
+  private static final int THUMBNAIL_SIZE = 128;
+
   private final FafApiAccessor fafApiAccessor;
   private final GamePrefsService gamePrefsService;
   private final TaskService taskService;
@@ -104,14 +107,15 @@ public class ModService implements InitializingBean, DisposableBean {
   private final ObjectFactory<DownloadModTask> downloadModTaskFactory;
   private final ObjectFactory<UninstallModTask> uninstallModTaskFactory;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final InstalledModCache installedModCache;
 
   private final ModReader modReader = new ModReader();
 
-  private final Map<Path, ModVersion> pathToMod = new HashMap<>();
+  private final Map<Path, ModVersion> pathToMod = new ConcurrentHashMap<>();
   private final ObservableMap<String, ModVersion> modsByUid = FXCollections.observableHashMap();
   @Getter
-  private final ObservableList<ModVersion> installedMods = JavaFxUtil.attachListToMap(
-      FXCollections.synchronizedObservableList(FXCollections.observableArrayList()), modsByUid);
+  private final ObservableList<ModVersion> installedMods = JavaFxUtil.attachIndexedListToMap(
+      modsByUid);
   private final InvalidationListener modDirectoryChangedListener = observable -> tryLoadMods();
 
   private Thread directoryWatcherThread;
@@ -180,7 +184,7 @@ public class ModService implements InitializingBean, DisposableBean {
   }
 
   private void loadInstalledMods() {
-    taskService.submitTask(new CompletableTask<Void>(Priority.LOW) {
+    taskService.submitTask(new CompletableTask<Void>(Priority.LOW, ResourceClass.DISK) {
 
       @Override
       protected Void call() {
@@ -203,6 +207,8 @@ public class ModService implements InitializingBean, DisposableBean {
                   "corruptedModsError.notification", modPath.getFileName());
             }
           }
+          installedModCache.retainAll(modPaths);
+          installedModCache.save();
         } catch (IOException e) {
           log.error("Mods could not be read from: `{}`", forgedAlliancePrefs.getModsDirectory(), e);
         }
@@ -343,7 +349,8 @@ public class ModService implements InitializingBean, DisposableBean {
   @Cacheable(value = CacheNames.MODS, sync = true)
   public Image loadThumbnail(ModVersion modVersion) {
     return assetService.loadAndCacheImage(modVersion.thumbnailUrl(), Path.of("mods"),
-                                          () -> themeService.getThemeImage(ThemeService.NO_IMAGE_AVAILABLE));
+                                          () -> themeService.getThemeImage(ThemeService.NO_IMAGE_AVAILABLE),
+                                          THUMBNAIL_SIZE, THUMBNAIL_SIZE);
   }
 
   public CompletableFuture<Integer> getFileSize(ModVersion modVersion) {
@@ -366,6 +373,7 @@ public class ModService implements InitializingBean, DisposableBean {
 
   private void removeMod(Path path) {
     log.trace("Removing mod: `{}`", path);
+    installedModCache.remove(path);
     ModVersion modVersion = pathToMod.remove(path);
     if (modVersion != null) {
       modsByUid.remove(modVersion.uid());
@@ -373,7 +381,7 @@ public class ModService implements InitializingBean, DisposableBean {
   }
 
   private void addInstalledMod(Path modFolder) {
-    ModVersion modVersion = extractModInfo(modFolder);
+    ModVersion modVersion = readInstalledMod(modFolder);
     pathToMod.put(modFolder, modVersion);
     if (!modsByUid.containsKey(modVersion.uid())) {
       fxApplicationThreadExecutor.execute(() -> modsByUid.put(modVersion.uid(), modVersion));
@@ -381,6 +389,17 @@ public class ModService implements InitializingBean, DisposableBean {
     }
   }
 
+  private ModVersion readInstalledMod(Path modFolder) {
+    Optional<ModVersion> cachedModVersion = installedModCache.get(modFolder);
+    if (cachedModVersion.isPresent()) {
+      return cachedModVersion.get();
+    }
+
+    ModVersion modVersion = extractModInfo(modFolder);
+    installedModCache.put(modFolder, modFolder.resolve("mod_info.lua"), modVersion);
+    return modVersion;
+  }
+
   @Override
   public void destroy() {
     Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
@@ -32,13 +32,16 @@ public class ModUploadTask extends CompletableTask<Void> {
   private final FafApiAccessor fafApiAccessor;
   private final I18n i18n;
   private final DataPrefs dataPrefs;
+  private final ResourceLocks resourceLocks;
 
   private Path modPath;
 
   @Autowired
-  public ModUploadTask(FafApiAccessor fafApiAccessor, I18n i18n, DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+  public ModUploadTask(FafApiAccessor fafApiAccessor, I18n i18n, DataPrefs dataPrefs,
+                       ResourceLocks resourceLocks) {
+    super(Priority.HIGH, ResourceClass.NETWORK);
     this.dataPrefs = dataPrefs;
+    this.resourceLocks = resourceLocks;
     this.fafApiAccessor = fafApiAccessor;
     this.i18n = i18n;
   }
@@ -47,7 +50,6 @@ public class ModUploadTask extends CompletableTask<Void> {
   protected Void call() throws Exception {
     Validator.notNull(modPath, "modPath must not be null");
 
-    ResourceLocks.acquireUploadLock();
     Path cacheDirectory = dataPrefs.getCacheDirectory();
     Files.createDirectories(cacheDirectory);
     Path tmpFile = createTempFile(cacheDirectory, "mod", ".zip");
@@ -62,11 +64,14 @@ public class ModUploadTask extends CompletableTask<Void> {
         updateProgress(written, total);
       };
 
+      resourceLocks.acquireDiskLock(modPath, tmpFile);
       try (OutputStream outputStream = newOutputStream(tmpFile)) {
         Zipper.of(modPath)
             .to(outputStream)
             .listener(byteListener)
             .zip();
+      } finally {
+        resourceLocks.freeDiskLock(modPath, tmpFile);
       }
 
       log.debug("Uploading mod `{}` as `{}`", modPath, tmpFile);
@@ -75,7 +80,6 @@ public class ModUploadTask extends CompletableTask<Void> {
       return fafApiAccessor.uploadFile("/mods/upload", tmpFile, byteListener, Map.of()).block();
     } finally {
       Files.delete(tmpFile);
-      ResourceLocks.freeUploadLock();
     }
   }
 
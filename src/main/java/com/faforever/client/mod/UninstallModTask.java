@@ -23,7 +23,7 @@ public class UninstallModTask extends CompletableTask<Void> {
 
   @Autowired
   public UninstallModTask(ModService modService) {
-    super(CompletableTask.Priority.LOW);
+    super(CompletableTask.Priority.LOW, CompletableTask.ResourceClass.DISK);
 
     this.modService = modService;
   }
@@ -66,6 +66,7 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
   private final OperatingSystem operatingSystem;
   private final DataPrefs dataPrefs;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
+  private final ResourceLocks resourceLocks;
 
   private final String fafExeUrl;
 
@@ -75,8 +76,8 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
   public GameBinariesUpdateTaskImpl(ForgedAllianceLaunchService forgedAllianceLaunchService, I18n i18n,
                                     PlatformService platformService, OperatingSystem operatingSystem,
                                     DataPrefs dataPrefs, ForgedAlliancePrefs forgedAlliancePrefs,
-                                    ClientProperties clientProperties) {
-    super(Priority.HIGH);
+                                    ClientProperties clientProperties, ResourceLocks resourceLocks) {
+    super(Priority.HIGH, ResourceClass.DISK);
 
     this.forgedAllianceLaunchService = forgedAllianceLaunchService;
     this.i18n = i18n;
@@ -84,6 +85,7 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
     this.operatingSystem = operatingSystem;
     this.dataPrefs = dataPrefs;
     this.forgedAlliancePrefs = forgedAlliancePrefs;
+    this.resourceLocks = resourceLocks;
 
     this.fafExeUrl = clientProperties.getForgedAlliance().getExeUrl();
   }
@@ -114,10 +116,11 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
       platformService.setUnixExecutableAndWritableBits(exePath);
       return;
     }
-    ResourceLocks.acquireDownloadLock();
+    URL url = new URL(fafExeUrl);
+    resourceLocks.acquireHostPermit(url);
     try {
       log.debug("Downloading `{}` to `{}`", fafExeUrl, exePath);
-      URLConnection urlConnection = new URL(fafExeUrl).openConnection();
+      URLConnection urlConnection = url.openConnection();
       try (InputStream inputStream = urlConnection.getInputStream();
            OutputStream outputStream = Files.newOutputStream(exePath)) {
         ByteCopier.from(inputStream)
@@ -128,7 +131,7 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
       }
       platformService.setUnixExecutableAndWritableBits(exePath);
     } finally {
-      ResourceLocks.freeDownloadLock();
+      resourceLocks.freeHostPermit(url);
     }
   }
 
@@ -11,6 +11,7 @@ import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.commons.api.dto.FeaturedModFile;
 import com.faforever.commons.fa.ForgedAllianceExePatcher;
+import com.faforever.commons.io.ByteCountListener;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.artifact.versioning.ComparableVersion;
@@ -27,18 +28,36 @@ import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @Slf4j
 @Setter
 public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResult> {
+
+  /**
+   * Maximum number of featured mod files that are prepared at the same time.
+   */
+  static final int MAX_PARALLEL_FILES = 8;
+
   private final FeaturedModService featuredModService;
   private final DownloadService downloadService;
   private final I18n i18n;
   private final FeaturedModFileCacheService featuredModFileCacheService;
   private final DataPrefs dataPrefs;
 
+  private final DownloadProgress downloadProgress = new DownloadProgress();
+  private final Map<Path, Lock> cachedFileLocks = new ConcurrentHashMap<>();
+
   private String featuredModName;
   private Integer version;
   private boolean useReplayFolder;
@@ -49,7 +68,7 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
       I18n i18n,
       FeaturedModFileCacheService featuredModFileCacheService,
       DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, ResourceClass.NETWORK);
 
     this.featuredModService = featuredModService;
     this.downloadService = downloadService;
@@ -79,34 +98,7 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
                                                                .blockOptional()
                                                                .orElse(List.of());
 
-    featuredModFiles
-        .forEach(featuredModFile -> {
-          Path targetPath = fafDataDirectory
-              .resolve(featuredModFile.getGroup())
-              .resolve(featuredModFile.getName());
-
-          try {
-            Files.createDirectories(targetPath.getParent());
-            if (fileAlreadyLoaded(featuredModFile, targetPath)) {
-              log.info("Featured mod file already prepared: `{}`", featuredModFile);
-            } else {
-              if (!featuredModFileCacheService.isCached(featuredModFile)) {
-                Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
-                Files.createDirectories(cachedFilePath.getParent());
-                if (PreferencesService.FORGED_ALLIANCE_EXE.equals(featuredModFile.getName())) {
-                  patchOrDownloadForgedAllianceExe(featuredModFile, cachedFilePath, targetPath);
-                } else {
-                  downloadFeaturedModFile(featuredModFile, cachedFilePath);
-                }
-              }
-              featuredModFileCacheService.copyFeaturedModFileFromCache(featuredModFile, targetPath);
-            }
-          }
-          catch (IOException | NoSuchAlgorithmException | ChecksumMismatchException e) {
-            log.error("Error updating featured mod file: `{}`", featuredModFile, e);
-            throw new RuntimeException(e);
-          }
-        });
+    prepareFeaturedModFiles(featuredModFiles, fafDataDirectory);
 
     Path initFile = featuredModFiles.stream()
         .filter(featuredModFile -> "bin".equals(featuredModFile.getGroup()) &&
@@ -128,6 +120,78 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     return new PatchResult(new ComparableVersion(String.valueOf(maxVersion)), initFile);
   }
 
+  /**
+   * Prepares up to {@link #MAX_PARALLEL_FILES} files at a time. Files that are already up to date only need their
+   * attributes checked, so mostly the files that need to be downloaded or linked from the cache take time. The first
+   * file that fails interrupts all others.
+   */
+  private void prepareFeaturedModFiles(List<FeaturedModFile> featuredModFiles, Path fafDataDirectory) throws
+      Exception {
+    AtomicInteger nextFileIndex = new AtomicInteger();
+    int workers = Math.min(MAX_PARALLEL_FILES, featuredModFiles.size());
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    try {
+      for (int i = 0; i < workers; i++) {
+        completionService.submit(() -> {
+          int index;
+          while (!Thread.currentThread().isInterrupted()
+              && (index = nextFileIndex.getAndIncrement()) < featuredModFiles.size()) {
+            prepareFeaturedModFile(featuredModFiles.get(index), fafDataDirectory);
+          }
+          return null;
+        });
+      }
+      for (int i = 0; i < workers; i++) {
+        completionService.take().get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception exception) {
+        throw exception;
+      }
+      throw e;
+    } finally {
+      // Stops the other files if one failed
+      executor.shutdownNow();
+    }
+  }
+
+  private void prepareFeaturedModFile(FeaturedModFile featuredModFile, Path fafDataDirectory) throws IOException,
+      NoSuchAlgorithmException, ChecksumMismatchException {
+    Path targetPath = fafDataDirectory
+        .resolve(featuredModFile.getGroup())
+        .resolve(featuredModFile.getName());
+
+    try {
+      Files.createDirectories(targetPath.getParent());
+      if (fileAlreadyLoaded(featuredModFile, targetPath)) {
+        log.info("Featured mod file already prepared: `{}`", featuredModFile);
+        return;
+      }
+
+      Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
+      // Files with the same content share a cached file, which must only be downloaded once
+      Lock cachedFileLock = cachedFileLocks.computeIfAbsent(cachedFilePath, ignored -> new ReentrantLock());
+      cachedFileLock.lock();
+      try {
+        if (!featuredModFileCacheService.isCached(featuredModFile)) {
+          Files.createDirectories(cachedFilePath.getParent());
+          if (PreferencesService.FORGED_ALLIANCE_EXE.equals(featuredModFile.getName())) {
+            patchOrDownloadForgedAllianceExe(featuredModFile, cachedFilePath, targetPath);
+          } else {
+            downloadFeaturedModFile(featuredModFile, cachedFilePath);
+          }
+        }
+      } finally {
+        cachedFileLock.unlock();
+      }
+      featuredModFileCacheService.copyFeaturedModFileFromCache(featuredModFile, targetPath);
+    } catch (IOException | NoSuchAlgorithmException | ChecksumMismatchException e) {
+      log.error("Error updating featured mod file: `{}`", featuredModFile, e);
+      throw e;
+    }
+  }
+
   private void patchOrDownloadForgedAllianceExe(FeaturedModFile featuredModFile, Path cachedFilePath, Path targetPath) throws IOException, ChecksumMismatchException, NoSuchAlgorithmException {
     if (Files.exists(targetPath)) {
       Files.createDirectories(cachedFilePath.getParent());
@@ -165,6 +229,33 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     Map<String, String> requestParameters = Map.of(featuredModFile.getHmacParameter(), featuredModFile.getHmacToken());
 
     downloadService.downloadFile(URI.create(featuredModFile.getCacheableUrl()).toURL(), requestParameters, targetPath,
-                                 this::updateProgress, md5sum);
+                                 downloadProgress.newDownload(), md5sum);
+  }
+
+  /**
+   * Sums up the progress of all downloads, since several files may be downloaded at the same time.
+   */
+  private class DownloadProgress {
+    private long processedBytes;
+    private long totalBytes;
+
+    ByteCountListener newDownload() {
+      return new ByteCountListener() {
+        private long processed;
+        private long total;
+
+        @Override
+        public void updateBytesProcessed(long processed, long total) {
+          // Updated while holding the lock, so that an older sum can't overwrite a newer one
+          synchronized (DownloadProgress.this) {
+            processedBytes += processed - this.processed;
+            totalBytes += total - this.total;
+            this.processed = processed;
+            this.total = total;
+            updateProgress(processedBytes, totalBytes);
+          }
+        }
+      };
+    }
   }
 }
@@ -4,6 +4,7 @@ import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.domain.api.NameRecord;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.fx.CoalescingUpdateQueue;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.mapstruct.PlayerMapper;
 import com.faforever.client.remote.FafServerAccessor;
@@ -12,6 +13,7 @@ import com.faforever.client.util.RatingUtil;
 import com.faforever.commons.api.dto.Player;
 import com.faforever.commons.api.elide.ElideNavigator;
 import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
+import com.google.common.annotations.VisibleForTesting;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.value.ObservableValue;
@@ -23,7 +25,6 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.function.TupleUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,6 +45,9 @@ import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 @RequiredArgsConstructor
 public class PlayerService implements InitializingBean {
 
+  @VisibleForTesting
+  static final int MAX_PLAYER_UPDATES_PER_PULSE = 1000;
+
   private final Map<String, PlayerInfo> playersByName = new ConcurrentHashMap<>();
   private final Map<Integer, PlayerInfo> playersById = new ConcurrentHashMap<>();
   private final Map<PlayerInfo, Set<Subscription>> playerSubscriptions = new ConcurrentHashMap<>();
@@ -59,13 +63,17 @@ public class PlayerService implements InitializingBean {
 
   @Override
   public void afterPropertiesSet() {
+    CoalescingUpdateQueue<Integer, com.faforever.commons.lobby.Player> playerUpdates = new CoalescingUpdateQueue<>(
+        fxApplicationThreadExecutor, com.faforever.commons.lobby.Player::getId, MAX_PLAYER_UPDATES_PER_PULSE,
+        players -> players.forEach(this::applyPlayer));
+
     fafServerAccessor.getEvents(com.faforever.commons.lobby.PlayerInfo.class)
-                     .map(com.faforever.commons.lobby.PlayerInfo::getPlayers)
-                     .flatMap(Flux::fromIterable)
-                     .flatMap(player -> Mono.zip(Mono.just(player), Mono.justOrEmpty(playersById.get(player.getId()))
-                                                                        .switchIfEmpty(initializePlayer(player))))
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .map(TupleUtils.function(playerMapper::update))
+                     .flatMapIterable(com.faforever.commons.lobby.PlayerInfo::getPlayers)
+                     .doOnNext(player -> {
+                       // Registered right away, so that games applied before the update of the player find the player
+                       getOrInitializePlayer(player);
+                       playerUpdates.offer(player);
+                     })
                      .doOnError(throwable -> log.error("Error processing player", throwable))
                      .retry()
                      .subscribe();
@@ -122,24 +130,38 @@ public class PlayerService implements InitializingBean {
     });
   }
 
-  private Mono<PlayerInfo> initializePlayer(com.faforever.commons.lobby.Player player) {
-    return Mono.fromCallable(() -> {
-                 PlayerInfo newPlayer = new PlayerInfo();
-                 newPlayer.setId(player.getId());
-                 newPlayer.setUsername(player.getLogin());
-                 Subscription removeSubscription = newPlayer.serverStatusProperty().subscribe(serverStatus -> {
-                   if (serverStatus == ServerStatus.OFFLINE) {
-                     removePlayer(newPlayer);
-                   }
-                 });
-                 playerSubscriptions.computeIfAbsent(newPlayer, ignored -> ConcurrentHashMap.newKeySet()).add(removeSubscription);
-                 return newPlayer;
-               })
-               .doOnNext(playerBean -> {
-                 playersById.put(playerBean.getId(), playerBean);
-                 playersByName.put(playerBean.getUsername(), playerBean);
-               })
-               .doOnNext(playerBean -> playerOnlineListeners.forEach(listener -> listener.accept(playerBean)));
+  private void applyPlayer(com.faforever.commons.lobby.Player player) {
+    try {
+      // The player is registered again if it has gone offline since it was queued
+      playerMapper.update(player, getOrInitializePlayer(player));
+    } catch (Exception e) {
+      log.error("Error processing player", e);
+    }
+  }
+
+  private PlayerInfo getOrInitializePlayer(com.faforever.commons.lobby.Player player) {
+    PlayerInfo knownPlayer = playersById.get(player.getId());
+    return knownPlayer == null ? initializePlayer(player) : knownPlayer;
+  }
+
+  private PlayerInfo initializePlayer(com.faforever.commons.lobby.Player player) {
+    PlayerInfo newPlayer = new PlayerInfo();
+    newPlayer.setId(player.getId());
+    newPlayer.setUsername(player.getLogin());
+    PlayerInfo knownPlayer = playersById.putIfAbsent(newPlayer.getId(), newPlayer);
+    if (knownPlayer != null) {
+      return knownPlayer;
+    }
+
+    Subscription removeSubscription = newPlayer.serverStatusProperty().subscribe(serverStatus -> {
+      if (serverStatus == ServerStatus.OFFLINE) {
+        removePlayer(newPlayer);
+      }
+    });
+    playerSubscriptions.computeIfAbsent(newPlayer, ignored -> ConcurrentHashMap.newKeySet()).add(removeSubscription);
+    playersByName.put(newPlayer.getUsername(), newPlayer);
+    playerOnlineListeners.forEach(listener -> listener.accept(newPlayer));
+    return newPlayer;
   }
 
   public Set<String> getPlayerNames() {
@@ -176,15 +198,9 @@ public class PlayerService implements InitializingBean {
 
     return Flux.fromIterable(playerIds)
                .filter(playerId -> !onlineIds.contains(playerId))
-               .window(100)
-               .flatMap(Flux::collectList)
-               .flatMap(offlineIds -> {
-                 ElideNavigatorOnCollection<Player> navigator = ElideNavigator.of(Player.class)
-                                                                              .collection()
-                                                                              .setFilter(qBuilder().intNum("id")
-                                                                                                   .in(offlineIds));
-                 return fafApiAccessor.getMany(navigator).map(playerMapper::map);
-               }).concatWithValues(onlinePlayers.toArray(new PlayerInfo[0]));
+               .flatMap(playerId -> fafApiAccessor.getManyByKey(Player.class, "id", playerId, Player::getId))
+               .map(playerMapper::map)
+               .concatWithValues(onlinePlayers.toArray(new PlayerInfo[0]));
   }
 
   public Mono<PlayerInfo> getPlayerByName(String playerName) {
@@ -13,9 +13,13 @@ public class DataPrefs {
   private static final String CORRUPTED_REPLAYS_SUB_FOLDER = "corrupt";
   private static final String CACHE_SUB_FOLDER = "cache";
   private static final String FEATURED_MOD_CACHE_SUB_FOLDER = "featured_mod";
+  private static final String API_CACHE_SUB_FOLDER = "api";
+  private static final String FEATURED_MOD_HASH_INDEX_FILE = "featured_mod_hashes.properties";
+  private static final String FEATURED_MOD_EXTRACTED_FILES_FILE = "featured_mod_extracted.properties";
   private static final String CACHE_STYLESHEETS_SUB_FOLDER = Path.of(CACHE_SUB_FOLDER, "stylesheets").toString();
   private static final String THEMES_SUB_FOLDER = "themes";
   private static final String LANGUAGES_SUB_FOLDER = "languages";
+  private static final String CHAT_HISTORY_SUB_FOLDER = "chat_history";
   public static final String GENERATOR_EXECUTABLE_SUB_DIRECTORY = "map_generator";
 
   private final ObjectProperty<Path> baseDataDirectory = new SimpleObjectProperty<>();
@@ -68,6 +72,18 @@ public class DataPrefs {
     return getCacheDirectory().resolve(FEATURED_MOD_CACHE_SUB_FOLDER);
   }
 
+  public Path getApiCacheDirectory() {
+    return getCacheDirectory().resolve(API_CACHE_SUB_FOLDER);
+  }
+
+  public Path getFeaturedModHashIndexFile() {
+    return getCacheDirectory().resolve(FEATURED_MOD_HASH_INDEX_FILE);
+  }
+
+  public Path getFeaturedModExtractedFilesFile() {
+    return getCacheDirectory().resolve(FEATURED_MOD_EXTRACTED_FILES_FILE);
+  }
+
   public Path getLanguagesDirectory() {
     return getBaseDataDirectory().resolve(LANGUAGES_SUB_FOLDER);
   }
@@ -75,4 +91,8 @@ public class DataPrefs {
   public Path getMapGeneratorDirectory() {
     return getBaseDataDirectory().resolve(GENERATOR_EXECUTABLE_SUB_DIRECTORY);
   }
+
+  public Path getChatHistoryDirectory() {
+    return getBaseDataDirectory().resolve(CHAT_HISTORY_SUB_FOLDER);
+  }
 }
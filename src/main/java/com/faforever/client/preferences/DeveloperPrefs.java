@@ -1,12 +1,19 @@
 package com.faforever.client.preferences;
 
 import ch.qos.logback.classic.Level;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 
 public class DeveloperPrefs {
   private final StringProperty logLevel = new SimpleStringProperty(Level.DEBUG.toString());
+  private final BooleanProperty fxThreadMetricsEnabled = new SimpleBooleanProperty(false);
+  private final IntegerProperty fxThreadStallThresholdMillis = new SimpleIntegerProperty(100);
+  private final IntegerProperty fxThreadMetricsLogIntervalSeconds = new SimpleIntegerProperty(60);
 
   public String getLogLevel() {
     return logLevel.get();
@@ -19,4 +26,40 @@ public class DeveloperPrefs {
   public void setLogLevel(String logLevel) {
     this.logLevel.set(logLevel);
   }
+
+  public boolean isFxThreadMetricsEnabled() {
+    return fxThreadMetricsEnabled.get();
+  }
+
+  public BooleanProperty fxThreadMetricsEnabledProperty() {
+    return fxThreadMetricsEnabled;
+  }
+
+  public void setFxThreadMetricsEnabled(boolean fxThreadMetricsEnabled) {
+    this.fxThreadMetricsEnabled.set(fxThreadMetricsEnabled);
+  }
+
+  public int getFxThreadStallThresholdMillis() {
+    return fxThreadStallThresholdMillis.get();
+  }
+
+  public IntegerProperty fxThreadStallThresholdMillisProperty() {
+    return fxThreadStallThresholdMillis;
+  }
+
+  public void setFxThreadStallThresholdMillis(int fxThreadStallThresholdMillis) {
+    this.fxThreadStallThresholdMillis.set(fxThreadStallThresholdMillis);
+  }
+
+  public int getFxThreadMetricsLogIntervalSeconds() {
+    return fxThreadMetricsLogIntervalSeconds.get();
+  }
+
+  public IntegerProperty fxThreadMetricsLogIntervalSecondsProperty() {
+    return fxThreadMetricsLogIntervalSeconds;
+  }
+
+  public void setFxThreadMetricsLogIntervalSeconds(int fxThreadMetricsLogIntervalSeconds) {
+    this.fxThreadMetricsLogIntervalSeconds.set(fxThreadMetricsLogIntervalSeconds);
+  }
 }
@@ -28,7 +28,7 @@ public class DeleteDirectoryTask extends CompletableTask<Void> {
 
   @Autowired
   public DeleteDirectoryTask(I18n i18n, NotificationService notificationService) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, ResourceClass.DISK);
     this.i18n = i18n;
     this.notificationService = notificationService;
   }
@@ -36,7 +36,7 @@ public class MoveDirectoryTask extends CompletableTask<Void> {
 
   @Autowired
   public MoveDirectoryTask(I18n i18n, NotificationService notificationService) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, ResourceClass.DISK);
     this.i18n = i18n;
     this.notificationService = notificationService;
   }
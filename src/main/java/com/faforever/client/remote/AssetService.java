@@ -1,34 +1,94 @@
 package com.faforever.client.remote;
 
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.preferences.DataPrefs;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import javafx.scene.image.Image;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.validator.routines.UrlValidator;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-
+/**
+ * Loads images and caches them in two tiers. Recently used images are kept decoded in memory, up to a bound on the
+ * memory of their pixels, so that scrolling back through a list of images doesn't read and decode them again. The
+ * image files are kept on disk, up to a bound on their total size, from which the least recently used files are
+ * deleted.
+ * <p>
+ * Images are loaded and decoded in background at the requested size. Concurrent requests for the same image and size
+ * share a single load. The disk cache keeps the image files as they were downloaded, so that other sizes can be
+ * decoded from them later.
+ */
 @Lazy
 @Service
 @Slf4j
-@RequiredArgsConstructor
-public class AssetService {
+public class AssetService implements InitializingBean {
+
+  private static final long DISK_CACHE_TRIM_DELAY_SECONDS = 30;
+  /**
+   * The folders, relative to the cache directory, that images are cached in by the services of this client. Their
+   * sub folders are included.
+   */
+  private static final List<Path> IMAGE_CACHE_SUB_FOLDERS = List.of(Path.of("maps"), Path.of("mods"),
+                                                                    Path.of("avatars"), Path.of("achievements"),
+                                                                    Path.of("divisions"));
 
   private final DataPrefs dataPrefs;
+  private final long diskCacheMaxBytes;
 
   private final UrlValidator urlValidator = new UrlValidator();
+  private final Cache<ImageKey, Image> decodedImages;
+  private final Map<ImageKey, Image> loadingImages = new ConcurrentHashMap<>();
+  private final Set<Path> imageCacheDirectories = ConcurrentHashMap.newKeySet();
+  private final Set<Path> downloadingFiles = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean diskCacheTrimScheduled = new AtomicBoolean();
+
+  public AssetService(DataPrefs dataPrefs, ClientProperties clientProperties) {
+    this.dataPrefs = dataPrefs;
+    this.diskCacheMaxBytes = clientProperties.getIo().getImageDiskCacheMaxBytes();
+    this.decodedImages = Caffeine.newBuilder()
+        .maximumWeight(clientProperties.getIo().getImageMemoryCacheMaxBytes())
+        .weigher(AssetService::weighImage)
+        .build();
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    // Images that have been cached in earlier sessions are trimmed even if none is downloaded in this one
+    scheduleDiskCacheTrim();
+  }
 
   @Nullable
   public Image loadAndCacheImage(URL url, Path cacheSubFolder) {
@@ -54,15 +114,17 @@ public class AssetService {
       urlString = urlValidator.isValid(urlString) ? urlString : UriUtils.encodePath(urlString, StandardCharsets.UTF_8);
       String filename = urlString.substring(urlString.lastIndexOf('/') + 1);
       Path cachePath = dataPrefs.getCacheDirectory().resolve(cacheSubFolder).resolve(filename);
-      if (Files.exists(cachePath)) {
-        log.debug("Using cached image: {}", cachePath);
-        return new Image(cachePath.toUri().toURL().toExternalForm(), width, height, true, true, true);
-      }
+      imageCacheDirectories.add(cachePath.getParent());
 
-      log.debug("Fetching image from {}", url);
-      Image image = new Image(urlString, width, height, true, true, true);
-      JavaFxUtil.persistImage(image, cachePath, filename.substring(filename.lastIndexOf('.') + 1));
-      return image;
+      ImageKey key = new ImageKey(urlString, width, height);
+      Image image = decodedImages.getIfPresent(key);
+      if (image == null) {
+        image = loadingImages.get(key);
+      }
+      if (image != null) {
+        return image;
+      }
+      return loadImage(key, cachePath);
     } catch (InvalidPathException | MalformedURLException e) {
       log.warn("Unable to load image due to invalid fileName {}", url, e);
       if (defaultSupplier == null) {
@@ -71,4 +133,153 @@ public class AssetService {
       return defaultSupplier.get();
     }
   }
+
+  private Image loadImage(ImageKey key, Path cachePath) throws MalformedURLException {
+    boolean cached = Files.exists(cachePath);
+    Image image;
+    if (cached) {
+      log.debug("Using cached image: {}", cachePath);
+      image = new Image(cachePath.toUri().toURL().toExternalForm(), key.width(), key.height(), true, true, true);
+    } else {
+      log.debug("Fetching image from {}", key.url());
+      image = new Image(key.url(), key.width(), key.height(), true, true, true);
+    }
+
+    Image loadingImage = loadingImages.putIfAbsent(key, image);
+    if (loadingImage != null) {
+      // Another thread started loading the same image in the meantime
+      image.cancel();
+      return loadingImage;
+    }
+
+    if (cached) {
+      markUsed(cachePath);
+    } else {
+      downloadToDiskCache(key.url(), cachePath);
+    }
+    Image loadedImage = image;
+    JavaFxUtil.addAndTriggerListener(image.progressProperty(), observable -> onImageLoaded(key, loadedImage));
+    JavaFxUtil.addAndTriggerListener(image.errorProperty(), observable -> onImageLoaded(key, loadedImage));
+    return image;
+  }
+
+  private void onImageLoaded(ImageKey key, Image image) {
+    if (!image.isError() && image.getProgress() < 1) {
+      return;
+    }
+    if (!loadingImages.remove(key, image)) {
+      return;
+    }
+    // Images that failed to load are not kept, so that they are loaded again the next time they are requested
+    if (!image.isError()) {
+      decodedImages.put(key, image);
+    }
+  }
+
+  /**
+   * Downloads the image file as it is into the disk cache. The image that is displayed is decoded at the requested size
+   * while it is downloaded from the same URL, so it can't be written to the disk cache instead.
+   */
+  private void downloadToDiskCache(String url, Path cachePath) {
+    if (!downloadingFiles.add(cachePath)) {
+      return;
+    }
+    CompletableFuture.runAsync(() -> {
+      try {
+        Files.createDirectories(cachePath.getParent());
+        Path tempFile = Files.createTempFile(cachePath.getParent(), cachePath.getFileName().toString(), null);
+        try {
+          try (InputStream inputStream = URI.create(url).toURL().openStream()) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+          }
+          Files.move(tempFile, cachePath, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(tempFile);
+        }
+        scheduleDiskCacheTrim();
+      } catch (IOException | IllegalArgumentException e) {
+        log.warn("Could not cache image from {} in `{}`", url, cachePath, e);
+      } finally {
+        downloadingFiles.remove(cachePath);
+      }
+    });
+  }
+
+  /**
+   * The disk cache deletes the least recently modified files first, so the modification time of a cached file is
+   * updated whenever it is used.
+   */
+  private void markUsed(Path cachePath) {
+    try {
+      Files.setLastModifiedTime(cachePath, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      log.debug("Could not update modification time of cached image `{}`", cachePath, e);
+    }
+  }
+
+  private void scheduleDiskCacheTrim() {
+    if (diskCacheTrimScheduled.compareAndSet(false, true)) {
+      CompletableFuture.runAsync(() -> {
+        diskCacheTrimScheduled.set(false);
+        trimDiskCache();
+      }, CompletableFuture.delayedExecutor(DISK_CACHE_TRIM_DELAY_SECONDS, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * Deletes the least recently used image files until the image files in the known image cache folders, and in all
+   * other directories images have been cached in, fit into the configured size.
+   */
+  void trimDiskCache() {
+    Set<Path> directories = new HashSet<>(imageCacheDirectories);
+    IMAGE_CACHE_SUB_FOLDERS.forEach(subFolder -> directories.add(dataPrefs.getCacheDirectory().resolve(subFolder)));
+
+    Set<Path> files = new HashSet<>();
+    for (Path directory : directories) {
+      if (!Files.isDirectory(directory)) {
+        continue;
+      }
+      try (Stream<Path> directoryFiles = Files.walk(directory)) {
+        directoryFiles.forEach(files::add);
+      } catch (IOException | UncheckedIOException e) {
+        log.warn("Could not list cached images in `{}`", directory, e);
+      }
+    }
+
+    List<CachedFile> cachedFiles = new ArrayList<>();
+    for (Path file : files) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.isRegularFile()) {
+          cachedFiles.add(new CachedFile(file, attributes.size(), attributes.lastModifiedTime()));
+        }
+      } catch (IOException e) {
+        log.debug("Could not read attributes of cached image `{}`", file, e);
+      }
+    }
+
+    long totalBytes = cachedFiles.stream().mapToLong(CachedFile::size).sum();
+    cachedFiles.sort(Comparator.comparing(CachedFile::lastModifiedTime));
+    for (CachedFile cachedFile : cachedFiles) {
+      if (totalBytes <= diskCacheMaxBytes) {
+        break;
+      }
+      try {
+        Files.deleteIfExists(cachedFile.path());
+        totalBytes -= cachedFile.size();
+        log.trace("Deleted cached image `{}`", cachedFile.path());
+      } catch (IOException e) {
+        log.warn("Could not delete cached image `{}`", cachedFile.path(), e);
+      }
+    }
+  }
+
+  private static int weighImage(ImageKey key, Image image) {
+    // 4 bytes per pixel
+    return Math.max(1, (int) (image.getWidth() * image.getHeight() * 4));
+  }
+
+  private record ImageKey(String url, int width, int height) {}
+
+  private record CachedFile(Path path, long size, FileTime lastModifiedTime) {}
 }
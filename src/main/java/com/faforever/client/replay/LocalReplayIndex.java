@@ -0,0 +1,281 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Persistent index of the replay files in the local replays directory, so the local replay vault can be sorted, counted
+ * and paged without listing the directory or reading any replay file. The directory is scanned once when the index is
+ * first used and kept up to date by a directory watcher afterwards. Metadata of a replay is stored once it has been
+ * read and reused for as long as the file's last modified time and size don't change.
+ */
+@Lazy
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LocalReplayIndex implements DisposableBean {
+
+  private static final String INDEX_FILE_NAME = "local-replay-index.json";
+  /**
+   * Must be increased whenever the stored format changes, outdated index files are discarded.
+   */
+  private static final int INDEX_VERSION = 1;
+  private static final Comparator<LocalReplayIndexEntry> NEWEST_FIRST = Comparator.comparingLong(
+      LocalReplayIndexEntry::lastModified).reversed().thenComparing(LocalReplayIndexEntry::fileName);
+
+  private final ClientProperties clientProperties;
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, LocalReplayIndexEntry> entriesByFileName = new HashMap<>();
+
+  private Path indexedDirectory;
+  private PathMatcher replayFileMatcher;
+  private Thread directoryWatcherThread;
+  private List<LocalReplayIndexEntry> sortedEntries;
+  private boolean dirty;
+
+  record IndexFile(int version, String replaysDirectory, List<LocalReplayIndexEntry> entries) {}
+
+  /**
+   * @return all replay files in the local replays directory, most recently modified first
+   */
+  public synchronized List<LocalReplayIndexEntry> getEntries() throws IOException {
+    ensureIndexed();
+    if (sortedEntries == null) {
+      sortedEntries = entriesByFileName.values().stream().sorted(NEWEST_FIRST).toList();
+    }
+    return sortedEntries;
+  }
+
+  public Path getReplayFile(LocalReplayIndexEntry entry) {
+    return dataPrefs.getReplaysDirectory().resolve(entry.fileName());
+  }
+
+  /**
+   * Stores the metadata read from the file of the given entry. Ignored if the file has changed since the entry was
+   * created.
+   */
+  public synchronized void putMetadata(LocalReplayIndexEntry entry, LocalReplayMetadata metadata) {
+    LocalReplayIndexEntry currentEntry = entriesByFileName.get(entry.fileName());
+    if (currentEntry == null || !currentEntry.isSameFileAs(entry)) {
+      return;
+    }
+    entriesByFileName.put(entry.fileName(), entry.withMetadata(metadata));
+    sortedEntries = null;
+    dirty = true;
+  }
+
+  public synchronized void remove(Path replayFile) {
+    if (entriesByFileName.remove(replayFile.getFileName().toString()) != null) {
+      sortedEntries = null;
+      dirty = true;
+    }
+  }
+
+  /**
+   * Writes the index to disk if it changed since it has last been written.
+   */
+  public void save() {
+    IndexFile indexFile;
+    synchronized (this) {
+      if (!dirty || indexedDirectory == null) {
+        return;
+      }
+      indexFile = new IndexFile(INDEX_VERSION, indexedDirectory.toString(), List.copyOf(entriesByFileName.values()));
+      dirty = false;
+    }
+
+    Path cacheDirectory = dataPrefs.getCacheDirectory();
+    try {
+      Files.createDirectories(cacheDirectory);
+      Path temporaryIndexFile = Files.createTempFile(cacheDirectory, "local-replay-index", ".tmp");
+      try {
+        objectMapper.writeValue(temporaryIndexFile.toFile(), indexFile);
+        Files.move(temporaryIndexFile, cacheDirectory.resolve(INDEX_FILE_NAME), StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporaryIndexFile);
+      }
+    } catch (IOException e) {
+      log.warn("Could not write local replay index", e);
+    }
+  }
+
+  private void ensureIndexed() throws IOException {
+    Path replaysDirectory = dataPrefs.getReplaysDirectory();
+    if (replaysDirectory.equals(indexedDirectory)) {
+      return;
+    }
+
+    Files.createDirectories(replaysDirectory);
+    replayFileMatcher = replaysDirectory.getFileSystem()
+                                        .getPathMatcher("glob:" + clientProperties.getReplay().getReplayFileGlob());
+
+    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    directoryWatcherThread = startDirectoryWatcher(replaysDirectory);
+
+    entriesByFileName.clear();
+    scanDirectory(replaysDirectory, readIndexFile(replaysDirectory));
+    indexedDirectory = replaysDirectory;
+  }
+
+  private Map<String, LocalReplayIndexEntry> readIndexFile(Path replaysDirectory) {
+    Path indexFilePath = dataPrefs.getCacheDirectory().resolve(INDEX_FILE_NAME);
+    if (Files.notExists(indexFilePath)) {
+      return Map.of();
+    }
+
+    try {
+      IndexFile indexFile = objectMapper.readValue(indexFilePath.toFile(), IndexFile.class);
+      if (indexFile.version() != INDEX_VERSION || !replaysDirectory.toString().equals(indexFile.replaysDirectory())) {
+        log.info("Discarding outdated local replay index");
+        return Map.of();
+      }
+      return indexFile.entries()
+                      .stream()
+                      .collect(Collectors.toMap(LocalReplayIndexEntry::fileName, Function.identity(),
+                                                (first, second) -> second));
+    } catch (IOException e) {
+      log.warn("Could not read local replay index, rebuilding it", e);
+      return Map.of();
+    }
+  }
+
+  private void scanDirectory(Path replaysDirectory, Map<String, LocalReplayIndexEntry> knownEntries) throws IOException {
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory,
+                                                                          clientProperties.getReplay()
+                                                                                          .getReplayFileGlob())) {
+      for (Path replayFile : directoryStream) {
+        readEntry(replayFile, knownEntries.get(replayFile.getFileName().toString())).ifPresent(
+            entry -> entriesByFileName.put(entry.fileName(), entry));
+      }
+    }
+    sortedEntries = null;
+    dirty = true;
+  }
+
+  private Optional<LocalReplayIndexEntry> readEntry(Path replayFile, LocalReplayIndexEntry knownEntry) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(replayFile, BasicFileAttributes.class);
+      if (!attributes.isRegularFile()) {
+        return Optional.empty();
+      }
+      LocalReplayIndexEntry entry = new LocalReplayIndexEntry(replayFile.getFileName().toString(),
+                                                              attributes.lastModifiedTime().toMillis(),
+                                                              attributes.size(), null);
+      if (knownEntry != null && knownEntry.isSameFileAs(entry)) {
+        return Optional.of(knownEntry);
+      }
+      return Optional.of(entry);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      log.warn("Could not read attributes of replay file `{}`", replayFile, e);
+      return Optional.empty();
+    }
+  }
+
+  private synchronized void onReplayFileChanged(Path replaysDirectory, Path replayFile) {
+    if (!replaysDirectory.equals(indexedDirectory) || !replayFileMatcher.matches(replayFile.getFileName())) {
+      return;
+    }
+
+    String fileName = replayFile.getFileName().toString();
+    LocalReplayIndexEntry knownEntry = entriesByFileName.get(fileName);
+    Optional<LocalReplayIndexEntry> entry = readEntry(replayFile, knownEntry);
+    if (entry.isEmpty()) {
+      remove(replayFile);
+    } else if (entry.get() != knownEntry) {
+      entriesByFileName.put(fileName, entry.get());
+      sortedEntries = null;
+      dirty = true;
+    }
+  }
+
+  private synchronized void rescan(Path replaysDirectory) {
+    if (!replaysDirectory.equals(indexedDirectory)) {
+      return;
+    }
+
+    Map<String, LocalReplayIndexEntry> knownEntries = Map.copyOf(entriesByFileName);
+    entriesByFileName.clear();
+    try {
+      scanDirectory(replaysDirectory, knownEntries);
+    } catch (IOException e) {
+      log.warn("Could not rescan replays directory `{}`", replaysDirectory, e);
+      entriesByFileName.putAll(knownEntries);
+    }
+  }
+
+  private Thread startDirectoryWatcher(Path replaysDirectory) {
+    WatchService watcher;
+    try {
+      // Registered before the directory is scanned so no file that is added in the meantime is missed
+      watcher = replaysDirectory.getFileSystem().newWatchService();
+      replaysDirectory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+    } catch (IOException e) {
+      log.warn("Could not start replays directory watcher for `{}`", replaysDirectory, e);
+      return null;
+    }
+
+    Thread thread = new Thread(() -> {
+      try (watcher) {
+        while (!Thread.interrupted()) {
+          WatchKey key = watcher.take();
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+              rescan(replaysDirectory);
+            } else {
+              onReplayFileChanged(replaysDirectory, replaysDirectory.resolve((Path) event.context()));
+            }
+          }
+          key.reset();
+        }
+      } catch (IOException e) {
+        log.warn("Replays directory watcher for `{}` failed", replaysDirectory, e);
+      } catch (InterruptedException e) {
+        log.info("Watcher terminated ({})", e.getMessage());
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  @Override
+  public void destroy() {
+    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    save();
+  }
+}
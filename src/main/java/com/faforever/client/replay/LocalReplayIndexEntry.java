@@ -0,0 +1,21 @@
+package com.faforever.client.replay;
+
+/**
+ * A replay file in the local replays directory. The metadata is {@code null} until the replay has been read once, and
+ * is only valid as long as the file's last modified time and size stay the same.
+ */
+public record LocalReplayIndexEntry(
+    String fileName,
+    long lastModified,
+    long size,
+    LocalReplayMetadata metadata
+) {
+
+  boolean isSameFileAs(LocalReplayIndexEntry other) {
+    return fileName.equals(other.fileName) && lastModified == other.lastModified && size == other.size;
+  }
+
+  LocalReplayIndexEntry withMetadata(LocalReplayMetadata metadata) {
+    return new LocalReplayIndexEntry(fileName, lastModified, size, metadata);
+  }
+}
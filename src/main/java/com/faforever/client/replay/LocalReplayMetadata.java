@@ -0,0 +1,32 @@
+package com.faforever.client.replay;
+
+import java.util.List;
+
+/**
+ * The parts of a local replay file that are needed to show it in the local replay vault. Times are in python time, as
+ * in the replay's metadata.
+ */
+public record LocalReplayMetadata(
+    Integer uid,
+    String title,
+    String featuredMod,
+    String mapname,
+    double startTime,
+    double endTime,
+    List<Army> armies
+) {
+
+  public LocalReplayMetadata {
+    armies = armies == null ? List.of() : List.copyOf(armies);
+  }
+
+  public record Army(
+      int ownerId,
+      String playerName,
+      String country,
+      byte team,
+      double mean,
+      double deviation,
+      int faction
+  ) {}
+}
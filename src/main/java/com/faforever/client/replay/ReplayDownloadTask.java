@@ -35,7 +35,7 @@ public class ReplayDownloadTask extends CompletableTask<Path> {
 
   @Autowired
   public ReplayDownloadTask(I18n i18n, ClientProperties clientProperties, DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, ResourceClass.NETWORK);
 
     this.i18n = i18n;
     this.clientProperties = clientProperties;
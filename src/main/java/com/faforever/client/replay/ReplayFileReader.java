@@ -13,4 +13,10 @@ public interface ReplayFileReader {
    * executed commands and so on.
    */
   ReplayDataParser parseReplay(Path path) throws IOException, CompressorException;
+
+  /**
+   * Reads only the metadata and the header of the specified file, which is enough to list the replay. Stops reading
+   * before the replay's commands, so this is much cheaper than {@link #parseReplay(Path)}.
+   */
+  ReplayHeader readReplayHeader(Path path) throws IOException, CompressorException;
 }
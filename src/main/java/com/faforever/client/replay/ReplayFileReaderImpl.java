@@ -9,7 +9,13 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Lazy
 @Component
@@ -23,4 +29,25 @@ public class ReplayFileReaderImpl implements ReplayFileReader {
   public ReplayDataParser parseReplay(Path path) throws IOException, CompressorException {
     return new ReplayDataParser(path, objectMapper);
   }
+
+  @Override
+  public ReplayHeader readReplayHeader(Path path) throws IOException, CompressorException {
+    Optional<ReplayHeader> replayHeader;
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      replayHeader = ReplayHeaderParser.parse(inputStream, objectMapper);
+    }
+    if (replayHeader.isPresent()) {
+      return replayHeader.get();
+    }
+
+    log.trace("Replay `{}` is not qCompressed, reading the whole file", path);
+    ReplayDataParser parser = parseReplay(path);
+    List<Map<String, Object>> armies = parser.getArmies().values().stream().map(armyInfo -> {
+      Map<String, Object> army = new HashMap<>(armyInfo);
+      // ReplayDataParser decodes lua booleans inverted
+      army.computeIfPresent("Human", (key, human) -> !((boolean) human));
+      return army;
+    }).toList();
+    return new ReplayHeader(parser.getMetadata(), parser.getReplayPatchFieldId(), parser.getMap(), armies);
+  }
 }
@@ -2,10 +2,14 @@ package com.faforever.client.replay;
 
 import com.faforever.commons.replay.ReplayMetadata;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 
 public interface ReplayFileWriter {
 
-  void writeReplayDataToFile(ByteArrayOutputStream replayData, ReplayMetadata replayInfo) throws IOException;
+  /**
+   * Writes a {@code .fafreplay} file from the raw replay stream stored in {@code replayData}. The data is compressed and
+   * encoded while it is streamed from disk, so the replay is never held in memory as a whole.
+   */
+  void writeReplayDataToFile(Path replayData, ReplayMetadata replayInfo) throws IOException;
 }
@@ -3,26 +3,25 @@ package com.faforever.client.replay;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.commons.io.Bytes;
-import com.faforever.commons.replay.QtCompress;
 import com.faforever.commons.replay.ReplayMetadata;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.google.common.io.BaseEncoding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Base64;
 import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardOpenOption.APPEND;
 
 @Lazy
@@ -38,25 +37,27 @@ public class ReplayFileWriterImpl implements ReplayFileWriter {
   private final DataPrefs dataPrefs;
 
   @Override
-  public void writeReplayDataToFile(ByteArrayOutputStream replayData, ReplayMetadata replayInfo) throws IOException {
+  public void writeReplayDataToFile(Path replayData, ReplayMetadata replayInfo) throws IOException {
     String fileName = String.format(clientProperties.getReplay().getReplayFileFormat(), replayInfo.getUid(), replayInfo.getRecorder());
     Path replayFile = dataPrefs.getReplaysDirectory().resolve(fileName);
     Path temporaryReplayFile = Files.createTempFile(dataPrefs.getCacheDirectory(), fileName, "fafreplay");
+    long replayDataSize = Files.size(replayData);
 
-    log.info("Writing replay file to `{}` ({})", replayFile, Bytes.formatSize(replayData.size(), Locale.ROOT));
+    log.info("Writing replay file to `{}` ({})", replayFile, Bytes.formatSize(replayDataSize, Locale.ROOT));
 
     Files.createDirectories(replayFile.getParent());
 
-    try (BufferedWriter writer = Files.newBufferedWriter(temporaryReplayFile, UTF_8, APPEND)) {
-      byte[] compressedBytes = QtCompress.qCompress(replayData.toByteArray());
-      String base64ReplayData = BaseEncoding.base64().encode(compressedBytes);
+    try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporaryReplayFile, APPEND))) {
+      outputStream.write(objectMapper.writeValueAsBytes(replayInfo));
+      outputStream.write('\n');
 
-      StringWriter replayInfoWriter = new StringWriter();
-
-      objectMapper.writeValue(replayInfoWriter, replayInfo);
-      writer.write(replayInfoWriter.toString());
-      writer.write('\n');
-      writer.write(base64ReplayData);
+      // Same layout as QtCompress.qCompress: the uncompressed size as big endian int followed by the zlib stream
+      try (DataOutputStream base64OutputStream = new DataOutputStream(Base64.getEncoder().wrap(outputStream))) {
+        base64OutputStream.writeInt((int) replayDataSize);
+        try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(base64OutputStream)) {
+          Files.copy(replayData, deflaterOutputStream);
+        }
+      }
     }
 
     Files.move(temporaryReplayFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
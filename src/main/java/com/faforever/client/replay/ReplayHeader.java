@@ -0,0 +1,23 @@
+package com.faforever.client.replay;
+
+import com.faforever.commons.replay.ReplayMetadata;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The metadata and header of a replay file, without any of the replay's commands.
+ *
+ * @param armies the army info tables in the order they are stored in the replay, including AI and civilian armies
+ */
+public record ReplayHeader(
+    ReplayMetadata metadata,
+    String replayPatchFieldId,
+    String map,
+    List<Map<String, Object>> armies
+) {
+
+  public ReplayHeader {
+    armies = armies == null ? List.of() : List.copyOf(armies);
+  }
+}
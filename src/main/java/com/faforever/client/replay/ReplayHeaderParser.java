@@ -0,0 +1,161 @@
+package com.faforever.client.replay;
+
+import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.LittleEndianDataInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.InflaterInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads the metadata and the header of a {@code .fafreplay} file. Only as much of the replay body is decoded and
+ * inflated as is needed to read the header, the command stream is never touched.
+ */
+final class ReplayHeaderParser {
+
+  private static final int LUA_NUMBER = 0;
+  private static final int LUA_STRING = 1;
+  private static final int LUA_NIL = 2;
+  private static final int LUA_BOOL = 3;
+  private static final int LUA_TABLE_START = 4;
+  private static final int LUA_TABLE_END = 5;
+  private static final int NO_SOURCE = 255;
+
+  private ReplayHeaderParser() {
+    throw new AssertionError("Not instantiatable");
+  }
+
+  /**
+   * @return the header, or an empty optional if the replay body is not in the legacy base64 encoded qCompress format
+   * and needs to be read by {@link com.faforever.commons.replay.ReplayDataParser}
+   */
+  static Optional<ReplayHeader> parse(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+    BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
+    ReplayMetadata metadata = objectMapper.readValue(readLine(bufferedInputStream), ReplayMetadata.class);
+
+    if (!isBase64Encoded(bufferedInputStream)) {
+      return Optional.empty();
+    }
+
+    DataInputStream qCompressedStream = new DataInputStream(Base64.getMimeDecoder().wrap(bufferedInputStream));
+    // qCompress prefixes the zlib stream with the uncompressed size
+    qCompressedStream.readInt();
+    LittleEndianDataInputStream dataStream = new LittleEndianDataInputStream(
+        new BufferedInputStream(new InflaterInputStream(qCompressedStream)));
+
+    return Optional.of(parseHeader(metadata, dataStream));
+  }
+
+  private static ReplayHeader parseHeader(ReplayMetadata metadata,
+                                          LittleEndianDataInputStream dataStream) throws IOException {
+    String replayPatchFieldId = readString(dataStream);
+    readString(dataStream); // "\r\n"
+    String[] replayVersionAndMap = readString(dataStream).split("\r\n", 2);
+    String map = replayVersionAndMap.length > 1 ? replayVersionAndMap[1] : "";
+    readString(dataStream); // "\r\n\x1a"
+
+    // Mods and game options are not needed for listings
+    ByteStreams.skipFully(dataStream, Integer.toUnsignedLong(dataStream.readInt()));
+    ByteStreams.skipFully(dataStream, Integer.toUnsignedLong(dataStream.readInt()));
+
+    int numberOfSources = dataStream.readUnsignedByte();
+    for (int i = 0; i < numberOfSources; i++) {
+      readString(dataStream); // player name
+      dataStream.readInt(); // source ID
+    }
+
+    dataStream.readUnsignedByte(); // cheats enabled
+
+    int numberOfArmies = dataStream.readUnsignedByte();
+    List<Map<String, Object>> armies = new ArrayList<>(numberOfArmies);
+    for (int i = 0; i < numberOfArmies; i++) {
+      byte[] armyBytes = new byte[dataStream.readInt()];
+      dataStream.readFully(armyBytes);
+      Object armyInfo = parseLua(new LittleEndianDataInputStream(new ByteArrayInputStream(armyBytes)));
+      if (armyInfo instanceof Map<?, ?> armyInfoTable) {
+        Map<String, Object> army = new HashMap<>();
+        armyInfoTable.forEach((key, value) -> army.put(String.valueOf(key), value));
+        armies.add(army);
+      }
+
+      int sourceId = dataStream.readUnsignedByte();
+      if (sourceId != NO_SOURCE) {
+        dataStream.readUnsignedByte();
+      }
+    }
+
+    return new ReplayHeader(metadata, replayPatchFieldId, map, armies);
+  }
+
+  private static boolean isBase64Encoded(BufferedInputStream inputStream) throws IOException {
+    inputStream.mark(1);
+    int firstByte = inputStream.read();
+    inputStream.reset();
+    return (firstByte >= 'A' && firstByte <= 'Z') || (firstByte >= 'a' && firstByte <= 'z')
+        || (firstByte >= '0' && firstByte <= '9') || firstByte == '+' || firstByte == '/';
+  }
+
+  private static byte[] readLine(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+    int character;
+    while ((character = inputStream.read()) != '\n') {
+      if (character == -1) {
+        throw new EOFException("Replay file ended before the end of its metadata");
+      }
+      line.write(character);
+    }
+    return line.toByteArray();
+  }
+
+  private static String readString(LittleEndianDataInputStream dataStream) throws IOException {
+    ByteArrayOutputStream string = new ByteArrayOutputStream();
+    byte character;
+    while ((character = dataStream.readByte()) != 0) {
+      string.write(character);
+    }
+    return string.toString(UTF_8);
+  }
+
+  private static Object parseLua(LittleEndianDataInputStream dataStream) throws IOException {
+    int type = dataStream.readUnsignedByte();
+    return switch (type) {
+      case LUA_NUMBER -> dataStream.readFloat();
+      case LUA_STRING -> readString(dataStream);
+      case LUA_NIL -> {
+        dataStream.readUnsignedByte();
+        yield null;
+      }
+      case LUA_BOOL -> dataStream.readUnsignedByte() != 0;
+      case LUA_TABLE_START -> parseLuaTable(dataStream);
+      default -> throw new IOException("Unexpected lua type in replay header: " + type);
+    };
+  }
+
+  private static Map<Object, Object> parseLuaTable(LittleEndianDataInputStream dataStream) throws IOException {
+    Map<Object, Object> table = new HashMap<>();
+    while (true) {
+      dataStream.mark(1);
+      if (dataStream.readUnsignedByte() == LUA_TABLE_END) {
+        return table;
+      }
+      dataStream.reset();
+      Object key = parseLua(dataStream);
+      table.put(key, parseLua(dataStream));
+    }
+  }
+}
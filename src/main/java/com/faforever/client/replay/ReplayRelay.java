@@ -0,0 +1,181 @@
+package com.faforever.client.replay;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Relays the live replay stream to the FAF replay server. Chunks are handed over by the recording thread and written by
+ * a virtual thread, so a slow replay server never stalls the game's replay socket. Queued chunks are coalesced into a
+ * single gathering write, which happens at the latest {@link #MAX_FLUSH_LATENCY} after the oldest chunk was queued.
+ */
+@Slf4j
+class ReplayRelay implements AutoCloseable {
+
+  /**
+   * The replay stream produces only about 70 bytes per second (See #973), so chunks are collected for a short while to
+   * avoid sending tiny TCP segments.
+   */
+  private static final Duration MAX_FLUSH_LATENCY = Duration.ofMillis(100);
+  /**
+   * Amount of queued data after which a write is issued without waiting for the flush latency to pass.
+   */
+  private static final int FLUSH_THRESHOLD = 8 * 1024;
+  /**
+   * Upper bound of buffer memory held for the replay server. If the server can't keep up, relaying is given up instead
+   * of buffering the whole game.
+   */
+  private static final long MAX_PENDING_BYTES = 8 * 1024 * 1024;
+
+  private static final PendingChunk END_OF_STREAM = new PendingChunk(ByteBuffer.allocate(0), 0, 0);
+
+  /**
+   * @param size the bytes of {@code data} that are relayed, which are counted as pending until the buffer is recycled
+   */
+  private record PendingChunk(ByteBuffer data, int size, long enqueuedAtNanos) {}
+
+  private final GatheringByteChannel remoteChannel;
+  private final Consumer<ByteBuffer> bufferRecycler;
+  private final BlockingQueue<PendingChunk> pendingChunks = new LinkedBlockingQueue<>();
+  private final AtomicLong pendingBytes = new AtomicLong();
+  private final LongAdder bytesRelayed = new LongAdder();
+  private final LongAdder flushCount = new LongAdder();
+  private final AtomicLong lastRelayLagNanos = new AtomicLong();
+  private final AtomicLong maxRelayLagNanos = new AtomicLong();
+  private final Thread writerThread;
+
+  private volatile boolean relaying = true;
+
+  /**
+   * @param bufferRecycler called with every buffer that has been handed to {@link #relay(ByteBuffer)} once it is no
+   * longer used by the relay
+   */
+  ReplayRelay(GatheringByteChannel remoteChannel, Consumer<ByteBuffer> bufferRecycler) {
+    this.remoteChannel = remoteChannel;
+    this.bufferRecycler = bufferRecycler;
+    this.writerThread = Thread.ofVirtual().name("replay-relay").start(this::writeLoop);
+  }
+
+  /**
+   * Queues the remaining bytes of {@code data} to be sent to the replay server. Never blocks.
+   *
+   * @return {@code true} if the relay took ownership of the buffer, {@code false} if the caller keeps it because the
+   * connection to the replay server is lost
+   */
+  boolean relay(ByteBuffer data) {
+    if (!relaying) {
+      return false;
+    }
+
+    int size = data.remaining();
+    if (pendingBytes.addAndGet(size) > MAX_PENDING_BYTES) {
+      pendingBytes.addAndGet(-size);
+      log.warn("Replay server does not keep up with the replay stream, stopping to relay");
+      relaying = false;
+      return false;
+    }
+
+    PendingChunk pendingChunk = new PendingChunk(data, size, System.nanoTime());
+    pendingChunks.add(pendingChunk);
+    // The writer may have stopped and drained the queue between the check above and adding the chunk. Whoever takes
+    // the chunk out of the queue first owns it, so it is either recycled by the writer or handed back to the caller.
+    if (!relaying && pendingChunks.removeIf(chunk -> chunk == pendingChunk)) {
+      pendingBytes.addAndGet(-size);
+      return false;
+    }
+    return true;
+  }
+
+  ReplayRelayStatistics getStatistics() {
+    return new ReplayRelayStatistics(bytesRelayed.sum(), flushCount.sum(), Duration.ofNanos(lastRelayLagNanos.get()),
+                                     Duration.ofNanos(maxRelayLagNanos.get()));
+  }
+
+  private void writeLoop() {
+    List<PendingChunk> batch = new ArrayList<>();
+    try {
+      boolean endOfStream = false;
+      while (!endOfStream) {
+        PendingChunk firstChunk = pendingChunks.take();
+        if (firstChunk == END_OF_STREAM) {
+          break;
+        }
+
+        batch.add(firstChunk);
+        long batchBytes = firstChunk.size();
+        long flushDeadline = firstChunk.enqueuedAtNanos() + MAX_FLUSH_LATENCY.toNanos();
+        while (batchBytes < FLUSH_THRESHOLD) {
+          PendingChunk nextChunk = pendingChunks.poll(flushDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (nextChunk == null) {
+            break;
+          }
+          if (nextChunk == END_OF_STREAM) {
+            endOfStream = true;
+            break;
+          }
+          batch.add(nextChunk);
+          batchBytes += nextChunk.size();
+        }
+
+        flush(batch, batchBytes);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      // In case we lose connection to the replay server, just stop writing to it
+      log.warn("Connection to replay server lost ({})", e.getMessage());
+    } finally {
+      relaying = false;
+      batch.forEach(this::recycle);
+      PendingChunk pendingChunk;
+      while ((pendingChunk = pendingChunks.poll()) != null) {
+        recycle(pendingChunk);
+      }
+    }
+  }
+
+  private void flush(List<PendingChunk> batch, long batchBytes) throws IOException {
+    ByteBuffer[] buffers = batch.stream().map(PendingChunk::data).toArray(ByteBuffer[]::new);
+    long bytesWritten = 0;
+    while (bytesWritten < batchBytes) {
+      bytesWritten += remoteChannel.write(buffers);
+    }
+
+    long relayLag = System.nanoTime() - batch.getFirst().enqueuedAtNanos();
+    lastRelayLagNanos.set(relayLag);
+    maxRelayLagNanos.accumulateAndGet(relayLag, Math::max);
+    bytesRelayed.add(batchBytes);
+    flushCount.increment();
+
+    batch.forEach(this::recycle);
+    batch.clear();
+  }
+
+  private void recycle(PendingChunk pendingChunk) {
+    if (pendingChunk == END_OF_STREAM) {
+      return;
+    }
+    pendingBytes.addAndGet(-pendingChunk.size());
+    bufferRecycler.accept(pendingChunk.data());
+  }
+
+  /**
+   * Flushes all queued chunks and waits for the writer to finish.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    pendingChunks.add(END_OF_STREAM);
+    writerThread.join();
+  }
+}
@@ -0,0 +1,13 @@
+package com.faforever.client.replay;
+
+import java.time.Duration;
+
+/**
+ * Counters of the live replay relay.
+ *
+ * @param lastRelayLag time between the oldest chunk of the last write being received from the game and being sent
+ * @param maxRelayLag highest relay lag of the current game
+ */
+public record ReplayRelayStatistics(long bytesRelayed, long flushCount, Duration lastRelayLag, Duration maxRelayLag) {
+  public static final ReplayRelayStatistics EMPTY = new ReplayRelayStatistics(0, 0, Duration.ZERO, Duration.ZERO);
+}
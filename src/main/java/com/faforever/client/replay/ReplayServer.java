@@ -10,33 +10,38 @@ import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.notification.Severity;
 import com.faforever.client.player.PlayerService;
+import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.update.Version;
 import com.faforever.client.user.LoginService;
 import com.faforever.commons.replay.ReplayMetadata;
-import com.google.common.primitives.Bytes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.ConnectException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import static java.nio.file.StandardOpenOption.WRITE;
+
 @Lazy
 @Component
 @Slf4j
@@ -44,12 +49,15 @@ import java.util.stream.Collectors;
 public class ReplayServer {
 
   /**
-   * Size for buffer used to send data to the live replay server. The buffer needs to be large enough to not flush too
-   * many times (after all, it's a TCP stream so we don't want to send single bytes) but small enough to not delay data
-   * for too long. I don't have any data right now but it can be expected that the replay stream produces about 70 bytes
-   * per second (See #973).
+   * Size of the buffers the replay stream is read into. The same direct buffer is written to the replay file and then
+   * handed to the {@link ReplayRelay}, so the data is never copied on the way.
+   */
+  private static final int REPLAY_BUFFER_SIZE = 8 * 1024;
+  /**
+   * Buffers that are released while this many are pooled already are left to the garbage collector, so that a replay
+   * server that fell behind doesn't keep its buffers allocated for the rest of the session.
    */
-  private static final int REPLAY_BUFFER_SIZE = 128;
+  private static final int MAX_POOLED_BUFFERS = 64;
 
   /**
    * This is a prefix used in the FA live replay protocol that needs to be stripped away when storing to a file.
@@ -63,10 +71,14 @@ public class ReplayServer {
   private final ReplayFileWriter replayFileWriter;
   private final PlayerService playerService;
   private final GameService gameService;
+  private final DataPrefs dataPrefs;
+
+  private final Queue<ByteBuffer> bufferPool = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
 
   private ReplayMetadata replayInfo;
-  private ServerSocket serverSocket;
+  private ServerSocketChannel serverSocketChannel;
   private boolean stoppedGracefully;
+  private volatile ReplayRelay replayRelay;
 
   /**
    * Returns the current millis the same way as python does since this is what's stored in the replay files *yay*.
@@ -76,11 +88,11 @@ public class ReplayServer {
   }
 
   public void stop() {
-    if (serverSocket == null) {
+    if (serverSocketChannel == null) {
       return;
     }
     try {
-      serverSocket.close();
+      serverSocketChannel.close();
       stoppedGracefully = true;
     } catch (IOException exception) {
       log.warn("Unable to stop replay server");
@@ -88,29 +100,37 @@ public class ReplayServer {
     }
   }
 
+  /**
+   * Returns the counters of the relay to the FAF replay server for the current or last game.
+   */
+  public ReplayRelayStatistics getRelayStatistics() {
+    ReplayRelay currentReplayRelay = replayRelay;
+    return currentReplayRelay == null ? ReplayRelayStatistics.EMPTY : currentReplayRelay.getStatistics();
+  }
+
   public CompletableFuture<Integer> start(int gameId) {
     stoppedGracefully = false;
     CompletableFuture<Integer> future = new CompletableFuture<>();
-    new Thread(() -> {
+    Thread.ofVirtual().name("replay-server").start(() -> {
       String remoteReplayServerHost = clientProperties.getReplay().getRemoteHost();
       int remoteReplayServerPort = clientProperties.getReplay().getRemotePort();
 
       log.info("Connecting to replay server at `{}:{}`", remoteReplayServerHost, remoteReplayServerPort);
 
-      try (ServerSocket localSocket = new ServerSocket(0)) {
-        log.debug("Opening local replay server on port {}", localSocket.getLocalPort());
-        this.serverSocket = localSocket;
-        future.complete(serverSocket.getLocalPort());
+      try (ServerSocketChannel localChannel = ServerSocketChannel.open().bind(new InetSocketAddress(0))) {
+        int localPort = ((InetSocketAddress) localChannel.getLocalAddress()).getPort();
+        log.debug("Opening local replay server on port {}", localPort);
+        this.serverSocketChannel = localChannel;
+        future.complete(localPort);
 
-        try (Socket remoteReplayServerSocket = new Socket(remoteReplayServerHost, remoteReplayServerPort);
-             DataOutputStream fafReplayOutputStream = new DataOutputStream(
-                 remoteReplayServerSocket.getOutputStream())) {
-          recordAndRelay(gameId, localSocket, fafReplayOutputStream);
-        } catch (ConnectException e) {
+        try (SocketChannel remoteReplayServerChannel = SocketChannel.open(
+            new InetSocketAddress(remoteReplayServerHost, remoteReplayServerPort))) {
+          recordAndRelay(gameId, localChannel, remoteReplayServerChannel);
+        } catch (ConnectException | UnresolvedAddressException e) {
           log.warn("Could not connect to remote replay server", e);
           notificationService.addNotification(
               new PersistentNotification(i18n.get("replayServer.unreachable"), Severity.WARN));
-          recordAndRelay(gameId, localSocket, null);
+          recordAndRelay(gameId, localChannel, null);
         }
       } catch (IOException e) {
         if (stoppedGracefully) {
@@ -123,7 +143,7 @@ public class ReplayServer {
             Collections.singletonList(new Action(i18n.get("replayServer.retry"), () -> start(gameId)))
         ));
       }
-    }).start();
+    });
     return future;
   }
 
@@ -138,48 +158,118 @@ public class ReplayServer {
   }
 
   /**
-   * @param fafReplayOutputStream if {@code null}, the replay won't be relayed
+   * @param remoteReplayServerChannel if {@code null}, the replay won't be relayed
    */
-  private void recordAndRelay(int uid, ServerSocket serverSocket,
-                              @Nullable OutputStream fafReplayOutputStream) throws IOException {
-    Socket socket = serverSocket.accept();
+  private void recordAndRelay(int uid, ServerSocketChannel serverSocketChannel,
+                              @Nullable SocketChannel remoteReplayServerChannel) throws IOException {
+    SocketChannel gameChannel = serverSocketChannel.accept();
     GameInfo game = gameService.getByUid(uid).orElseThrow();
-    log.info("Accepted connection from `{}`", socket.getRemoteSocketAddress());
+    log.info("Accepted connection from `{}`", gameChannel.getRemoteAddress());
 
     initReplayInfo(uid);
 
-    ByteArrayOutputStream replayData = new ByteArrayOutputStream();
-
-    boolean connectionToServerLost = false;
-    byte[] buffer = new byte[REPLAY_BUFFER_SIZE];
-    try (InputStream inputStream = socket.getInputStream()) {
-      int bytesRead;
-      while ((bytesRead = inputStream.read(buffer)) != -1) {
-        if (replayData.size() == 0 && Bytes.indexOf(buffer, LIVE_REPLAY_PREFIX) != -1) {
-          int dataBeginIndex = Bytes.indexOf(buffer, (byte) 0x00) + 1;
-          replayData.write(buffer, dataBeginIndex, bytesRead - dataBeginIndex);
-        } else {
-          replayData.write(buffer, 0, bytesRead);
+    // The replay stream is spilled to disk as it arrives so that memory usage does not grow with the game length
+    Files.createDirectories(dataPrefs.getCacheDirectory());
+    Path replayDataFile = Files.createTempFile(dataPrefs.getCacheDirectory(), "live-replay-" + uid, ".tmp");
+    try {
+      ReplayRelay currentReplayRelay = null;
+      if (remoteReplayServerChannel != null) {
+        currentReplayRelay = new ReplayRelay(remoteReplayServerChannel, this::releaseBuffer);
+        replayRelay = currentReplayRelay;
+      }
+
+      try (gameChannel) {
+        recordReplayStream(gameChannel, replayDataFile, currentReplayRelay);
+      } finally {
+        if (currentReplayRelay != null) {
+          closeRelay(currentReplayRelay);
+        }
+      }
+
+      log.info("FAF disconnected, writing replay data to file");
+      finishReplayInfo(game);
+      replayFileWriter.writeReplayDataToFile(replayDataFile, replayInfo);
+    } finally {
+      Files.deleteIfExists(replayDataFile);
+    }
+  }
+
+  private void recordReplayStream(SocketChannel gameChannel, Path replayDataFile,
+                                  @Nullable ReplayRelay replayRelay) throws IOException {
+    boolean inHeader = false;
+    boolean firstRead = true;
+    try (FileChannel replayDataChannel = FileChannel.open(replayDataFile, WRITE)) {
+      while (true) {
+        ByteBuffer buffer = acquireBuffer();
+        if (gameChannel.read(buffer) == -1) {
+          releaseBuffer(buffer);
+          break;
+        }
+        buffer.flip();
+
+        ByteBuffer replayData = buffer.duplicate();
+        if (firstRead) {
+          inHeader = startsWithLiveReplayPrefix(replayData);
+          firstRead = false;
+        }
+        if (inHeader) {
+          inHeader = !skipHeader(replayData);
+        }
+
+        while (replayData.hasRemaining()) {
+          replayDataChannel.write(replayData);
         }
 
-        if (!connectionToServerLost && fafReplayOutputStream != null) {
-          try {
-            fafReplayOutputStream.write(buffer, 0, bytesRead);
-          } catch (SocketException e) {
-            // In case we lose connection to the replay server, just stop writing to it
-            log.warn("Connection to replay server lost ({})", e.getMessage());
-            connectionToServerLost = true;
-          }
+        if (replayRelay == null || !replayRelay.relay(buffer)) {
+          releaseBuffer(buffer);
         }
       }
     } catch (Exception e) {
       log.error("Error while recording replay", e);
       throw e;
     }
+  }
+
+  private static boolean startsWithLiveReplayPrefix(ByteBuffer data) {
+    if (data.remaining() < LIVE_REPLAY_PREFIX.length) {
+      return false;
+    }
+    return data.slice(data.position(), LIVE_REPLAY_PREFIX.length).equals(ByteBuffer.wrap(LIVE_REPLAY_PREFIX));
+  }
+
+  /**
+   * Advances the position of {@code data} past the live replay header, which is terminated by a null byte.
+   *
+   * @return whether the end of the header has been reached
+   */
+  private static boolean skipHeader(ByteBuffer data) {
+    while (data.hasRemaining()) {
+      if (data.get() == 0x00) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void closeRelay(ReplayRelay replayRelay) {
+    try {
+      replayRelay.close();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    ReplayRelayStatistics statistics = replayRelay.getStatistics();
+    log.info("Relayed {} bytes to replay server in {} writes (last lag: {} ms, max lag: {} ms)",
+             statistics.bytesRelayed(), statistics.flushCount(), statistics.lastRelayLag().toMillis(),
+             statistics.maxRelayLag().toMillis());
+  }
+
+  private ByteBuffer acquireBuffer() {
+    ByteBuffer buffer = bufferPool.poll();
+    return buffer != null ? buffer : ByteBuffer.allocateDirect(REPLAY_BUFFER_SIZE);
+  }
 
-    log.info("FAF disconnected, writing replay data to file");
-    finishReplayInfo(game);
-    replayFileWriter.writeReplayDataToFile(replayData, replayInfo);
+  private void releaseBuffer(ByteBuffer buffer) {
+    bufferPool.offer(buffer.clear());
   }
 
   private void finishReplayInfo(GameInfo game) {
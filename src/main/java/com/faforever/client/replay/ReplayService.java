@@ -51,11 +51,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
@@ -68,7 +66,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static com.faforever.client.notification.Severity.WARN;
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -102,6 +99,7 @@ public class ReplayService {
   private final ReplayMapper replayMapper;
   private final DataPrefs dataPrefs;
   private final ObjectFactory<ReplayDownloadTask> replayDownloadTaskFactory;
+  private final LocalReplayIndex localReplayIndex;
 
   @VisibleForTesting
   static Integer parseSupComVersion(ReplayDataParser parser) {
@@ -148,63 +146,50 @@ public class ReplayService {
   }
 
   public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(int pageSize, int page) throws IOException {
-    String replayFileGlob = clientProperties.getReplay().getReplayFileGlob();
-
-    Path replaysDirectory = dataPrefs.getReplaysDirectory();
-    if (Files.notExists(replaysDirectory)) {
-      Files.createDirectories(replaysDirectory);
-    }
-
     int skippedReplays = pageSize * (page - 1);
 
-    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, replayFileGlob)) {
-      List<Path> filesList = StreamSupport.stream(directoryStream.spliterator(), false)
-                                          .sorted(Comparator.comparing(path -> {
-                                            try {
-                                              return Files.getLastModifiedTime((Path) path);
-                                            } catch (IOException e) {
-                                              log.warn("Could not get last modified time of file {}", path, e);
-                                              return FileTime.from(Instant.EPOCH);
-                                            }
-                                          }).reversed())
-                                          .toList();
-
-      int numPages = filesList.size() / pageSize;
-
-      List<CompletableFuture<Replay>> replayFutures = filesList.stream()
-                                                               .skip(skippedReplays)
-                                                               .limit(pageSize)
-                                                               .map(this::tryLoadingLocalReplay)
-                                                               .filter(e -> !e.isCompletedExceptionally())
-                                                               .toList();
-
-      return Mono.fromFuture(CompletableFuture.allOf(replayFutures.toArray(new CompletableFuture[0]))
-                                              .thenApply(ignoredVoid -> replayFutures.stream()
-                                                                                     .map(CompletableFuture::join)
-                                                                                     .filter(Objects::nonNull)
-                                                                                     .collect(Collectors.toList())))
-                 .zipWith(Mono.just(numPages));
-    }
+    List<LocalReplayIndexEntry> entries = localReplayIndex.getEntries();
+    int numPages = entries.size() / pageSize;
+
+    List<CompletableFuture<Replay>> replayFutures = entries.stream()
+                                                           .skip(skippedReplays)
+                                                           .limit(pageSize)
+                                                           .map(this::tryLoadingLocalReplay)
+                                                           .filter(e -> !e.isCompletedExceptionally())
+                                                           .toList();
+
+    return Mono.fromFuture(CompletableFuture.allOf(replayFutures.toArray(new CompletableFuture[0]))
+                                            .thenApply(ignoredVoid -> replayFutures.stream()
+                                                                                   .map(CompletableFuture::join)
+                                                                                   .filter(Objects::nonNull)
+                                                                                   .collect(Collectors.toList())))
+               .doOnNext(ignored -> localReplayIndex.save())
+               .zipWith(Mono.just(numPages));
   }
 
 
-  private CompletableFuture<Replay> tryLoadingLocalReplay(Path replayFile) {
+  private CompletableFuture<Replay> tryLoadingLocalReplay(LocalReplayIndexEntry entry) {
+    Path replayFile = localReplayIndex.getReplayFile(entry);
     try {
-      ReplayDataParser replayData = replayFileReader.parseReplay(replayFile);
-      ReplayMetadata replayMetadata = replayData.getMetadata();
+      LocalReplayMetadata replayMetadata = entry.metadata();
+      if (replayMetadata == null) {
+        replayMetadata = replayMapper.mapToLocalReplayMetadata(replayFileReader.readReplayHeader(replayFile));
+        localReplayIndex.putMetadata(entry, replayMetadata);
+      }
 
       CompletableFuture<FeaturedMod> featuredModFuture = featuredModService.getFeaturedMod(
-          replayMetadata.getFeaturedMod()).toFuture();
-      CompletableFuture<MapVersion> mapVersionFuture = mapService.findByMapFolderName(replayMetadata.getMapname())
+          replayMetadata.featuredMod()).toFuture();
+      CompletableFuture<MapVersion> mapVersionFuture = mapService.findByMapFolderName(replayMetadata.mapname())
                                                                  .toFuture();
 
+      LocalReplayMetadata finalReplayMetadata = replayMetadata;
       return CompletableFuture.allOf(featuredModFuture, mapVersionFuture).thenApply(ignoredVoid -> {
         MapVersion mapVersion = mapVersionFuture.join();
         FeaturedMod featuredMod = featuredModFuture.join();
         if (mapVersion == null) {
           log.warn("Could not find map for replay file `{}`", replayFile);
         }
-        return replayMapper.map(replayData, replayFile, featuredMod, mapVersion);
+        return replayMapper.map(finalReplayMetadata, replayFile, featuredMod, mapVersion);
       }).exceptionally(throwable -> {
         log.warn("Could not read replay file `{}`", replayFile, throwable);
         moveCorruptedReplayFile(replayFile);
@@ -236,6 +221,7 @@ public class ReplayService {
       log.warn("Failed to move corrupt replay to `{}`", target, e);
       return;
     }
+    localReplayIndex.remove(replayFile);
 
     notificationService.addNotification(new PersistentNotification(i18n.get("corruptedReplayFiles.notification"), WARN,
                                                                    singletonList(
@@ -247,6 +233,7 @@ public class ReplayService {
   public boolean deleteReplayFile(Path replayFile) {
     try {
       Files.delete(replayFile);
+      localReplayIndex.remove(replayFile);
       return true;
     } catch (IOException e) {
       log.error("Failed to delete local replay file {}", replayFile, e);
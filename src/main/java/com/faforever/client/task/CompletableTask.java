@@ -10,10 +10,16 @@ import java.util.concurrent.CompletableFuture;
 public abstract class CompletableTask<V> extends Task<V> implements PrioritizedCompletableTask<V> {
 
   private final CompletableFuture<V> future;
+  private final ResourceClass resourceClass;
   private Priority priority;
 
   public CompletableTask(Priority priority) {
+    this(priority, ResourceClass.CPU);
+  }
+
+  public CompletableTask(Priority priority, ResourceClass resourceClass) {
     this.priority = priority;
+    this.resourceClass = resourceClass;
     this.future = new CompletableFuture<>();
     setOnCancelled(event -> future.cancel(true));
     setOnFailed(event -> future.completeExceptionally(getException()));
@@ -35,6 +41,16 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
     return priority.compareTo(other.priority);
   }
 
+  @Override
+  public Priority getPriority() {
+    return priority;
+  }
+
+  @Override
+  public ResourceClass getResourceClass() {
+    return resourceClass;
+  }
+
   public void setPriority(Priority priority) {
     Assert.checkNotNullIllegalState(this.priority, "Priority has already been set");
     this.priority = priority;
@@ -51,4 +67,13 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
     MEDIUM,
     HIGH
   }
+
+  /**
+   * The resource a task mostly waits for. Tasks of different resource classes don't compete for the same slots.
+   */
+  public enum ResourceClass {
+    CPU,
+    DISK,
+    NETWORK
+  }
 }
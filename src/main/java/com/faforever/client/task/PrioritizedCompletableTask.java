@@ -1,5 +1,7 @@
 package com.faforever.client.task;
 
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.CompletableTask.ResourceClass;
 import javafx.concurrent.Worker;
 import reactor.core.publisher.Mono;
 
@@ -20,6 +22,10 @@ public interface PrioritizedCompletableTask<V> extends Comparable<CompletableTas
   @Override
   boolean cancel(boolean mayInterruptIfRunning);
 
+  Priority getPriority();
+
+  ResourceClass getResourceClass();
+
   CompletableFuture<V> getFuture();
 
   Mono<V> getMono();
@@ -1,34 +1,98 @@
 package com.faforever.client.task;
 
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Io;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+import org.springframework.stereotype.Component;
 
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Limits concurrent access to disks and remote hosts. Disk operations lock the paths they write to, so that operations
+ * on different files don't wait for each other, and share a limited number of permits. Network operations share a
+ * limited number of connections per host, so that transfers from different hosts don't wait for each other.
+ * <p>
+ * The locks of paths are reentrant, but the disk permits are not: every {@link #acquireDiskLock(Path...)} takes
+ * another permit, so a thread that nests disk operations can use up the permits and wait for itself. Lock all paths of
+ * an operation with a single call instead.
+ */
+@Component
 public class ResourceLocks {
 
-  private static final ReentrantReadWriteLock NETWORK_LOCK = new ReentrantReadWriteLock();
-  private static final ReentrantLock DISK_LOCK = new ReentrantLock();
+  private static final int PATH_LOCK_STRIPES = 64;
+
+  private final Striped<Lock> pathLocks = Striped.lock(PATH_LOCK_STRIPES);
+  private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+  private final Semaphore diskPermits;
+  private final int maxConnectionsPerHost;
+
+  public ResourceLocks(ClientProperties clientProperties) {
+    Io io = clientProperties.getIo();
+    this.diskPermits = new Semaphore(io.getMaxParallelDiskOperations());
+    this.maxConnectionsPerHost = io.getMaxConnectionsPerHost();
+  }
+
+  /**
+   * Waits for a connection to the host of the given URL. Every acquired connection must be freed with
+   * {@link #freeHostPermit(URL)}.
+   */
+  public void acquireHostPermit(URL url) {
+    getHostPermits(url.getHost()).acquireUninterruptibly();
+  }
+
+  public void freeHostPermit(URL url) {
+    getHostPermits(url.getHost()).release();
+  }
+
+  /**
+   * The permits for connections to a host, for downloads that open several connections to the same host.
+   */
+  public Semaphore getHostPermits(String host) {
+    return hostPermits.computeIfAbsent(host, ignored -> new Semaphore(maxConnectionsPerHost, true));
+  }
 
-  public static void acquireDownloadLock() {
-    NETWORK_LOCK.readLock().lock();
+  public int getMaxConnectionsPerHost() {
+    return maxConnectionsPerHost;
   }
 
-  public static void freeDownloadLock() {
-    NETWORK_LOCK.readLock().unlock();
+  /**
+   * Waits for the locks of all given paths and then for a disk permit. The same paths must be passed to
+   * {@link #freeDiskLock(Path...)} afterward.
+   */
+  public void acquireDiskLock(Path... paths) {
+    // Striped returns the locks in a consistent order, so threads locking several paths can't deadlock. The permit is
+    // taken last, so that operations waiting for a busy path don't keep operations on other paths from running.
+    getPathLocks(paths).forEach(Lock::lock);
+    diskPermits.acquireUninterruptibly();
   }
 
-  public static void acquireUploadLock() {
-    NETWORK_LOCK.writeLock().lock();
+  public void freeDiskLock(Path... paths) {
+    diskPermits.release();
+    getPathLocks(paths).reverse().forEach(Lock::unlock);
   }
 
-  public static void freeUploadLock() {
-    NETWORK_LOCK.writeLock().unlock();
+  /**
+   * Waits for the locks of all given paths without taking a disk permit, for operations that keep a path for a long
+   * time but mostly wait for something else, like downloads. The same paths must be passed to
+   * {@link #freePathLock(Path...)} afterward.
+   */
+  public void acquirePathLock(Path... paths) {
+    getPathLocks(paths).forEach(Lock::lock);
   }
 
-  public static void acquireDiskLock() {
-    DISK_LOCK.lock();
+  public void freePathLock(Path... paths) {
+    getPathLocks(paths).reverse().forEach(Lock::unlock);
   }
 
-  public static void freeDiskLock() {
-    DISK_LOCK.unlock();
+  private ImmutableList<Lock> getPathLocks(Path... paths) {
+    return ImmutableList.copyOf(
+        pathLocks.bulkGet(Arrays.stream(paths).map(path -> path.toAbsolutePath().normalize()).toList()));
   }
 }
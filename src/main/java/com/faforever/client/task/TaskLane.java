@@ -0,0 +1,118 @@
+package com.faforever.client.task;
+
+import com.faforever.client.task.CompletableTask.ResourceClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Runs the tasks of one resource class, at most {@code maxConcurrentTasks} at a time. Queued tasks are started by
+ * priority and, within the same priority, in the order they have been submitted.
+ */
+@Slf4j
+class TaskLane {
+
+  private record QueuedTask(PrioritizedCompletableTask<?> task, long sequence, long queuedAtNanos) {}
+
+  private static final Comparator<QueuedTask> START_ORDER = Comparator.comparing(
+      (QueuedTask queuedTask) -> queuedTask.task().getPriority()).reversed().thenComparingLong(QueuedTask::sequence);
+
+  private final ResourceClass resourceClass;
+  private final int maxConcurrentTasks;
+  private final Executor executor;
+  private final Consumer<PrioritizedCompletableTask<?>> startListener;
+
+  private final PriorityQueue<QueuedTask> queue = new PriorityQueue<>(START_ORDER);
+  private long sequence;
+  private int runningTasks;
+
+  /**
+   * @param startListener called right before a task is run
+   */
+  TaskLane(ResourceClass resourceClass, int maxConcurrentTasks, Executor executor,
+           Consumer<PrioritizedCompletableTask<?>> startListener) {
+    this.resourceClass = resourceClass;
+    this.maxConcurrentTasks = maxConcurrentTasks;
+    this.executor = executor;
+    this.startListener = startListener;
+  }
+
+  void submit(PrioritizedCompletableTask<?> task) {
+    synchronized (this) {
+      queue.add(new QueuedTask(task, sequence++, System.nanoTime()));
+    }
+    startQueuedTasks();
+  }
+
+  /**
+   * Removes a task from the queue if it hasn't been started yet.
+   *
+   * @return whether the task was still queued
+   */
+  synchronized boolean remove(PrioritizedCompletableTask<?> task) {
+    return queue.removeIf(queuedTask -> queuedTask.task() == task);
+  }
+
+  synchronized int getQueueDepth() {
+    return queue.size();
+  }
+
+  synchronized int getRunningTasks() {
+    return runningTasks;
+  }
+
+  /**
+   * @return how long the task that has been queued the longest is waiting, {@link Duration#ZERO} if there is none
+   */
+  synchronized Duration getLongestWait() {
+    OptionalLong oldest = queue.stream().mapToLong(QueuedTask::queuedAtNanos).min();
+    return oldest.isPresent() ? Duration.ofNanos(System.nanoTime() - oldest.getAsLong()) : Duration.ZERO;
+  }
+
+  private void startQueuedTasks() {
+    while (true) {
+      QueuedTask next;
+      synchronized (this) {
+        if (runningTasks >= maxConcurrentTasks || queue.isEmpty()) {
+          return;
+        }
+        next = queue.poll();
+        runningTasks++;
+      }
+      run(next);
+    }
+  }
+
+  private void run(QueuedTask queuedTask) {
+    PrioritizedCompletableTask<?> task = queuedTask.task();
+    Duration waited = Duration.ofNanos(System.nanoTime() - queuedTask.queuedAtNanos());
+    try {
+      executor.execute(() -> {
+        try {
+          if (!task.isCancelled()) {
+            log.debug("Starting {} task `{}` after waiting {} ms", resourceClass, task.getTitle(), waited.toMillis());
+            startListener.accept(task);
+            task.run();
+          }
+        } finally {
+          onTaskFinished();
+        }
+      });
+    } catch (RuntimeException e) {
+      onTaskFinished();
+      throw e;
+    }
+  }
+
+  private void onTaskFinished() {
+    synchronized (this) {
+      runningTasks--;
+    }
+    startQueuedTasks();
+  }
+}
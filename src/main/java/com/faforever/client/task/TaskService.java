@@ -1,56 +1,120 @@
 package com.faforever.client.task;
 
 import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.task.CompletableTask.ResourceClass;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Worker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
 /**
  * Enqueues and runs tasks in background. Services that need to run a task (tasks that finish, not long-running
  * background jobs) in background should always submit them to this service.
  * <p>
- * There are different queues for different kind of tasks. For every queue, only one task is executed at a time.
+ * There is a queue for every {@link ResourceClass}, which runs a limited number of tasks at a time. Within a queue,
+ * tasks with a higher {@link CompletableTask.Priority} are started first.
  */
 @Lazy
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class TaskService {
+public class TaskService implements InitializingBean {
+
+  static final int MAX_CONCURRENT_DISK_TASKS = 2;
+  static final int MAX_CONCURRENT_NETWORK_TASKS = 4;
 
   private final ExecutorService taskExecutor;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
   private final ObservableList<Worker<?>> activeTasks = FXCollections.synchronizedObservableList(FXCollections.observableArrayList());
   private final ObservableList<Worker<?>> unmodifiableObservableList = FXCollections.unmodifiableObservableList(activeTasks);
+  private final Map<ResourceClass, TaskLane> lanes = new EnumMap<>(ResourceClass.class);
+
+  @Override
+  public void afterPropertiesSet() {
+    lanes.put(ResourceClass.CPU, new TaskLane(ResourceClass.CPU, Runtime.getRuntime().availableProcessors(),
+                                              taskExecutor, this::onTaskStarted));
+    lanes.put(ResourceClass.DISK, new TaskLane(ResourceClass.DISK, MAX_CONCURRENT_DISK_TASKS, taskExecutor,
+                                               this::onTaskStarted));
+    lanes.put(ResourceClass.NETWORK, new TaskLane(ResourceClass.NETWORK, MAX_CONCURRENT_NETWORK_TASKS, taskExecutor,
+                                                  this::onTaskStarted));
+  }
 
   /**
-   * Submits a task for execution in background.
+   * Submits a task for execution in background. Cancelling a task that has not been started yet removes it from its
+   * queue.
    *
    * @param <T> the task's result type
    * @param task the task to execute
    */
   public <T extends PrioritizedCompletableTask<?>> T submitTask(T task) {
+    TaskLane lane = lanes.get(task.getResourceClass());
     task.getFuture().whenComplete((o, throwable) -> {
+      lane.remove(task);
       activeTasks.remove(task);
       if (throwable != null) {
         log.error("Task failed", throwable);
       }
     });
     fxApplicationThreadExecutor.execute(() -> {
+      if (task.isDone()) {
+        return;
+      }
+      // Queue the task first so that listeners of the active workers see it in the queued task count
+      lane.submit(task);
       activeTasks.add(task);
-      taskExecutor.execute(task);
+      if (task.isDone()) {
+        activeTasks.remove(task);
+      }
     });
 
     return task;
   }
 
+  /**
+   * Moves tasks to the front of the active workers once they are running, so that the first active worker is always
+   * one that makes progress, if any does.
+   */
+  private void onTaskStarted(PrioritizedCompletableTask<?> task) {
+    fxApplicationThreadExecutor.execute(() -> {
+      if (activeTasks.remove(task)) {
+        activeTasks.add(0, task);
+      }
+    });
+  }
+
+  /**
+   * Active workers are the tasks that are running, followed by the tasks that are queued.
+   */
   public ObservableList<Worker<?>> getActiveWorkers() {
     return unmodifiableObservableList;
   }
+
+  /**
+   * @return the number of tasks that have been submitted but not yet started
+   */
+  public int getQueuedTaskCount() {
+    return lanes.values().stream().mapToInt(TaskLane::getQueueDepth).sum();
+  }
+
+  public int getQueuedTaskCount(ResourceClass resourceClass) {
+    return lanes.get(resourceClass).getQueueDepth();
+  }
+
+  /**
+   * @return how long the task that has been queued the longest is waiting to be started
+   */
+  public Duration getLongestQueueWait() {
+    return lanes.values().stream().map(TaskLane::getLongestWait).max(Comparator.naturalOrder()).orElse(Duration.ZERO);
+  }
 }
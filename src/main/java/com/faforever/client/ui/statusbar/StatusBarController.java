@@ -10,7 +10,11 @@ import com.faforever.client.net.ConnectionState;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.update.Version;
 import com.faforever.client.user.LoginService;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.concurrent.Worker;
@@ -21,6 +25,7 @@ import javafx.scene.control.MenuButton;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
+import javafx.util.Duration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
@@ -41,6 +46,9 @@ public class StatusBarController extends NodeController<Node> {
   private final TaskService taskService;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
+  private final Timeline queuedTasksTimeline = new Timeline(new KeyFrame(Duration.ZERO, event -> updateQueuedTasks()),
+                                                            new KeyFrame(Duration.seconds(1)));
+
   public Label chatConnectionStatusIcon;
   public Label fafConnectionStatusIcon;
   public MenuButton fafConnectionButton;
@@ -48,6 +56,7 @@ public class StatusBarController extends NodeController<Node> {
   public ProgressBar taskProgressBar;
   public Pane taskPane;
   public Label taskProgressLabel;
+  public Label taskQueueLabel;
   public Label versionLabel;
   public HBox root;
 
@@ -55,6 +64,7 @@ public class StatusBarController extends NodeController<Node> {
   protected void onInitialize() {
     setCurrentWorkerInStatusBar(null);
     versionLabel.setText(Version.getCurrentVersion());
+    queuedTasksTimeline.setCycleCount(Timeline.INDEFINITE);
 
     JavaFxUtil.addListener(loginService.connectionStateProperty(), (SimpleChangeListener<ConnectionState>) newValue -> fxApplicationThreadExecutor.execute(() -> {
       switch (newValue) {
@@ -99,6 +109,7 @@ public class StatusBarController extends NodeController<Node> {
       } else {
         setCurrentWorkerInStatusBar(runningWorkers.iterator().next());
       }
+      updateQueuedTasks();
     });
   }
 
@@ -135,6 +146,29 @@ public class StatusBarController extends NodeController<Node> {
     });
   }
 
+  /**
+   * Shows how many tasks are waiting for a free slot, and for how long the oldest of them is waiting. While tasks are
+   * queued, this is repeated every second so that the wait time keeps counting up.
+   */
+  private void updateQueuedTasks() {
+    fxApplicationThreadExecutor.execute(() -> {
+      int queuedTasks = taskService.getQueuedTaskCount();
+      long longestWaitSeconds = queuedTasks == 0 ? 0 : taskService.getLongestQueueWait().toSeconds();
+      taskQueueLabel.setVisible(queuedTasks > 0);
+      taskQueueLabel.setText(i18n.get("statusBar.queuedTasks.format", queuedTasks, longestWaitSeconds));
+      if (queuedTasks == 0) {
+        queuedTasksTimeline.stop();
+      } else if (queuedTasksTimeline.getStatus() != Animation.Status.RUNNING) {
+        queuedTasksTimeline.play();
+      }
+    });
+  }
+
+  @VisibleForTesting
+  Timeline getQueuedTasksTimeline() {
+    return queuedTasksTimeline;
+  }
+
   public void onFafReconnectClicked() {
     loginService.reconnectToLobby();
   }
@@ -29,7 +29,7 @@ public class CheckForBetaUpdateTask extends CompletableTask<UpdateInfo> {
 
   public CheckForBetaUpdateTask(OperatingSystem operatingSystem, PreferencesService preferencesService, I18n i18n,
                                 WebClient defaultWebClient) {
-    super(Priority.LOW);
+    super(Priority.LOW, ResourceClass.NETWORK);
     this.operatingSystem = operatingSystem;
     this.preferencesService = preferencesService;
     this.i18n = i18n;
@@ -27,7 +27,7 @@ public class CheckForUpdateTask extends CompletableTask<UpdateInfo> {
   private final OperatingSystem operatingSystem;
 
   public CheckForUpdateTask(I18n i18n, PreferencesService preferencesService, FileSizeReader fileSizeReader, OperatingSystem operatingSystem) {
-    super(Priority.LOW);
+    super(Priority.LOW, ResourceClass.NETWORK);
     this.i18n = i18n;
     this.preferencesService = preferencesService;
     this.fileSizeReader  = fileSizeReader;
@@ -26,15 +26,17 @@ public class DownloadUpdateTask extends CompletableTask<Path> {
 
   private final I18n i18n;
   private final DataPrefs dataPrefs;
+  private final ResourceLocks resourceLocks;
 
   private UpdateInfo updateInfo;
 
   @Autowired
-  public DownloadUpdateTask(I18n i18n, DataPrefs dataPrefs) {
-    super(Priority.MEDIUM);
+  public DownloadUpdateTask(I18n i18n, DataPrefs dataPrefs, ResourceLocks resourceLocks) {
+    super(Priority.MEDIUM, ResourceClass.NETWORK);
 
     this.i18n = i18n;
     this.dataPrefs = dataPrefs;
+    this.resourceLocks = resourceLocks;
   }
 
   @Override
@@ -48,7 +50,7 @@ public class DownloadUpdateTask extends CompletableTask<Path> {
 
     Path tempFile = Files.createTempFile(targetFile.getParent(), "update", null);
 
-      ResourceLocks.acquireDownloadLock();
+    resourceLocks.acquireHostPermit(url);
     try (InputStream inputStream = url.openStream(); OutputStream outputStream = Files.newOutputStream(tempFile)) {
       ByteCopier.from(inputStream)
           .to(outputStream)
@@ -58,7 +60,7 @@ public class DownloadUpdateTask extends CompletableTask<Path> {
 
       Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
     } finally {
-      ResourceLocks.freeDownloadLock();
+      resourceLocks.freeHostPermit(url);
       try {
         Files.deleteIfExists(tempFile);
       } catch (IOException e) {
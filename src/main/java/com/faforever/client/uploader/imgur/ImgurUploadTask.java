@@ -40,6 +40,7 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
 
   private final I18n i18n;
   private final ClientProperties clientProperties;
+  private final ResourceLocks resourceLocks;
 
   private Image image;
   private int maxUploadSize;
@@ -47,12 +48,14 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
   private String clientId;
 
   @Autowired
-  public ImgurUploadTask(I18n i18n, ClientProperties clientProperties, ObjectMapper objectMapper) {
-    super(Priority.HIGH);
+  public ImgurUploadTask(I18n i18n, ClientProperties clientProperties, ObjectMapper objectMapper,
+                         ResourceLocks resourceLocks) {
+    super(Priority.HIGH, ResourceClass.NETWORK);
 
     this.i18n = i18n;
     this.clientProperties = clientProperties;
     this.objectMapper = objectMapper;
+    this.resourceLocks = resourceLocks;
   }
 
   @Override
@@ -90,7 +93,7 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
     urlConnection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
     urlConnection.connect();
 
-    ResourceLocks.acquireUploadLock();
+    resourceLocks.acquireHostPermit(url);
     try (OutputStream outputStream = urlConnection.getOutputStream()) {
       byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
       ByteCopier.from(new ByteArrayInputStream(bytes))
@@ -99,7 +102,7 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
           .listener(this::updateProgress)
           .copy();
     } finally {
-      ResourceLocks.freeUploadLock();
+      resourceLocks.freeHostPermit(url);
     }
 
     StringBuilder stringBuilder = new StringBuilder();
@@ -0,0 +1,166 @@
+package com.faforever.client.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache for values that are expensive to read from a file, like the result of running a lua file. Values are
+ * stored by key, usually the folder that has been scanned, together with the last modified time and size of the file
+ * they were read from, and are only returned as long as that file doesn't change. The cache is read from disk on first
+ * use and only written by {@link #save()}. Thread safe.
+ *
+ * @param <T> the cached value, must be serializable by Jackson
+ */
+@Slf4j
+public class FileScanCache<T> {
+
+  private final Path cacheFile;
+  private final int version;
+  private final ObjectMapper objectMapper;
+  private final JavaType cacheFileType;
+  private final Map<String, Entry<T>> entriesByKey = new ConcurrentHashMap<>();
+
+  private volatile boolean loaded;
+  private volatile boolean dirty;
+
+  public record Entry<T>(String key, String file, long lastModified, long size, T value) {}
+
+  record CacheFile<T>(int version, List<Entry<T>> entries) {}
+
+  /**
+   * @param version must be increased whenever the stored format or the way values are read changes, outdated cache
+   * files are discarded
+   */
+  public FileScanCache(Path cacheFile, int version, ObjectMapper objectMapper, Class<T> valueType) {
+    this.cacheFile = cacheFile;
+    this.version = version;
+    this.objectMapper = objectMapper;
+    this.cacheFileType = objectMapper.getTypeFactory().constructParametricType(CacheFile.class, valueType);
+  }
+
+  /**
+   * @return the value stored for the given key, if the file it has been read from did not change since
+   */
+  public Optional<T> get(Path key) {
+    ensureLoaded();
+    Entry<T> entry = entriesByKey.get(key.toString());
+    if (entry == null) {
+      return Optional.empty();
+    }
+
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(Path.of(entry.file()), BasicFileAttributes.class);
+      if (attributes.lastModifiedTime().toMillis() != entry.lastModified() || attributes.size() != entry.size()) {
+        return Optional.empty();
+      }
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      log.debug("Could not read attributes of `{}`", entry.file(), e);
+      return Optional.empty();
+    }
+    return Optional.of(entry.value());
+  }
+
+  /**
+   * Stores the value that has just been read from the given file.
+   */
+  public void put(Path key, Path file, T value) {
+    ensureLoaded();
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      entriesByKey.put(key.toString(), new Entry<>(key.toString(), file.toString(),
+                                                   attributes.lastModifiedTime().toMillis(), attributes.size(),
+                                                   value));
+      dirty = true;
+    } catch (IOException e) {
+      log.debug("Could not cache `{}`", file, e);
+    }
+  }
+
+  public void remove(Path key) {
+    ensureLoaded();
+    if (entriesByKey.remove(key.toString()) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Drops the entries of all keys that are not in the given collection.
+   */
+  public void retainAll(Collection<Path> keys) {
+    ensureLoaded();
+    Set<String> retainedKeys = keys.stream().map(Path::toString).collect(Collectors.toSet());
+    if (entriesByKey.keySet().retainAll(retainedKeys)) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Writes the cache to disk if it changed since it has last been written.
+   */
+  public synchronized void save() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    try {
+      Path cacheDirectory = Files.createDirectories(cacheFile.getParent());
+      Path temporaryCacheFile = Files.createTempFile(cacheDirectory, cacheFile.getFileName().toString(), ".tmp");
+      try {
+        objectMapper.writeValue(temporaryCacheFile.toFile(),
+                                new CacheFile<>(version, List.copyOf(entriesByKey.values())));
+        Files.move(temporaryCacheFile, cacheFile, StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporaryCacheFile);
+      }
+    } catch (IOException e) {
+      log.warn("Could not write cache file `{}`", cacheFile, e);
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      if (Files.exists(cacheFile)) {
+        try {
+          CacheFile<T> cache = objectMapper.readValue(cacheFile.toFile(), cacheFileType);
+          if (cache.version() == version) {
+            cache.entries()
+                 .stream()
+                 .collect(Collectors.toMap(Entry::key, Function.identity(), (first, second) -> second))
+                 .forEach(entriesByKey::putIfAbsent);
+          } else {
+            log.info("Discarding outdated cache file `{}`", cacheFile);
+          }
+        } catch (IOException e) {
+          log.warn("Could not read cache file `{}`, rebuilding it", cacheFile, e);
+        }
+      }
+      loaded = true;
+    }
+  }
+}
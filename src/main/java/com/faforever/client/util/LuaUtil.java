@@ -1,20 +1,24 @@
 package com.faforever.client.util;
 
-import com.google.common.io.CharStreams;
 import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaClosure;
 import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.LuaC;
 import org.luaj.vm2.lib.jse.JsePlatform;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 public final class LuaUtil {
 
+  /**
+   * {@code faf.lua} is run before every loaded file, so it is compiled only once.
+   */
+  private static volatile Prototype fafLuaPrototype;
+
   private LuaUtil() {
     throw new AssertionError("Not instantiatable");
   }
@@ -27,8 +31,19 @@ public final class LuaUtil {
 
   public static LuaValue load(InputStream inputStream) throws IOException {
     Globals globals = JsePlatform.standardGlobals();
-    globals.baselib.load(globals.load(CharStreams.toString(new InputStreamReader(LuaUtil.class.getResourceAsStream("/lua/faf.lua"), UTF_8))));
+    globals.baselib.load(new LuaClosure(getFafLuaPrototype(), globals));
     globals.load(inputStream, "@" + inputStream.hashCode(), "bt", globals).invoke();
     return globals;
   }
+
+  private static Prototype getFafLuaPrototype() throws IOException {
+    Prototype prototype = fafLuaPrototype;
+    if (prototype == null) {
+      try (InputStream inputStream = LuaUtil.class.getResourceAsStream("/lua/faf.lua")) {
+        prototype = LuaC.instance.compile(inputStream, "@faf.lua");
+      }
+      fafLuaPrototype = prototype;
+    }
+    return prototype;
+  }
 }
@@ -7,7 +7,9 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -23,18 +25,22 @@ public class UpdaterUtil {
    *
    * @param filePath the zip file to extract the movies directory from
    * @param fafDataDirectory the path to the FAF data directory
+   * @return the files that have been extracted
    * @throws IOException
    */
-  public static void extractMoviesAndSoundsIfPresent(Path filePath, Path fafDataDirectory) throws IOException {
+  public static List<Path> extractMoviesAndSoundsIfPresent(Path filePath, Path fafDataDirectory) throws IOException {
+    List<Path> extractedFiles = new ArrayList<>();
     try (ZipFile downloadedFile = new ZipFile(filePath.toFile())) {
-      extractFilesInEntry(fafDataDirectory, downloadedFile, MOVIES_FOLDER_NAME);
-      extractFilesInEntry(fafDataDirectory, downloadedFile, SOUNDS_FOLDER_NAME);
+      extractFilesInEntry(fafDataDirectory, downloadedFile, MOVIES_FOLDER_NAME, extractedFiles);
+      extractFilesInEntry(fafDataDirectory, downloadedFile, SOUNDS_FOLDER_NAME, extractedFiles);
     } catch (ZipException e) {
       log.info("File was not zip file: {}", filePath);
     }
+    return extractedFiles;
   }
 
-  private static void extractFilesInEntry(Path fafDataDirectory, ZipFile downloadedFile, String topEntryName) throws IOException {
+  private static void extractFilesInEntry(Path fafDataDirectory, ZipFile downloadedFile, String topEntryName,
+                                          List<Path> extractedFiles) throws IOException {
     ZipEntry movieEntry = downloadedFile.getEntry(topEntryName);
     if (movieEntry != null && movieEntry.isDirectory()) {
       Enumeration<? extends ZipEntry> entries = downloadedFile.entries();
@@ -49,6 +55,7 @@ public class UpdaterUtil {
         } else {
           InputStream inputStream = downloadedFile.getInputStream(nextEntry);
           Files.copy(inputStream, fafDataDirectory.resolve(entryName), StandardCopyOption.REPLACE_EXISTING);
+          extractedFiles.add(fafDataDirectory.resolve(entryName));
         }
       } while (entries.hasMoreElements());
     }
@@ -0,0 +1,253 @@
+package com.faforever.client.api;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.JsonApiConfig;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.api.dto.MeResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import io.netty.resolver.DefaultAddressResolverGroup;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ApiResponseCacheTest extends ServiceTest {
+
+  private static final String JSONAPI_CONTENT_TYPE = "application/vnd.api+json;charset=utf-8";
+
+  @TempDir
+  public Path tempDirectory;
+
+  private final ClientProperties clientProperties = new ClientProperties();
+  private final DataPrefs dataPrefs = new DataPrefs();
+
+  private MockWebServer mockApi;
+  private ObjectMapper objectMapper;
+  private ResourceConverter resourceConverter;
+  private JsonApiReader jsonApiReader;
+  private ApiResponseCache instance;
+  private WebClient webClient;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    mockApi = new MockWebServer();
+    mockApi.start();
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+
+    objectMapper = new ObjectMapper();
+    objectMapper.registerModule(new JavaTimeModule());
+    resourceConverter = new JsonApiConfig().resourceConverter(objectMapper);
+    jsonApiReader = new JsonApiReader(resourceConverter);
+
+    createInstance();
+  }
+
+  @AfterEach
+  public void killServer() throws IOException {
+    mockApi.shutdown();
+  }
+
+  private void createInstance() {
+    instance = new ApiResponseCache(clientProperties, dataPrefs, objectMapper, jsonApiReader);
+    HttpClient httpClient = HttpClient.create().resolver(DefaultAddressResolverGroup.INSTANCE);
+    webClient = WebClient.builder()
+        .baseUrl(String.format("http://localhost:%s", mockApi.getPort()))
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .codecs(clientCodecConfigurer -> clientCodecConfigurer.customCodecs().register(jsonApiReader))
+        .filter(instance)
+        .build();
+  }
+
+  private MockResponse jsonApiResponse(String id) throws Exception {
+    byte[] body = resourceConverter.writeDocument(new JSONAPIDocument<>(new MeResult().setId(id)));
+    return new MockResponse().setBody(new String(body)).addHeader("Content-Type", JSONAPI_CONTENT_TYPE);
+  }
+
+  private void expectMe(String id) {
+    StepVerifier.create(webClient.get().uri("/me").retrieve().bodyToMono(MeResult.class))
+        .expectNextMatches(meResult -> meResult.getId().equals(id))
+        .verifyComplete();
+  }
+
+  @Test
+  public void testFreshResponseIsServedLocally() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "max-age=3600"));
+
+    for (int i = 0; i < 10; i++) {
+      expectMe("1");
+    }
+
+    assertThat(mockApi.getRequestCount(), is(1));
+    assertThat(instance.getMisses(), is(1L));
+    assertThat(instance.getLocalHits(), is(9L));
+  }
+
+  @Test
+  public void testStaleResponseIsRevalidatedWithETag() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("ETag", "\"v1\""));
+    mockApi.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+    mockApi.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+
+    expectMe("1");
+    expectMe("1");
+    expectMe("1");
+
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), nullValue());
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), is("\"v1\""));
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), is("\"v1\""));
+    assertThat(instance.getMisses(), is(1L));
+    assertThat(instance.getRevalidatedHits(), is(2L));
+  }
+
+  @Test
+  public void testChangedResponseReplacesCachedResponse() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("ETag", "\"v1\""));
+    mockApi.enqueue(jsonApiResponse("2").addHeader("ETag", "\"v2\""));
+    mockApi.enqueue(new MockResponse().setResponseCode(304));
+
+    expectMe("1");
+    expectMe("2");
+    expectMe("2");
+
+    mockApi.takeRequest(1, TimeUnit.SECONDS);
+    mockApi.takeRequest(1, TimeUnit.SECONDS);
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), is("\"v2\""));
+  }
+
+  @Test
+  public void testCacheIsPersisted() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "max-age=3600"));
+    expectMe("1");
+
+    createInstance();
+    expectMe("1");
+
+    assertThat(mockApi.getRequestCount(), is(1));
+    assertThat(instance.getLocalHits(), is(1L));
+  }
+
+  @Test
+  public void testNoCacheResponseIsAlwaysRevalidated() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "no-cache, max-age=3600")
+                                         .addHeader("Last-Modified", "Mon, 01 Jan 2024 00:00:00 GMT"));
+    mockApi.enqueue(new MockResponse().setResponseCode(304));
+
+    expectMe("1");
+    expectMe("1");
+
+    mockApi.takeRequest(1, TimeUnit.SECONDS);
+    RecordedRequest revalidation = mockApi.takeRequest(1, TimeUnit.SECONDS);
+    assertThat(revalidation.getHeader("If-Modified-Since"), is("Mon, 01 Jan 2024 00:00:00 GMT"));
+    assertThat(instance.getLocalHits(), is(0L));
+    assertThat(instance.getRevalidatedHits(), is(1L));
+  }
+
+  @Test
+  public void testPrivateResponseIsNotCached() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "private, max-age=3600")
+                                         .addHeader("ETag", "\"v1\""));
+    mockApi.enqueue(jsonApiResponse("2"));
+
+    expectMe("1");
+    expectMe("2");
+
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), nullValue());
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), nullValue());
+    assertThat(Files.exists(dataPrefs.getApiCacheDirectory()), is(false));
+  }
+
+  @Test
+  public void testResponseVaryingByAuthorizationIsNotCached() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "max-age=3600").addHeader("Vary", "Authorization"));
+    mockApi.enqueue(jsonApiResponse("2"));
+
+    expectMe("1");
+    expectMe("2");
+
+    assertThat(mockApi.getRequestCount(), is(2));
+    assertThat(instance.getLocalHits(), is(0L));
+  }
+
+  @Test
+  public void testCancelledResponseIsNotCached() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "max-age=3600"));
+    mockApi.enqueue(jsonApiResponse("2").addHeader("Cache-Control", "max-age=3600"));
+
+    StepVerifier.create(webClient.get().uri("/me").retrieve().bodyToFlux(DataBuffer.class), 0)
+        .thenCancel()
+        .verify();
+    expectMe("2");
+
+    assertThat(mockApi.getRequestCount(), is(2));
+    try (Stream<Path> entries = Files.list(dataPrefs.getApiCacheDirectory())) {
+      assertThat(entries.count(), is(1L));
+    }
+  }
+
+  @Test
+  public void testNoStoreResponseIsNotCached() throws Exception {
+    mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "no-store").addHeader("ETag", "\"v1\""));
+    mockApi.enqueue(jsonApiResponse("1"));
+
+    expectMe("1");
+    expectMe("1");
+
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), nullValue());
+    assertThat(mockApi.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"), nullValue());
+    assertThat(instance.getMisses(), is(2L));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedResponseIsEvicted() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      mockApi.enqueue(jsonApiResponse("1").addHeader("Cache-Control", "max-age=3600"));
+    }
+
+    getMe("/me?0");
+    long entrySize;
+    try (Stream<Path> entries = Files.list(dataPrefs.getApiCacheDirectory())) {
+      entrySize = Files.size(entries.findFirst().orElseThrow());
+    }
+    // Room for eight responses
+    clientProperties.getApi().setResponseCacheMaxBytes(8 * entrySize + entrySize / 2);
+    for (int i = 1; i < 8; i++) {
+      getMe("/me?" + i);
+    }
+    getMe("/me?0");
+    getMe("/me?8");
+    getMe("/me?0");
+    getMe("/me?1");
+
+    // 1 has been evicted when 8 was stored, as 0 was used more recently
+    assertThat(mockApi.getRequestCount(), is(10));
+    assertThat(instance.getLocalHits(), is(2L));
+  }
+
+  private void getMe(String uri) {
+    StepVerifier.create(webClient.get().uri(uri).retrieve().bodyToMono(MeResult.class))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+}
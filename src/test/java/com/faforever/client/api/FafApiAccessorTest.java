@@ -11,6 +11,7 @@ import com.faforever.commons.api.dto.ApiException;
 import com.faforever.commons.api.dto.Game;
 import com.faforever.commons.api.dto.GameReview;
 import com.faforever.commons.api.dto.MeResult;
+import com.faforever.commons.api.dto.Player;
 import com.faforever.commons.api.elide.ElideNavigator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -34,6 +35,8 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.testfx.util.WaitForAsyncUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.test.StepVerifier;
 
@@ -217,6 +220,58 @@ public class FafApiAccessorTest extends ServiceTest {
     assertEquals("test", requestedUrl.queryParameter("param"));
   }
 
+  private static Player player(String id) {
+    Player player = new Player();
+    player.setId(id);
+    player.setLogin("player" + id);
+    return player;
+  }
+
+  @Test
+  public void testGetManyByKeyBatchesLookups() throws Exception {
+    prepareJsonApiResponse(List.of(player("1"), player("2")));
+
+    Mono<List<List<Player>>> lookups = Flux.just(1, 2, 1, 3)
+        .flatMapSequential(id -> instance.getManyByKey(Player.class, "id", id, Player::getId).collectList())
+        .collectList();
+
+    StepVerifier.create(lookups)
+        .assertNext(players -> {
+          assertEquals(List.of("1"), players.get(0).stream().map(Player::getId).toList());
+          assertEquals(List.of("2"), players.get(1).stream().map(Player::getId).toList());
+          assertEquals(List.of("1"), players.get(2).stream().map(Player::getId).toList());
+          assertEquals(List.of(), players.get(3));
+        })
+        .verifyComplete();
+    assertEquals(1, mockApi.getRequestCount());
+    HttpUrl requestedUrl = mockApi.takeRequest().getRequestUrl();
+    assertThat(requestedUrl.queryParameter("filter"), containsString("id=in=(1,2,3)"));
+  }
+
+  @Test
+  public void testGetManyByKeySplitsLargeBatches() throws Exception {
+    clientProperties.getApi().setMaxLookupBatchSize(2);
+    instance.afterPropertiesSet();
+    prepareJsonApiResponse(List.of(player("1"), player("2")));
+    prepareJsonApiResponse(List.of(player("3")));
+
+    StepVerifier.create(Flux.just(1, 2, 3)
+                            .flatMapSequential(id -> instance.getManyByKey(Player.class, "id", id, Player::getId))
+                            .map(Player::getId))
+        .expectNext("1", "2", "3")
+        .verifyComplete();
+    assertEquals(2, mockApi.getRequestCount());
+  }
+
+  @Test
+  public void testGetManyByKeyIgnoresCaseOfStringKeys() throws Exception {
+    prepareJsonApiResponse(List.of(player("1")));
+
+    StepVerifier.create(instance.getManyByKey(Player.class, "login", "PLAYER1", Player::getLogin).map(Player::getId))
+        .expectNext("1")
+        .verifyComplete();
+  }
+
   @Test
   public void testGetManyNavigatorEnrichment() throws Exception {
     FafApiAccessor.FILTERS.forEach((clazz, filters) -> {
@@ -0,0 +1,151 @@
+package com.faforever.client.api;
+
+import com.faforever.client.config.JsonApiConfig;
+import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.api.dto.LeaderboardEntry;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.exceptions.ResourceParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class JsonApiReaderTest extends ServiceTest {
+
+  private static final ResolvableType ELEMENT_TYPE = ResolvableType.forClass(LeaderboardEntry.class);
+  private static final String LEADERBOARD = """
+      {"type":"leaderboard","id":"1","attributes":{"technicalName":"ladder_1v1"}}""";
+
+  private JsonApiReader instance;
+
+  @BeforeEach
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                                                  .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    instance = new JsonApiReader(new JsonApiConfig().resourceConverter(objectMapper));
+  }
+
+  private static String entries(int count) {
+    return String.join(",", IntStream.rangeClosed(1, count).mapToObj("""
+        {"type":"leaderboardRating","id":"%d","attributes":{"rating":1000.5,"totalGames":%1$d},\
+        "relationships":{"leaderboard":{"data":{"type":"leaderboard","id":"1"}}}}"""::formatted).toList());
+  }
+
+  private static MockClientHttpResponse response(String document, int chunkSize) {
+    byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+    List<DataBuffer> chunks = new ArrayList<>();
+    for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+      byte[] chunk = new byte[Math.min(chunkSize, bytes.length - offset)];
+      System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+      chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+    }
+
+    MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+    response.getHeaders().setContentType(MediaType.parseMediaType("application/vnd.api+json;charset=utf-8"));
+    response.setBody(Flux.fromIterable(chunks));
+    return response;
+  }
+
+  @Test
+  public void testReadResolvesRelationshipsAcrossBatches() {
+    int count = JsonApiReader.BATCH_SIZE * 2 + 10;
+    String document = """
+        {"data":[%s],"included":[%s],"meta":{"page":{"totalPages":1}}}""".formatted(entries(count), LEADERBOARD);
+
+    List<Object> entries = instance.read(ELEMENT_TYPE, response(document, 7), Map.of()).collectList().block();
+
+    assertThat(entries, hasSize(count));
+    List<LeaderboardEntry> leaderboardEntries = entries.stream().map(LeaderboardEntry.class::cast).toList();
+    assertThat(leaderboardEntries.getFirst().getTotalGames(), is(1));
+    assertThat(leaderboardEntries.getLast().getTotalGames(), is(count));
+    assertThat(leaderboardEntries.stream().map(LeaderboardEntry::getLeaderboard).toList(), everyItem(notNullValue()));
+    assertThat(leaderboardEntries.getLast().getLeaderboard().getTechnicalName(), is("ladder_1v1"));
+  }
+
+  @Test
+  public void testReadEmitsBatchesBeforeDocumentIsComplete() {
+    String document = """
+        {"included":[%s],"data":[%s]}""".formatted(LEADERBOARD, entries(JsonApiReader.BATCH_SIZE + 1));
+    // The document ends in the middle of its last resource
+    MockClientHttpResponse response = response(document.substring(0, document.length() - 20), 64);
+
+    StepVerifier.create(instance.read(ELEMENT_TYPE, response, Map.of()))
+                .expectNextCount(JsonApiReader.BATCH_SIZE)
+                .verifyError();
+  }
+
+  @Test
+  public void testReadWithoutIncludesEmitsBatchesBeforeDocumentIsComplete() {
+    String document = """
+        {"data":[%s],"meta":{"page":{"totalPages":1}}}""".formatted(entries(JsonApiReader.BATCH_SIZE + 1));
+    // The document ends in the middle of its last resource
+    MockClientHttpResponse response = response(document.substring(0, document.length() - 40), 64);
+
+    StepVerifier.create(instance.read(ELEMENT_TYPE, response, Map.of())
+                                .contextWrite(JsonApiReader.includesRequested("/data/leaderboardRating")))
+                .assertNext(entry -> assertThat(((LeaderboardEntry) entry).getLeaderboard().getId(), is("1")))
+                .expectNextCount(JsonApiReader.BATCH_SIZE - 1)
+                .verifyError();
+  }
+
+  @Test
+  public void testReadWithIncludesWaitsForIncludedResources() {
+    String document = """
+        {"data":[%s],"included":[%s]}""".formatted(entries(JsonApiReader.BATCH_SIZE + 1), LEADERBOARD);
+    MockClientHttpResponse response = response(document.substring(0, document.length() - 20), 64);
+    String uri = "/data/leaderboardRating?include=leaderboard";
+
+    // The included resources are never completely read, so no batch is emitted
+    StepVerifier.create(instance.read(ELEMENT_TYPE, response, Map.of())
+                                .contextWrite(JsonApiReader.includesRequested(uri)))
+                .verifyError();
+  }
+
+  @Test
+  public void testReadEmptyBody() {
+    StepVerifier.create(instance.read(ELEMENT_TYPE, response("", 1), Map.of())).verifyComplete();
+  }
+
+  @Test
+  public void testReadErrors() {
+    String document = """
+        {"errors":[{"title":"Invalid filter","detail":"Unknown field"}]}""";
+
+    StepVerifier.create(instance.read(ELEMENT_TYPE, response(document, 16), Map.of()))
+                .verifyError(ResourceParseException.class);
+  }
+
+  @Test
+  public void testReadMonoDocument() {
+    String document = """
+        {"data":[%s],"included":[%s],"meta":{"page":{"totalPages":3}}}""".formatted(entries(3), LEADERBOARD);
+
+    Object result = instance.readMono(ResolvableType.forClass(JSONAPIDocument.class), response(document, 5), Map.of())
+                            .block();
+
+    JSONAPIDocument<?> jsonApiDocument = (JSONAPIDocument<?>) result;
+    assertThat((List<?>) jsonApiDocument.get(), hasSize(3));
+    assertThat(jsonApiDocument.getMeta().get("page"), is(Map.of("totalPages", 3)));
+  }
+}
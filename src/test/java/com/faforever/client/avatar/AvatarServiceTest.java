@@ -56,7 +56,7 @@ public class AvatarServiceTest extends ServiceTest {
                                                     .toURI()
                                                     .toURL()).create();
     instance.loadAvatar(avatar);
-    verify(assetService).loadAndCacheImage(avatar.url(), Path.of("avatars"));
+    verify(assetService).loadAndCacheImage(avatar.url(), Path.of("avatars"), null, 40, 20);
   }
 
   @Test
@@ -18,6 +18,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -60,6 +61,40 @@ public class ChatChannelTest extends DomainTest {
     assertThat(channel.getMessages(), contains(message3));
   }
 
+  @Test
+  public void testOlderMessagesAreKeptUntilDiscarded() {
+    ChatChannel channel = new ChatChannel("#test");
+    channel.setMaxNumMessages(1);
+    ChatChannelUser sender = ChatChannelUserBuilder.create("", channel).defaultValues().get();
+    Instant now = Instant.now();
+    ChatMessage message1 = new ChatMessage("1", now.minusSeconds(2), sender, "1", Type.MESSAGE, null);
+    ChatMessage message2 = new ChatMessage("2", now.minusSeconds(1), sender, "2", Type.MESSAGE, null);
+    ChatMessage message3 = new ChatMessage("3", now, sender, "3", Type.MESSAGE, null);
+    channel.addMessage(message3);
+
+    assertEquals(2, channel.addOlderMessages(List.of(message1, message2, message3)));
+    assertThat(channel.getMessages(), contains(message1, message2, message3));
+
+    channel.discardOlderMessages();
+
+    assertThat(channel.getMessages(), contains(message3));
+  }
+
+  @Test
+  public void testRestoredMessagesDoNotReplaceMessages() {
+    ChatChannel channel = new ChatChannel("#test");
+    ChatChannelUser sender = ChatChannelUserBuilder.create("", channel).defaultValues().get();
+    ChatMessage message = new ChatMessage("1", Instant.now(), sender, "1", Type.MESSAGE, null);
+    ChatMessage restoredMessage = new ChatMessage("1", message.getTime(), sender, "1", Type.MESSAGE, null);
+    ChatMessage olderRestoredMessage = new ChatMessage("0", Instant.EPOCH, sender, "0", Type.MESSAGE, null);
+    channel.addMessage(message);
+
+    channel.restoreMessages(List.of(olderRestoredMessage, restoredMessage));
+
+    assertThat(channel.getMessages(), contains(olderRestoredMessage, message));
+    assertThat(channel.getMessages().get(1), sameInstance(message));
+  }
+
   @Test
   public void testTypingUsers() {
     ChatChannel channel = new ChatChannel("#test");
@@ -0,0 +1,152 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.builders.ChatChannelUserBuilder;
+import com.faforever.client.chat.ChatMessage.Type;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.faforever.client.user.LoginService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.lenient;
+
+public class ChatHistoryTest extends ServiceTest {
+
+  private static final String CHANNEL_NAME = "#test";
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+  @TempDir
+  public Path tempDirectory;
+
+  @Mock
+  private LoginService loginService;
+
+  private final DataPrefs dataPrefs = new DataPrefs();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ChatHistory instance;
+  private ChatChannelUser sender;
+
+  @BeforeEach
+  public void setUp() {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    lenient().when(loginService.getUsername()).thenReturn("junit");
+    sender = ChatChannelUserBuilder.create("sender", new ChatChannel(CHANNEL_NAME)).defaultValues().get();
+
+    instance = new ChatHistory(dataPrefs, loginService, objectMapper);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    instance.destroy();
+  }
+
+  @Test
+  public void testGetLatest() {
+    ChatMessage first = message("1", 1);
+    ChatMessage reply = new ChatMessage("2", NOW.plusSeconds(2), sender, "reply", Type.ACTION, first);
+    instance.append(CHANNEL_NAME, first);
+    instance.append(CHANNEL_NAME, reply);
+    instance.append(CHANNEL_NAME, message("3", 3));
+
+    assertThat(ids(instance.getLatest(CHANNEL_NAME, 2)), contains("2", "3"));
+    assertThat(instance.getLatest(CHANNEL_NAME, 2).getFirst(),
+               is(new ChatHistoryEntry("2", NOW.plusSeconds(2).toEpochMilli(), "sender", "reply", Type.ACTION, "1")));
+    assertThat(instance.getLatest("#other", 2), is(empty()));
+  }
+
+  @Test
+  public void testDuplicateAndPendingMessagesAreNotAppended() {
+    instance.append(CHANNEL_NAME, message("1", 1));
+    instance.append(CHANNEL_NAME, message("1", 1));
+    instance.append(CHANNEL_NAME, new ChatMessage("2", NOW, sender, "pending", Type.PENDING, null));
+
+    assertThat(ids(instance.getLatest(CHANNEL_NAME, 10)), contains("1"));
+  }
+
+  @Test
+  public void testMessagesAreOrderedByTime() {
+    instance.append(CHANNEL_NAME, message("3", 3));
+    instance.append(CHANNEL_NAME, message("1", 1));
+    instance.append(CHANNEL_NAME, message("2", 2));
+
+    assertThat(ids(instance.getLatest(CHANNEL_NAME, 10)), contains("1", "2", "3"));
+  }
+
+  @Test
+  public void testGetBefore() {
+    for (int i = 0; i < 10; i++) {
+      instance.append(CHANNEL_NAME, message(String.valueOf(i), i));
+    }
+
+    assertThat(ids(instance.getBefore(CHANNEL_NAME, message("5", 5), 3)), contains("2", "3", "4"));
+    assertThat(ids(instance.getBefore(CHANNEL_NAME, message("2", 2), 3)), contains("0", "1"));
+    // Messages that are not in the history, like pending ones, are looked up by their time
+    assertThat(ids(instance.getBefore(CHANNEL_NAME, message("unknown", 7), 2)), contains("5", "6"));
+  }
+
+  @Test
+  public void testHistoryIsPersistedPerUser() {
+    instance.append(CHANNEL_NAME, message("1", 1));
+    instance.destroy();
+
+    instance = new ChatHistory(dataPrefs, loginService, objectMapper);
+    assertThat(ids(instance.getLatest(CHANNEL_NAME, 10)), contains("1"));
+
+    lenient().when(loginService.getUsername()).thenReturn("other");
+    assertThat(instance.getLatest(CHANNEL_NAME, 10), is(empty()));
+  }
+
+  @Test
+  public void testIncompleteLastLineIsCutOff() throws Exception {
+    instance.append(CHANNEL_NAME, message("1", 1));
+    instance.destroy();
+    Path historyFile = dataPrefs.getChatHistoryDirectory().resolve("junit").resolve("%23test.jsonl");
+    Files.writeString(historyFile, "{\"id\":\"2\",\"ti", StandardOpenOption.APPEND);
+
+    instance = new ChatHistory(dataPrefs, loginService, objectMapper);
+    instance.append(CHANNEL_NAME, message("3", 3));
+
+    assertThat(ids(instance.getLatest(CHANNEL_NAME, 10)), contains("1", "3"));
+  }
+
+  @Test
+  public void testLogIsCompactedToMaxEntries() throws Exception {
+    Path historyFile = tempDirectory.resolve("history.jsonl");
+    try (ChatHistoryLog historyLog = ChatHistoryLog.open(historyFile, objectMapper, 2)) {
+      for (int i = 0; i < 5; i++) {
+        historyLog.append(new ChatHistoryEntry(String.valueOf(i), i, "sender", "content", Type.MESSAGE, null));
+      }
+    }
+
+    try (ChatHistoryLog historyLog = ChatHistoryLog.open(historyFile, objectMapper, 2)) {
+      assertThat(historyLog.size(), is(2));
+      assertThat(ids(historyLog.readLatest(10)), contains("3", "4"));
+      historyLog.append(new ChatHistoryEntry("5", 5, "sender", "content", Type.MESSAGE, null));
+      assertThat(ids(historyLog.readLatest(10)), contains("3", "4", "5"));
+    }
+    assertThat(Files.readAllLines(historyFile).size(), is(3));
+  }
+
+  private ChatMessage message(String id, long secondsAfterNow) {
+    return new ChatMessage(id, NOW.plusSeconds(secondsAfterNow), sender, id, Type.MESSAGE, null);
+  }
+
+  private static List<String> ids(List<ChatHistoryEntry> entries) {
+    return entries.stream().map(ChatHistoryEntry::id).toList();
+  }
+}
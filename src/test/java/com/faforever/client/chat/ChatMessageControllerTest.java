@@ -39,7 +39,6 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -51,6 +50,7 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentCaptor.captor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -93,8 +93,6 @@ public class ChatMessageControllerTest extends PlatformTest {
     lenient().when(countryFlagService.loadCountryFlag(any())).thenReturn(Optional.empty());
     lenient().when(timeService.asShortTime(any())).thenReturn("12:00");
     lenient().when(chatService.getCurrentUsername()).thenReturn("junit");
-    lenient().when(chatService.getMentionPattern())
-             .thenReturn(Pattern.compile("(^|[^A-Za-z0-9-])junit([^A-Za-z0-9-]|$)"));
     lenient().when(timeService.asShortTime(any())).thenReturn("now");
     lenient().when(imageViewHelper.createPlaceholderImageOnErrorObservable(any()))
              .thenReturn(new SimpleObjectProperty<>(image));
@@ -216,7 +214,7 @@ public class ChatMessageControllerTest extends PlatformTest {
   @Test
   public void testEmoticon() {
     when(emoticonService.isEmoticonShortcode(any())).thenReturn(true);
-    when(emoticonService.getImageByShortcode(any())).thenReturn(image);
+    when(emoticonService.getImageByShortcode(any(), anyInt())).thenReturn(image);
 
     runOnFxThreadAndWait(
         () -> instance.setChatMessage(new ChatMessage(null, Instant.now(), user, ":)", Type.MESSAGE, null)));
@@ -237,7 +235,7 @@ public class ChatMessageControllerTest extends PlatformTest {
     assertThat(imageView.getFitHeight(), equalTo(24d));
     assertThat(imageView.getFitWidth(), equalTo(24d));
 
-    verify(emoticonService).getImageByShortcode(":)");
+    verify(emoticonService).getImageByShortcode(":)", 24);
   }
 
   @Test
@@ -0,0 +1,120 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.builders.ChatChannelUserBuilder;
+import com.faforever.client.chat.ChatMessage.Type;
+import com.faforever.client.test.DomainTest;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class ChatMessageStoreTest extends DomainTest {
+
+  private static final Instant NOW = Instant.now();
+
+  private ChatMessageStore instance;
+  private ChatChannelUser sender;
+  private int numberOfChanges;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new ChatMessageStore();
+    sender = ChatChannelUserBuilder.create("junit", new ChatChannel("#test")).defaultValues().get();
+    instance.addListener((ListChangeListener<ChatMessage>) change -> numberOfChanges++);
+  }
+
+  @Test
+  public void testMessagesAreOrderedByTime() {
+    ChatMessage first = message("1", 1);
+    ChatMessage second = message("2", 2);
+    ChatMessage third = message("3", 3);
+
+    instance.put(first);
+    instance.put(third);
+    instance.put(second);
+
+    assertThat(instance, contains(first, second, third));
+    assertThat(instance.indexOf(third), is(2));
+  }
+
+  @Test
+  public void testOldestMessagesAreEvicted() {
+    instance.setMaxSize(2);
+    ChatMessage first = message("1", 1);
+    ChatMessage second = message("2", 2);
+    ChatMessage third = message("3", 3);
+
+    instance.put(first);
+    instance.put(second);
+    instance.put(third);
+
+    assertThat(instance, contains(second, third));
+    assertThat(instance.get("1").isPresent(), is(false));
+    assertThat(instance.indexOf(second), is(0));
+  }
+
+  @Test
+  public void testShrinkingIsReportedAsSingleChange() {
+    for (int i = 0; i < 100; i++) {
+      instance.put(message(String.valueOf(i), i));
+    }
+    numberOfChanges = 0;
+
+    instance.setMaxSize(10);
+
+    assertThat(instance.size(), is(10));
+    assertThat(instance.getFirst().getId(), is("90"));
+    assertThat(numberOfChanges, is(1));
+  }
+
+  @Test
+  public void testRemoveFromMiddle() {
+    ChatMessage first = message("1", 1);
+    ChatMessage second = message("2", 2);
+    ChatMessage third = message("3", 3);
+    instance.put(first);
+    instance.put(second);
+    instance.put(third);
+
+    instance.remove("2");
+
+    assertThat(instance, contains(first, third));
+    assertThat(instance.indexOf(third), is(1));
+  }
+
+  @Test
+  public void testPutReplacesMessageWithSameId() {
+    ChatMessage pending = new ChatMessage("1", NOW, sender, "pending", Type.PENDING, null);
+    ChatMessage sent = new ChatMessage("1", NOW, sender, "sent", Type.MESSAGE, null);
+
+    instance.put(pending);
+    instance.put(sent);
+
+    assertThat(instance.size(), is(1));
+    assertThat(instance.get("1").orElseThrow().getContent(), is("sent"));
+  }
+
+  @Test
+  public void testWrapAround() {
+    instance.setMaxSize(50);
+    List<ChatMessage> messages = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      ChatMessage message = message(String.valueOf(i), i);
+      messages.add(message);
+      instance.put(message);
+    }
+
+    assertThat(instance.snapshot(), is(messages.subList(450, 500)));
+  }
+
+  private ChatMessage message(String id, long secondsAfterNow) {
+    return new ChatMessage(id, NOW.plusSeconds(secondsAfterNow), sender, id, Type.MESSAGE, null);
+  }
+}
@@ -0,0 +1,55 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessageToken.Kind;
+import com.faforever.client.fx.PlatformService;
+import com.faforever.client.test.DomainTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class ChatMessageTokenizerTest extends DomainTest {
+
+  private static final Pattern MENTION_PATTERN = Pattern.compile("(^|[^A-Za-z0-9-])junit([^A-Za-z0-9-]|$)",
+                                                                 Pattern.CASE_INSENSITIVE);
+
+  @Test
+  public void testTokenize() {
+    List<ChatMessageToken> tokens = ChatMessageTokenizer.tokenize("  hi @JUnit, join #aeolus :) see faforever.com\t",
+                                                                  "junit", ":)"::equals);
+
+    assertThat(tokens, contains(new ChatMessageToken(Kind.TEXT, "hi"), new ChatMessageToken(Kind.MENTION, "@JUnit,"),
+                                new ChatMessageToken(Kind.TEXT, "join"), new ChatMessageToken(Kind.CHANNEL, "#aeolus"),
+                                new ChatMessageToken(Kind.EMOTICON, ":)"), new ChatMessageToken(Kind.TEXT, "see"),
+                                new ChatMessageToken(Kind.URL, "faforever.com")));
+  }
+
+  @Test
+  public void testTokenizeNullOrBlank() {
+    assertThat(ChatMessageTokenizer.tokenize(null, "junit", word -> false), is(empty()));
+    assertThat(ChatMessageTokenizer.tokenize(" \n ", "junit", word -> false), is(empty()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"faforever.com", "https://faforever.com", "http://www.faforever.com/news?page=1",
+      "api.faforever.com:443/data", "faforever.com?", "faforever.com/", "faforever", "faforever.c", ".faforever.com",
+      "faforever..com", "faforever.com:", "ftp://faforever.com", "faforever.com#top", "faforever.co1", "1.2.3.4",
+      "https://", "a.bc", "a.bc/x/y"})
+  public void testIsUrlMatchesLenientUrlPattern(String word) {
+    assertThat(ChatMessageTokenizer.isUrl(word), is(PlatformService.LENIENT_URL_REGEX_PATTERN.matcher(word).matches()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"junit", "JUnit", "@junit", "junit!", "(junit)", "junits", "xjunit", "junit-", "jun",
+      "!!junit", "junit!!", ""})
+  public void testIsMentionMatchesMentionPattern(String word) {
+    assertThat(ChatMessageTokenizer.isMention(word, "junit"), is(MENTION_PATTERN.matcher(word).matches()));
+  }
+}
@@ -1,5 +1,6 @@
 package com.faforever.client.chat;
 
+import com.faforever.client.chat.ChatMessage.Type;
 import com.faforever.client.chat.emoticons.Emoticon;
 import com.faforever.client.chat.emoticons.EmoticonService;
 import com.faforever.client.chat.emoticons.EmoticonsWindowController;
@@ -22,7 +23,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.testfx.util.WaitForAsyncUtils;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -38,10 +41,12 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentCaptor.captor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -101,6 +106,31 @@ public class ChatMessagesViewControllerTest extends PlatformTest {
     instance.setChatChannel(chatChannel);
   }
 
+  @Test
+  public void testOlderMessagesAreLoadedOnceAtATimeUntilTheHistoryIsExhausted() {
+    ChatMessage message = new ChatMessage("1", Instant.now(), user, "message", Type.MESSAGE, null);
+    runOnFxThreadAndWait(() -> chatChannel.addMessage(message));
+    CompletableFuture<Integer> loadFuture = new CompletableFuture<>();
+    when(chatService.loadOlderMessagesInBackground(eq(chatChannel), anyInt())).thenReturn(loadFuture,
+                                                                                          completedFuture(0));
+
+    runOnFxThreadAndWait(() -> instance.loadOlderMessages(chatChannel, message));
+    runOnFxThreadAndWait(() -> instance.loadOlderMessages(chatChannel, message));
+    verify(chatService).loadOlderMessagesInBackground(eq(chatChannel), anyInt());
+
+    loadFuture.complete(0);
+    WaitForAsyncUtils.waitForFxEvents();
+    runOnFxThreadAndWait(() -> instance.loadOlderMessages(chatChannel, message));
+    verify(chatService).loadOlderMessagesInBackground(eq(chatChannel), anyInt());
+
+    // Messages the channel has discarded in the meantime can be loaded again
+    ChatMessage olderMessage = new ChatMessage("0", message.getTime().minusSeconds(1), user, "older", Type.MESSAGE,
+                                               null);
+    runOnFxThreadAndWait(() -> chatChannel.addOlderMessages(List.of(olderMessage)));
+    runOnFxThreadAndWait(() -> instance.loadOlderMessages(chatChannel, olderMessage));
+    verify(chatService, times(2)).loadOlderMessagesInBackground(eq(chatChannel), anyInt());
+  }
+
   @Test
   public void testUpdateTypingState() {
     instance.messageTextField.appendText("a");
@@ -0,0 +1,180 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.builders.ChatChannelUserBuilder;
+import com.faforever.client.test.DomainTest;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class ChatUserListItemsTest extends DomainTest {
+
+  private static final ChatChannel CHANNEL = new ChatChannel("#test");
+
+  private ChatUserListItems instance;
+  private int numberOfChanges;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new ChatUserListItems(new SimpleStringProperty(CHANNEL.getName()));
+    instance.addListener((ListChangeListener<ChatListItem>) change -> numberOfChanges++);
+  }
+
+  @Test
+  public void testHeadersAreListedWithoutUsers() {
+    assertThat(instance.size(), is(ChatUserCategory.values().length));
+    assertThat(instance.stream().map(ChatListItem::category).toList(), contains(ChatUserCategory.values()));
+  }
+
+  @Test
+  public void testUsersAreSortedByCategoryAndName() {
+    ChatChannelUser bravo = chatOnlyUser("bravo");
+    ChatChannelUser alpha = chatOnlyUser("alpha");
+    ChatChannelUser moderator = moderator("zulu");
+
+    instance.put(bravo);
+    instance.put(alpha);
+    instance.put(moderator);
+
+    assertThat(listedUsers(), contains(moderator, alpha, bravo));
+    assertThat(headerCount(ChatUserCategory.CHAT_ONLY), is(2));
+    assertThat(instance.get(instance.indexOf(header(ChatUserCategory.CHAT_ONLY)) + 1).user(), is(alpha));
+  }
+
+  @Test
+  public void testPutMovesUserWhenCategoryChanged() {
+    ChatChannelUser user = chatOnlyUser("alpha");
+    instance.put(user);
+
+    user.setModerator(true);
+    instance.put(user);
+
+    assertThat(instance.getUsers(ChatUserCategory.CHAT_ONLY), is(empty()));
+    assertThat(instance.getUsers(ChatUserCategory.MODERATOR), contains(user));
+    assertThat(listedUsers(), contains(user));
+  }
+
+  @Test
+  public void testRemove() {
+    ChatChannelUser user = chatOnlyUser("alpha");
+    instance.put(user);
+
+    instance.remove(user);
+
+    assertThat(listedUsers(), is(empty()));
+    assertThat(instance.getUsers(), is(empty()));
+    assertThat(headerCount(ChatUserCategory.CHAT_ONLY), is(0));
+  }
+
+  @Test
+  public void testSearch() {
+    ChatChannelUser alpha = chatOnlyUser("AlphaWolf");
+    ChatChannelUser beta = chatOnlyUser("betaWolf");
+    ChatChannelUser gamma = chatOnlyUser("gamma");
+    instance.put(alpha);
+    instance.put(beta);
+    instance.put(gamma);
+
+    instance.setSearchText("wol");
+    assertThat(listedUsers(), contains(alpha, beta));
+
+    instance.setSearchText("alphaw");
+    assertThat(listedUsers(), contains(alpha));
+
+    instance.setSearchText("a");
+    assertThat(listedUsers(), contains(alpha, beta, gamma));
+
+    instance.setSearchText("xyz");
+    assertThat(listedUsers(), is(empty()));
+    assertThat(headerCount(ChatUserCategory.CHAT_ONLY), is(0));
+  }
+
+  @Test
+  public void testUsersJoiningDuringSearchAreMatched() {
+    instance.setSearchText("wolf");
+
+    ChatChannelUser wolf = chatOnlyUser("wolf");
+    instance.put(chatOnlyUser("sheep"));
+    instance.put(wolf);
+
+    assertThat(listedUsers(), contains(wolf));
+    assertThat(instance.getUsers(), containsInAnyOrder(wolf, chatOnlyUser("sheep")));
+  }
+
+  @Test
+  public void testFilter() {
+    ChatChannelUser alpha = chatOnlyUser("alpha");
+    ChatChannelUser moderator = moderator("bravo");
+    instance.put(alpha);
+    instance.put(moderator);
+
+    instance.setFilter(item -> item.category() == ChatUserCategory.MODERATOR);
+
+    assertThat(listedUsers(), contains(moderator));
+  }
+
+  @Test
+  public void testHiddenCategoriesAreCountedButNotListed() {
+    ChatChannelUser alpha = chatOnlyUser("alpha");
+    ChatChannelUser moderator = moderator("bravo");
+    instance.put(alpha);
+    instance.put(moderator);
+    numberOfChanges = 0;
+
+    instance.setHiddenCategories(Set.of(ChatUserCategory.CHAT_ONLY));
+
+    assertThat(listedUsers(), contains(moderator));
+    assertThat(headerCount(ChatUserCategory.CHAT_ONLY), is(1));
+    assertThat(numberOfChanges, is(1));
+
+    instance.put(chatOnlyUser("charlie"));
+    assertThat(listedUsers(), contains(moderator));
+
+    instance.setHiddenCategories(Set.of());
+    assertThat(listedUsers().size(), is(3));
+  }
+
+  @Test
+  public void testClearUsers() {
+    instance.put(chatOnlyUser("alpha"));
+    instance.put(moderator("bravo"));
+
+    instance.clearUsers();
+
+    assertThat(listedUsers(), is(empty()));
+    assertThat(instance.size(), is(ChatUserCategory.values().length));
+  }
+
+  private List<ChatChannelUser> listedUsers() {
+    return instance.stream().map(ChatListItem::user).filter(Objects::nonNull).toList();
+  }
+
+  private ChatListItem header(ChatUserCategory category) {
+    return instance.stream()
+                   .filter(item -> item.user() == null && item.category() == category)
+                   .findFirst()
+                   .orElseThrow();
+  }
+
+  private int headerCount(ChatUserCategory category) {
+    return header(category).numCategoryItemsProperty().getValue();
+  }
+
+  private static ChatChannelUser chatOnlyUser(String username) {
+    return ChatChannelUserBuilder.create(username, CHANNEL).get();
+  }
+
+  private static ChatChannelUser moderator(String username) {
+    return ChatChannelUserBuilder.create(username, CHANNEL).moderator(true).get();
+  }
+}
@@ -26,6 +26,7 @@ import com.faforever.commons.lobby.SocialInfo;
 import com.google.common.collect.ImmutableSortedSet;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
 import org.junit.jupiter.api.AfterEach;
@@ -79,12 +80,14 @@ import java.net.InetAddress;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -104,12 +107,16 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -155,6 +162,8 @@ public class KittehChatServiceTest extends ServiceTest {
   private FxApplicationThreadExecutor fxApplicationThreadExecutor;
   @Mock
   private TaskScheduler taskScheduler;
+  @Mock
+  private ChatHistory chatHistory;
   @Spy
   private ClientProperties clientProperties;
   @Spy
@@ -463,6 +472,53 @@ public class KittehChatServiceTest extends ServiceTest {
     assertThat(chatChannel.getUsers(), hasSize(2));
   }
 
+  @Test
+  public void testUserUpdatesOfChannelAreAppliedInOneBatch() {
+    ChatChannel chatChannel = instance.getOrCreateChannel(defaultChannel.getName());
+    when(defaultChannel.getUsers()).thenReturn(List.of(user1, user2));
+
+    connect();
+
+    List<Runnable> fxTasks = new ArrayList<>();
+    doAnswer(invocation -> fxTasks.add(invocation.getArgument(0))).when(fxApplicationThreadExecutor).execute(any());
+
+    eventManager.callEvent(new ChannelNamesUpdatedEvent(realClient, List.of(), defaultChannel));
+    part(defaultChannel, user2);
+
+    assertThat(chatChannel.getUsers(), empty());
+    assertThat(fxTasks, hasSize(1));
+
+    fxTasks.getFirst().run();
+
+    assertThat(chatChannel.getUsers(), hasSize(1));
+    assertTrue(chatChannel.getUser(user1.getNick()).isPresent());
+  }
+
+  @Test
+  public void testQueuedUserUpdatesDoNotBringBackLeftChannel() {
+    ChatChannel chatChannel = instance.getOrCreateChannel(defaultChannel.getName());
+    when(defaultChannel.getUsers()).thenReturn(List.of(user1, user2));
+    doNothing().when(spyClient).removeChannel(DEFAULT_CHANNEL_NAME);
+
+    connect();
+
+    List<Runnable> fxTasks = new ArrayList<>();
+    doAnswer(invocation -> fxTasks.add(invocation.getArgument(0))).when(fxApplicationThreadExecutor).execute(any());
+    List<String> addedChannels = new ArrayList<>();
+    instance.addChannelsListener(change -> {
+      if (change.wasAdded()) {
+        addedChannels.add(change.getKey());
+      }
+    });
+
+    eventManager.callEvent(new ChannelNamesUpdatedEvent(realClient, List.of(), defaultChannel));
+    instance.leaveChannel(chatChannel);
+    fxTasks.forEach(Runnable::run);
+
+    assertThat(addedChannels, empty());
+    assertThat(chatChannel.getUsers(), empty());
+  }
+
   @Test
   public void testOnChatUserLeftChannel() {
     ChatChannel chatChannel = instance.getOrCreateChannel(defaultChannel.getName());
@@ -557,6 +613,74 @@ public class KittehChatServiceTest extends ServiceTest {
 
     assertThat(chatMessage.getContent(), is(message));
     assertThat(chatMessage.getSender().getUsername(), is(user1.getNick()));
+    verify(chatHistory, timeout(1000)).append(DEFAULT_CHANNEL_NAME, chatMessage);
+  }
+
+  @Test
+  public void testChatMessageIsNotAppendedToHistoryOnIrcThread() throws Exception {
+    CountDownLatch appendStarted = new CountDownLatch(1);
+    CountDownLatch appendReleased = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      appendStarted.countDown();
+      appendReleased.await();
+      return null;
+    }).when(chatHistory).append(any(), any());
+
+    connect();
+    ChatChannel channel = instance.getOrCreateChannel(DEFAULT_CHANNEL_NAME);
+
+    // Returns while the history is still busy writing the first message
+    messageChannel(defaultChannel, user1, "first message");
+    messageChannel(defaultChannel, user1, "second message");
+
+    assertTrue(appendStarted.await(1, TimeUnit.SECONDS));
+    assertThat(channel.getMessages(), hasSize(2));
+    appendReleased.countDown();
+    verify(chatHistory, timeout(1000).times(2)).append(eq(DEFAULT_CHANNEL_NAME), any());
+  }
+
+  @Test
+  public void testHistoryIsRestoredWhenChannelIsCreated() throws Exception {
+    when(chatHistory.getLatest(OTHER_CHANNEL_NAME, chatPrefs.getMaxMessages())).thenReturn(
+        List.of(new ChatHistoryEntry("1", 1000, "absentUser", "restored", Type.MESSAGE, null)));
+
+    ChatChannel channel = instance.getOrCreateChannel(OTHER_CHANNEL_NAME);
+    CountDownLatch restoredLatch = new CountDownLatch(1);
+    ChatMessageStore messages = channel.getMessages();
+    synchronized (messages) {
+      if (messages.isEmpty()) {
+        messages.addListener((ListChangeListener<ChatMessage>) change -> restoredLatch.countDown());
+      } else {
+        restoredLatch.countDown();
+      }
+    }
+
+    assertTrue(restoredLatch.await(TIMEOUT, TIMEOUT_UNIT));
+    ChatMessage restoredMessage = messages.getFirst();
+    assertThat(restoredMessage.getContent(), is("restored"));
+    assertThat(restoredMessage.getTime(), is(Instant.ofEpochMilli(1000)));
+    assertThat(restoredMessage.getSender().getUsername(), is("absentUser"));
+    assertThat(channel.getUsers(), is(empty()));
+  }
+
+  @Test
+  public void testLoadOlderMessagesInBackground() throws Exception {
+    ChatChannel channel = instance.getOrCreateChannel(DEFAULT_CHANNEL_NAME);
+    channel.setMaxNumMessages(1);
+    ChatChannelUser sender = instance.getOrCreateChatUser("junit2", DEFAULT_CHANNEL_NAME);
+    ChatMessage newestMessage = new ChatMessage("2", Instant.now(), sender, "newest", Type.MESSAGE, null);
+    channel.addMessage(newestMessage);
+    when(chatHistory.getBefore(DEFAULT_CHANNEL_NAME, newestMessage, 10)).thenReturn(
+        List.of(new ChatHistoryEntry("0", 0, "junit2", "older", Type.MESSAGE, null),
+                new ChatHistoryEntry("1", 1, "absentUser", "reply", Type.ACTION, "0")));
+
+    assertThat(instance.loadOlderMessagesInBackground(channel, 10).get(TIMEOUT, TIMEOUT_UNIT), is(2));
+
+    List<ChatMessage> messages = channel.getMessages().snapshot();
+    assertThat(messages, hasSize(3));
+    assertThat(messages.get(0).getSender(), is(sender));
+    assertThat(messages.get(1).getTargetMessage().orElseThrow(), is(messages.get(0)));
+    assertThat(messages.get(2), is(newestMessage));
   }
 
   @Test
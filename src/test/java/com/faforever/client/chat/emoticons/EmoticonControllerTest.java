@@ -14,6 +14,7 @@ import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 
@@ -29,7 +30,7 @@ public class EmoticonControllerTest extends PlatformTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    lenient().when(emoticonService.getImageByShortcode(any())).thenReturn(new Image("http://localhost"));
+    lenient().when(emoticonService.getImageByShortcode(any(), anyInt())).thenReturn(new Image("http://localhost"));
 
     loadFxml("theme/chat/emoticons/emoticon.fxml", clazz -> instance);
   }
@@ -17,6 +17,7 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -103,4 +104,15 @@ public class EmoticonServiceTest extends ServiceTest {
     emoticon.shortcodes()
             .forEach(shortcode -> assertTrue(instance.isEmoticonShortcode(shortcode)));
   }
+
+  @Test
+  public void testGetImageByUnknownShortcode() throws Exception {
+    EmoticonsGroup emoticonsGroup = EmoticonGroupBuilder.create().defaultValues().get();
+    when(objectMapper.readValue(any(InputStream.class), eq(EmoticonsGroup[].class)))
+        .thenReturn(new EmoticonsGroup[]{emoticonsGroup});
+
+    instance.loadAndVerifyEmoticons();
+
+    assertNull(instance.getImageByShortcode(":unknown:", 24));
+  }
 }
@@ -23,6 +23,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 
@@ -43,7 +44,7 @@ public class ReactionControllerTest extends PlatformTest {
   @BeforeEach
   public void setUp() throws Exception {
     lenient().when(chatService.getCurrentUsername()).thenReturn("junit");
-    lenient().when(emoticonService.getImageByShortcode(any())).thenReturn(new Image("http://localhost"));
+    lenient().when(emoticonService.getImageByShortcode(any(), anyInt())).thenReturn(new Image("http://localhost"));
     lenient().when(i18n.number(any()))
              .thenAnswer(invocation -> String.valueOf(invocation.getArgument(0, Number.class)));
 
@@ -0,0 +1,153 @@
+package com.faforever.client.fx;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CoalescingUpdateQueueTest extends ServiceTest {
+
+  @Mock
+  private FxApplicationThreadExecutor fxApplicationThreadExecutor;
+
+  private final List<List<String>> batches = new ArrayList<>();
+  private CoalescingUpdateQueue<Character, String> instance;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new CoalescingUpdateQueue<>(fxApplicationThreadExecutor, update -> update.charAt(0), 2, batches::add);
+  }
+
+  @Test
+  public void testUpdatesAreAppliedInOneBatch() {
+    instance.offer("a1");
+    instance.offer("b1");
+
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    assertThat(batches, empty());
+
+    drainCaptor.getValue().run();
+
+    assertThat(batches, contains(List.of("a1", "b1")));
+  }
+
+  @Test
+  public void testUpdatesWithSameKeyAreCollapsed() {
+    instance.offer("a1");
+    instance.offer("b1");
+    instance.offer("a2");
+
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    drainCaptor.getValue().run();
+
+    assertThat(batches, contains(List.of("a2", "b1")));
+  }
+
+  @Test
+  public void testRemainingUpdatesAreAppliedInNextPulse() {
+    instance.offer("a1");
+    instance.offer("b1");
+    instance.offer("c1");
+
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    drainCaptor.getValue().run();
+
+    ArgumentCaptor<Runnable> nextDrainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).runLater(nextDrainCaptor.capture());
+    nextDrainCaptor.getValue().run();
+
+    assertThat(batches, contains(List.of("a1", "b1"), List.of("c1")));
+    verify(fxApplicationThreadExecutor, times(1)).runLater(any());
+  }
+
+  @Test
+  public void testDrainIsScheduledAgainAfterBatch() {
+    instance.offer("a1");
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    drainCaptor.getValue().run();
+
+    instance.offer("a2");
+
+    verify(fxApplicationThreadExecutor, times(2)).execute(any());
+    verify(fxApplicationThreadExecutor, never()).runLater(any());
+  }
+
+  @Test
+  public void testUpdatesWithSameKeyAreMerged() {
+    instance = new CoalescingUpdateQueue<>(fxApplicationThreadExecutor, update -> update.charAt(0), String::concat, 2,
+                                           batches::add);
+    instance.offer("a1");
+    instance.offer("a2");
+
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    drainCaptor.getValue().run();
+
+    assertThat(batches, contains(List.of("a1a2")));
+  }
+
+  @Test
+  public void testDrainedActionRunsAfterRemainingUpdates() {
+    List<String> events = new ArrayList<>();
+    instance = new CoalescingUpdateQueue<>(fxApplicationThreadExecutor, update -> update.charAt(0), 2,
+                                           batch -> events.addAll(batch));
+    instance.offer("a1");
+    instance.offer("b1");
+    instance.offer("c1");
+    instance.runWhenDrained(() -> events.add("drained"));
+
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    drainCaptor.getValue().run();
+    assertThat(events, contains("a1", "b1"));
+
+    ArgumentCaptor<Runnable> nextDrainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).runLater(nextDrainCaptor.capture());
+    nextDrainCaptor.getValue().run();
+
+    assertThat(events, contains("a1", "b1", "c1", "drained"));
+  }
+
+  @Test
+  public void testDrainedActionRunsRightAwayWithoutPendingUpdates() {
+    Runnable action = () -> {};
+
+    instance.runWhenDrained(action);
+
+    verify(fxApplicationThreadExecutor).execute(action);
+  }
+
+  @Test
+  public void testQueueDepthIsRecorded() {
+    instance.offer("a1");
+    instance.offer("b1");
+    instance.offer("c1");
+
+    assertThat(instance.getPendingUpdates(), is(3));
+
+    ArgumentCaptor<Runnable> drainCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(fxApplicationThreadExecutor).execute(drainCaptor.capture());
+    drainCaptor.getValue().run();
+
+    assertThat(instance.getPendingUpdates(), is(1));
+    assertThat(instance.getMaxPendingUpdates(), is(3L));
+    assertThat(instance.getMaxApplyLatency().isNegative(), is(false));
+  }
+}
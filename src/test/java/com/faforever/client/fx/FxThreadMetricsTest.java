@@ -0,0 +1,65 @@
+package com.faforever.client.fx;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class FxThreadMetricsTest extends ServiceTest {
+
+  private static final String CALLER = FxThreadMetricsTest.class.getName() + "#submitTask";
+
+  private FxThreadMetrics instance;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new FxThreadMetrics();
+    instance.setStallThreshold(Duration.ofMillis(50));
+  }
+
+  @Test
+  public void testTasksAreCountedPerCaller() {
+    submitTask().run();
+    submitTask().run();
+
+    assertThat(instance.getTaskCount(CALLER), is(2L));
+    assertThat(instance.summarize(), containsString(CALLER + ": 2 tasks"));
+  }
+
+  @Test
+  public void testWaitingTimeIsRecordedInBuckets() {
+    instance.record(CALLER, TimeUnit.MILLISECONDS.toNanos(20), 0);
+    instance.record(CALLER, TimeUnit.SECONDS.toNanos(2), 0);
+
+    assertThat(instance.getLatencyBucketCount(FxThreadMetrics.latencyBucket(TimeUnit.MILLISECONDS.toNanos(20))),
+               is(1L));
+    assertThat(instance.getLatencyBucketCount(FxThreadMetrics.latencyBucket(TimeUnit.SECONDS.toNanos(2))), is(1L));
+  }
+
+  @Test
+  public void testStallsAreDetected() {
+    instance.record(CALLER, 0, TimeUnit.MILLISECONDS.toNanos(10));
+    instance.record(CALLER, 0, TimeUnit.MILLISECONDS.toNanos(80));
+
+    assertThat(instance.getStallCount(), is(1L));
+  }
+
+  @Test
+  public void testReset() {
+    submitTask().run();
+
+    instance.reset();
+
+    assertThat(instance.getTaskCount(CALLER), is(0L));
+  }
+
+  private Runnable submitTask() {
+    return instance.instrument(() -> {}, true);
+  }
+}
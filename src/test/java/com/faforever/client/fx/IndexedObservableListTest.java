@@ -0,0 +1,132 @@
+package com.faforever.client.fx;
+
+import com.faforever.client.test.ServiceTest;
+import javafx.beans.Observable;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class IndexedObservableListTest extends ServiceTest {
+
+  private IndexedObservableList<StringProperty> instance;
+  private List<ListChangeListener.Change<? extends StringProperty>> changes;
+  private StringProperty first;
+  private StringProperty second;
+  private StringProperty third;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new IndexedObservableList<>(item -> new Observable[]{item});
+    changes = new ArrayList<>();
+    instance.addListener((ListChangeListener<StringProperty>) change -> changes.add(change));
+
+    first = new SimpleStringProperty("first");
+    second = new SimpleStringProperty("second");
+    third = new SimpleStringProperty("third");
+  }
+
+  @Test
+  public void testAddIgnoresContainedElements() {
+    assertThat(instance.add(first), is(true));
+    assertThat(instance.add(first), is(false));
+
+    assertThat(instance, contains(first));
+    assertThat(changes.size(), is(1));
+  }
+
+  @Test
+  public void testRemoveMovesLastElementIntoPlace() {
+    instance.addAll(List.of(first, second, third));
+    changes.clear();
+
+    instance.remove(first);
+
+    assertThat(instance, contains(third, second));
+    assertThat(instance.indexOf(third), is(0));
+    assertThat(instance.indexOf(first), is(-1));
+    assertThat(changes.size(), is(1));
+  }
+
+  @Test
+  public void testChangesCanBeAppliedToCopy() {
+    List<StringProperty> copy = new ArrayList<>();
+    instance.addListener((ListChangeListener<StringProperty>) change -> {
+      while (change.next()) {
+        if (change.wasPermutated() || change.wasUpdated()) {
+          continue;
+        }
+        copy.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+        copy.addAll(change.getFrom(), change.getAddedSubList());
+      }
+    });
+
+    instance.addAll(List.of(first, second, third));
+    instance.remove(first);
+    instance.replace(second, new SimpleStringProperty("fourth"));
+    instance.removeAll(List.of(third));
+
+    assertThat(copy, is(new ArrayList<>(instance)));
+  }
+
+  @Test
+  public void testReplaceKeepsPosition() {
+    instance.addAll(List.of(first, second));
+
+    instance.replace(first, third);
+
+    assertThat(instance, contains(third, second));
+  }
+
+  @Test
+  public void testExtractorReportsUpdates() {
+    instance.addAll(List.of(first, second));
+    changes.clear();
+
+    second.set("changed");
+
+    assertThat(changes.size(), is(1));
+    ListChangeListener.Change<? extends StringProperty> change = changes.getFirst();
+    change.reset();
+    change.next();
+    assertThat(change.wasUpdated(), is(true));
+    assertThat(change.getFrom(), is(1));
+  }
+
+  @Test
+  public void testRemovedElementsAreNotObserved() {
+    instance.add(first);
+    instance.remove(first);
+    changes.clear();
+
+    first.set("changed");
+
+    assertThat(changes, empty());
+  }
+
+  @Test
+  public void testAttachIndexedListToMap() {
+    ObservableMap<String, StringProperty> map = FXCollections.observableHashMap();
+    ObservableList<StringProperty> list = JavaFxUtil.attachIndexedListToMap(map);
+
+    map.put("first", first);
+    map.put("second", second);
+    map.put("first", third);
+    map.remove("second");
+
+    assertThat(list, containsInAnyOrder(third));
+  }
+}
@@ -19,7 +19,6 @@ import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
-import reactor.core.scheduler.Schedulers;
 import reactor.test.publisher.TestPublisher;
 
 import java.util.List;
@@ -61,7 +60,6 @@ public class GameServiceTest extends ServiceTest {
   public void setUp() throws Exception {
     MapperSetup.injectMappers(gameMapper);
 
-    when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.immediate());
     lenient().doAnswer(invocation -> {
       invocation.getArgument(0, Runnable.class).run();
       return null;
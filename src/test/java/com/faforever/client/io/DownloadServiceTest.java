@@ -1,26 +1,117 @@
 package com.faforever.client.io;
 
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.test.ServiceTest;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.IOException;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
 
 public class DownloadServiceTest extends ServiceTest {
   private static final ClassPathResource SAMPLE_FILE = new ClassPathResource("/io/sample-file.txt");
   private static final String SAMPLE_FILE_CHECKSUM = "b53227da4280f0e18270f21dd77c91d0";
+  private static final int CHUNK_SIZE = SegmentedDownload.CHUNK_SIZE;
+  private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
 
+  @TempDir
+  public Path tempDirectory;
 
+  @Spy
+  private ResourceLocks resourceLocks = new ResourceLocks(new ClientProperties());
 
   @InjectMocks
   private DownloadService instance;
 
+  private MockWebServer server;
+  private byte[] content;
+  private String contentChecksum;
+  private final List<Long> requestedRangeStarts = new CopyOnWriteArrayList<>();
+  private volatile long failingRangeStart = -1;
+  private volatile boolean rangesSupported = true;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    content = new byte[3 * CHUNK_SIZE + CHUNK_SIZE / 2];
+    new Random(42).nextBytes(content);
+    contentChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+
+    server = new MockWebServer();
+    server.setDispatcher(new Dispatcher() {
+      @NotNull
+      @Override
+      public MockResponse dispatch(@NotNull RecordedRequest request) {
+        return serve(request);
+      }
+    });
+    server.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  /**
+   * Serves the content like a file server that supports single range requests.
+   */
+  private MockResponse serve(RecordedRequest request) {
+    String range = request.getHeader("Range");
+    Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range);
+    if (!rangesSupported || matcher == null || !matcher.matches()) {
+      return new MockResponse().setBody(new Buffer().write(content));
+    }
+
+    long start = Long.parseLong(matcher.group(1));
+    long end = Math.min(Long.parseLong(matcher.group(2)), content.length - 1);
+    requestedRangeStarts.add(start);
+    if (start >= content.length) {
+      return new MockResponse().setResponseCode(416)
+                               .addHeader("Content-Range", "bytes */%d".formatted(content.length));
+    }
+    if (start == failingRangeStart) {
+      return new MockResponse().setResponseCode(500);
+    }
+    return new MockResponse().setResponseCode(206)
+                             .addHeader("ETag", "\"v1\"")
+                             .addHeader("Content-Range", "bytes %d-%d/%d".formatted(start, end, content.length))
+                             .setBody(new Buffer().write(content, (int) start, (int) (end - start + 1)));
+  }
+
+  private URL url() {
+    return server.url("/file.dat").url();
+  }
+
   @Test
   public void testDownloadFile() throws Exception {
     Path temp = Files.createTempFile("download", ".dat");
@@ -36,4 +127,98 @@ public class DownloadServiceTest extends ServiceTest {
     assertThrows(ChecksumMismatchException.class, () -> instance.downloadFile(SAMPLE_FILE.getURL(), Map.of(), temp, (processed, total) -> {
     }, "00000000000000000000000000000000"));
   }
+
+  @Test
+  public void testDownloadFileInChunks() throws Exception {
+    Path targetFile = tempDirectory.resolve("file.dat");
+    instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum);
+
+    assertArrayEquals(content, Files.readAllBytes(targetFile));
+    assertThat(requestedRangeStarts, containsInAnyOrder(0L, (long) CHUNK_SIZE, 2L * CHUNK_SIZE, 3L * CHUNK_SIZE));
+    try (var files = Files.list(tempDirectory)) {
+      assertThat(files.toList(), contains(targetFile));
+    }
+    verify(resourceLocks).acquirePathLock(targetFile);
+    verify(resourceLocks).freePathLock(targetFile);
+  }
+
+  @Test
+  public void testDownloadFileMovesCompletePartialFileOfEarlierAttempt() throws Exception {
+    Path targetFile = tempDirectory.resolve("file.dat");
+    // A directory that is not empty can't be replaced, like an executable that is running
+    Files.createFile(Files.createDirectory(targetFile).resolve("in-use"));
+    assertThrows(IOException.class,
+                 () -> instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum));
+    int requestCount = server.getRequestCount();
+
+    Files.delete(targetFile.resolve("in-use"));
+    Files.delete(targetFile);
+    instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum);
+
+    assertArrayEquals(content, Files.readAllBytes(targetFile));
+    assertThat(server.getRequestCount(), is(requestCount));
+    try (var files = Files.list(tempDirectory)) {
+      assertThat(files.toList(), contains(targetFile));
+    }
+  }
+
+  @Test
+  public void testDownloadEmptyFile() throws Exception {
+    content = new byte[0];
+    Path targetFile = tempDirectory.resolve("file.dat");
+
+    instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {},
+                          HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)));
+
+    assertThat(Files.size(targetFile), is(0L));
+  }
+
+  @Test
+  public void testDownloadFileResumesAfterFailure() throws Exception {
+    Path targetFile = tempDirectory.resolve("file.dat");
+    failingRangeStart = 2L * CHUNK_SIZE;
+    assertThrows(IOException.class,
+                 () -> instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum));
+    assertThat(Files.exists(targetFile), is(false));
+
+    failingRangeStart = -1;
+    requestedRangeStarts.clear();
+    instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum);
+
+    assertArrayEquals(content, Files.readAllBytes(targetFile));
+    // Only the chunk that failed is downloaded again
+    assertThat(requestedRangeStarts, contains(2L * CHUNK_SIZE));
+  }
+
+  @Test
+  public void testDownloadFileDiscardsPartialFileWithoutState() throws Exception {
+    Path targetFile = tempDirectory.resolve("file.dat");
+    Files.write(tempDirectory.resolve("file.dat.part"), new byte[content.length + CHUNK_SIZE]);
+
+    instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum);
+
+    assertArrayEquals(content, Files.readAllBytes(targetFile));
+  }
+
+  @Test
+  public void testDownloadFileWithoutRangeSupport() throws Exception {
+    rangesSupported = false;
+    Path targetFile = tempDirectory.resolve("file.dat");
+    instance.downloadFile(url(), Map.of(), targetFile, (processed, total) -> {}, contentChecksum);
+
+    assertArrayEquals(content, Files.readAllBytes(targetFile));
+    assertThat(server.getRequestCount(), is(1));
+  }
+
+  @Test
+  public void testDownloadFileInChunksBadChecksum() throws Exception {
+    Path targetFile = tempDirectory.resolve("file.dat");
+    assertThrows(ChecksumMismatchException.class, () -> instance.downloadFile(url(), Map.of(), targetFile,
+                                                                              (processed, total) -> {},
+                                                                              "00000000000000000000000000000000"));
+
+    try (var files = Files.list(tempDirectory)) {
+      assertThat(files.toList(), is(List.of()));
+    }
+  }
 }
@@ -1,7 +1,9 @@
 package com.faforever.client.io;
 
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.Preferences;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.test.ServiceTest;
 import com.faforever.commons.api.dto.FeaturedModFile;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +13,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Spy;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FeaturedModFileCacheServiceTest extends ServiceTest {
@@ -29,6 +36,8 @@ public class FeaturedModFileCacheServiceTest extends ServiceTest {
   private DataPrefs dataPrefs;
   @Spy
   private Preferences preferences;
+  @Spy
+  private ResourceLocks resourceLocks = new ResourceLocks(new ClientProperties());
 
   @InjectMocks
   private FeaturedModFileCacheService instance;
@@ -39,6 +48,7 @@ public class FeaturedModFileCacheServiceTest extends ServiceTest {
 
     cacheDirectory = Files.createDirectories(dataPrefs.getFeaturedModCacheDirectory());
     targetDirectory = Files.createDirectories(tempDirectory.resolve("target"));
+    instance.afterPropertiesSet();
   }
 
   @Test
@@ -75,4 +85,99 @@ public class FeaturedModFileCacheServiceTest extends ServiceTest {
     assertTrue(Files.isRegularFile(targetPath));
     assertEquals(hashNewFile, instance.readHashFromFile(targetPath));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testCopyFeaturedModFileFromCacheLinksFiles() throws IOException {
+    Path cachedFile = Files.createDirectories(cacheDirectory.resolve("gamedata")).resolve("1234");
+    Files.writeString(cachedFile, "cached file");
+    Path targetPath = targetDirectory.resolve("gamedata").resolve("test.faf");
+
+    instance.copyFeaturedModFileFromCache(featuredModFile("1234", "test.faf", "gamedata"), targetPath);
+
+    assertEquals("cached file", Files.readString(targetPath));
+    assertTrue(Files.isSameFile(cachedFile, targetPath));
+  }
+
+  @Test
+  public void testCopyFeaturedModFileFromCacheCopiesExecutables() throws IOException {
+    Path cachedFile = Files.createDirectories(cacheDirectory.resolve("bin")).resolve("1234");
+    Files.writeString(cachedFile, "cached executable");
+    Path targetPath = targetDirectory.resolve("bin").resolve("ForgedAlliance.exe");
+
+    instance.copyFeaturedModFileFromCache(featuredModFile("1234", "ForgedAlliance.exe", "bin"), targetPath);
+
+    assertEquals("cached executable", Files.readString(targetPath));
+    assertFalse(Files.isSameFile(cachedFile, targetPath));
+  }
+
+  @Test
+  public void testCopyFeaturedModFileFromCacheExtractsMoviesWhenSwitchingVersions() throws IOException {
+    Path cacheGroupDirectory = Files.createDirectories(cacheDirectory.resolve("gamedata"));
+    writeZipWithMovie(cacheGroupDirectory.resolve("faf"), "faf movie");
+    writeZipWithMovie(cacheGroupDirectory.resolve("beta"), "beta movie");
+    Path targetPath = targetDirectory.resolve("gamedata").resolve("movies.nx2");
+    Path movie = tempDirectory.resolve("movies").resolve("intro.sfd");
+
+    instance.copyFeaturedModFileFromCache(featuredModFile("faf", "movies.nx2", "gamedata"), targetPath);
+    assertEquals("faf movie", Files.readString(movie));
+
+    instance.copyFeaturedModFileFromCache(featuredModFile("beta", "movies.nx2", "gamedata"), targetPath);
+    assertEquals("beta movie", Files.readString(movie));
+
+    instance.copyFeaturedModFileFromCache(featuredModFile("faf", "movies.nx2", "gamedata"), targetPath);
+    assertEquals("faf movie", Files.readString(movie));
+  }
+
+  @Test
+  public void testCopyFeaturedModFileFromCacheRestoresDeletedMovies() throws IOException {
+    Path cacheGroupDirectory = Files.createDirectories(cacheDirectory.resolve("gamedata"));
+    writeZipWithMovie(cacheGroupDirectory.resolve("faf"), "faf movie");
+    Path targetPath = targetDirectory.resolve("gamedata").resolve("movies.nx2");
+    Path movie = tempDirectory.resolve("movies").resolve("intro.sfd");
+    instance.copyFeaturedModFileFromCache(featuredModFile("faf", "movies.nx2", "gamedata"), targetPath);
+
+    Files.delete(movie);
+    Files.delete(movie.getParent());
+    instance.copyFeaturedModFileFromCache(featuredModFile("faf", "movies.nx2", "gamedata"), targetPath);
+
+    assertEquals("faf movie", Files.readString(movie));
+  }
+
+  @Test
+  public void testCopyFeaturedModFileFromCacheDoesNotExtractUnchangedFileWithoutSounds() throws IOException {
+    Path cacheGroupDirectory = Files.createDirectories(cacheDirectory.resolve("gamedata"));
+    writeZipWithMovie(cacheGroupDirectory.resolve("faf"), "faf movie");
+    Path targetPath = targetDirectory.resolve("gamedata").resolve("movies.nx2");
+    Path movie = tempDirectory.resolve("movies").resolve("intro.sfd");
+    instance.copyFeaturedModFileFromCache(featuredModFile("faf", "movies.nx2", "gamedata"), targetPath);
+
+    Files.writeString(movie, "edited movie");
+    instance.copyFeaturedModFileFromCache(featuredModFile("faf", "movies.nx2", "gamedata"), targetPath);
+
+    assertFalse(Files.exists(tempDirectory.resolve("sounds")));
+    assertEquals("edited movie", Files.readString(movie));
+    try (Stream<Path> files = Files.list(dataPrefs.getFeaturedModExtractedFilesFile().getParent())) {
+      assertThat(files.filter(file -> file.getFileName().toString()
+              .startsWith(dataPrefs.getFeaturedModExtractedFilesFile().getFileName().toString()))
+          .count(), is(1L));
+    }
+  }
+
+  private static void writeZipWithMovie(Path zipFile, String movieContent) throws IOException {
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+      zipOutputStream.putNextEntry(new ZipEntry("movies/"));
+      zipOutputStream.closeEntry();
+      zipOutputStream.putNextEntry(new ZipEntry("movies/intro.sfd"));
+      zipOutputStream.write(movieContent.getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+    }
+  }
+
+  private FeaturedModFile featuredModFile(String md5, String name, String group) {
+    FeaturedModFile featuredModFile = new FeaturedModFile();
+    featuredModFile.setMd5(md5);
+    featuredModFile.setName(name);
+    featuredModFile.setGroup(group);
+    return featuredModFile;
+  }
+}
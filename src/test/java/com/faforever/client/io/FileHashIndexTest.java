@@ -0,0 +1,99 @@
+package com.faforever.client.io;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class FileHashIndexTest extends ServiceTest {
+
+  private static final String FOO_MD5 = "acbd18db4cc2f85cedef654fccc4a4d8";
+  private static final String BAR_MD5 = "37b51d194a7513e45b56f6524f2d51f2";
+
+  @TempDir
+  public Path tempDirectory;
+
+  private Path indexFile;
+  private Path file;
+  private FileHashIndex instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    indexFile = tempDirectory.resolve("cache").resolve("hashes.properties");
+    file = Files.writeString(tempDirectory.resolve("file.nx2"), "foo");
+    instance = new FileHashIndex(indexFile);
+  }
+
+  /**
+   * Replaces the content of the file without changing its size, modification time or file key.
+   */
+  private void replaceContentKeepingAttributes(String content) throws Exception {
+    FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+    Files.writeString(file, content);
+    Files.setLastModifiedTime(file, lastModifiedTime);
+  }
+
+  @Test
+  public void testUnchangedFileIsNotHashedAgain() throws Exception {
+    assertThat(instance.getMd5(file), is(FOO_MD5));
+
+    replaceContentKeepingAttributes("bar");
+
+    assertThat(instance.getMd5(file), is(FOO_MD5));
+  }
+
+  @Test
+  public void testChangedFileIsHashedAgain() throws Exception {
+    assertThat(instance.getMd5(file), is(FOO_MD5));
+
+    Files.writeString(file, "bar");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+
+    assertThat(instance.getMd5(file), is(BAR_MD5));
+  }
+
+  @Test
+  public void testIndexIsPersisted() throws Exception {
+    instance.getMd5(file);
+    replaceContentKeepingAttributes("bar");
+
+    assertThat(new FileHashIndex(indexFile).getMd5(file), is(FOO_MD5));
+  }
+
+  @Test
+  public void testInvalidate() throws Exception {
+    instance.getMd5(file);
+    replaceContentKeepingAttributes("bar");
+
+    instance.invalidate(file);
+
+    assertThat(instance.getMd5(file), is(BAR_MD5));
+    assertThat(new FileHashIndex(indexFile).getMd5(file), is(BAR_MD5));
+  }
+
+  @Test
+  public void testUnreadableIndexIsIgnored() throws Exception {
+    Files.createDirectories(indexFile.getParent());
+    Files.write(indexFile, new byte[]{'\\', 'u', 'z'});
+
+    assertThat(new FileHashIndex(indexFile).getMd5(file), is(FOO_MD5));
+  }
+
+  @Test
+  public void testFailureToWriteIndexIsIgnored() throws Exception {
+    // The index can't be written into a directory that is a file
+    Path blockedIndexFile = Files.createFile(tempDirectory.resolve("blocked")).resolve("hashes.properties");
+    instance = new FileHashIndex(blockedIndexFile);
+
+    assertThat(instance.getMd5(file), is(FOO_MD5));
+    instance.invalidate(file);
+    assertThat(instance.getMd5(file), is(FOO_MD5));
+  }
+}
@@ -35,6 +35,7 @@ import static org.instancio.Select.field;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -74,11 +75,11 @@ public class LeaderboardServiceTest extends ServiceTest {
   @Test
   public void testGetEntriesForPlayer() {
     LeaderboardEntry leaderboardEntry = Instancio.create(LeaderboardEntry.class);
-    Flux<ElideEntity> resultFlux = Flux.just(leaderboardMapper.map(leaderboardEntry));
-    when(fafApiAccessor.getMany(any())).thenReturn(resultFlux);
+    when(fafApiAccessor.getManyByKey(eq(com.faforever.commons.api.dto.LeaderboardEntry.class), eq("player.id"),
+                                     eq(player.getId()), any()))
+        .thenReturn(Flux.just(leaderboardMapper.map(leaderboardEntry)));
 
     StepVerifier.create(instance.getEntriesForPlayer(player)).expectNext(leaderboardEntry).verifyComplete();
-    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasFilter(qBuilder().intNum("player.id").eq(player.getId()))));
   }
 
   @Test
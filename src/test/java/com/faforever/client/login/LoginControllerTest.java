@@ -381,7 +381,7 @@ public class LoginControllerTest extends PlatformTest {
   @Test
   public void testOnDownloadUpdateButtonClicked() {
     UpdateInfo updateInfo = new UpdateInfo(null, null, null, 5, null, false);
-    DownloadUpdateTask downloadUpdateTask = new DownloadUpdateTask(i18n, dataPrefs);
+    DownloadUpdateTask downloadUpdateTask = new DownloadUpdateTask(i18n, dataPrefs, null);
     when(clientUpdateService.downloadAndInstallInBackground(updateInfo)).thenReturn(downloadUpdateTask);
 
     ReflectionTestUtils.setField(instance, "updateInfoFuture", CompletableFuture.completedFuture(updateInfo));
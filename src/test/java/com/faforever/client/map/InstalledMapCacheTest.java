@@ -0,0 +1,82 @@
+package com.faforever.client.map;
+
+import com.faforever.client.domain.api.Map;
+import com.faforever.client.domain.api.MapType;
+import com.faforever.client.domain.api.MapVersion;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class InstalledMapCacheTest extends ServiceTest {
+
+  private static final MapVersion MAP_VERSION = new MapVersion(null, "palaneum.v0001", 0, "description", 8,
+                                                               new MapSize(1024, 1024), new ComparableVersion("1"),
+                                                               false, false, null, null, null,
+                                                               new Map(null, "Palaneum", 0, null, false,
+                                                                       MapType.SKIRMISH, null), null);
+
+  @TempDir
+  public Path tempDirectory;
+
+  private final DataPrefs dataPrefs = new DataPrefs();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private Path mapFolder;
+  private Path scenarioFile;
+  private InstalledMapCache instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    mapFolder = Files.createDirectories(tempDirectory.resolve("maps").resolve("palaneum.v0001"));
+    scenarioFile = Files.writeString(mapFolder.resolve("Palaneum_scenario.lua"), "ScenarioInfo = {}");
+
+    instance = new InstalledMapCache(dataPrefs, objectMapper);
+    instance.afterPropertiesSet();
+  }
+
+  @Test
+  public void testGetUnknownMap() {
+    assertThat(instance.get(mapFolder).isPresent(), is(false));
+  }
+
+  @Test
+  public void testCachedMapIsPersisted() {
+    instance.put(mapFolder, scenarioFile, MAP_VERSION);
+    instance.save();
+
+    InstalledMapCache reloadedCache = new InstalledMapCache(dataPrefs, objectMapper);
+    reloadedCache.afterPropertiesSet();
+
+    assertThat(reloadedCache.get(mapFolder).orElseThrow(), is(MAP_VERSION));
+  }
+
+  @Test
+  public void testChangedScenarioFileIsNotServedFromCache() throws Exception {
+    instance.put(mapFolder, scenarioFile, MAP_VERSION);
+
+    Files.writeString(scenarioFile, "ScenarioInfo = { name = 'changed' }");
+
+    assertThat(instance.get(mapFolder).isPresent(), is(false));
+  }
+
+  @Test
+  public void testRetainAll() {
+    instance.put(mapFolder, scenarioFile, MAP_VERSION);
+
+    instance.retainAll(List.of());
+
+    assertThat(instance.get(mapFolder).isPresent(), is(false));
+  }
+}
@@ -75,6 +75,7 @@ import static org.instancio.Select.field;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -116,6 +117,8 @@ public class MapServiceTest extends PlatformTest {
   private ObjectFactory<UninstallMapTask> uninstallMapTaskFactory;
   @Mock
   private FileSizeReader fileSizeReader;
+  @Mock
+  private InstalledMapCache installedMapCache;
   @Spy
   private MapMapper mapMapper = Mappers.getMapper(MapMapper.class);
   @Spy
@@ -150,7 +153,8 @@ public class MapServiceTest extends PlatformTest {
     instance = new MapService(notificationService, taskService, fafApiAccessor, assetService, i18n,
                               themeService, mapGeneratorService, playerService, mapMapper, matchmakerMapper, fileSizeReader,
                               clientProperties, forgedAlliancePrefs, preferences, mapUploadTaskFactory,
-                              downloadMapTaskFactory, uninstallMapTaskFactory, fxApplicationThreadExecutor);
+                              downloadMapTaskFactory, uninstallMapTaskFactory, fxApplicationThreadExecutor,
+                              installedMapCache);
     instance.officialMaps = Set.of();
     instance.afterPropertiesSet();
   }
@@ -221,9 +225,11 @@ public class MapServiceTest extends PlatformTest {
   public void testLoadPreview() {
     for (PreviewSize previewSize : PreviewSize.values()) {
       Path cacheSubDir = Path.of("maps").resolve(previewSize.folderName);
-      when(assetService.loadAndCacheImage(any(URL.class), eq(cacheSubDir), any())).thenReturn(new Image(InputStream.nullInputStream()));
+      int size = previewSize.displaySize;
+      when(assetService.loadAndCacheImage(any(URL.class), eq(cacheSubDir), any(), eq(size), eq(size)))
+          .thenReturn(new Image(InputStream.nullInputStream()));
       instance.loadPreview("preview", previewSize);
-      verify(assetService).loadAndCacheImage(any(URL.class), eq(cacheSubDir), any());
+      verify(assetService).loadAndCacheImage(any(URL.class), eq(cacheSubDir), any(), eq(size), eq(size));
     }
   }
 
@@ -405,7 +411,7 @@ public class MapServiceTest extends PlatformTest {
     instance.loadPreview(Instancio.of(MapVersion.class).set(field(MapVersion::thumbnailUrlLarge), null).create(),
         PreviewSize.LARGE);
 
-    verify(assetService).loadAndCacheImage(any(), any(), any());
+    verify(assetService).loadAndCacheImage(any(), any(), any(), anyInt(), anyInt());
   }
 
   @Test
@@ -413,18 +419,16 @@ public class MapServiceTest extends PlatformTest {
     instance.loadPreview(Instancio.of(MapVersion.class).set(field(MapVersion::thumbnailUrlSmall), null).create(),
         PreviewSize.SMALL);
 
-    verify(assetService).loadAndCacheImage(any(), any(), any());
+    verify(assetService).loadAndCacheImage(any(), any(), any(), anyInt(), anyInt());
   }
 
   @Test
   public void testFindByMapFolderName() throws Exception {
     MapVersion mapVersion = Instancio.create(MapVersion.class);
-    Flux<ElideEntity> resultFlux = Flux.just(mapMapper.map(mapVersion));
-    when(fafApiAccessor.getMany(any())).thenReturn(resultFlux);
+    when(fafApiAccessor.getManyByKey(eq(com.faforever.commons.api.dto.MapVersion.class), eq("folderName"), eq("test"),
+                                     any())).thenReturn(Flux.just(mapMapper.map(mapVersion)));
 
     StepVerifier.create(instance.findByMapFolderName("test")).expectNextCount(1).verifyComplete();
-
-    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasFilter(qBuilder().string("folderName").eq("test"))));
   }
 
   @Test
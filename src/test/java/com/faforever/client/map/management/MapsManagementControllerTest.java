@@ -6,6 +6,7 @@ import com.faforever.client.map.MapService;
 import com.faforever.client.test.PlatformTest;
 import com.faforever.client.theme.UiService;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,8 +14,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +37,8 @@ public class MapsManagementControllerTest extends PlatformTest {
   @InjectMocks
   private MapsManagementController instance;
 
+  private ObservableList<MapVersion> installedMaps;
+
   @BeforeEach
   public void setUp() throws Exception {
     when(mapService.isOfficialMap(officialMap)).thenReturn(true);
@@ -42,7 +47,8 @@ public class MapsManagementControllerTest extends PlatformTest {
     when(mapService.isCustomMap(customMap2)).thenReturn(true);
     when(mapService.isOfficialMap(customMap1)).thenReturn(false);
     when(mapService.isOfficialMap(customMap2)).thenReturn(false);
-    when(mapService.getInstalledMaps()).thenReturn(FXCollections.observableArrayList(officialMap, customMap1, customMap2));
+    installedMaps = FXCollections.observableArrayList(officialMap, customMap1, customMap2);
+    when(mapService.getInstalledMaps()).thenReturn(installedMaps);
 
     loadFxml("theme/vault/map/maps_management.fxml", param -> instance);
   }
@@ -62,6 +68,18 @@ public class MapsManagementControllerTest extends PlatformTest {
     verifyItemsInList(customMap1, customMap2, officialMap);
   }
 
+  @Test
+  public void testMapsStaySortedByNameWhenOneIsRemoved() {
+    Comparator<MapVersion> byName = Comparator.comparing(mapVersion -> mapVersion.map().displayName(),
+                                                         String.CASE_INSENSITIVE_ORDER);
+    switchFilterTo(MapFilter.ALL_MAPS);
+    assertThat(instance.listView.getItems(), contains(installedMaps.sorted(byName).toArray()));
+
+    runOnFxThreadAndWait(() -> installedMaps.remove(officialMap));
+
+    assertThat(instance.listView.getItems(), contains(installedMaps.sorted(byName).toArray()));
+  }
+
   private void verifyItemsInList(MapVersion... items) {
     Arrays.stream(items).forEach(item -> assertThat(instance.listView.getItems().contains(item), is(true)));
   }
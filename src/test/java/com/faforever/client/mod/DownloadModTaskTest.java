@@ -1,8 +1,10 @@
 package com.faforever.client.mod;
 
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.test.PlatformTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,7 +37,8 @@ public class DownloadModTaskTest extends PlatformTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    instance = new DownloadModTask(i18n, dataPrefs, forgedAlliancePrefs);
+    instance = new DownloadModTask(i18n, dataPrefs, forgedAlliancePrefs,
+                                   new ResourceLocks(new ClientProperties()));
     dataPrefs.setBaseDataDirectory(tempDirectory);
     forgedAlliancePrefs.setVaultBaseDirectory(tempDirectory);
 
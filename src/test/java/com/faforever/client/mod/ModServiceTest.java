@@ -108,6 +108,8 @@ public class ModServiceTest extends PlatformTest {
   @Mock
   private FileSizeReader fileSizeReader;
   @Mock
+  private InstalledModCache installedModCache;
+  @Mock
   private ObjectFactory<ModUploadTask> modUploadTaskFactory;
   @Mock
   private ObjectFactory<DownloadModTask> downloadModTaskFactory;
@@ -132,7 +134,7 @@ public class ModServiceTest extends PlatformTest {
                               assetService,
                               themeService, fileSizeReader, modMapper, forgedAlliancePrefs, preferences,
                               modUploadTaskFactory, downloadModTaskFactory, uninstallModTaskFactory,
-                              fxApplicationThreadExecutor);
+                              fxApplicationThreadExecutor, installedModCache);
     MapperSetup.injectMappers(modMapper);
     modsDirectory = tempDirectory.resolve("mods");
     Files.createDirectories(modsDirectory);
@@ -226,6 +228,13 @@ public class ModServiceTest extends PlatformTest {
     assertThat(modVersion.modType(), equalTo(ModType.SIM));
   }
 
+  @Test
+  public void testInstalledModsAreCached() {
+    Path modFolder = modsDirectory.resolve(BLACK_OPS_UNLEASHED_DIRECTORY_NAME);
+    verify(installedModCache).put(eq(modFolder), eq(modFolder.resolve("mod_info.lua")), any(ModVersion.class));
+    verify(installedModCache).save();
+  }
+
   @Test
   public void testLoadInstalledModWithoutModInfo() throws Exception {
     Files.createDirectories(modsDirectory.resolve("foobar"));
@@ -284,7 +293,7 @@ public class ModServiceTest extends PlatformTest {
   public void testLoadThumbnail() throws MalformedURLException {
     ModVersion modVersion = Instancio.create(ModVersion.class);
     instance.loadThumbnail(modVersion);
-    verify(assetService).loadAndCacheImage(eq(modVersion.thumbnailUrl()), eq(Path.of("mods")), any());
+    verify(assetService).loadAndCacheImage(eq(modVersion.thumbnailUrl()), eq(Path.of("mods")), any(), eq(128), eq(128));
   }
 
   @Test
@@ -334,7 +343,7 @@ public class ModServiceTest extends PlatformTest {
   }
 
   private DownloadModTask stubDownloadModTask() {
-    return new DownloadModTask(i18n, dataPrefs, forgedAlliancePrefs) {
+    return new DownloadModTask(i18n, dataPrefs, forgedAlliancePrefs, null) {
       @Override
       protected Void call() {
         return null;
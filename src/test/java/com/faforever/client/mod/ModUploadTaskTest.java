@@ -1,8 +1,10 @@
 package com.faforever.client.mod;
 
 import com.faforever.client.api.FafApiAccessor;
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.test.PlatformTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,7 +39,7 @@ public class ModUploadTaskTest extends PlatformTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    instance = new ModUploadTask(fafApiAccessor, i18n, dataPrefs);
+    instance = new ModUploadTask(fafApiAccessor, i18n, dataPrefs, new ResourceLocks(new ClientProperties()));
     dataPrefs.setBaseDataDirectory(tempDirectory);
 
     Files.createDirectories(dataPrefs.getCacheDirectory());
@@ -5,6 +5,7 @@ import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.test.ServiceTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,7 +48,8 @@ public class GameBinariesUpdateTaskTest extends ServiceTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    instance = new GameBinariesUpdateTaskImpl(null, i18n, platformService, null, dataPrefs, forgedAlliancePrefs, clientProperties);
+    instance = new GameBinariesUpdateTaskImpl(null, i18n, platformService, null, dataPrefs, forgedAlliancePrefs,
+                                              clientProperties, new ResourceLocks(clientProperties));
 
     Path faPath = tempDirectory.resolve("fa");
 
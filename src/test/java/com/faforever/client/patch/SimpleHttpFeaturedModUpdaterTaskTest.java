@@ -0,0 +1,153 @@
+package com.faforever.client.patch;
+
+import com.faforever.client.domain.api.FeaturedMod;
+import com.faforever.client.featuredmod.FeaturedModService;
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadService;
+import com.faforever.client.io.FeaturedModFileCacheService;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.PlatformTest;
+import com.faforever.commons.api.dto.FeaturedModFile;
+import com.faforever.commons.io.ByteCountListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.testfx.util.WaitForAsyncUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SimpleHttpFeaturedModUpdaterTaskTest extends PlatformTest {
+
+  private static final FeaturedMod FEATURED_MOD = new FeaturedMod(1, "faf", "FAF", null, null, null, true);
+
+  @TempDir
+  public Path tempDirectory;
+  private Path cacheDirectory;
+
+  @Mock
+  private FeaturedModService featuredModService;
+  @Mock
+  private DownloadService downloadService;
+  @Mock
+  private I18n i18n;
+  @Mock
+  private FeaturedModFileCacheService featuredModFileCacheService;
+  @Spy
+  private DataPrefs dataPrefs;
+
+  private SimpleHttpFeaturedModUpdaterTask instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    cacheDirectory = Files.createDirectories(tempDirectory.resolve("cache"));
+
+    when(featuredModService.getFeaturedMod("faf")).thenReturn(Mono.just(FEATURED_MOD));
+    lenient().when(featuredModFileCacheService.getCachedFilePath(any()))
+        .thenAnswer(invocation -> cachedFile(invocation.getArgument(0)));
+    lenient().when(featuredModFileCacheService.isCached(any()))
+        .thenAnswer(invocation -> Files.exists(cachedFile(invocation.getArgument(0))));
+    lenient().doAnswer(invocation -> {
+      Path targetPath = invocation.getArgument(1);
+      Files.copy(cachedFile(invocation.getArgument(0)), targetPath);
+      return null;
+    }).when(featuredModFileCacheService).copyFeaturedModFileFromCache(any(), any());
+
+    instance = new SimpleHttpFeaturedModUpdaterTask(featuredModService, downloadService, i18n,
+                                                    featuredModFileCacheService, dataPrefs);
+    instance.setFeaturedModName("faf");
+  }
+
+  @Test
+  public void testFilesWithTheSameContentAreDownloadedOnce() throws Exception {
+    List<FeaturedModFile> featuredModFiles = List.of(
+        featuredModFile("bin", "init_faf.lua", "init"),
+        featuredModFile("gamedata", "units.nx2", "shared"),
+        featuredModFile("gamedata", "units_copy.nx2", "shared"));
+    when(featuredModService.getFeaturedModFiles(FEATURED_MOD, null)).thenReturn(Flux.fromIterable(featuredModFiles));
+    doAnswer(invocation -> {
+      Path targetFile = invocation.getArgument(2);
+      ByteCountListener progressListener = invocation.getArgument(3);
+      Files.writeString(targetFile, invocation.getArgument(4));
+      progressListener.updateBytesProcessed(10, invocation.<String>getArgument(4).equals("shared") ? 30 : 10);
+      return null;
+    }).when(downloadService).downloadFile(any(), anyMap(), any(), any(), anyString());
+
+    PatchResult result = instance.call();
+
+    assertThat(result.initFile(), is(tempDirectory.resolve("bin").resolve("init_faf.lua")));
+    verify(downloadService).downloadFile(any(), anyMap(), eq(cacheDirectory.resolve("shared")), any(), eq("shared"));
+    verify(downloadService).downloadFile(any(), anyMap(), eq(cacheDirectory.resolve("init")), any(), eq("init"));
+    verify(featuredModFileCacheService, times(3)).copyFeaturedModFileFromCache(any(), any());
+    assertThat(Files.readString(tempDirectory.resolve("gamedata").resolve("units_copy.nx2")), is("shared"));
+
+    // The progress is the sum of both downloads rather than the progress of the last one
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getProgress(), is(0.5));
+  }
+
+  @Test
+  @Timeout(10)
+  public void testFailingFileStopsTheOtherFiles() throws Exception {
+    List<FeaturedModFile> featuredModFiles = new ArrayList<>();
+    featuredModFiles.add(featuredModFile("gamedata", "broken.nx2", "broken"));
+    for (int i = 0; i < SimpleHttpFeaturedModUpdaterTask.MAX_PARALLEL_FILES * 3; i++) {
+      featuredModFiles.add(featuredModFile("gamedata", "file" + i + ".nx2", "md5" + i));
+    }
+    when(featuredModService.getFeaturedModFiles(FEATURED_MOD, null)).thenReturn(Flux.fromIterable(featuredModFiles));
+    doAnswer(invocation -> {
+      if (invocation.<String>getArgument(4).equals("broken")) {
+        throw new IOException("Download failed");
+      }
+      // Only returns when interrupted
+      new CountDownLatch(1).await();
+      return null;
+    }).when(downloadService).downloadFile(any(), anyMap(), any(), any(), anyString());
+
+    IOException exception = assertThrows(IOException.class, () -> instance.call());
+
+    assertThat(exception.getMessage(), is("Download failed"));
+    verify(downloadService, atMost(SimpleHttpFeaturedModUpdaterTask.MAX_PARALLEL_FILES))
+        .downloadFile(any(), anyMap(), any(), any(), anyString());
+  }
+
+  private Path cachedFile(FeaturedModFile featuredModFile) {
+    return cacheDirectory.resolve(featuredModFile.getMd5());
+  }
+
+  private static FeaturedModFile featuredModFile(String group, String name, String md5) {
+    FeaturedModFile featuredModFile = new FeaturedModFile();
+    featuredModFile.setGroup(group);
+    featuredModFile.setName(name);
+    featuredModFile.setMd5(md5);
+    featuredModFile.setVersion("3");
+    featuredModFile.setCacheableUrl("https://content.example.com/" + group + "/" + name);
+    featuredModFile.setHmacParameter("verify");
+    featuredModFile.setHmacToken("token");
+    return featuredModFile;
+  }
+}
@@ -2,10 +2,13 @@ package com.faforever.client.player;
 
 import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.builders.GameInfoBuilder;
+import com.faforever.client.builders.GameInfoMessageBuilder;
 import com.faforever.client.builders.PlayerInfoBuilder;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.game.GameService;
+import com.faforever.client.mapstruct.GameMapper;
 import com.faforever.client.mapstruct.MapperSetup;
 import com.faforever.client.mapstruct.PlayerMapper;
 import com.faforever.client.preferences.UserPrefs;
@@ -16,6 +19,7 @@ import com.faforever.client.user.LoginService;
 import com.faforever.commons.api.elide.ElideEntity;
 import com.faforever.commons.lobby.Player;
 import com.faforever.commons.lobby.Player.Avatar;
+import com.faforever.commons.lobby.GameInfo.TeamIds;
 import com.faforever.commons.lobby.Player.LeaderboardStats;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleObjectProperty;
@@ -26,14 +30,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.TestPublisher;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -46,6 +52,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -78,7 +86,10 @@ public class PlayerServiceTest extends ServiceTest {
   @BeforeEach
   public void setUp() throws Exception {
     MapperSetup.injectMappers(playerMapper);
-    lenient().when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.immediate());
+    lenient().doAnswer(invocation -> {
+      invocation.getArgument(0, Runnable.class).run();
+      return null;
+    }).when(fxApplicationThreadExecutor).execute(any());
     lenient().when(fafServerAccessor.getEvents(com.faforever.commons.lobby.PlayerInfo.class))
              .thenReturn(playerInfoTestPublisher.flux());
     currentPlayer = new Player(1, "junit", null, null, "", new HashMap<>(), new HashMap<>(), null);
@@ -110,6 +121,41 @@ public class PlayerServiceTest extends ServiceTest {
     assertTrue(instance.getPlayerByIdIfOnline(4).isPresent());
   }
 
+  @Test
+  public void testGameFindsPlayerWhoseUpdateIsStillQueued() {
+    // Runs the FX application thread tasks in pulses, in the order in which they have been scheduled
+    Queue<Runnable> fxTasks = new ArrayDeque<>();
+    doAnswer(invocation -> fxTasks.add(invocation.getArgument(0, Runnable.class))).when(fxApplicationThreadExecutor)
+                                                                                  .execute(any());
+    doAnswer(invocation -> fxTasks.add(invocation.getArgument(0, Runnable.class))).when(fxApplicationThreadExecutor)
+                                                                                  .runLater(any());
+    TestPublisher<com.faforever.commons.lobby.GameInfo> gameInfoTestPublisher = TestPublisher.create();
+    when(fafServerAccessor.getEvents(com.faforever.commons.lobby.GameInfo.class)).thenReturn(
+        gameInfoTestPublisher.flux());
+    when(fafServerAccessor.connectionStateProperty()).thenReturn(new SimpleObjectProperty<>());
+    GameMapper gameMapper = Mappers.getMapper(GameMapper.class);
+    MapperSetup.injectMappers(gameMapper);
+    GameService gameService = new GameService(fafServerAccessor, instance, gameMapper, fxApplicationThreadExecutor);
+    gameService.afterPropertiesSet();
+
+    List<Player> players = new ArrayList<>();
+    for (int id = 100; id <= 100 + PlayerService.MAX_PLAYER_UPDATES_PER_PULSE; id++) {
+      players.add(new Player(id, "player" + id, null, null, "", new HashMap<>(), new HashMap<>(), null));
+    }
+    int lastPlayerId = players.getLast().getId();
+    playerInfoTestPublisher.next(new com.faforever.commons.lobby.PlayerInfo(players));
+    gameInfoTestPublisher.next(GameInfoMessageBuilder.create(1)
+                                                     .defaultValues()
+                                                     .teamIds(List.of(new TeamIds(1, List.of(lastPlayerId))))
+                                                     .get());
+    while (!fxTasks.isEmpty()) {
+      fxTasks.poll().run();
+    }
+
+    GameInfo game = gameService.getByUid(1).orElseThrow();
+    assertThat(instance.getPlayerByIdIfOnline(lastPlayerId).orElseThrow().getGame(), is(game));
+  }
+
   @Test
   public void testGetPlayerForUsernameUsernameDoesNotExist() {
     Optional<PlayerInfo> player = instance.getPlayerByNameIfOnline("test");
@@ -182,18 +228,18 @@ public class PlayerServiceTest extends ServiceTest {
   @Test
   public void testGetPlayersByIds() {
     PlayerInfo playerInfo = PlayerInfoBuilder.create().defaultValues().username("junit4").id(4).get();
-    Flux<ElideEntity> resultFlux = Flux.just(playerMapper.map(playerInfo));
-    when(fafApiAccessor.getMany(any())).thenReturn(resultFlux);
-    instance.getPlayersByIds(List.of(1, 2, 3, 4)).blockLast();
+    when(fafApiAccessor.getManyByKey(eq(com.faforever.commons.api.dto.Player.class), eq("id"), eq(4), any()))
+        .thenReturn(Flux.just(playerMapper.map(playerInfo)));
 
-    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasFilter(qBuilder().intNum("id").in(List.of(4)))));
+    StepVerifier.create(instance.getPlayersByIds(List.of(1, 2, 3, 4))).expectNextCount(4).verifyComplete();
+    verify(fafApiAccessor).getManyByKey(eq(com.faforever.commons.api.dto.Player.class), eq("id"), eq(4), any());
   }
 
   @Test
   public void testGetPlayersByIdsAllPlayersOnline() {
     StepVerifier.create(instance.getPlayersByIds(List.of(2, 3))).expectNextCount(2).verifyComplete();
 
-    verify(fafApiAccessor, never()).getMany(any());
+    verify(fafApiAccessor, never()).getManyByKey(any(), any(), any(), any());
   }
 
   @Test
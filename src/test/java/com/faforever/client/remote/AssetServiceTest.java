@@ -0,0 +1,141 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.PlatformTest;
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.util.WaitForAsyncUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class AssetServiceTest extends PlatformTest {
+
+  private static final Path CACHE_SUB_FOLDER = Path.of("maps");
+
+  @TempDir
+  public Path tempDirectory;
+
+  private Path imageCacheDirectory;
+  private DataPrefs dataPrefs;
+  private ClientProperties clientProperties;
+  private AssetService instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    imageCacheDirectory = Files.createDirectories(dataPrefs.getCacheDirectory().resolve(CACHE_SUB_FOLDER));
+
+    clientProperties = new ClientProperties();
+    instance = new AssetService(dataPrefs, clientProperties);
+  }
+
+  private URL cacheImage(String filename) throws Exception {
+    ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB), "png",
+                  imageCacheDirectory.resolve(filename).toFile());
+    return new URL("https://content.example.com/maps/" + filename);
+  }
+
+  private void waitUntilLoaded(Image image) throws Exception {
+    WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> image.getProgress() >= 1);
+    WaitForAsyncUtils.waitForFxEvents();
+  }
+
+  @Test
+  public void testConcurrentRequestsShareImage() throws Exception {
+    URL url = cacheImage("preview.png");
+
+    Image first = instance.loadAndCacheImage(url, CACHE_SUB_FOLDER);
+    Image second = instance.loadAndCacheImage(url, CACHE_SUB_FOLDER);
+
+    assertThat(second, sameInstance(first));
+  }
+
+  @Test
+  public void testLoadedImageIsKeptInMemory() throws Exception {
+    URL url = cacheImage("preview.png");
+    Image image = instance.loadAndCacheImage(url, CACHE_SUB_FOLDER);
+    waitUntilLoaded(image);
+
+    Files.delete(imageCacheDirectory.resolve("preview.png"));
+
+    assertThat(instance.loadAndCacheImage(url, CACHE_SUB_FOLDER), sameInstance(image));
+  }
+
+  @Test
+  public void testImageIsDecodedAtRequestedSize() throws Exception {
+    URL url = cacheImage("preview.png");
+
+    Image fullSize = instance.loadAndCacheImage(url, CACHE_SUB_FOLDER);
+    Image small = instance.loadAndCacheImage(url, CACHE_SUB_FOLDER, null, 8, 8);
+    waitUntilLoaded(fullSize);
+    waitUntilLoaded(small);
+
+    assertThat(small, not(sameInstance(fullSize)));
+    assertThat(fullSize.getWidth(), is(16.0));
+    assertThat(small.getWidth(), is(8.0));
+  }
+
+  @Test
+  public void testTrimDiskCacheDeletesLeastRecentlyUsedFiles() throws Exception {
+    URL oldUrl = cacheImage("old.png");
+    URL recentUrl = cacheImage("recent.png");
+    long imageSize = Files.size(imageCacheDirectory.resolve("recent.png"));
+    clientProperties.getIo().setImageDiskCacheMaxBytes(imageSize);
+    instance = new AssetService(dataPrefs, clientProperties);
+
+    waitUntilLoaded(instance.loadAndCacheImage(oldUrl, CACHE_SUB_FOLDER));
+    waitUntilLoaded(instance.loadAndCacheImage(recentUrl, CACHE_SUB_FOLDER));
+    Files.setLastModifiedTime(imageCacheDirectory.resolve("old.png"), FileTime.from(Instant.EPOCH));
+
+    instance.trimDiskCache();
+
+    assertThat(Files.exists(imageCacheDirectory.resolve("old.png")), is(false));
+    assertThat(Files.exists(imageCacheDirectory.resolve("recent.png")), is(true));
+  }
+
+  @Test
+  public void testDownloadedImageIsCachedAsOriginalFile() throws Exception {
+    Path sourceFile = Files.createDirectories(tempDirectory.resolve("source")).resolve("download.png");
+    ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB), "png", sourceFile.toFile());
+    Path cachedFile = imageCacheDirectory.resolve("download.png");
+
+    Image image = instance.loadAndCacheImage(sourceFile.toUri().toURL(), CACHE_SUB_FOLDER, null, 8, 8);
+    waitUntilLoaded(image);
+    WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> Files.exists(cachedFile));
+
+    assertThat(image.getWidth(), is(8.0));
+    assertThat(Files.mismatch(sourceFile, cachedFile), is(-1L));
+  }
+
+  @Test
+  public void testTrimDiskCacheIncludesImagesCachedInEarlierSessions() throws Exception {
+    Path oldFile = Files.createDirectories(imageCacheDirectory.resolve("small")).resolve("old.png");
+    Path recentFile = Files.createDirectories(dataPrefs.getCacheDirectory().resolve("avatars")).resolve("recent.png");
+    ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB), "png", oldFile.toFile());
+    ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB), "png", recentFile.toFile());
+    Files.setLastModifiedTime(oldFile, FileTime.from(Instant.EPOCH));
+    clientProperties.getIo().setImageDiskCacheMaxBytes(Files.size(recentFile));
+    instance = new AssetService(dataPrefs, clientProperties);
+
+    instance.trimDiskCache();
+
+    assertThat(Files.exists(oldFile), is(false));
+    assertThat(Files.exists(recentFile), is(true));
+  }
+}
@@ -0,0 +1,113 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class LocalReplayIndexTest extends ServiceTest {
+
+  private static final LocalReplayMetadata METADATA = new LocalReplayMetadata(123, "title", "faf", "map.v0001", 1, 2,
+                                                                              List.of(new LocalReplayMetadata.Army(
+                                                                                  1, "player", "CH", (byte) 2, 1500,
+                                                                                  100, 1)));
+
+  @TempDir
+  public Path tempDirectory;
+
+  private final ClientProperties clientProperties = new ClientProperties();
+  private final DataPrefs dataPrefs = new DataPrefs();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private Path replayDirectory;
+  private LocalReplayIndex instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    replayDirectory = Files.createDirectories(dataPrefs.getReplaysDirectory());
+
+    instance = new LocalReplayIndex(clientProperties, dataPrefs, objectMapper);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    instance.destroy();
+  }
+
+  private Path createReplayFile(String fileName, Instant lastModified) throws Exception {
+    Path replayFile = Files.writeString(replayDirectory.resolve(fileName), fileName);
+    Files.setLastModifiedTime(replayFile, FileTime.from(lastModified));
+    return replayFile;
+  }
+
+  @Test
+  public void testEntriesAreSortedNewestFirst() throws Exception {
+    createReplayFile("1-old.fafreplay", Instant.parse("2024-01-01T00:00:00Z"));
+    createReplayFile("2-new.fafreplay", Instant.parse("2024-02-01T00:00:00Z"));
+    Files.createFile(replayDirectory.resolve("notAReplay.txt"));
+
+    List<LocalReplayIndexEntry> entries = instance.getEntries();
+
+    assertThat(entries.stream().map(LocalReplayIndexEntry::fileName).toList(),
+               contains("2-new.fafreplay", "1-old.fafreplay"));
+    assertThat(entries.getFirst().metadata(), is(nullValue()));
+  }
+
+  @Test
+  public void testMetadataIsPersisted() throws Exception {
+    createReplayFile("1-replay.fafreplay", Instant.parse("2024-01-01T00:00:00Z"));
+    instance.putMetadata(instance.getEntries().getFirst(), METADATA);
+    instance.save();
+
+    LocalReplayIndex reloadedIndex = new LocalReplayIndex(clientProperties, dataPrefs, objectMapper);
+    try {
+      assertThat(reloadedIndex.getEntries().getFirst().metadata(), is(METADATA));
+    } finally {
+      reloadedIndex.destroy();
+    }
+  }
+
+  @Test
+  public void testMetadataOfModifiedFileIsDiscarded() throws Exception {
+    Path replayFile = createReplayFile("1-replay.fafreplay", Instant.parse("2024-01-01T00:00:00Z"));
+    instance.putMetadata(instance.getEntries().getFirst(), METADATA);
+    instance.save();
+
+    Files.setLastModifiedTime(replayFile, FileTime.from(Instant.parse("2024-03-01T00:00:00Z")));
+
+    LocalReplayIndex reloadedIndex = new LocalReplayIndex(clientProperties, dataPrefs, objectMapper);
+    try {
+      assertThat(reloadedIndex.getEntries().getFirst().metadata(), is(nullValue()));
+    } finally {
+      reloadedIndex.destroy();
+    }
+  }
+
+  @Test
+  public void testRemove() throws Exception {
+    Path replayFile = createReplayFile("1-replay.fafreplay", Instant.parse("2024-01-01T00:00:00Z"));
+    assertThat(instance.getEntries(), hasSize(1));
+
+    Files.delete(replayFile);
+    instance.remove(replayFile);
+
+    assertThat(instance.getEntries(), hasSize(0));
+  }
+}
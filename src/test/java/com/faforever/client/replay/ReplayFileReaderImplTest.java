@@ -13,6 +13,8 @@ import java.nio.file.Path;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
 
 public class ReplayFileReaderImplTest extends ServiceTest {
 
@@ -22,12 +24,36 @@ public class ReplayFileReaderImplTest extends ServiceTest {
   @InjectMocks
   private ReplayFileReaderImpl instance;
 
-  @Test
-  public void readReplayData() throws Exception {
+  private Path copyTestReplay() throws Exception {
     Path tempFile = temporaryFolder.resolve("replay.tmp");
     try (InputStream inputStream = new BufferedInputStream(getClass().getResourceAsStream("/replay/test.fafreplay"))) {
       Files.copy(inputStream, tempFile);
     }
+    return tempFile;
+  }
+
+  @Test
+  public void readReplayData() throws Exception {
+    Path tempFile = copyTestReplay();
     assertThat(instance.parseReplay(tempFile).getData().length, is(197007));
   }
+
+  @Test
+  public void readReplayHeader() throws Exception {
+    Path tempFile = copyTestReplay();
+
+    ReplayHeader replayHeader = instance.readReplayHeader(tempFile);
+
+    assertThat(replayHeader.metadata().getUid(), is(5670811));
+    assertThat(replayHeader.replayPatchFieldId(), is("Supreme Commander v1.50.3675"));
+    assertThat(replayHeader.map(), is("/maps/SCMP_009/SCMP_009.scmap"));
+    assertThat(replayHeader.armies(), hasSize(10));
+    assertThat(replayHeader.armies()
+                           .stream()
+                           .filter(army -> Boolean.TRUE.equals(army.get("Human")))
+                           .map(army -> army.get("PlayerName"))
+                           .toList(),
+               containsInAnyOrder("sandwormsurfer", "Tokyto", "hepko", "Geosearchef", "Jitsu", "MazorNoob", "Nojoke",
+                                  "kubkolienka"));
+  }
 }
@@ -4,6 +4,7 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.replay.QtCompress;
 import com.faforever.commons.replay.ReplayMetadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +13,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -42,8 +48,6 @@ public class ReplayFileWriterImplTest extends ServiceTest {
   @Spy
   private ClientProperties clientProperties;
   @Mock
-  private ByteArrayOutputStream replayData;
-  @Mock
   private ClientProperties.Replay replay;
   @Spy
   private DataPrefs dataPrefs;
@@ -51,6 +55,7 @@ public class ReplayFileWriterImplTest extends ServiceTest {
   @InjectMocks
   private ReplayFileWriterImpl instance;
   private Path replaysDirectory;
+  private Path replayData;
 
   @BeforeEach
   public void setUp() throws Exception {
@@ -61,11 +66,12 @@ public class ReplayFileWriterImplTest extends ServiceTest {
 
     when(clientProperties.getReplay()).thenReturn(replay);
     when(replay.getReplayFileFormat()).thenReturn(replayFileFormat);
+
+    replayData = Files.write(tempDirectory.resolve("replay.tmp"), replayBytes);
   }
 
   @Test
   public void writeReplayData() throws Exception {
-    when(replayData.toByteArray()).thenReturn(replayBytes);
     ReplayMetadata replayInfo = new ReplayMetadata();
     replayInfo.setUid(UID);
     replayInfo.setRecorder(RECORDER);
@@ -73,5 +79,17 @@ public class ReplayFileWriterImplTest extends ServiceTest {
     assertTrue(Files.exists(replaysDirectory.resolve(REPLAY_FILE_NAME)));
     Files.deleteIfExists(replaysDirectory.resolve(REPLAY_FILE_NAME));
   }
-}
 
+  @Test
+  public void writeReplayDataIsQtCompressed() throws Exception {
+    ReplayMetadata replayInfo = new ReplayMetadata();
+    replayInfo.setUid(UID);
+    replayInfo.setRecorder(RECORDER);
+    instance.writeReplayDataToFile(replayData, replayInfo);
+
+    List<String> lines = Files.readAllLines(replaysDirectory.resolve(REPLAY_FILE_NAME));
+    assertThat(lines, hasSize(2));
+    assertThat(lines.getFirst(), containsString("\"recorder\":\"" + RECORDER + "\""));
+    assertThat(QtCompress.qUncompress(Base64.getDecoder().decode(lines.get(1))), is(replayBytes));
+  }
+}
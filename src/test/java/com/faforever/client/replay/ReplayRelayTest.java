@@ -0,0 +1,200 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.Pipe;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplayRelayTest extends ServiceTest {
+
+  private final List<ByteBuffer> recycledBuffers = new CopyOnWriteArrayList<>();
+
+  private Pipe pipe;
+  private ReplayRelay instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    pipe = Pipe.open();
+    instance = new ReplayRelay(pipe.sink(), recycledBuffers::add);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    pipe.source().close();
+    pipe.sink().close();
+  }
+
+  private String readAll() throws IOException {
+    pipe.sink().close();
+    ByteArrayOutputStream received = new ByteArrayOutputStream();
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    while (pipe.source().read(buffer) != -1) {
+      received.write(buffer.array(), 0, buffer.position());
+      buffer.clear();
+    }
+    return received.toString(US_ASCII);
+  }
+
+  @Test
+  public void relaysChunksInOrder() throws Exception {
+    assertTrue(instance.relay(ByteBuffer.wrap("P/1/test.scfareplay\0".getBytes(US_ASCII))));
+    assertTrue(instance.relay(ByteBuffer.wrap("abc".getBytes(US_ASCII))));
+    assertTrue(instance.relay(ByteBuffer.wrap("def".getBytes(US_ASCII))));
+
+    instance.close();
+
+    assertThat(readAll(), is("P/1/test.scfareplay\0abcdef"));
+    assertThat(recycledBuffers, hasSize(3));
+  }
+
+  /**
+   * Replaces the relay with one whose first write waits until {@code firstWriteReleased} is counted down.
+   *
+   * @return a latch that is counted down once the first write has started
+   */
+  private CountDownLatch blockFirstWrite(CountDownLatch firstWriteReleased) throws Exception {
+    instance.close();
+    CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    instance = new ReplayRelay(new BlockingFirstWriteChannel(pipe.sink(), firstWriteStarted, firstWriteReleased),
+                               recycledBuffers::add);
+    return firstWriteStarted;
+  }
+
+  @Test
+  public void coalescesChunksIntoFewWrites() throws Exception {
+    CountDownLatch firstWriteReleased = new CountDownLatch(1);
+    CountDownLatch firstWriteStarted = blockFirstWrite(firstWriteReleased);
+
+    instance.relay(ByteBuffer.wrap(new byte[]{0}));
+    assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+    // These are all queued while the first write blocks, so the writer takes them at once
+    for (int i = 1; i < 100; i++) {
+      instance.relay(ByteBuffer.wrap(new byte[]{(byte) i}));
+    }
+    firstWriteReleased.countDown();
+    instance.close();
+
+    ReplayRelayStatistics statistics = instance.getStatistics();
+    assertThat(statistics.bytesRelayed(), is(100L));
+    assertThat(statistics.flushCount(), is(2L));
+  }
+
+  @Test
+  public void limitsPendingBytesByTheirRemainingBytes() throws Exception {
+    CountDownLatch firstWriteReleased = new CountDownLatch(1);
+    CountDownLatch firstWriteStarted = blockFirstWrite(firstWriteReleased);
+
+    instance.relay(ByteBuffer.wrap(new byte[]{0}));
+    assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+    // More capacity than the relay may hold, but only a single byte each
+    for (int i = 0; i < 16; i++) {
+      assertTrue(instance.relay(ByteBuffer.allocate(1024 * 1024).limit(1)));
+    }
+    firstWriteReleased.countDown();
+    instance.close();
+
+    assertThat(instance.getStatistics().bytesRelayed(), is(17L));
+    assertThat(recycledBuffers, hasSize(17));
+  }
+
+  @Test
+  public void stopsRelayingWhenConnectionIsLost() throws Exception {
+    pipe.source().close();
+
+    instance.relay(ByteBuffer.wrap("abc".getBytes(US_ASCII)));
+    instance.close();
+
+    assertFalse(instance.relay(ByteBuffer.wrap("def".getBytes(US_ASCII))));
+    assertThat(recycledBuffers, hasSize(1));
+  }
+
+  @Test
+  public void recyclesEveryAcceptedChunkWhenConnectionIsLostWhileRelaying() throws Exception {
+    int accepted = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (i == 100) {
+        pipe.source().close();
+      }
+      if (instance.relay(ByteBuffer.wrap(new byte[]{(byte) i}))) {
+        accepted++;
+      }
+    }
+
+    instance.close();
+
+    assertThat(recycledBuffers, hasSize(accepted));
+  }
+
+  private static class BlockingFirstWriteChannel implements GatheringByteChannel {
+
+    private final GatheringByteChannel delegate;
+    private final CountDownLatch firstWriteStarted;
+    private final CountDownLatch firstWriteReleased;
+
+    BlockingFirstWriteChannel(GatheringByteChannel delegate, CountDownLatch firstWriteStarted,
+                              CountDownLatch firstWriteReleased) {
+      this.delegate = delegate;
+      this.firstWriteStarted = firstWriteStarted;
+      this.firstWriteReleased = firstWriteReleased;
+    }
+
+    private void awaitFirstWrite() throws IOException {
+      if (firstWriteStarted.getCount() == 0) {
+        return;
+      }
+      firstWriteStarted.countDown();
+      try {
+        firstWriteReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+    }
+
+    @Override
+    public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+      awaitFirstWrite();
+      return delegate.write(sources, offset, length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] sources) throws IOException {
+      awaitFirstWrite();
+      return delegate.write(sources);
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+      awaitFirstWrite();
+      return delegate.write(source);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+  }
+}
@@ -152,6 +152,8 @@ public class ReplayServiceTest extends ServiceTest {
   private FileSizeReader fileSizeReader;
   @Mock
   private ObjectFactory<ReplayDownloadTask> replayDownloadTaskFactory;
+  @Mock
+  private LocalReplayIndex localReplayIndex;
   @Spy
   private ReplayMapper replayMapper = Mappers.getMapper(ReplayMapper.class);
   @Spy
@@ -189,6 +191,9 @@ public class ReplayServiceTest extends ServiceTest {
     lenient().when(replayDataParser.getMap()).thenReturn(TEST_MAP_PATH);
     lenient().when(replayDataParser.getReplayPatchFieldId()).thenReturn(TEST_VERSION_STRING);
     lenient().doAnswer(invocation -> invocation.getArgument(0)).when(taskService).submitTask(any());
+    lenient().when(localReplayIndex.getReplayFile(any()))
+             .thenAnswer(invocation -> replayDirectory.resolve(
+                 invocation.<LocalReplayIndexEntry>getArgument(0).fileName()));
   }
 
   @Test
@@ -240,12 +245,17 @@ public class ReplayServiceTest extends ServiceTest {
     Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
     Path file2 = Files.createFile(replayDirectory.resolve("replay2.fafreplay"));
 
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file1);
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file2);
+    when(localReplayIndex.getEntries()).thenReturn(List.of(new LocalReplayIndexEntry("replay.fafreplay", 2, 0, null),
+                                                           new LocalReplayIndexEntry("replay2.fafreplay", 1, 0,
+                                                                                     null)));
+    doThrow(new FakeTestException()).when(replayFileReader).readReplayHeader(file1);
+    doThrow(new FakeTestException()).when(replayFileReader).readReplayHeader(file2);
 
     StepVerifier.create(instance.loadLocalReplayPage(2, 1)).expectNext(Tuples.of(List.of(), 0));
 
     verify(notificationService, times(2)).addNotification(any(PersistentNotification.class));
+    verify(localReplayIndex).remove(file1);
+    verify(localReplayIndex).remove(file2);
 
     assertThat(Files.exists(file1), is(false));
     assertThat(Files.exists(file2), is(false));
@@ -254,13 +264,15 @@ public class ReplayServiceTest extends ServiceTest {
   @Test
   public void testLoadLocalReplays() throws Exception {
     Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+    LocalReplayIndexEntry entry = new LocalReplayIndexEntry("replay.fafreplay", 1, 0, null);
 
     ReplayMetadata replayMetadata = new ReplayMetadata();
     replayMetadata.setUid(123);
     replayMetadata.setTitle("title");
 
-    when(replayDataParser.getMetadata()).thenReturn(replayMetadata);
-    when(replayFileReader.parseReplay(file1)).thenReturn(replayDataParser);
+    when(localReplayIndex.getEntries()).thenReturn(List.of(entry));
+    when(replayFileReader.readReplayHeader(file1)).thenReturn(
+        new ReplayHeader(replayMetadata, TEST_VERSION_STRING, TEST_MAP_PATH, List.of()));
     when(featuredModService.getFeaturedMod(any())).thenReturn(Mono.empty());
     when(mapService.findByMapFolderName(any())).thenReturn(Mono.just(Instancio.create(MapVersion.class)));
 
@@ -270,6 +282,29 @@ public class ReplayServiceTest extends ServiceTest {
       assertThat(localReplays.getFirst().id(), is(123));
       assertThat(localReplays.getFirst().title(), is("title"));
     }).verifyComplete();
+
+    verify(localReplayIndex).putMetadata(eq(entry), any(LocalReplayMetadata.class));
+    verify(localReplayIndex).save();
+  }
+
+  @Test
+  public void testLoadLocalReplaysUsesIndexedMetadata() throws Exception {
+    LocalReplayMetadata metadata = new LocalReplayMetadata(123, "title", "faf", TEST_MAP_NAME, 0, 0, List.of(
+        new LocalReplayMetadata.Army(1, "player", "CH", (byte) 2, 1500, 100, 1)));
+    when(localReplayIndex.getEntries()).thenReturn(
+        List.of(new LocalReplayIndexEntry("replay.fafreplay", 1, 0, metadata)));
+    when(featuredModService.getFeaturedMod(any())).thenReturn(Mono.empty());
+    when(mapService.findByMapFolderName(TEST_MAP_NAME)).thenReturn(Mono.just(Instancio.create(MapVersion.class)));
+
+    StepVerifier.create(instance.loadLocalReplayPage(1, 1)).assertNext(result -> {
+      Replay replay = result.getT1().getFirst();
+      assertThat(replay.id(), is(123));
+      assertThat(replay.replayFile(), is(replayDirectory.resolve("replay.fafreplay")));
+      assertThat(replay.teams(), is(Map.of("2", List.of("player"))));
+      assertThat(replay.teamPlayerStats().get("2").getFirst().player().getId(), is(1));
+    }).verifyComplete();
+
+    verifyNoInteractions(replayFileReader);
   }
 
   @Test
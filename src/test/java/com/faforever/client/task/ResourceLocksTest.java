@@ -0,0 +1,123 @@
+package com.faforever.client.task;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ResourceLocksTest extends ServiceTest {
+
+  private static final int MAX_PARALLEL_DISK_OPERATIONS = 4;
+  private static final int OPERATIONS = 64;
+  private static final Duration OPERATION_DURATION = Duration.ofMillis(10);
+
+  private ResourceLocks instance;
+
+  @BeforeEach
+  public void setUp() {
+    ClientProperties clientProperties = new ClientProperties();
+    clientProperties.getIo().setMaxParallelDiskOperations(MAX_PARALLEL_DISK_OPERATIONS);
+    clientProperties.getIo().setMaxConnectionsPerHost(2);
+    instance = new ResourceLocks(clientProperties);
+  }
+
+  @Test
+  public void testDifferentPathsAreLockedConcurrently() throws Exception {
+    CountDownLatch allLocked = new CountDownLatch(MAX_PARALLEL_DISK_OPERATIONS);
+    try (ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_DISK_OPERATIONS)) {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < MAX_PARALLEL_DISK_OPERATIONS; i++) {
+        Path path = Path.of("maps", "map" + i);
+        results.add(executor.submit(() -> {
+          instance.acquireDiskLock(path);
+          try {
+            allLocked.countDown();
+            return allLocked.await(5, TimeUnit.SECONDS);
+          } finally {
+            instance.freeDiskLock(path);
+          }
+        }));
+      }
+
+      for (Future<Boolean> result : results) {
+        assertThat(result.get(), is(true));
+      }
+    }
+  }
+
+  @Test
+  public void testHostPermitsAreLimitedPerHost() throws Exception {
+    URL first = new URL("https://content.example.com/maps/a.zip");
+    URL second = new URL("https://replays.example.com/1.fafreplay");
+
+    instance.acquireHostPermit(first);
+    instance.acquireHostPermit(first);
+    instance.acquireHostPermit(second);
+
+    assertThat(instance.getHostPermits(first.getHost()).availablePermits(), is(0));
+    assertThat(instance.getHostPermits(second.getHost()).availablePermits(), is(1));
+
+    instance.freeHostPermit(first);
+    assertThat(instance.getHostPermits(first.getHost()).availablePermits(), is(1));
+  }
+
+  /**
+   * Runs many short disk operations, half of them on the same file. Operations on the same file must never overlap,
+   * and at most {@link #MAX_PARALLEL_DISK_OPERATIONS} run at a time.
+   */
+  @Test
+  public void testConcurrentDiskOperationsRespectLimits() throws Exception {
+    Path sharedPath = Path.of("cache", "shared");
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger runningOnSharedPath = new AtomicInteger();
+    AtomicInteger maxRunningOnSharedPath = new AtomicInteger();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < OPERATIONS; i++) {
+        boolean onSharedPath = i % 2 == 0;
+        Path path = onSharedPath ? sharedPath : Path.of("cache", "file" + i);
+        futures.add(executor.submit(() -> {
+          instance.acquireDiskLock(path);
+          try {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            if (onSharedPath) {
+              maxRunningOnSharedPath.accumulateAndGet(runningOnSharedPath.incrementAndGet(), Math::max);
+            }
+            Thread.sleep(OPERATION_DURATION);
+            if (onSharedPath) {
+              runningOnSharedPath.decrementAndGet();
+            }
+            running.decrementAndGet();
+            return null;
+          } finally {
+            instance.freeDiskLock(path);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    assertThat(maxRunningOnSharedPath.get(), is(1));
+    assertThat(maxRunning.get(), lessThanOrEqualTo(MAX_PARALLEL_DISK_OPERATIONS));
+  }
+}
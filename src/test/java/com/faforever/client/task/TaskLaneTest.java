@@ -0,0 +1,135 @@
+package com.faforever.client.task;
+
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.CompletableTask.ResourceClass;
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskLaneTest extends ServiceTest {
+
+  private final List<Runnable> pendingRunnables = new ArrayList<>();
+  private final List<PrioritizedCompletableTask<?>> startedTasks = new ArrayList<>();
+  private final List<PrioritizedCompletableTask<?>> ranTasks = new ArrayList<>();
+
+  private TaskLane instance;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new TaskLane(ResourceClass.DISK, 1, pendingRunnables::add, startedTasks::add);
+  }
+
+  private PrioritizedCompletableTask<?> task(Priority priority) {
+    PrioritizedCompletableTask<?> task = mock(PrioritizedCompletableTask.class);
+    lenient().when(task.getPriority()).thenReturn(priority);
+    lenient().doAnswer(invocation -> ranTasks.add(task)).when(task).run();
+    return task;
+  }
+
+  private void runPending() {
+    while (!pendingRunnables.isEmpty()) {
+      pendingRunnables.removeFirst().run();
+    }
+  }
+
+  @Test
+  public void testStartsTasksByPriority() {
+    PrioritizedCompletableTask<?> running = task(Priority.LOW);
+    PrioritizedCompletableTask<?> low = task(Priority.LOW);
+    PrioritizedCompletableTask<?> high = task(Priority.HIGH);
+    PrioritizedCompletableTask<?> medium = task(Priority.MEDIUM);
+    PrioritizedCompletableTask<?> secondHigh = task(Priority.HIGH);
+
+    instance.submit(running);
+    instance.submit(low);
+    instance.submit(high);
+    instance.submit(medium);
+    instance.submit(secondHigh);
+    assertThat(instance.getQueueDepth(), is(4));
+
+    runPending();
+
+    assertThat(ranTasks, contains(running, high, secondHigh, medium, low));
+    assertThat(startedTasks, contains(running, high, secondHigh, medium, low));
+    assertThat(instance.getQueueDepth(), is(0));
+    assertThat(instance.getRunningTasks(), is(0));
+  }
+
+  @Test
+  public void testLimitsConcurrentTasks() {
+    instance = new TaskLane(ResourceClass.NETWORK, 2, pendingRunnables::add, startedTasks::add);
+
+    instance.submit(task(Priority.LOW));
+    instance.submit(task(Priority.LOW));
+    instance.submit(task(Priority.LOW));
+
+    assertThat(pendingRunnables, hasSize(2));
+    assertThat(instance.getRunningTasks(), is(2));
+    assertThat(instance.getQueueDepth(), is(1));
+
+    pendingRunnables.removeFirst().run();
+
+    assertThat(pendingRunnables, hasSize(2));
+    assertThat(instance.getQueueDepth(), is(0));
+  }
+
+  @Test
+  public void testRemoveQueuedTask() {
+    PrioritizedCompletableTask<?> running = task(Priority.LOW);
+    PrioritizedCompletableTask<?> queued = task(Priority.LOW);
+    instance.submit(running);
+    instance.submit(queued);
+
+    assertThat(instance.remove(queued), is(true));
+    assertThat(instance.remove(queued), is(false));
+    runPending();
+
+    assertThat(ranTasks, contains(running));
+  }
+
+  @Test
+  public void testSkipsCancelledTask() {
+    PrioritizedCompletableTask<?> running = task(Priority.LOW);
+    PrioritizedCompletableTask<?> cancelled = task(Priority.LOW);
+    PrioritizedCompletableTask<?> next = task(Priority.LOW);
+    when(cancelled.isCancelled()).thenReturn(true);
+    instance.submit(running);
+    instance.submit(cancelled);
+    instance.submit(next);
+
+    runPending();
+
+    verify(cancelled, never()).run();
+    assertThat(ranTasks, contains(running, next));
+  }
+
+  @Test
+  public void testLongestWait() throws Exception {
+    assertThat(instance.getLongestWait(), is(Duration.ZERO));
+
+    instance.submit(task(Priority.LOW));
+    instance.submit(task(Priority.LOW));
+    Thread.sleep(5);
+
+    assertThat(instance.getLongestWait(), greaterThan(Duration.ZERO));
+    runPending();
+    assertThat(instance.getLongestWait(), is(Duration.ZERO));
+    assertThat(pendingRunnables, empty());
+  }
+}
@@ -0,0 +1,106 @@
+package com.faforever.client.task;
+
+import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.CompletableTask.ResourceClass;
+import com.faforever.client.test.ServiceTest;
+import javafx.concurrent.Worker;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+public class TaskServiceTest extends ServiceTest {
+
+  @Mock
+  private ExecutorService taskExecutor;
+  @Mock
+  private FxApplicationThreadExecutor fxApplicationThreadExecutor;
+
+  private final List<Runnable> pendingRunnables = new ArrayList<>();
+
+  private TaskService instance;
+
+  @BeforeEach
+  public void setUp() {
+    doAnswer(invocation -> pendingRunnables.add(invocation.getArgument(0))).when(taskExecutor).execute(any());
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(fxApplicationThreadExecutor).execute(any());
+
+    instance = new TaskService(taskExecutor, fxApplicationThreadExecutor);
+    instance.afterPropertiesSet();
+  }
+
+  private PrioritizedCompletableTask<?> task(ResourceClass resourceClass) {
+    PrioritizedCompletableTask<?> task = mock(PrioritizedCompletableTask.class);
+    CompletableFuture<?> future = new CompletableFuture<>();
+    lenient().when(task.getResourceClass()).thenReturn(resourceClass);
+    lenient().when(task.getPriority()).thenReturn(Priority.LOW);
+    lenient().doReturn(future).when(task).getFuture();
+    lenient().when(task.isDone()).thenAnswer(invocation -> future.isDone());
+    return task;
+  }
+
+  @Test
+  public void testTasksAreQueuedInTheLaneOfTheirResourceClass() {
+    for (int i = 0; i <= TaskService.MAX_CONCURRENT_DISK_TASKS; i++) {
+      instance.submitTask(task(ResourceClass.DISK));
+    }
+
+    assertThat(pendingRunnables, hasSize(TaskService.MAX_CONCURRENT_DISK_TASKS));
+    assertThat(instance.getQueuedTaskCount(ResourceClass.DISK), is(1));
+
+    instance.submitTask(task(ResourceClass.NETWORK));
+    instance.submitTask(task(ResourceClass.CPU));
+
+    assertThat(pendingRunnables, hasSize(TaskService.MAX_CONCURRENT_DISK_TASKS + 2));
+    assertThat(instance.getQueuedTaskCount(ResourceClass.NETWORK), is(0));
+    assertThat(instance.getQueuedTaskCount(ResourceClass.CPU), is(0));
+    assertThat(instance.getQueuedTaskCount(), is(1));
+    assertThat(instance.getActiveWorkers(), hasSize(TaskService.MAX_CONCURRENT_DISK_TASKS + 3));
+  }
+
+  @Test
+  public void testCancelledQueuedTaskIsRemoved() {
+    for (int i = 0; i < TaskService.MAX_CONCURRENT_DISK_TASKS; i++) {
+      instance.submitTask(task(ResourceClass.DISK));
+    }
+    PrioritizedCompletableTask<?> queued = instance.submitTask(task(ResourceClass.DISK));
+    assertThat(instance.getQueuedTaskCount(ResourceClass.DISK), is(1));
+
+    queued.getFuture().cancel(true);
+
+    assertThat(instance.getQueuedTaskCount(ResourceClass.DISK), is(0));
+    assertThat(instance.getActiveWorkers(), not(Matchers.<Worker<?>>hasItem(queued)));
+    assertThat(instance.getActiveWorkers(), hasSize(TaskService.MAX_CONCURRENT_DISK_TASKS));
+  }
+
+  @Test
+  public void testStartedTasksAreMovedToTheFront() {
+    PrioritizedCompletableTask<?> first = instance.submitTask(task(ResourceClass.DISK));
+    PrioritizedCompletableTask<?> second = instance.submitTask(task(ResourceClass.DISK));
+    PrioritizedCompletableTask<?> queued = instance.submitTask(task(ResourceClass.DISK));
+    assertThat(instance.getQueuedTaskCount(ResourceClass.DISK), is(1));
+    assertThat(instance.getActiveWorkers(), Matchers.<Worker<?>>contains(first, second, queued));
+
+    pendingRunnables.get(1).run();
+
+    assertThat(instance.getActiveWorkers(), Matchers.<Worker<?>>contains(second, first, queued));
+  }
+}
@@ -8,17 +8,24 @@ import com.faforever.client.test.PlatformTest;
 import com.faforever.client.user.LoginService;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.animation.Animation;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +33,7 @@ public class StatusBarControllerTest extends PlatformTest {
   @InjectMocks
   private StatusBarController instance;
   private ObjectProperty<ConnectionState> connectionStateProperty;
+  private ObservableList<Worker<?>> activeWorkers;
 
   @Mock
   private LoginService loginService;
@@ -39,7 +47,8 @@ public class StatusBarControllerTest extends PlatformTest {
   @BeforeEach
   public void setUp() throws Exception {
     connectionStateProperty = new SimpleObjectProperty<>();
-    when(taskService.getActiveWorkers()).thenReturn(FXCollections.emptyObservableList());
+    activeWorkers = FXCollections.observableArrayList();
+    when(taskService.getActiveWorkers()).thenReturn(activeWorkers);
     when(loginService.connectionStateProperty()).thenReturn(connectionStateProperty);
     when(chatService.connectionStateProperty()).thenReturn(new SimpleObjectProperty<>());
 
@@ -96,4 +105,27 @@ public class StatusBarControllerTest extends PlatformTest {
     instance.onChatReconnectClicked();
     verify(chatService).reconnect();
   }
+
+  @Test
+  public void testQueuedTaskWaitTimeKeepsCounting() throws Exception {
+    when(taskService.getQueuedTaskCount()).thenReturn(1);
+    when(taskService.getLongestQueueWait()).thenReturn(Duration.ofSeconds(1), Duration.ofSeconds(2));
+
+    runOnFxThreadAndWait(() -> activeWorkers.add(new Task<Void>() {
+      @Override
+      protected Void call() {
+        return null;
+      }
+    }));
+
+    verify(i18n, timeout(3000)).get("statusBar.queuedTasks.format", 1, 2L);
+    assertThat(instance.getQueuedTasksTimeline().getStatus(), is(Animation.Status.RUNNING));
+
+    when(taskService.getQueuedTaskCount()).thenReturn(0);
+    runOnFxThreadAndWait(() -> activeWorkers.clear());
+    waitFxEvents();
+
+    assertThat(instance.getQueuedTasksTimeline().getStatus(), is(Animation.Status.STOPPED));
+    assertThat(instance.taskQueueLabel.isVisible(), is(false));
+  }
 }